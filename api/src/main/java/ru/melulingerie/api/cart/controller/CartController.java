@@ -2,14 +2,19 @@ package ru.melulingerie.api.cart.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import ru.melulingerie.api.cart.resource.CartResource;
+import ru.melulingerie.api.exception.InvalidHeaderException;
 import ru.melulingerie.facade.cart.dto.request.CartAddFacadeRequestDto;
+import ru.melulingerie.facade.cart.dto.request.CartBatchFacadeRequestDto;
 import ru.melulingerie.facade.cart.dto.response.CartAddFacadeResponseDto;
 import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+import ru.melulingerie.facade.cart.dto.response.CartSummaryFacadeResponseDto;
 import ru.melulingerie.facade.cart.service.CartAddItemFacadeService;
+import ru.melulingerie.facade.cart.service.CartBatchFacadeService;
 import ru.melulingerie.facade.cart.service.CartClearFacadeService;
 import ru.melulingerie.facade.cart.service.CartGetFacadeService;
 import ru.melulingerie.facade.cart.service.CartRemoveItemFacadeService;
@@ -23,6 +28,7 @@ import java.util.List;
 public class CartController implements CartResource {
 
     private final CartGetFacadeService cartGetFacadeService;
+    private final CartBatchFacadeService cartBatchFacadeService;
     private final CartClearFacadeService cartClearFacadeService;
     private final CartAddItemFacadeService cartAddItemFacadeService;
     private final CartRemoveItemFacadeService cartRemoveItemFacadeService;
@@ -35,25 +41,87 @@ public class CartController implements CartResource {
     }
 
     @Override
-    public ResponseEntity<CartAddFacadeResponseDto> addItemToCart(Long cartId, CartAddFacadeRequestDto request) {
-        CartAddFacadeResponseDto response = cartAddItemFacadeService.addItemToCart(cartId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<CartSummaryFacadeResponseDto> getCartSummary(Long cartId, String ifNoneMatch) {
+        CartSummaryFacadeResponseDto response = cartGetFacadeService.getCartSummary(cartId);
+        String eTag = eTag(response.version());
+        if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @Override
-    public ResponseEntity<Void> updateItemQuantity(Long cartId, Long itemId, Integer quantity) {
-        cartUpdateQuantityFacadeService.updateItemQuantity(cartId, itemId, quantity);
+    public ResponseEntity<CartAddFacadeResponseDto> addItemToCart(Long cartId, CartAddFacadeRequestDto request, String ifMatch) {
+        CartAddFacadeResponseDto response = cartAddItemFacadeService.addItemToCart(cartId, request, parseIfMatch(ifMatch));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(eTag(response.cartTotals().version()))
+                .body(response);
+    }
+
+    @Override
+    public ResponseEntity<CartGetFacadeResponseDto> applyBatchOperations(Long cartId, CartBatchFacadeRequestDto request,
+                                                                         String ifMatch) {
+        return ResponseEntity.ok(cartBatchFacadeService.applyOperations(cartId, request, parseIfMatch(ifMatch)));
+    }
+
+    @Override
+    public ResponseEntity<Void> updateItemQuantity(Long cartId, Long itemId, Integer quantity, String ifMatch) {
+        cartUpdateQuantityFacadeService.updateItemQuantity(cartId, itemId, quantity, parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @Override
-    public ResponseEntity<Void> removeItemsFromCart(Long cartId, List<Long> itemId) {
-        cartRemoveItemFacadeService.removeItemsFromCart(cartId, itemId);
+    public ResponseEntity<Void> removeItemsFromCart(Long cartId, List<Long> itemId, String ifMatch) {
+        cartRemoveItemFacadeService.removeItemsFromCart(cartId, itemId, parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @Override
-    public ResponseEntity<Integer> clearCart(Long cartId) {
-        return ResponseEntity.ok(cartClearFacadeService.clearCart(cartId));
+    public ResponseEntity<Integer> clearCart(Long cartId, String ifMatch) {
+        return ResponseEntity.ok(cartClearFacadeService.clearCart(cartId, parseIfMatch(ifMatch)));
+    }
+
+    private String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * If-None-Match: «*» совпадает с любой существующей корзиной, теги сравниваются слабо (без W/)
+     */
+    private boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Версия корзины из If-Match; без заголовка или с «*» запись выполняется без условия
+     */
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.valueOf(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new InvalidHeaderException("Invalid If-Match header: " + ifMatch);
+        }
     }
 }
\ No newline at end of file
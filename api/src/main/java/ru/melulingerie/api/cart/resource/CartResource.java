@@ -10,11 +10,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.melulingerie.facade.cart.dto.request.CartAddFacadeRequestDto;
+import ru.melulingerie.facade.cart.dto.request.CartBatchFacadeRequestDto;
 import ru.melulingerie.facade.cart.dto.response.CartAddFacadeResponseDto;
 import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+import ru.melulingerie.facade.cart.dto.response.CartSummaryFacadeResponseDto;
 
 import java.util.List;
 
@@ -47,9 +50,43 @@ public interface CartResource {
             @PathVariable("cartId") @NotNull Long cartId
     );
 
+    @Operation(
+            summary = "Получить итоги корзины",
+            description = "Возвращает количество позиций, сумму и версию итогов без загрузки товаров. "
+                    + "Ответ содержит ETag; при совпадении If-None-Match возвращается 304",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Итоги корзины успешно получены",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CartSummaryFacadeResponseDto.class))
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Итоги корзины не изменились"),
+                    @ApiResponse(responseCode = "400", description = "Корзина не найдена или некорректный ID")
+            }
+    )
+    @GetMapping("/{cartId}/summary")
+    ResponseEntity<CartSummaryFacadeResponseDto> getCartSummary(
+            @Parameter(
+                    in = ParameterIn.PATH,
+                    description = "Идентификатор корзины",
+                    example = "1001",
+                    required = true
+            )
+            @PathVariable("cartId") @NotNull Long cartId,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    description = "ETag ранее полученных итогов",
+                    example = "\"12\""
+            )
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    );
+
     @Operation(
             summary = "Добавить товар в корзину",
-            description = "Добавляет товар в корзину или увеличивает количество если товар уже есть в корзине",
+            description = "Добавляет товар в корзину или увеличивает количество если товар уже есть в корзине. "
+                    + "При If-Match изменение применяется только к указанной версии корзины; ответ содержит новый ETag",
             responses = {
                     @ApiResponse(
                             responseCode = "201",
@@ -59,7 +96,8 @@ public interface CartResource {
                     ),
                     @ApiResponse(responseCode = "400", description = "Некорректные данные товара"),
                     @ApiResponse(responseCode = "404", description = "Корзина или товар не найдены"),
-                    @ApiResponse(responseCode = "409", description = "Корзина заполнена или превышен лимит количества")
+                    @ApiResponse(responseCode = "409", description = "Корзина заполнена или превышен лимит количества"),
+                    @ApiResponse(responseCode = "412", description = "Корзина изменилась после получения ETag из If-Match")
             }
     )
     @PostMapping("/{cartId}/items")
@@ -76,7 +114,55 @@ public interface CartResource {
                     description = "Данные товара для добавления в корзину",
                     required = true
             )
-            @RequestBody @Valid CartAddFacadeRequestDto request
+            @RequestBody @Valid CartAddFacadeRequestDto request,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    description = "ETag корзины, к версии которой применяется изменение",
+                    example = "\"12\""
+            )
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    );
+
+    @Operation(
+            summary = "Пакетно изменить корзину",
+            description = "Применяет список операций добавления, изменения количества и удаления по порядку "
+                    + "в одной транзакции и возвращает корзину после изменений. Ошибка любой операции отменяет весь пакет",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Операции применены, возвращено содержимое корзины",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CartGetFacadeResponseDto.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Некорректные операции"),
+                    @ApiResponse(responseCode = "404", description = "Корзина не найдена"),
+                    @ApiResponse(responseCode = "409", description = "Корзина заполнена или превышен лимит количества"),
+                    @ApiResponse(responseCode = "412", description = "Корзина изменилась после получения ETag из If-Match")
+            }
+    )
+    @PostMapping("/{cartId}/items/batch")
+    ResponseEntity<CartGetFacadeResponseDto> applyBatchOperations(
+            @Parameter(
+                    in = ParameterIn.PATH,
+                    description = "Идентификатор корзины",
+                    example = "1001",
+                    required = true
+            )
+            @PathVariable("cartId") @NotNull Long cartId,
+
+            @Parameter(
+                    description = "Операции над корзиной",
+                    required = true
+            )
+            @RequestBody @Valid CartBatchFacadeRequestDto request,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    description = "ETag корзины, к версии которой применяется изменение",
+                    example = "\"12\""
+            )
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     );
 
     @Operation(
@@ -85,7 +171,8 @@ public interface CartResource {
             responses = {
                     @ApiResponse(responseCode = "204", description = "Количество товара успешно обновлено"),
                     @ApiResponse(responseCode = "400", description = "Некорректное количество"),
-                    @ApiResponse(responseCode = "404", description = "Корзина или товар не найдены")
+                    @ApiResponse(responseCode = "404", description = "Корзина или товар не найдены"),
+                    @ApiResponse(responseCode = "412", description = "Корзина изменилась после получения ETag из If-Match")
             }
     )
     @PutMapping("/{cartId}/items/{itemId}/quantity")
@@ -110,7 +197,14 @@ public interface CartResource {
                     description = "Новое количество товара",
                     required = true
             )
-            @RequestBody @NotNull Integer quantity
+            @RequestBody @NotNull Integer quantity,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    description = "ETag корзины, к версии которой применяется изменение",
+                    example = "\"12\""
+            )
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     );
 
     @Operation(
@@ -119,7 +213,8 @@ public interface CartResource {
             responses = {
                     @ApiResponse(responseCode = "204", description = "Товары успешно удалены из корзины"),
                     @ApiResponse(responseCode = "400", description = "Некорректный список идентификаторов"),
-                    @ApiResponse(responseCode = "404", description = "Корзина не найдена")
+                    @ApiResponse(responseCode = "404", description = "Корзина не найдена"),
+                    @ApiResponse(responseCode = "412", description = "Корзина изменилась после получения ETag из If-Match")
             }
     )
     @DeleteMapping("/{cartId}/items")
@@ -136,7 +231,14 @@ public interface CartResource {
                     description = "Список идентификаторов товаров для удаления",
                     required = true
             )
-            @RequestBody @NotEmpty List<@NotNull Long> itemIds
+            @RequestBody @NotEmpty List<@NotNull Long> itemIds,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    description = "ETag корзины, к версии которой применяется изменение",
+                    example = "\"12\""
+            )
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     );
 
     @Operation(
@@ -149,7 +251,8 @@ public interface CartResource {
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = Integer.class))
                     ),
-                    @ApiResponse(responseCode = "404", description = "Корзина не найдена")
+                    @ApiResponse(responseCode = "404", description = "Корзина не найдена"),
+                    @ApiResponse(responseCode = "412", description = "Корзина изменилась после получения ETag из If-Match")
             }
     )
     @DeleteMapping("/{cartId}")
@@ -160,6 +263,13 @@ public interface CartResource {
                     example = "1001",
                     required = true
             )
-            @PathVariable("cartId") @NotNull Long cartId
+            @PathVariable("cartId") @NotNull Long cartId,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    description = "ETag корзины, к версии которой применяется изменение",
+                    example = "\"12\""
+            )
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     );
 }
\ No newline at end of file
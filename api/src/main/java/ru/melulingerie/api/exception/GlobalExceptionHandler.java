@@ -4,6 +4,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -12,6 +15,10 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import ru.melulingerie.facade.cart.exception.VariantPriceNotFoundException;
+import ru.melulingerie.facade.concurrent.FanOutTimeoutException;
+import ru.melulingerie.facade.products.exception.InvalidCursorException;
+
 
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -86,4 +93,69 @@ public class GlobalExceptionHandler {
         ErrorResponse error = ErrorResponse.of(400, message, request.getRequestURI());
         return ResponseEntity.badRequest().body(error);
     }
+
+    /**
+     * Конфликт версий: 412, если клиент прислал If-Match, иначе 409 — запись не удалась после повторов
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+
+        log.debug("Optimistic lock failure: {}", ex.getMessage());
+
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        ErrorResponse error = ErrorResponse.of(status.value(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Запросы к модулям не уложились в срок фасада
+     */
+    @ExceptionHandler(FanOutTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleFanOutTimeout(
+            FanOutTimeoutException ex, HttpServletRequest request) {
+
+        log.warn("Fan-out timeout: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(HttpStatus.GATEWAY_TIMEOUT.value(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
+
+    /**
+     * Курсор каталога нельзя продолжить: клиент должен начать выборку заново
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(
+            InvalidCursorException ex, HttpServletRequest request) {
+
+        log.debug("Invalid cursor: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(400, ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(InvalidHeaderException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidHeader(
+            InvalidHeaderException ex, HttpServletRequest request) {
+
+        log.debug("Invalid header: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(400, ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    /**
+     * Вариант без цены в корзину не добавляется, нулевая цена не подставляется
+     */
+    @ExceptionHandler(VariantPriceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleVariantPriceNotFound(
+            VariantPriceNotFoundException ex, HttpServletRequest request) {
+
+        log.warn("Variant price not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(400, ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.badRequest().body(error);
+    }
 }
@@ -0,0 +1,11 @@
+package ru.melulingerie.api.exception;
+
+/**
+ * Заголовок запроса не удалось разобрать (например, If-Match без числовой версии)
+ */
+public class InvalidHeaderException extends RuntimeException {
+
+    public InvalidHeaderException(String message) {
+        super(message);
+    }
+}
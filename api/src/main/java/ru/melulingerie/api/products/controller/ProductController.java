@@ -4,14 +4,20 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.RestController;
 import ru.melulingerie.api.products.resource.ProductResource;
 import ru.melulingerie.facade.products.dto.request.ProductCatalogRequestDto;
 import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogFacetsResponseDto;
 import ru.melulingerie.facade.products.dto.response.ProductCatalogResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogSliceResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductSuggestResponseDto;
 import ru.melulingerie.facade.products.service.ProductFacadeService;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 public class ProductController implements ProductResource {
@@ -24,6 +30,23 @@ public class ProductController implements ProductResource {
         return productFacadeService.getPageOfProducts(productCatalogRequestDto, pageable);
     }
 
+    @Override
+    public ProductCatalogFacetsResponseDto getCatalogFacets(@Valid ProductCatalogRequestDto productCatalogRequestDto) {
+        return productFacadeService.getCatalogFacets(productCatalogRequestDto);
+    }
+
+    @Override
+    public ProductCatalogSliceResponseDto getCatalogSlice(@Valid ProductCatalogRequestDto productCatalogRequestDto,
+                                                          String cursor,
+                                                          @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return productFacadeService.getSliceOfProducts(productCatalogRequestDto, cursor, pageable);
+    }
+
+    @Override
+    public List<ProductSuggestResponseDto> suggest(String query, int limit) {
+        return productFacadeService.suggest(query, limit);
+    }
+
     @Override
     public ProductCardResponseDto getProductCardInfo(Long productId) {
         return productFacadeService.getProductCardInfo(productId);
@@ -3,6 +3,7 @@ package ru.melulingerie.api.products.resource;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,9 +16,15 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import ru.melulingerie.facade.products.dto.request.ProductCatalogRequestDto;
 import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogFacetsResponseDto;
 import ru.melulingerie.facade.products.dto.response.ProductCatalogResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogSliceResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductSuggestResponseDto;
+
+import java.util.List;
 
 @Tag(name = "Products", description = "Операции каталога и карточки товара")
 @RequestMapping("/api/v1/products")
@@ -48,6 +55,83 @@ public interface ProductResource {
             Pageable pageable
     );
 
+    @Operation(
+            summary = "Получить счётчики фильтров каталога",
+            description = "Возвращает количество товаров по категориям, размерам, цветам, статусам и ценовым диапазонам для текущих фильтров. "
+                    + "Счётчик каждого фильтра не учитывает выбранные значения этого же фильтра.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Счётчики фильтров",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ProductCatalogFacetsResponseDto.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса"),
+                    @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера")
+            }
+    )
+    @GetMapping(value = "/catalog/facets")
+    ProductCatalogFacetsResponseDto getCatalogFacets(
+            @Parameter(
+                    in = ParameterIn.QUERY,
+                    description = "Фильтры каталога. Параметры разворачиваются в query автоматически.",
+                    required = false
+            )
+            @ParameterObject ProductCatalogRequestDto productCatalogRequestDto
+    );
+
+    @Operation(
+            summary = "Получить порцию каталога по курсору",
+            description = "Keyset-пагинация для бесконечной прокрутки: продолжает выдачу с курсора предыдущей порции, не считает общее количество. "
+                    + "Поддерживает те же фильтры и сортировки (по первому полю сортировки), что и постраничный каталог.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Порция элементов каталога и курсор следующей порции",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ProductCatalogSliceResponseDto.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Некорректный курсор или параметры запроса"),
+                    @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера")
+            }
+    )
+    @GetMapping(value = "/catalog/scroll")
+    ProductCatalogSliceResponseDto getCatalogSlice(
+            @Parameter(
+                    in = ParameterIn.QUERY,
+                    description = "Фильтры каталога. Параметры разворачиваются в query автоматически.",
+                    required = false
+            )
+            @ParameterObject ProductCatalogRequestDto productCatalogRequestDto,
+            @Parameter(
+                    in = ParameterIn.QUERY,
+                    description = "Непрозрачный курсор из nextCursor предыдущего ответа; без него возвращается первая порция"
+            )
+            @RequestParam(required = false) String cursor,
+            Pageable pageable
+    );
+
+    @Operation(
+            summary = "Подсказки поисковой строки",
+            description = "Возвращает подсказки по префиксу: названия и артикулы товаров, категории и коллекции. Отвечает из индекса в памяти без обращения к БД.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Список подсказок",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = ProductSuggestResponseDto.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Не указан поисковый запрос")
+            }
+    )
+    @GetMapping("/suggest")
+    List<ProductSuggestResponseDto> suggest(
+            @Parameter(in = ParameterIn.QUERY, description = "Введённый префикс", example = "бюст")
+            @RequestParam("q") String query,
+            @Parameter(in = ParameterIn.QUERY, description = "Максимальное количество подсказок (не более 20)", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    );
+
     @Operation(
             summary = "Получить карточку товара",
             description = "Возвращает детальную информацию по карточке товара по идентификатору.",
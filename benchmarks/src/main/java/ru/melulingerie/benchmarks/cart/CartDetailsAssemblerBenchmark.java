@@ -0,0 +1,78 @@
+package ru.melulingerie.benchmarks.cart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.melulingerie.benchmarks.support.SyntheticCatalog;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartItemGetResponseDto;
+import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+import ru.melulingerie.facade.cart.service.impl.CartDetailsAssembler;
+import ru.melulingerie.facade.concurrent.FanOut;
+import ru.melulingerie.products.domain.ProductVariant;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обогащение корзины (enrichCartItems): варианты, цены и изображения из синтетических карт.
+ * fanOut=true добавляет к замеру запуск запросов цен и медиа на виртуальных потоках — накладные
+ * расходы, которые окупаются только при реальных задержках модулей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartDetailsAssemblerBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    @Param({"false", "true"})
+    private boolean fanOut;
+
+    private CartDetailsAssembler assembler;
+    private CartGetResponseDto cart;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(items, 4, 4);
+        assembler = new CartDetailsAssembler(
+                new FanOut(fanOut, Duration.ofSeconds(2)),
+                catalog.priceService(),
+                catalog.productService(),
+                catalog.mediaGetService(),
+                catalog.productVariantService()
+        );
+
+        LocalDateTime addedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        List<CartItemGetResponseDto> cartItems = new ArrayList<>(items);
+        List<ProductVariant> variants = catalog.variants();
+        // по одной позиции на товар, варианты разных товаров
+        for (int i = 0; i < items; i++) {
+            ProductVariant variant = variants.get(i * 4 + i % 4);
+            cartItems.add(new CartItemGetResponseDto((long) i + 1, variant.getProduct().getId(), variant.getId(),
+                    1 + i % 3, addedAt.plusMinutes(i)));
+        }
+        cart = new CartGetResponseDto(1001L, cartItems, items, BigDecimal.valueOf(3490L * items));
+    }
+
+    @Benchmark
+    public CartGetFacadeResponseDto assemble() {
+        return assembler.assemble(cart);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.melulingerie.benchmarks.mapper;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.dto.WishlistGetResponseDto;
+import ru.melulingerie.dto.WishlistItemGetResponseDto;
+import ru.melulingerie.facade.cart.dto.request.CartAddFacadeRequestDto;
+import ru.melulingerie.facade.cart.mapper.CartMapper;
+import ru.melulingerie.facade.media.dto.MediaGetInfoFacadeResponseDto;
+import ru.melulingerie.facade.media.mapper.MediaMapper;
+import ru.melulingerie.facade.products.dto.request.ProductCatalogRequestDto;
+import ru.melulingerie.facade.products.dto.response.ProductSuggestResponseDto;
+import ru.melulingerie.facade.products.mapper.ProductMapper;
+import ru.melulingerie.facade.wishlist.dto.WishlistGetFacadeResponseDto;
+import ru.melulingerie.facade.wishlist.mapper.WishlistMapper;
+import ru.melulingerie.media.dto.MediaGetInfoResponseDto;
+import ru.melulingerie.products.enums.ProductStatus;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct-мапперы фасада на путях, которые выполняются на каждый запрос: фильтр каталога,
+ * подсказки поиска, медиа карточки, добавление в корзину и избранное
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacadeMapperBenchmark {
+
+    private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+    private final MediaMapper mediaMapper = Mappers.getMapper(MediaMapper.class);
+    private final CartMapper cartMapper = Mappers.getMapper(CartMapper.class);
+    private final WishlistMapper wishlistMapper = Mappers.getMapper(WishlistMapper.class);
+
+    private ProductCatalogRequestDto catalogRequest;
+    private List<ProductSuggestItemResponseDto> suggestions;
+    private MediaGetInfoResponseDto media;
+    private CartAddFacadeRequestDto cartAddRequest;
+    private WishlistGetResponseDto wishlist;
+
+    @Setup
+    public void setUp() {
+        catalogRequest = ProductCatalogRequestDto.builder()
+                .name("кружево")
+                .minPrice(BigDecimal.valueOf(1500))
+                .maxPrice(BigDecimal.valueOf(7000))
+                .categories(Set.of(3L, 7L))
+                .sizes(Set.of("S", "M"))
+                .sizesOfBraWithCups(Set.of("70B", "75B", "75C"))
+                .colors(Set.of("black", "nude"))
+                .productStatus(ProductStatus.AVAILABLE)
+                .build();
+
+        suggestions = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            suggestions.add(new ProductSuggestItemResponseDto(i <= 2 ? "category" : "product", i, "Кружевной комплект " + i));
+        }
+
+        media = new MediaGetInfoResponseDto(42L, "photo-42.jpg",
+                "https://storage.yandexcloud.net/melu-media/products/photo-42.jpg");
+
+        cartAddRequest = new CartAddFacadeRequestDto(100L, 10_001L, 2);
+
+        LocalDateTime addedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        List<WishlistItemGetResponseDto> wishlistItems = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            wishlistItems.add(new WishlistItemGetResponseDto(i, 100 + i, addedAt.plusHours(i)));
+        }
+        wishlist = new WishlistGetResponseDto(7L, wishlistItems, wishlistItems.size());
+    }
+
+    @Benchmark
+    public ProductCatalogFilterRequestDto catalogFilter() {
+        return productMapper.toProductCatalogFilterRequestDto(catalogRequest);
+    }
+
+    @Benchmark
+    public List<ProductSuggestResponseDto> suggestions() {
+        return productMapper.toProductSuggestResponseDtos(suggestions);
+    }
+
+    @Benchmark
+    public MediaGetInfoFacadeResponseDto mediaInfo() {
+        return mediaMapper.toMediaInfo(media);
+    }
+
+    @Benchmark
+    public CartAddItemRequestDto cartAddItem() {
+        return cartMapper.toAddItemRequestDto(cartAddRequest, BigDecimal.valueOf(3490));
+    }
+
+    @Benchmark
+    public WishlistGetFacadeResponseDto wishlist() {
+        return wishlistMapper.toFacadeWishListResponseDto(wishlist);
+    }
+}
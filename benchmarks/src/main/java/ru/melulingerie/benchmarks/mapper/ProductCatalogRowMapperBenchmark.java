@@ -0,0 +1,66 @@
+package ru.melulingerie.benchmarks.mapper;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.mapper.ProductCatalogRowMapper;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор страницы каталога (20 строк) ProductCatalogRowMapper из ResultSet в памяти.
+ * Доступ к колонкам по имени, как в маппере, — стоимость поиска колонки входит в замер.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCatalogRowMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ProductCatalogRowMapper rowMapper = new ProductCatalogRowMapper();
+    private SimpleResultSet resultSet;
+
+    @Setup
+    public void setUp() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("product_id", Types.BIGINT, 19, 0);
+        resultSet.addColumn("name", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("price", Types.NUMERIC, 10, 2);
+        resultSet.addColumn("s3url", Types.VARCHAR, 1024, 0);
+        resultSet.addColumn("product_status", Types.VARCHAR, 32, 0);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            resultSet.addRow(i, "Комплект с кружевом " + i, BigDecimal.valueOf(3490 + i * 100, 2),
+                    "https://storage.yandexcloud.net/melu-media/products/photo-" + i + ".jpg", "AVAILABLE");
+        }
+    }
+
+    @Benchmark
+    public List<ProductCatalogItemResponseDto> mapPage() throws SQLException {
+        resultSet.beforeFirst();
+        List<ProductCatalogItemResponseDto> page = new ArrayList<>(PAGE_SIZE);
+        int rowNum = 0;
+        while (resultSet.next()) {
+            page.add(rowMapper.mapRow(resultSet, rowNum++));
+        }
+        return page;
+    }
+}
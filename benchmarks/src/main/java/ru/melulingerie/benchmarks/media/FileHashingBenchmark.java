@@ -0,0 +1,56 @@
+package ru.melulingerie.benchmarks.media;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.melulingerie.media.dto.CustomMultipartFile;
+import ru.melulingerie.media.util.FileHashingUtil;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хэш SHA-256 загружаемого файла (FileHashingUtil.calculateSHA256) для типичных размеров фото
+ * товара: превью, фото с телефона и исходник для каталога
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileHashingBenchmark {
+
+    @Param({"65536", "1048576", "5242880"})
+    private int size;
+
+    private CustomMultipartFile file;
+
+    @Setup
+    public void setUp() {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        file = CustomMultipartFile.builder()
+                .content(content)
+                .originalFilename("photo.jpg")
+                .contentType("image/jpeg")
+                .size(size)
+                .name("file")
+                .build();
+    }
+
+    @Benchmark
+    public String calculateSHA256() throws IOException, NoSuchAlgorithmException {
+        return FileHashingUtil.calculateSHA256(file);
+    }
+}
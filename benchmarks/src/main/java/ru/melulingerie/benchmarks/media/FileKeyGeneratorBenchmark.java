@@ -0,0 +1,38 @@
+package ru.melulingerie.benchmarks.media;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.melulingerie.media.util.FileKeyGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ключ объекта в хранилище (FileKeyGenerator.generate) для латинского имени файла
+ * и имени с кириллицей и пробелами, которое проходит очистку целиком
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileKeyGeneratorBenchmark {
+
+    @Param({"IMG_2048.jpg", "Комплект чёрный вид сзади (2).jpeg"})
+    private String originalName;
+
+    private final FileKeyGenerator fileKeyGenerator = new FileKeyGenerator();
+
+    @Benchmark
+    public String generate() {
+        return fileKeyGenerator.generate(originalName);
+    }
+}
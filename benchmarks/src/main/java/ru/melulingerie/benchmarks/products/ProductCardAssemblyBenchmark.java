@@ -0,0 +1,78 @@
+package ru.melulingerie.benchmarks.products;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import ru.melulingerie.benchmarks.support.SyntheticCatalog;
+import ru.melulingerie.facade.concurrent.FanOut;
+import ru.melulingerie.facade.products.cache.ProductCardStore;
+import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+import ru.melulingerie.facade.products.mapper.ProductMapper;
+import ru.melulingerie.facade.products.service.impl.ProductFacadeServiceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Карточка товара в ProductFacadeServiceImpl. assembleOnMiss сбрасывает версию карточки перед
+ * каждым вызовом и измеряет сборку из синтетических вариантов, цен и медиа вместе с записью
+ * в хранилище карточек; cachedHit — обычный путь чтения готовой карточки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCardAssemblyBenchmark {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Param({"4", "24"})
+    private int variants;
+
+    @Param({"false", "true"})
+    private boolean fanOut;
+
+    private ProductCardStore productCardStore;
+    private ProductFacadeServiceImpl productFacadeService;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(1, variants, 4);
+        productCardStore = new ProductCardStore(Duration.ofHours(6), 20_000,
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        productFacadeService = new ProductFacadeServiceImpl(
+                new FanOut(fanOut, Duration.ofSeconds(2)),
+                catalog.priceService(),
+                Mappers.getMapper(ProductMapper.class),
+                catalog.productService(),
+                productCardStore,
+                catalog.mediaGetFacadeService(),
+                null,
+                null
+        );
+    }
+
+    @Benchmark
+    public ProductCardResponseDto assembleOnMiss() {
+        productCardStore.invalidate(PRODUCT_ID);
+        return productFacadeService.getProductCardInfo(PRODUCT_ID);
+    }
+
+    @Benchmark
+    public ProductCardResponseDto cachedHit() {
+        return productFacadeService.getProductCardInfo(PRODUCT_ID);
+    }
+}
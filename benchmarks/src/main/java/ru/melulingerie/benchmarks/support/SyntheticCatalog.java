@@ -0,0 +1,184 @@
+package ru.melulingerie.benchmarks.support;
+
+import ru.melulingerie.facade.media.dto.MediaGetInfoFacadeResponseDto;
+import ru.melulingerie.facade.media.service.MediaGetFacadeService;
+import ru.melulingerie.media.dto.MediaGetInfoResponseDto;
+import ru.melulingerie.media.service.MediaGetService;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.service.PriceService;
+import ru.melulingerie.products.domain.Product;
+import ru.melulingerie.products.domain.ProductVariant;
+import ru.melulingerie.products.domain.ProductVariantMedia;
+import ru.melulingerie.products.dto.ProductInfoResponseDto;
+import ru.melulingerie.products.dto.ProductVariantResponseDto;
+import ru.melulingerie.products.service.ProductService;
+import ru.melulingerie.products.service.ProductVariantService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Синтетический каталог для бенчмарков: товары, варианты с изображениями, цены и медиа.
+ * Заглушки сервисов модулей отдают заранее собранные данные, поэтому замер включает только
+ * процессорную часть фасада — сборку, поиск по картам и создание DTO, без БД и сети.
+ */
+public final class SyntheticCatalog {
+
+    private static final String[] COLORS = {"black", "white", "red", "nude", "navy", "emerald"};
+    private static final String[] SIZES = {"70A", "70B", "75A", "75B", "75C", "80B", "80C", "85C"};
+
+    private final Map<Long, Product> products = new LinkedHashMap<>();
+    private final Map<Long, ProductVariant> variants = new LinkedHashMap<>();
+    private final Map<Long, PriceQuoteDto> prices = new LinkedHashMap<>();
+    private final Map<Long, MediaGetInfoResponseDto> media = new LinkedHashMap<>();
+
+    public SyntheticCatalog(int productCount, int variantsPerProduct, int mediaPerVariant) {
+        long mediaId = 1;
+        for (long productId = 1; productId <= productCount; productId++) {
+            Product product = new Product();
+            product.setId(productId);
+            product.setName("Комплект с кружевом " + productId);
+            product.setArticleNumber("ML-" + (100_000 + productId));
+            product.setDescription("Бюстгальтер на косточках и трусы-слипы из эластичного кружева");
+            product.setMaterial("Полиамид 85%, эластан 15%");
+            product.setCareInstructions("Деликатная стирка при 30°C");
+            product.setScore(4.7f);
+            product.setPriceId(productId * 100);
+            products.put(productId, product);
+
+            for (int v = 0; v < variantsPerProduct; v++) {
+                long variantId = productId * 100 + v;
+                ProductVariant variant = new ProductVariant();
+                variant.setId(variantId);
+                variant.setProduct(product);
+                variant.setColorName(COLORS[v % COLORS.length]);
+                variant.setSize(SIZES[v % SIZES.length]);
+                variant.setStockQuantity(10 + v);
+                variant.setIsAvailable(true);
+                variant.setSortOrder(v);
+                variant.setPriceId(variantId);
+                // изображения в обратном порядке сортировки: поиск основного не должен полагаться на порядок списка
+                List<ProductVariantMedia> variantMedia = new ArrayList<>(mediaPerVariant);
+                for (int m = mediaPerVariant - 1; m >= 0; m--, mediaId++) {
+                    variantMedia.add(new ProductVariantMedia(mediaId, variant, mediaId, m));
+                    media.put(mediaId, new MediaGetInfoResponseDto(mediaId, "photo-" + mediaId + ".jpg",
+                            "https://storage.yandexcloud.net/melu-media/products/photo-" + mediaId + ".jpg"));
+                }
+                variant.setProductVariantMedia(variantMedia);
+                product.getVariants().add(variant);
+                variants.put(variantId, variant);
+                prices.put(variantId, new PriceQuoteDto(variantId, BigDecimal.valueOf(3490 + v * 100L)));
+            }
+        }
+    }
+
+    public List<ProductVariant> variants() {
+        return List.copyOf(variants.values());
+    }
+
+    public ProductInfoResponseDto productInfo(Long productId) {
+        Product product = products.get(productId);
+        List<ProductVariantResponseDto> productVariants = product.getVariants().stream()
+                .map(ProductVariantResponseDto::new)
+                .toList();
+        return new ProductInfoResponseDto(product.getId(), product.getName(), product.getArticleNumber(), 7L,
+                product.getDescription(), product.getMaterial(), product.getScore(), product.getCareInstructions(),
+                productVariants);
+    }
+
+    public PriceService priceService() {
+        return new PriceService() {
+            @Override
+            public Map<Long, PriceQuoteDto> getPricesByIds(Set<Long> priceIds) {
+                return select(prices, priceIds);
+            }
+
+            @Override
+            public PriceQuoteDto getPriceById(Long priceId) {
+                return prices.get(priceId);
+            }
+        };
+    }
+
+    public MediaGetService mediaGetService() {
+        return mediaIds -> mediaIds.stream().map(media::get).toList();
+    }
+
+    public MediaGetFacadeService mediaGetFacadeService() {
+        return mediaIds -> mediaIds.stream()
+                .map(media::get)
+                .collect(Collectors.toMap(MediaGetInfoResponseDto::id,
+                        m -> new MediaGetInfoFacadeResponseDto(m.id(), m.fileName(), m.s3Url())));
+    }
+
+    public ProductService productService() {
+        return new ProductService() {
+            @Override
+            public ProductInfoResponseDto getProductInfoById(Long productId) {
+                return productInfo(productId);
+            }
+
+            @Override
+            public ProductVariantResponseDto getProductVariantById(Long variantId) {
+                return new ProductVariantResponseDto(variants.get(variantId));
+            }
+
+            @Override
+            public Map<Long, Set<String>> findAvailableColorsByProductIds(Collection<Long> productIds) {
+                return Map.of();
+            }
+
+            @Override
+            public Map<Long, Long> getCategoryIdByProductIds(List<Long> productIds) {
+                return productIds.stream().distinct().collect(Collectors.toMap(Function.identity(), id -> 7L));
+            }
+        };
+    }
+
+    public ProductVariantService productVariantService() {
+        return new ProductVariantService() {
+            @Override
+            public ProductVariant getVariantById(Long variantId) {
+                return variants.get(variantId);
+            }
+
+            @Override
+            public Map<Long, Set<String>> findAvailableColorsForEachProducts(Collection<Long> productIds) {
+                return Map.of();
+            }
+
+            @Override
+            public Map<Long, ProductVariant> getVariantsByIds(Collection<Long> variantIds) {
+                return select(variants, variantIds);
+            }
+
+            @Override
+            public Map<Long, Long> getPriceIdsByVariantIds(Collection<Long> variantIds) {
+                return variantIds.stream().collect(Collectors.toMap(Function.identity(), id -> variants.get(id).getPriceId()));
+            }
+
+            @Override
+            public Map<Long, Long> getVariantPriceIdsByPriceIds(Collection<Long> priceIds) {
+                return Map.of();
+            }
+        };
+    }
+
+    private static <V> Map<Long, V> select(Map<Long, V> source, Collection<Long> ids) {
+        Map<Long, V> result = new LinkedHashMap<>(ids.size() * 2);
+        for (Long id : ids) {
+            V value = source.get(id);
+            if (value != null) {
+                result.put(id, value);
+            }
+        }
+        return result;
+    }
+}
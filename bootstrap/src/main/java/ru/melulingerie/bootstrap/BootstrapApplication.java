@@ -4,10 +4,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"ru.melulingerie"})
 @EntityScan(basePackages = {"ru.melulingerie"})
 @EnableJpaRepositories(basePackages = {"ru.melulingerie"})
+@EnableAsync
+@EnableScheduling
 public class BootstrapApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,259 @@
+package ru.melulingerie.bootstrap.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import ru.melulingerie.bootstrap.BootstrapApplication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение режимов выполнения запросов: пул платформенных потоков Tomcat и виртуальные потоки
+ * (spring.threads.virtual.enabled). Приложение целиком поднимается на PostgreSQL в каждом режиме,
+ * каталог и корзина нагружаются замкнутым циклом из CLIENTS клиентов. Пропускная способность и p99
+ * выводятся в лог, проверяется отсутствие ошибок. Запуск: ./gradlew :bootstrap:loadTest (нужен Docker).
+ */
+@Tag("load")
+@Testcontainers
+@DisplayName("Threading mode load test")
+class ThreadingModeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeLoadTest.class);
+
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 5;
+    private static final int REQUESTS_PER_CLIENT = 25;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final long PRICE_ID = 900_000L;
+    private static final long FIRST_PRODUCT_ID = 900_000L;
+    private static final int PRODUCTS = 50;
+    private static final int VARIANTS_PER_PRODUCT = 4;
+    private static final long FIRST_CART_ID = 900_000L;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    private static final Path JOURNAL_DIR = createJournalDir();
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    @BeforeAll
+    static void createSchemaAndSeed() {
+        // схему создаёт само приложение (ddl-auto и скрипты db/*), данные вставляются до замеров,
+        // чтобы индекс каталога и счётчики остатков поднялись с ними в обоих режимах
+        try (ConfigurableApplicationContext context = start(false)) {
+            seed(context.getBean(JdbcTemplate.class));
+        }
+    }
+
+    @AfterAll
+    static void closeClient() {
+        httpClient.close();
+    }
+
+    @Test
+    @DisplayName("Should serve catalog and cart without errors on platform and virtual threads")
+    void shouldCompareThreadingModes() {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+                // корзины режимов не пересекаются: лимиты количества позиции не зависят от порядка прогонов
+                long cartBase = FIRST_CART_ID + (virtual ? CLIENTS : 0);
+
+                run(baseUrl, WARMUP_REQUESTS_PER_CLIENT, client -> catalogRequest(baseUrl, client));
+                results.put(mode + " catalog",
+                        run(baseUrl, REQUESTS_PER_CLIENT, client -> catalogRequest(baseUrl, client)));
+
+                AtomicInteger step = new AtomicInteger();
+                results.put(mode + " cart",
+                        run(baseUrl, REQUESTS_PER_CLIENT, client -> cartRequest(baseUrl, cartBase + client, step.getAndIncrement())));
+            }
+        }
+
+        results.forEach((scenario, result) -> log.info("{}: {} requests, {} req/s, p50 {} ms, p99 {} ms, errors {}",
+                scenario, result.requests(), result.throughput(), result.percentileMs(50), result.percentileMs(99),
+                result.errors().size()));
+        results.forEach((scenario, result) -> assertTrue(result.errors().isEmpty(),
+                scenario + " failed: " + result.errors().stream().limit(5).toList()));
+    }
+
+    private HttpRequest catalogRequest(String baseUrl, int client) {
+        // половина запросов — страница каталога, половина — карточка товара
+        if (client % 2 == 0) {
+            return get(baseUrl + "/api/v1/products/catalog?page=" + (client / 2 % 3) + "&size=20");
+        }
+        return get(baseUrl + "/api/v1/products/" + (FIRST_PRODUCT_ID + client % PRODUCTS));
+    }
+
+    private HttpRequest cartRequest(String baseUrl, long cartId, int step) {
+        if (step % 2 == 0) {
+            return get(baseUrl + "/api/v1/cart/" + cartId);
+        }
+        int line = step / 2 % (PRODUCTS * VARIANTS_PER_PRODUCT);
+        long productId = FIRST_PRODUCT_ID + line / VARIANTS_PER_PRODUCT;
+        long variantId = variantId(productId, line % VARIANTS_PER_PRODUCT);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/cart/" + cartId + "/items"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"productId\":" + productId + ",\"variantId\":" + variantId + ",\"quantity\":1}"))
+                .build();
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    /**
+     * Замкнутый цикл: каждый клиент отправляет следующий запрос после ответа на предыдущий
+     */
+    private Result run(String baseUrl, int requestsPerClient, IntFunction<HttpRequest> requests) {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        long elapsedNanos;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < CLIENTS; client++) {
+                int clientId = client;
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        HttpRequest request = requests.apply(clientId);
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() >= 300) {
+                                errors.add(request.method() + " " + request.uri() + " -> " + response.statusCode()
+                                        + " " + response.body());
+                            }
+                        } catch (IOException e) {
+                            errors.add(request.method() + " " + request.uri() + " -> " + e);
+                        }
+                        latencies.add(System.nanoTime() - started);
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            elapsedNanos = System.nanoTime() - started;
+        } catch (Exception e) {
+            throw new IllegalStateException("Load run against " + baseUrl + " did not complete", e);
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted, elapsedNanos, List.copyOf(errors));
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(BootstrapApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "cart.guest-store.journal.path=" + JOURNAL_DIR.resolve((virtualThreads ? "virtual" : "platform") + ".journal"),
+                        "yandex.storage.access-key=load-test",
+                        "yandex.storage.secret-key=load-test",
+                        "yandex.storage.bucket-name=load-test",
+                        // логирование SQL и запросов искажает замер сильнее, чем выбор потоков
+                        "logging.level.org.springframework.web=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into prices (id, base_amount) values (?, 1000)", PRICE_ID);
+        for (int p = 0; p < PRODUCTS; p++) {
+            long productId = FIRST_PRODUCT_ID + p;
+            jdbcTemplate.update("insert into products (id, name, article_number, slug, status, price_id, created_at, updated_at) "
+                            + "values (?, ?, ?, ?, 'AVAILABLE', ?, now(), now())",
+                    productId, "Load test product " + p, "LT-" + p, "load-test-product-" + p, PRICE_ID);
+            for (int v = 0; v < VARIANTS_PER_PRODUCT; v++) {
+                jdbcTemplate.update("insert into product_variants (id, product_id, color_name, size, stock_quantity, "
+                                + "is_available, sort_order, price_id) values (?, ?, 'black', ?, 1000000, true, ?, ?)",
+                        variantId(productId, v), productId, String.valueOf(70 + v * 5), v, PRICE_ID);
+            }
+        }
+        // корзины пользователей хранятся в БД и не проходят через гостевое хранилище
+        for (int c = 0; c < 2 * CLIENTS; c++) {
+            jdbcTemplate.update("insert into carts (id, user_id, items_count, total_amount, totals_version, created_at, updated_at) "
+                    + "values (?, ?, 0, 0, 0, now(), now())", FIRST_CART_ID + c, FIRST_CART_ID + c);
+        }
+    }
+
+    private static long variantId(long productId, int variant) {
+        return productId * 10 + variant;
+    }
+
+    private static Path createJournalDir() {
+        try {
+            return Files.createTempDirectory("load-test-journal");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Result(long[] sortedLatencies, long elapsedNanos, List<String> errors) {
+
+        int requests() {
+            return sortedLatencies.length;
+        }
+
+        long throughput() {
+            return elapsedNanos == 0 ? 0 : requests() * 1_000_000_000L / elapsedNanos;
+        }
+
+        long percentileMs(int percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sortedLatencies[Math.max(index, 0)]);
+        }
+    }
+}
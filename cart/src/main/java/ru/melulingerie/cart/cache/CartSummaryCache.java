@@ -0,0 +1,66 @@
+package ru.melulingerie.cart.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
+import ru.melulingerie.cart.event.CartTotalsChangedEvent;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш итогов корзины по cartId для бейджа и мини-корзины. После коммита записи в кэш кладутся
+ * новые итоги (write-through); запись с меньшей версией не вытесняет более новую.
+ * Кэш локален для процесса: изменения на другом экземпляре его не обновляют, поэтому при нескольких
+ * экземплярах сводка и ответ 304 могут отставать не дольше TTL — он держится коротким.
+ * Статистика публикуется в Micrometer с тегом cache=cart-summaries.
+ */
+@Slf4j
+@Component
+public class CartSummaryCache {
+
+    private final Cache<Long, CartTotalsResponseDto> summaries;
+
+    public CartSummaryCache(
+            @Value("${cart.summary-cache.ttl:1m}") Duration ttl,
+            @Value("${cart.summary-cache.max-size:100000}") long maxSize,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, summaries, "cart-summaries"));
+    }
+
+    public CartTotalsResponseDto get(Long cartId, Function<Long, CartTotalsResponseDto> loader) {
+        return summaries.get(cartId, loader);
+    }
+
+    public void evict(Long cartId) {
+        summaries.invalidate(cartId);
+    }
+
+    /**
+     * fallbackExecution: изменение вне транзакции тоже обновляет запись.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCartTotalsChanged(CartTotalsChangedEvent event) {
+        if (event.totals() == null) {
+            log.debug("Evicting cached cart summary {}", event.cartId());
+            evict(event.cartId());
+            return;
+        }
+        summaries.asMap().merge(event.cartId(), event.totals(),
+                (cached, updated) -> updated.version() >= cached.version() ? updated : cached);
+    }
+}
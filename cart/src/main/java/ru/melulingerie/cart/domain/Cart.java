@@ -6,9 +6,12 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import ru.melulingerie.cart.event.CartTotalsChangePublisher;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,11 +23,12 @@ import java.util.List;
 @Table(name = "carts", indexes = {
         @Index(name = "idx_cart_user", columnList = "user_id"),
 })
+@EntityListeners(CartTotalsChangePublisher.class)
 public class Cart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_id_seq")
-    @SequenceGenerator(name = "carts_id_seq", sequenceName = "carts_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "carts_id_seq", sequenceName = "carts_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -32,6 +36,29 @@ public class Cart {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    /**
+     * Количество позиций корзины. Поддерживается приращениями при изменении позиций.
+     */
+    @ColumnDefault("0")
+    @Column(name = "items_count", nullable = false)
+    private int itemsCount;
+
+    /**
+     * Сумма корзины по зафиксированным ценам позиций. Поддерживается приращениями,
+     * при изменении цен пересчитывается сверкой.
+     */
+    @ColumnDefault("0")
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    /**
+     * Версия корзины для оптимистической блокировки: увеличивается при каждом изменении корзины или её позиций.
+     * Отдаётся клиентам как ETag; нативные и массовые обновления увеличивают её явно.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "totals_version", nullable = false)
+    private long totalsVersion;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -54,7 +81,22 @@ public class Cart {
         cartItem.setCart(this);
     }
 
-    public int getItemsCount() {
-        return cartItems.size();
+    /**
+     * Изменение итогов корзины на приращение. Строка корзины обновляется при любом изменении позиций,
+     * даже с нулевым приращением, — так версия проверяется и увеличивается одним UPDATE при flush.
+     */
+    public void applyTotalsDelta(int itemsDelta, BigDecimal amountDelta) {
+        this.itemsCount += itemsDelta;
+        this.totalAmount = totalAmount.add(amountDelta);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Обнуление итогов после очистки корзины
+     */
+    public void resetTotals() {
+        this.itemsCount = 0;
+        this.totalAmount = BigDecimal.ZERO;
+        this.updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
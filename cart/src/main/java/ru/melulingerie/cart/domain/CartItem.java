@@ -9,6 +9,7 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -30,7 +31,7 @@ public class CartItem {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_id_seq")
-    @SequenceGenerator(name = "cart_items_id_seq", sequenceName = "cart_items_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "cart_items_id_seq", sequenceName = "cart_items_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -51,6 +52,11 @@ public class CartItem {
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
+    /**
+     * Цена за единицу, по которой позиция учтена в итогах корзины
+     */
+    @Column(name = "unit_price", precision = 19, scale = 2)
+    private BigDecimal unitPrice;
 
     @CreationTimestamp
     @Column(name = "added_at", nullable = false, updatable = false)
@@ -61,10 +67,15 @@ public class CartItem {
     private LocalDateTime updatedAt;
 
     public CartItem(Cart cart, Long productId, Long variantId, Integer quantity) {
+        this(cart, productId, variantId, quantity, null);
+    }
+
+    public CartItem(Cart cart, Long productId, Long variantId, Integer quantity, BigDecimal unitPrice) {
         this.cart = cart;
         this.productId = productId;
         this.variantId = variantId;
         this.quantity = quantity;
+        this.unitPrice = unitPrice;
     }
 
     public void updateQuantity(Integer newQuantity) {
@@ -74,6 +85,16 @@ public class CartItem {
         this.quantity = newQuantity;
     }
 
+    /**
+     * Стоимость позиции по зафиксированной цене
+     */
+    public BigDecimal getLineTotal() {
+        if (unitPrice == null || quantity == null) {
+            return BigDecimal.ZERO;
+        }
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
 
     @Override
     public boolean equals(Object o) {
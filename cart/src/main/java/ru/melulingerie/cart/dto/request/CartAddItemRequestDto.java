@@ -1,3 +1,5 @@
 package ru.melulingerie.cart.dto.request;
 
-public record CartAddItemRequestDto(Long productId, Long variantId, Integer quantity) {}
\ No newline at end of file
+import java.math.BigDecimal;
+
+public record CartAddItemRequestDto(Long productId, Long variantId, Integer quantity, BigDecimal unitPrice) {}
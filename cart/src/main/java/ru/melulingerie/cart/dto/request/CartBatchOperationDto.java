@@ -0,0 +1,16 @@
+package ru.melulingerie.cart.dto.request;
+
+import java.math.BigDecimal;
+
+/**
+ * Операция пакетного изменения корзины. Для ADD используются productId, variantId, quantity и unitPrice,
+ * для UPDATE_QUANTITY — itemId и quantity, для REMOVE — itemId.
+ */
+public record CartBatchOperationDto(
+        CartBatchOperationType type,
+        Long productId,
+        Long variantId,
+        Long itemId,
+        Integer quantity,
+        BigDecimal unitPrice
+) {}
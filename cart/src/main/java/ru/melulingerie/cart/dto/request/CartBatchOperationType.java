@@ -0,0 +1,7 @@
+package ru.melulingerie.cart.dto.request;
+
+public enum CartBatchOperationType {
+    ADD,
+    UPDATE_QUANTITY,
+    REMOVE
+}
@@ -1,5 +1,6 @@
 package ru.melulingerie.cart.dto.response;
 
+import java.math.BigDecimal;
 import java.util.List;
 
-public record CartGetResponseDto(Long cartId, List<CartItemGetResponseDto> items, Integer itemsCount) {}
\ No newline at end of file
+public record CartGetResponseDto(Long cartId, List<CartItemGetResponseDto> items, Integer itemsCount, BigDecimal totalAmount) {}
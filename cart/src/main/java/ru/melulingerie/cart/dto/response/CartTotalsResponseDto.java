@@ -0,0 +1,11 @@
+package ru.melulingerie.cart.dto.response;
+
+import java.math.BigDecimal;
+
+public record CartTotalsResponseDto(
+        Long cartId,
+        Integer itemsCount,
+        BigDecimal totalAmount,
+        Long version
+) {
+}
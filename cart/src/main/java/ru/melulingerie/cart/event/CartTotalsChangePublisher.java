@@ -0,0 +1,29 @@
+package ru.melulingerie.cart.event;
+
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
+
+/**
+ * JPA-листенер корзины: публикует новые итоги после обновления строки корзины.
+ * Массовые JPQL-обновления листенеры не вызывают — для них событие публикуется явно.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartTotalsChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    public void onCartUpdated(Cart cart) {
+        eventPublisher.publishEvent(new CartTotalsChangedEvent(cart.getId(), new CartTotalsResponseDto(
+                cart.getId(),
+                cart.getItemsCount(),
+                cart.getTotalAmount(),
+                cart.getTotalsVersion()
+        )));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.melulingerie.cart.event;
+
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
+
+/**
+ * Итоги корзины изменились. totals == null — новые итоги неизвестны (массовый пересчёт), запись кэша сбрасывается.
+ */
+public record CartTotalsChangedEvent(Long cartId, CartTotalsResponseDto totals) {
+}
@@ -1,5 +1,7 @@
 package ru.melulingerie.cart.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+
 public final class CartExceptions {
 
     private CartExceptions() {}
@@ -27,4 +29,13 @@ public final class CartExceptions {
             super("Invalid id: " + id); 
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Версия корзины не совпала с ожидаемой клиентом (If-Match): корзину изменили после того, как клиент её прочитал
+     */
+    public static class CartVersionMismatchException extends OptimisticLockingFailureException {
+        public CartVersionMismatchException(Long cartId, Long expectedVersion, long actualVersion) {
+            super("Cart was modified: id=" + cartId + ", expected version " + expectedVersion + ", actual " + actualVersion);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package ru.melulingerie.cart.guest;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись гостевых корзин в БД. Изменённые корзины записываются пакетами по
+ * cart.guest-store.flush-batch-size: одна транзакция на пакет, операторы уходят JDBC-батчами.
+ * После цикла записи записанные и давно не используемые корзины вытесняются из памяти. Вывод корзины из хранилища
+ * отмечается в журнале, а сам журнал сжимается, только когда в нём не меньше cart.guest-store.journal.compact-min-records
+ * записей и доля устаревших среди них не меньше compact-garbage-ratio: после сжатия остаются только снимки,
+ * ещё не записанные в БД.
+ * При старте незаписанные корзины восстанавливаются из журнала.
+ */
+@Slf4j
+@Component
+public class GuestCartFlusher {
+
+    // версия в БД не опускается: снимок, восстановленный из журнала после вывода корзины из хранилища,
+    // не затирает изменения, сделанные уже через БД
+    private static final String UPDATE_CART = "update carts set items_count = ?, total_amount = ?, totals_version = ?, "
+            + "updated_at = ? where id = ? and totals_version < ?";
+    private static final String INSERT_CART = "insert into carts (id, user_id, items_count, total_amount, totals_version, "
+            + "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ITEMS = "delete from cart_items where cart_id = ?";
+    private static final String INSERT_ITEM = "insert into cart_items (id, cart_id, product_id, variant_id, quantity, "
+            + "unit_price, added_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final GuestCartStore store;
+    private final GuestCartJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration idleTimeout;
+    private final long compactMinRecords;
+    private final double compactGarbageRatio;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public GuestCartFlusher(
+            GuestCartStore store,
+            GuestCartJournal journal,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${cart.guest-store.enabled:false}") boolean enabled,
+            @Value("${cart.guest-store.flush-batch-size:500}") int batchSize,
+            @Value("${cart.guest-store.idle-timeout:30m}") Duration idleTimeout,
+            @Value("${cart.guest-store.journal.compact-min-records:10000}") long compactMinRecords,
+            @Value("${cart.guest-store.journal.compact-garbage-ratio:0.5}") double compactGarbageRatio
+    ) {
+        this.store = store;
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.idleTimeout = idleTimeout;
+        this.compactMinRecords = compactMinRecords;
+        this.compactGarbageRatio = compactGarbageRatio;
+    }
+
+    @PostConstruct
+    public void recover() {
+        if (!enabled) {
+            return;
+        }
+        List<GuestCartSnapshot> pending = journal.replay();
+        pending.forEach(store::restore);
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} guest carts from journal", pending.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.guest-store.flush-interval-ms:5000}",
+            initialDelayString = "${cart.guest-store.flush-interval-ms:5000}")
+    public void flushScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flushPending();
+        } catch (RuntimeException e) {
+            log.warn("Guest cart flush failed, carts stay in store and journal", e);
+        }
+    }
+
+    /**
+     * Запись всех изменённых корзин; корзины, изменённые во время записи, попадут в следующий цикл
+     */
+    public int flushPending() {
+        lock.lock();
+        try {
+            List<GuestCartSnapshot> dirty = store.dirty(Integer.MAX_VALUE);
+            for (int from = 0; from < dirty.size(); from += batchSize) {
+                List<GuestCartSnapshot> batch = dirty.subList(from, Math.min(from + batchSize, dirty.size()));
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                batch.forEach(cart -> store.markFlushed(cart.cartId(), cart.version()));
+            }
+            List<Long> evicted = store.evictIdle(idleTimeout);
+            journal.appendRemoval(evicted);
+            compactJournalIfNeeded();
+
+            if (!dirty.isEmpty() || !evicted.isEmpty()) {
+                log.debug("Flushed {} guest carts, evicted {}, {} left in store", dirty.size(), evicted.size(), store.size());
+            }
+            return dirty.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Немедленная запись корзины и вывод её из хранилища: дальше корзина обслуживается из БД.
+     * Вызывается при входе пользователя и оформлении заказа. Корзина выводится, только если после записи
+     * её версия не изменилась; иначе записывается новая версия.
+     */
+    public void flushAndRelease(Long cartId) {
+        lock.lock();
+        try {
+            Optional<GuestCartSnapshot> cart = store.get(cartId);
+            while (cart.isPresent()) {
+                GuestCartSnapshot snapshot = cart.get();
+                transactionTemplate.executeWithoutResult(status -> write(List.of(snapshot)));
+                store.markFlushed(snapshot.cartId(), snapshot.version());
+                if (store.removeIfVersion(cartId, snapshot.version())) {
+                    journal.appendRemoval(List.of(cartId));
+                    log.info("Guest cart {} written to database and released from store", cartId);
+                    return;
+                }
+                log.debug("Guest cart {} changed while being released, writing version after {}", cartId, snapshot.version());
+                cart = store.get(cartId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаление корзин пользователей из хранилища и журнала без записи в БД
+     */
+    public int discardByUserIds(Collection<Long> userIds) {
+        lock.lock();
+        try {
+            List<Long> cartIds = userIds.stream()
+                    .flatMap(userId -> store.findByUserId(userId).stream())
+                    .map(GuestCartSnapshot::cartId)
+                    .toList();
+            if (cartIds.isEmpty()) {
+                return 0;
+            }
+            cartIds.forEach(store::remove);
+            journal.appendRemoval(cartIds);
+            return cartIds.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сжатие журнала, когда он достаточно велик и в основном состоит из устаревших записей.
+     * Актуальных записей не больше, чем корзин в хранилище, поэтому остальные — нижняя оценка устаревших.
+     */
+    private void compactJournalIfNeeded() {
+        long records = journal.records();
+        long obsolete = Math.max(0, records - store.size());
+        if (records < compactMinRecords || obsolete < records * compactGarbageRatio) {
+            return;
+        }
+        journal.compact(snapshot -> store.isFlushed(snapshot.cartId(), snapshot.version()));
+        log.debug("Guest cart journal compacted from {} to {} records", records, journal.records());
+    }
+
+    private void write(List<GuestCartSnapshot> carts) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_CART, carts.stream()
+                .map(cart -> new Object[]{
+                        cart.itemsCount(), cart.totalAmount(), cart.version(), Timestamp.valueOf(cart.updatedAt()),
+                        cart.cartId(), cart.version()
+                })
+                .toList());
+
+        List<GuestCartSnapshot> notUpdated = new ArrayList<>();
+        List<GuestCartSnapshot> written = new ArrayList<>();
+        for (int i = 0; i < carts.size(); i++) {
+            (updated[i] == 0 ? notUpdated : written).add(carts.get(i));
+        }
+        if (!notUpdated.isEmpty()) {
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                    "select id from carts where id in (" + String.join(",", Collections.nCopies(notUpdated.size(), "?")) + ")",
+                    Long.class, notUpdated.stream().map(GuestCartSnapshot::cartId).toArray()));
+            List<Object[]> inserts = new ArrayList<>();
+            for (GuestCartSnapshot cart : notUpdated) {
+                if (existing.contains(cart.cartId())) {
+                    log.debug("Guest cart {} version {} is not newer than database, skipping", cart.cartId(), cart.version());
+                    continue;
+                }
+                inserts.add(new Object[]{
+                        cart.cartId(), cart.userId(), cart.itemsCount(), cart.totalAmount(), cart.version(),
+                        Timestamp.valueOf(cart.createdAt()), Timestamp.valueOf(cart.updatedAt())
+                });
+                written.add(cart);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_CART, inserts);
+            }
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+
+        // позиции заменяются целиком: в хранилище корзина — источник истины
+        jdbcTemplate.batchUpdate(DELETE_ITEMS, written.stream()
+                .map(cart -> new Object[]{cart.cartId()})
+                .toList());
+        List<Object[]> items = written.stream()
+                .flatMap(cart -> cart.items().stream().map(item -> new Object[]{
+                        item.itemId(), cart.cartId(), item.productId(), item.variantId(), item.quantity(),
+                        item.unitPrice(), Timestamp.valueOf(item.addedAt()), Timestamp.valueOf(cart.updatedAt())
+                }))
+                .toList();
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM, items);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.melulingerie.cart.guest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.domain.CartItem;
+
+/**
+ * Идентификаторы гостевых корзин и позиций выдаются генераторами сущностей Hibernate:
+ * те же последовательности и pooled-оптимизатор, поэтому после записи в БД id не меняются.
+ * Вызывается внутри транзакции.
+ */
+@Component
+public class GuestCartIdGenerator {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Long nextCartId() {
+        return next(Cart.class);
+    }
+
+    public Long nextItemId() {
+        return next(CartItem.class);
+    }
+
+    private Long next(Class<?> entityType) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType)
+                .getGenerator();
+        return (Long) generator.generate(session, null, null, EventType.INSERT);
+    }
+}
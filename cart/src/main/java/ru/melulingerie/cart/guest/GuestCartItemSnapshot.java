@@ -0,0 +1,32 @@
+package ru.melulingerie.cart.guest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Позиция гостевой корзины в хранилище отложенной записи
+ */
+public record GuestCartItemSnapshot(
+        Long itemId,
+        Long productId,
+        Long variantId,
+        int quantity,
+        BigDecimal unitPrice,
+        LocalDateTime addedAt
+) {
+
+    public GuestCartItemSnapshot withQuantity(int newQuantity) {
+        return new GuestCartItemSnapshot(itemId, productId, variantId, newQuantity, unitPrice, addedAt);
+    }
+
+    public GuestCartItemSnapshot withUnitPrice(BigDecimal newUnitPrice) {
+        return new GuestCartItemSnapshot(itemId, productId, variantId, quantity, newUnitPrice, addedAt);
+    }
+
+    public BigDecimal lineTotal() {
+        if (unitPrice == null) {
+            return BigDecimal.ZERO;
+        }
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
@@ -0,0 +1,292 @@
+package ru.melulingerie.cart.guest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Журнал гостевых корзин только на дозапись: каждое изменение пишется полным снимком корзины
+ * одной JSON-строкой, при восстановлении побеждает последний снимок. Вывод корзины из хранилища
+ * пишется отметкой удаления, и при восстановлении корзина не возвращается. Сжатие переписывает журнал
+ * последними снимками ещё не записанных корзин (временный файл + атомарное переименование + fsync каталога).
+ * При cart.guest-store.journal.fsync запись сбрасывается на диск до ответа клиенту групповым fsync:
+ * записи, дописанные пока идёт fsync, сбрасываются следующим одним вызовом.
+ */
+@Slf4j
+@Component
+public class GuestCartJournal {
+
+    private static final String REMOVED_CART_ID = "removedCartId";
+
+    private final Path path;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .build();
+    // lock — дозапись и замена файла, syncLock — сброс на диск; если нужны оба, syncLock берётся первым
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long appended;
+    private volatile long synced;
+    private volatile long records;
+
+    public GuestCartJournal(
+            @Value("${cart.guest-store.journal.path:guest-carts.journal}") Path path,
+            @Value("${cart.guest-store.journal.fsync:true}") boolean fsync
+    ) {
+        this.path = path.toAbsolutePath();
+        this.fsync = fsync;
+    }
+
+    /**
+     * Чтение журнала: последний снимок каждой корзины. Оборванная при сбое последняя строка пропускается.
+     */
+    public List<GuestCartSnapshot> replay() {
+        lock.lock();
+        try {
+            return List.copyOf(readLatest().values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(GuestCartSnapshot snapshot) {
+        append(List.of(toLine(snapshot)));
+    }
+
+    /**
+     * Отметки вывода корзин из хранилища: после перезапуска они обслуживаются из БД
+     */
+    public void appendRemoval(Collection<Long> cartIds) {
+        if (!cartIds.isEmpty()) {
+            append(cartIds.stream().map(cartId -> toLine(new Removal(cartId))).toList());
+        }
+    }
+
+    /**
+     * Число записей в журнале с последнего сжатия или восстановления
+     */
+    public long records() {
+        return records;
+    }
+
+    private void append(List<String> lines) {
+        long sequence;
+        lock.lock();
+        try {
+            FileChannel out = openChannel();
+            for (String line : lines) {
+                write(out, line);
+            }
+            records += lines.size();
+            sequence = ++appended;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to guest cart journal " + path, e);
+        } finally {
+            lock.unlock();
+        }
+        if (fsync) {
+            awaitSynced(sequence);
+        }
+    }
+
+    /**
+     * Групповой fsync: поток, получивший syncLock, сбрасывает всё дописанное к этому моменту,
+     * а записи, покрытые чужим fsync, возвращаются без собственного
+     */
+    private void awaitSynced(long sequence) {
+        if (synced >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced >= sequence) {
+                return;
+            }
+            long target;
+            FileChannel out;
+            lock.lock();
+            try {
+                target = appended;
+                out = channel;
+            } finally {
+                lock.unlock();
+            }
+            // пока удерживается syncLock, сжатие не закроет канал
+            if (out != null) {
+                out.force(false);
+            }
+            synced = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync guest cart journal " + path, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Сжатие журнала: остаётся последний снимок каждой корзины, кроме тех, что obsolete признаёт ненужными
+     * (записаны в БД или корзина выведена из хранилища). Журнал перечитывается под блокировкой дозаписи,
+     * поэтому снимок, дописанный во время записи в БД, не теряется.
+     */
+    public void compact(Predicate<GuestCartSnapshot> obsolete) {
+        syncLock.lock();
+        lock.lock();
+        try {
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try {
+                long written = 0;
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (GuestCartSnapshot snapshot : readLatest().values()) {
+                        if (!obsolete.test(snapshot)) {
+                            write(out, toLine(snapshot));
+                            written++;
+                        }
+                    }
+                    out.force(true);
+                }
+                closeChannel();
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // без fsync каталога переименование может не пережить сбой
+                syncDirectory();
+                records = written;
+                // всё дописанное до сжатия уже в новом файле на диске
+                synced = appended;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compact guest cart journal " + path, e);
+            }
+        } finally {
+            lock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        syncLock.lock();
+        lock.lock();
+        try {
+            try {
+                closeChannel();
+            } catch (IOException e) {
+                log.warn("Failed to close guest cart journal {}", path, e);
+            }
+        } finally {
+            lock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    private Map<Long, GuestCartSnapshot> readLatest() {
+        Map<Long, GuestCartSnapshot> snapshots = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return snapshots;
+        }
+        try {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            long count = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                count++;
+                try {
+                    JsonNode record = objectMapper.readTree(line);
+                    if (record.has(REMOVED_CART_ID)) {
+                        snapshots.remove(record.get(REMOVED_CART_ID).asLong());
+                    } else {
+                        GuestCartSnapshot snapshot = objectMapper.treeToValue(record, GuestCartSnapshot.class);
+                        snapshots.put(snapshot.cartId(), snapshot);
+                    }
+                } catch (JsonProcessingException e) {
+                    if (i < lines.size() - 1) {
+                        throw new IllegalStateException("Corrupted guest cart journal " + path + " at line " + (i + 1), e);
+                    }
+                    log.warn("Skipping truncated last record of guest cart journal {}", path);
+                }
+            }
+            records = count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read guest cart journal " + path, e);
+        }
+        return snapshots;
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(path.getParent());
+            boolean created = Files.notExists(path);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (created) {
+                syncDirectory();
+            }
+        }
+        return channel;
+    }
+
+    private void syncDirectory() {
+        if (!fsync) {
+            return;
+        }
+        try (FileChannel directory = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // не все ОС позволяют открыть каталог (Windows); там переименование журналируется файловой системой
+            log.debug("Directory of guest cart journal {} cannot be synced", path, e);
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private String toLine(Object record) {
+        try {
+            return objectMapper.writeValueAsString(record) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize guest cart journal record", e);
+        }
+    }
+
+    private void write(FileChannel out, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Отметка вывода корзины из хранилища
+     */
+    private record Removal(Long removedCartId) {
+    }
+}
@@ -0,0 +1,48 @@
+package ru.melulingerie.cart.guest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Неизменяемое состояние гостевой корзины. Каждое изменение порождает новый снимок
+ * с увеличенной версией; итоги пересчитываются по позициям.
+ */
+public record GuestCartSnapshot(
+        Long cartId,
+        Long userId,
+        List<GuestCartItemSnapshot> items,
+        BigDecimal totalAmount,
+        long version,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static GuestCartSnapshot empty(Long cartId, Long userId, LocalDateTime now) {
+        return new GuestCartSnapshot(cartId, userId, List.of(), BigDecimal.ZERO, 0, now, now);
+    }
+
+    public GuestCartSnapshot withItems(List<GuestCartItemSnapshot> newItems, LocalDateTime now) {
+        BigDecimal newTotal = newItems.stream()
+                .map(GuestCartItemSnapshot::lineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new GuestCartSnapshot(cartId, userId, List.copyOf(newItems), newTotal, version + 1, createdAt, now);
+    }
+
+    public int itemsCount() {
+        return items.size();
+    }
+
+    public Optional<GuestCartItemSnapshot> findItem(Long productId, Long variantId) {
+        return items.stream()
+                .filter(item -> item.productId().equals(productId) && item.variantId().equals(variantId))
+                .findFirst();
+    }
+
+    public Optional<GuestCartItemSnapshot> findItem(Long itemId) {
+        return items.stream()
+                .filter(item -> item.itemId().equals(itemId))
+                .findFirst();
+    }
+}
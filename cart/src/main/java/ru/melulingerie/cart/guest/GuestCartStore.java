@@ -0,0 +1,66 @@
+package ru.melulingerie.cart.guest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище гостевых корзин с отложенной записью в БД. Пока корзина находится в хранилище,
+ * оно является источником истины для неё; в БД изменения попадают пакетами через {@link GuestCartFlusher}.
+ */
+public interface GuestCartStore {
+
+    Optional<GuestCartSnapshot> get(Long cartId);
+
+    Optional<GuestCartSnapshot> findByUserId(Long userId);
+
+    /**
+     * Добавление новой корзины; false — хранилище заполнено
+     */
+    boolean add(GuestCartSnapshot cart);
+
+    /**
+     * Восстановление корзины из журнала без проверки ёмкости: незаписанные изменения не теряются
+     */
+    void restore(GuestCartSnapshot cart);
+
+    /**
+     * Атомарное изменение корзины. Исключение из change оставляет корзину без изменений.
+     * Пустой результат — корзины нет в хранилище.
+     */
+    Optional<GuestCartSnapshot> update(Long cartId, UnaryOperator<GuestCartSnapshot> change);
+
+    /**
+     * Корзины с изменениями, ещё не записанными в БД
+     */
+    List<GuestCartSnapshot> dirty(int limit);
+
+    /**
+     * Корзины, содержащие хотя бы один из вариантов
+     */
+    List<GuestCartSnapshot> findByVariantIds(Collection<Long> variantIds);
+
+    void markFlushed(Long cartId, long version);
+
+    /**
+     * Снимок версии version больше не нужен в журнале: корзины нет в хранилище или эта версия уже записана в БД.
+     * Не берёт блокировок корзин — вызывается под блокировкой журнала.
+     */
+    boolean isFlushed(Long cartId, long version);
+
+    /**
+     * Вытеснение записанных в БД корзин, к которым не обращались дольше idleTimeout; возвращает id вытесненных
+     */
+    List<Long> evictIdle(Duration idleTimeout);
+
+    void remove(Long cartId);
+
+    /**
+     * Удаление корзины, только если её версия не изменилась; false — корзина изменена или её уже нет
+     */
+    boolean removeIfVersion(Long cartId, long version);
+
+    int size();
+}
@@ -0,0 +1,187 @@
+package ru.melulingerie.cart.guest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище гостевых корзин в памяти процесса, ограниченное cart.guest-store.max-carts.
+ * Изменения одной корзины сериализуются блокировкой по cartId, а не через {@link ConcurrentHashMap#compute}:
+ * изменение пишет журнал, и монитор бина на время fsync блокировал бы соседние корзины
+ * и закреплял виртуальный поток за несущим.
+ */
+@Component
+public class InMemoryGuestCartStore implements GuestCartStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final int maxCarts;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ConcurrentHashMap<Long, Entry> carts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long/*userId*/, Long/*cartId*/> cartIdByUserId = new ConcurrentHashMap<>();
+
+    public InMemoryGuestCartStore(@Value("${cart.guest-store.max-carts:100000}") int maxCarts) {
+        this.maxCarts = maxCarts;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Optional<GuestCartSnapshot> get(Long cartId) {
+        return Optional.ofNullable(carts.computeIfPresent(cartId, (id, entry) -> entry.touch()))
+                .map(Entry::cart);
+    }
+
+    @Override
+    public Optional<GuestCartSnapshot> findByUserId(Long userId) {
+        return Optional.ofNullable(cartIdByUserId.get(userId)).flatMap(this::get);
+    }
+
+    @Override
+    public boolean add(GuestCartSnapshot cart) {
+        if (carts.size() >= maxCarts) {
+            return false;
+        }
+        restore(cart);
+        return true;
+    }
+
+    @Override
+    public void restore(GuestCartSnapshot cart) {
+        carts.put(cart.cartId(), new Entry(cart, -1, System.currentTimeMillis()));
+        cartIdByUserId.put(cart.userId(), cart.cartId());
+    }
+
+    @Override
+    public Optional<GuestCartSnapshot> update(Long cartId, UnaryOperator<GuestCartSnapshot> change) {
+        ReentrantLock lock = lockFor(cartId);
+        lock.lock();
+        try {
+            Entry entry = carts.get(cartId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            GuestCartSnapshot after = change.apply(entry.cart());
+            long now = System.currentTimeMillis();
+            // отметку записи в БД могла обновить запись хранилища в это время — берётся текущая
+            return Optional.ofNullable(carts.computeIfPresent(cartId,
+                            (id, current) -> new Entry(after, current.flushedVersion(), now)))
+                    .map(Entry::cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<GuestCartSnapshot> dirty(int limit) {
+        return carts.values().stream()
+                .filter(Entry::dirty)
+                .limit(limit)
+                .map(Entry::cart)
+                .toList();
+    }
+
+    @Override
+    public List<GuestCartSnapshot> findByVariantIds(Collection<Long> variantIds) {
+        return carts.values().stream()
+                .map(Entry::cart)
+                .filter(cart -> cart.items().stream().anyMatch(item -> variantIds.contains(item.variantId())))
+                .toList();
+    }
+
+    @Override
+    public void markFlushed(Long cartId, long version) {
+        carts.computeIfPresent(cartId, (id, entry) ->
+                new Entry(entry.cart(), Math.max(entry.flushedVersion(), version), entry.accessedAt()));
+    }
+
+    @Override
+    public boolean isFlushed(Long cartId, long version) {
+        Entry entry = carts.get(cartId);
+        return entry == null || entry.flushedVersion() >= version;
+    }
+
+    @Override
+    public List<Long> evictIdle(Duration idleTimeout) {
+        long threshold = System.currentTimeMillis() - idleTimeout.toMillis();
+        List<Long> evicted = new ArrayList<>();
+        for (Long cartId : carts.keySet()) {
+            ReentrantLock lock = lockFor(cartId);
+            lock.lock();
+            try {
+                Entry removed = carts.computeIfPresent(cartId,
+                        (id, entry) -> !entry.dirty() && entry.accessedAt() < threshold ? null : entry);
+                if (removed == null) {
+                    evicted.add(cartId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        cartIdByUserId.values().removeIf(cartId -> !carts.containsKey(cartId));
+        return evicted;
+    }
+
+    @Override
+    public void remove(Long cartId) {
+        ReentrantLock lock = lockFor(cartId);
+        lock.lock();
+        try {
+            Entry removed = carts.remove(cartId);
+            if (removed != null) {
+                cartIdByUserId.remove(removed.cart().userId(), cartId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeIfVersion(Long cartId, long version) {
+        ReentrantLock lock = lockFor(cartId);
+        lock.lock();
+        try {
+            Entry entry = carts.get(cartId);
+            if (entry == null || entry.cart().version() != version) {
+                return false;
+            }
+            carts.remove(cartId);
+            cartIdByUserId.remove(entry.cart().userId(), cartId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return carts.size();
+    }
+
+    private ReentrantLock lockFor(Long cartId) {
+        return locks[Math.floorMod(cartId.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * flushedVersion — последняя записанная в БД версия, -1 — корзины ещё нет в БД
+     */
+    private record Entry(GuestCartSnapshot cart, long flushedVersion, long accessedAt) {
+
+        private boolean dirty() {
+            return cart.version() > flushedVersion;
+        }
+
+        private Entry touch() {
+            return new Entry(cart, flushedVersion, System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.melulingerie.cart.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Вариант, количество и зафиксированная цена позиции
+ */
+public interface CartItemQuantityProjection {
+    Long getVariantId();
+    Integer getQuantity();
+    BigDecimal getUnitPrice();
+}
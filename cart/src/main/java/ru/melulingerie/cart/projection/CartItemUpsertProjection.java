@@ -0,0 +1,12 @@
+package ru.melulingerie.cart.projection;
+
+/**
+ * Результат атомарного добавления позиции. itemId == null — лимит корзины или позиции не позволил изменение.
+ */
+public interface CartItemUpsertProjection {
+    Long getCartId();
+    Long getItemId();
+    Integer getQuantity();
+    Boolean getInserted();
+    Integer getExistingQuantity();
+}
@@ -1,14 +1,19 @@
 package ru.melulingerie.cart.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
+import ru.melulingerie.cart.projection.CartItemQuantityProjection;
+import ru.melulingerie.cart.projection.CartItemUpsertProjection;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +30,56 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
                                             @Param("productId") Long productId,
                                             @Param("variantId") Long variantId);
 
+    /**
+     * Добавление позиции одним оператором PostgreSQL: строка корзины блокируется, позиция вставляется
+     * или её количество увеличивается (ON CONFLICT), итоги корзины получают приращение.
+     * Лимиты позиций корзины и количества позиции проверяются в том же операторе.
+     * Зафиксированная цена существующей позиции не меняется — её обновляет сверка итогов.
+     * prev читается по снимку оператора и не видит позицию, вставленную транзакцией, которую ждала блокировка c:
+     * пустые itemId и existingQuantity означают «корзина заполнена» только после повтора оператора.
+     */
+    @Query(value = """
+            with c as (
+                select id, items_count from carts where id = :cartId for no key update
+            ),
+            prev as (
+                select quantity from cart_items
+                where cart_id = :cartId and product_id = :productId and variant_id = :variantId
+            ),
+            upserted as (
+                insert into cart_items (id, cart_id, product_id, variant_id, quantity, unit_price, added_at, updated_at)
+                select nextval('cart_items_id_seq'), c.id, :productId, :variantId, :quantity,
+                       cast(:unitPrice as numeric), now(), now()
+                from c
+                where :quantity <= :maxQuantity
+                  and (c.items_count < :maxItems or exists (select 1 from prev))
+                on conflict (cart_id, product_id, variant_id) do update
+                    set quantity = cart_items.quantity + excluded.quantity,
+                        updated_at = excluded.updated_at
+                    where cart_items.quantity + excluded.quantity <= :maxQuantity
+                returning id, quantity, unit_price, xmax = 0 as inserted
+            ),
+            totals as (
+                update carts
+                set items_count = items_count + (select count(*) from upserted where inserted),
+                    total_amount = total_amount + (select coalesce(sum(unit_price * :quantity), 0) from upserted),
+                    totals_version = totals_version + 1,
+                    updated_at = now()
+                where id = :cartId and exists (select 1 from upserted)
+            )
+            select c.id as cartId, u.id as itemId, u.quantity as quantity, u.inserted as inserted,
+                   (select quantity from prev) as existingQuantity
+            from c
+            left join upserted u on true
+            """, nativeQuery = true)
+    Optional<CartItemUpsertProjection> upsertCartItem(@Param("cartId") Long cartId,
+                                                      @Param("productId") Long productId,
+                                                      @Param("variantId") Long variantId,
+                                                      @Param("quantity") int quantity,
+                                                      @Param("unitPrice") BigDecimal unitPrice,
+                                                      @Param("maxItems") int maxItems,
+                                                      @Param("maxQuantity") int maxQuantity);
+
     /**
      * Найти элемент по ID корзины и ID элемента
      */
@@ -34,6 +89,36 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartIdAndItemId(@Param("cartId") Long cartId, 
                                              @Param("itemId") Long itemId);
 
+    /**
+     * Варианты, количества и цены позиций для приращения итогов корзины при удалении
+     */
+    @Query("SELECT ci.variantId AS variantId, ci.quantity AS quantity, ci.unitPrice AS unitPrice FROM CartItem ci " +
+           "WHERE ci.cart.id = :cartId AND ci.id IN :itemIds")
+    List<CartItemQuantityProjection> findQuantitiesByCartIdAndItemIds(@Param("cartId") Long cartId,
+                                                                      @Param("itemIds") List<Long> itemIds);
+
+    /**
+     * Варианты, у позиций которых зафиксирована другая цена
+     */
+    @Query("SELECT DISTINCT ci.variantId FROM CartItem ci " +
+           "WHERE ci.variantId IN :variantIds AND (ci.unitPrice IS NULL OR ci.unitPrice <> :unitPrice)")
+    List<Long> findVariantIdsWithOtherUnitPrice(@Param("variantIds") Collection<Long> variantIds,
+                                                @Param("unitPrice") BigDecimal unitPrice);
+
+    /**
+     * Обновление зафиксированной цены позиций вариантов с одной ценой, если она изменилась
+     */
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.unitPrice = :unitPrice " +
+           "WHERE ci.variantId IN :variantIds AND (ci.unitPrice IS NULL OR ci.unitPrice <> :unitPrice)")
+    int updateUnitPriceByVariantIds(@Param("variantIds") Collection<Long> variantIds, @Param("unitPrice") BigDecimal unitPrice);
+
+    /**
+     * Варианты в корзинах по возрастанию ID для постраничного обхода
+     */
+    @Query("SELECT DISTINCT ci.variantId FROM CartItem ci WHERE ci.variantId > :afterVariantId ORDER BY ci.variantId")
+    List<Long> findVariantIdsAfter(@Param("afterVariantId") Long afterVariantId, Limit limit);
+
     /**
      * Bulk удаление элементов корзины по ID
      */
@@ -41,4 +126,47 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.id IN :itemIds")
     int deleteByCartIdAndItemIds(@Param("cartId") Long cartId, @Param("itemIds") List<Long> itemIds);
 
-}
\ No newline at end of file
+    /**
+     * Слияние корзин: количество совпадающих позиций целевой корзины увеличивается на количество
+     * позиций исходной, но не выше maxQuantity
+     */
+    @Modifying
+    @Query("UPDATE CartItem t SET t.quantity = least(t.quantity + (" +
+           "SELECT s.quantity FROM CartItem s WHERE s.cart.id = :sourceCartId " +
+           "AND s.productId = t.productId AND s.variantId = t.variantId), :maxQuantity) " +
+           "WHERE t.cart.id = :targetCartId AND EXISTS (" +
+           "SELECT 1 FROM CartItem s WHERE s.cart.id = :sourceCartId " +
+           "AND s.productId = t.productId AND s.variantId = t.variantId)")
+    int mergeQuantities(@Param("sourceCartId") Long sourceCartId,
+                        @Param("targetCartId") Long targetCartId,
+                        @Param("maxQuantity") int maxQuantity);
+
+    /**
+     * Позиции исходной корзины, которых нет в целевой, — новые сначала
+     */
+    @Query("SELECT s.id FROM CartItem s WHERE s.cart.id = :sourceCartId AND NOT EXISTS (" +
+           "SELECT 1 FROM CartItem t WHERE t.cart.id = :targetCartId " +
+           "AND t.productId = s.productId AND t.variantId = s.variantId) " +
+           "ORDER BY s.addedAt DESC")
+    List<Long> findIdsMissingInCart(@Param("sourceCartId") Long sourceCartId,
+                                    @Param("targetCartId") Long targetCartId,
+                                    Limit limit);
+
+    /**
+     * Перенос позиций в другую корзину без перевставки
+     */
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.cart = :cart WHERE ci.id IN :itemIds")
+    int moveToCart(@Param("itemIds") Collection<Long> itemIds, @Param("cart") Cart cart);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+
+    /**
+     * Bulk удаление позиций всех корзин пользователей
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN (SELECT c.id FROM Cart c WHERE c.userId IN :userIds)")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,11 +1,17 @@
 package ru.melulingerie.cart.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
@@ -24,4 +30,57 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
      */
     @Query("SELECT c FROM Cart c WHERE c.userId = :userId")
     Optional<Cart> findByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Корзина пользователя с блокировкой строки до конца транзакции: итоги и число позиций
+     * не меняются параллельными операциями, пока в корзину сливается гостевая
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.userId = :userId")
+    Optional<Cart> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Итоги корзины одной строкой по первичному ключу, без загрузки позиций
+     */
+    @Query("SELECT new ru.melulingerie.cart.dto.response.CartTotalsResponseDto(" +
+           "c.id, c.itemsCount, c.totalAmount, c.totalsVersion) " +
+           "FROM Cart c WHERE c.id = :cartId")
+    Optional<CartTotalsResponseDto> findTotalsById(@Param("cartId") Long cartId);
+
+    /**
+     * Корзины, содержащие указанные варианты
+     */
+    @Query("SELECT DISTINCT ci.cart.id FROM CartItem ci WHERE ci.variantId IN :variantIds")
+    List<Long> findCartIdsByVariantIds(@Param("variantIds") Collection<Long> variantIds);
+
+    /**
+     * Пересчёт итогов корзин по позициям
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET " +
+           "c.itemsCount = (SELECT count(ci) FROM CartItem ci WHERE ci.cart = c), " +
+           "c.totalAmount = (SELECT coalesce(sum(ci.unitPrice * ci.quantity), 0) FROM CartItem ci WHERE ci.cart = c), " +
+           "c.totalsVersion = c.totalsVersion + 1 " +
+           "WHERE c.id IN :cartIds")
+    int recalculateTotalsByIds(@Param("cartIds") Collection<Long> cartIds);
+
+    /**
+     * Удаление корзин по ID; позиции удаляются раньше
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :cartIds")
+    int deleteByIds(@Param("cartIds") Collection<Long> cartIds);
+
+    /**
+     * ID корзин пользователей
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.userId IN :userIds")
+    List<Long> findIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Удаление корзин пользователей; позиции удаляются раньше, см. {@link CartItemRepository#deleteByUserIds}
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.userId IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
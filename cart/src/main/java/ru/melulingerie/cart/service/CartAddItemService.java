@@ -1,9 +1,19 @@
 package ru.melulingerie.cart.service;
 
+import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
 import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
 
 public interface CartAddItemService {
 
-    CartAddItemResponseDto addCartItem(Long cartId, CartAddItemRequestDto request);
+    default CartAddItemResponseDto addCartItem(Long cartId, CartAddItemRequestDto request) {
+        return addCartItem(cartId, request, null);
+    }
+
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    CartAddItemResponseDto addCartItem(Long cartId, CartAddItemRequestDto request, Long expectedVersion);
+
+    CartAddItemResponseDto addCartItem(Cart cart, CartAddItemRequestDto request);
 }
\ No newline at end of file
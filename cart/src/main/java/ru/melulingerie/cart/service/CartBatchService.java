@@ -0,0 +1,27 @@
+package ru.melulingerie.cart.service;
+
+import ru.melulingerie.cart.dto.request.CartBatchOperationDto;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+
+import java.util.List;
+
+public interface CartBatchService {
+
+    /**
+     * Применяет операции по порядку в одной транзакции и возвращает корзину после изменений
+     */
+    default CartGetResponseDto applyOperations(Long cartId, List<CartBatchOperationDto> operations) {
+        return applyOperations(cartId, operations, null);
+    }
+
+    default CartGetResponseDto applyOperations(Long cartId, List<CartBatchOperationDto> operations, Long expectedVersion) {
+        return applyOperations(cartId, operations, expectedVersion, CartQuantityGuard.NONE);
+    }
+
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     * @param guard получает итоговое изменение количества по вариантам за весь пакет до фиксации записи
+     */
+    CartGetResponseDto applyOperations(Long cartId, List<CartBatchOperationDto> operations, Long expectedVersion,
+                                       CartQuantityGuard guard);
+}
@@ -0,0 +1,18 @@
+package ru.melulingerie.cart.service;
+
+import java.util.Collection;
+
+/**
+ * Удаление корзин удаляемых пользователей
+ */
+public interface CartCleanupService {
+
+    /**
+     * Удаляет корзины пользователей вместе с позициями, в том числе ещё не записанные гостевые
+     * @return количество удалённых строк по таблицам
+     */
+    CartCleanupResult deleteCartsByUserIds(Collection<Long> userIds);
+
+    record CartCleanupResult(int carts, int cartItems) {
+    }
+}
@@ -2,5 +2,12 @@ package ru.melulingerie.cart.service;
 
 public interface CartClearService {
 
-    Integer clearCart(Long cartId);
+    default Integer clearCart(Long cartId) {
+        return clearCart(cartId, null);
+    }
+
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    Integer clearCart(Long cartId, Long expectedVersion);
 }
\ No newline at end of file
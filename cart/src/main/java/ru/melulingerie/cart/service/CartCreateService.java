@@ -11,4 +11,9 @@ public interface CartCreateService {
      * @return ответ с информацией о созданной корзине
      */
     CartCreateResponseDto createCart(Long userId);
+
+    /**
+     * Создает корзину гостевого пользователя; до записи в БД она может храниться в хранилище отложенной записи
+     */
+    CartCreateResponseDto createGuestCart(Long userId);
 }
\ No newline at end of file
@@ -1,8 +1,17 @@
 package ru.melulingerie.cart.service;
 
+import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
 
 public interface CartGetService {
 
     CartGetResponseDto getCart(Long cartId);
+
+    CartGetResponseDto getCart(Cart cart);
+
+    /**
+     * Итоги корзины без загрузки позиций; обслуживаются из кэша итогов
+     */
+    CartTotalsResponseDto getCartTotals(Long cartId);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package ru.melulingerie.cart.service;
+
+import java.util.Optional;
+
+/**
+ * Доменный сервис слияния гостевой корзины с корзиной пользователя при входе
+ */
+public interface CartMergeService {
+
+    /**
+     * Записывает гостевые корзины обоих пользователей из хранилища отложенной записи в БД.
+     * Вызывается вне транзакции слияния: её откат не должен терять гостевую корзину.
+     */
+    void releaseGuestCarts(Long guestUserId, Long userId);
+
+    /**
+     * Переносит позиции гостевой корзины в корзину пользователя и удаляет гостевую корзину
+     * @param guestUserId идентификатор гостя
+     * @param userId идентификатор пользователя
+     * @return результат слияния; пусто, если у гостя нет корзины
+     */
+    Optional<CartMergeResult> mergeCarts(Long guestUserId, Long userId);
+
+    /**
+     * @param cartId корзина пользователя после слияния
+     * @param mergedItems позиции, количество которых сложено с уже имеющимися
+     * @param movedItems позиции, перенесённые из гостевой корзины
+     * @param droppedItems позиции, не поместившиеся в лимит cart.max-items
+     */
+    record CartMergeResult(Long cartId, int mergedItems, int movedItems, int droppedItems) {
+    }
+}
@@ -0,0 +1,32 @@
+package ru.melulingerie.cart.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Проверка изменения количества вариантов внутри записи в корзину. Разница считается по позициям,
+ * которые запись уже загрузила в своей транзакции (или под блокировкой гостевой корзины), и передаётся
+ * до фиксации изменений: исключение отменяет запись. При повторе записи после конфликта версий
+ * вызывается заново с пересчитанной разницей.
+ */
+@FunctionalInterface
+public interface CartQuantityGuard {
+
+    CartQuantityGuard NONE = quantityDeltas -> {
+    };
+
+    /**
+     * @param quantityDeltas изменение количества по вариантам; нулевые изменения не передаются
+     */
+    void beforeWrite(Map<Long/*variantId*/, Integer> quantityDeltas);
+
+    /**
+     * Разница количеств по вариантам между состояниями корзины до и после изменения
+     */
+    static Map<Long, Integer> deltas(Map<Long/*variantId*/, Integer> before, Map<Long/*variantId*/, Integer> after) {
+        Map<Long, Integer> deltas = new HashMap<>(after);
+        before.forEach((variantId, quantity) -> deltas.merge(variantId, -quantity, Integer::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+}
@@ -1,8 +1,24 @@
 package ru.melulingerie.cart.service;
 
+import ru.melulingerie.cart.domain.Cart;
+
 import java.util.List;
 
 public interface CartRemoveItemService {
 
-    void removeCartItems(Long cartId, List<Long> itemIds);
+    default void removeCartItems(Long cartId, List<Long> itemIds) {
+        removeCartItems(cartId, itemIds, null);
+    }
+
+    default void removeCartItems(Long cartId, List<Long> itemIds, Long expectedVersion) {
+        removeCartItems(cartId, itemIds, expectedVersion, CartQuantityGuard.NONE);
+    }
+
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     * @param guard получает количество удаляемых позиций по вариантам (со знаком минус) до фиксации записи
+     */
+    void removeCartItems(Long cartId, List<Long> itemIds, Long expectedVersion, CartQuantityGuard guard);
+
+    void removeCartItems(Cart cart, List<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.melulingerie.cart.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public interface CartTotalsReconciliationService {
+
+    /**
+     * Обновляет зафиксированные цены позиций вариантов и пересчитывает итоги затронутых корзин
+     *
+     * @return количество пересчитанных корзин
+     */
+    int reconcileUnitPrices(Map<Long, BigDecimal> unitPriceByVariantId);
+
+    /**
+     * Варианты, лежащие в корзинах, по возрастанию ID после afterVariantId — для полной сверки
+     */
+    List<Long> getCartVariantIds(Long afterVariantId, int limit);
+}
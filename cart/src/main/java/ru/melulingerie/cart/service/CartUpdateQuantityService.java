@@ -1,6 +1,22 @@
 package ru.melulingerie.cart.service;
 
+import ru.melulingerie.cart.domain.Cart;
+
 public interface CartUpdateQuantityService {
 
-    void updateItemQuantity(Long cartId, Long itemId, Integer quantity);
+    default void updateItemQuantity(Long cartId, Long itemId, Integer quantity) {
+        updateItemQuantity(cartId, itemId, quantity, null);
+    }
+
+    default void updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion) {
+        updateItemQuantity(cartId, itemId, quantity, expectedVersion, CartQuantityGuard.NONE);
+    }
+
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     * @param guard получает изменение количества варианта позиции до фиксации записи
+     */
+    void updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion, CartQuantityGuard guard);
+
+    void updateItemQuantity(Cart cart, Long itemId, Integer quantity);
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package ru.melulingerie.cart.service;
+
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.dto.request.CartBatchOperationDto;
+import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
+import ru.melulingerie.cart.dto.response.CartCreateResponseDto;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Операции над гостевыми корзинами в хранилище отложенной записи.
+ * Пустой результат (или false) — корзины нет в хранилище, операция выполняется через БД.
+ * expectedVersion сверяется с версией снимка атомарно с изменением; null — без условия.
+ * {@link CartQuantityGuard} вызывается под блокировкой корзины до записи нового снимка в журнал.
+ */
+public interface GuestCartService {
+
+    /**
+     * Создаёт гостевую корзину в хранилище; пусто — хранилище выключено или заполнено
+     */
+    Optional<CartCreateResponseDto> createCart(Long userId);
+
+    Optional<Long> findCartIdByUserId(Long userId);
+
+    Optional<CartAddItemResponseDto> addCartItem(Long cartId, CartAddItemRequestDto request, Long expectedVersion);
+
+    boolean updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion, CartQuantityGuard guard);
+
+    boolean removeCartItems(Long cartId, List<Long> itemIds, Long expectedVersion, CartQuantityGuard guard);
+
+    Optional<Integer> clearCart(Long cartId, Long expectedVersion);
+
+    Optional<CartGetResponseDto> getCart(Long cartId);
+
+    Optional<CartTotalsResponseDto> getCartTotals(Long cartId);
+
+    Optional<CartGetResponseDto> applyOperations(Long cartId, List<CartBatchOperationDto> operations, Long expectedVersion,
+                                                 CartQuantityGuard guard);
+
+    /**
+     * Новые цены позиций корзин в хранилище после изменения цен; возвращает ID изменённых корзин
+     */
+    Set<Long> repriceItems(Map<Long/*variantId*/, BigDecimal> unitPriceByVariantId);
+
+    /**
+     * Корзина сейчас в хранилище: её итоги в БД обновит только запись из хранилища
+     */
+    boolean isStored(Long cartId);
+
+    /**
+     * Запись корзины в БД и вывод из хранилища — при входе пользователя и оформлении заказа
+     */
+    void flushCart(Long cartId);
+}
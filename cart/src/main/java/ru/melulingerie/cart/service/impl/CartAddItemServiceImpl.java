@@ -4,6 +4,7 @@ import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.melulingerie.cart.domain.Cart;
@@ -12,15 +13,23 @@ import ru.melulingerie.cart.repository.CartItemRepository;
 import ru.melulingerie.cart.repository.CartRepository;
 import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
 import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
+import ru.melulingerie.cart.event.CartTotalsChangedEvent;
 import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.projection.CartItemUpsertProjection;
 import ru.melulingerie.cart.service.CartAddItemService;
+import ru.melulingerie.cart.service.GuestCartService;
+import ru.melulingerie.cart.util.CartOptimisticRetry;
 import ru.melulingerie.cart.util.CartValidator;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 /**
  * Сервис для добавления товаров в корзину.
  * Поддерживает обновление количества существующих товаров и добавление новых товаров.
+ * При включённом cart.add-item.atomic-upsert добавление по cartId выполняется одним оператором
+ * INSERT ... ON CONFLICT: повторное добавление той же позиции суммирует количество, а не падает на уникальном ключе.
+ * Условная запись (If-Match) выполняется через загруженную корзину: версия сверяется и проверяется при flush.
  */
 @Slf4j
 @Service
@@ -33,33 +42,102 @@ public class CartAddItemServiceImpl implements CartAddItemService {
     @Value("${cart.max-quantity-per-item:99}")
     private int maxQuantityPerItem;
 
+    @Value("${cart.add-item.atomic-upsert:true}")
+    private boolean atomicUpsert;
+
     private final CartValidator cartValidator;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
+    private final GuestCartService guestCartService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CartOptimisticRetry optimisticRetry;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public CartAddItemResponseDto addCartItem(Long cartId, CartAddItemRequestDto request) {
+    public CartAddItemResponseDto addCartItem(Long cartId, CartAddItemRequestDto request, Long expectedVersion) {
         log.debug("Adding item to cart: cartId={}, productId={}, variantId={}, quantity={}", 
                   cartId, request.productId(), request.variantId(), request.quantity());
 
         cartValidator.validateCartId(cartId);
         cartValidator.validateAddItemRequest(request);
 
-        Cart cart = cartRepository.findCartByIdWithItemsSortedByDate(cartId)
-                .orElseThrow(() -> new CartExceptions.CartNotFoundException(cartId));
+        return optimisticRetry.execute(cartId, () -> {
+            Optional<CartAddItemResponseDto> guestResponse = guestCartService.addCartItem(cartId, request, expectedVersion);
+            if (guestResponse.isPresent()) {
+                return guestResponse.get();
+            }
+
+            if (atomicUpsert && expectedVersion == null) {
+                return upsertCartItem(cartId, request);
+            }
+
+            Cart cart = cartRepository.findCartByIdWithItemsSortedByDate(cartId)
+                    .orElseThrow(() -> new CartExceptions.CartNotFoundException(cartId));
+            cartValidator.validateExpectedVersion(cartId, expectedVersion, cart.getTotalsVersion());
+
+            return addCartItem(cart, request);
+        });
+    }
+
+    /**
+     * Добавление в уже загруженную корзину: позиция ищется среди загруженных элементов, без запроса в БД
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public CartAddItemResponseDto addCartItem(Cart cart, CartAddItemRequestDto request) {
+        cartValidator.validateAddItemRequest(request);
 
-        Optional<CartItem> existingItem = cartItemRepository
-                .findByCartAndProduct(cartId, request.productId(), request.variantId());
+        Optional<CartItem> existingItem = cart.getCartItems().stream()
+                .filter(item -> item.getProductId().equals(request.productId())
+                        && item.getVariantId().equals(request.variantId()))
+                .findFirst();
 
-        return existingItem.map(cartItem -> updateExistingItem(cartItem, request))
+        return existingItem.map(cartItem -> updateExistingItem(cart, cartItem, request))
                 .orElseGet(() -> addNewItem(cart, request));
     }
 
+    /**
+     * Добавление одним оператором: вставка или увеличение количества, проверка лимитов и приращение итогов
+     */
+    private CartAddItemResponseDto upsertCartItem(Long cartId, CartAddItemRequestDto request) {
+        if (request.quantity() > maxQuantityPerItem) {
+            throw new CartExceptions.InvalidQuantityException(request.quantity());
+        }
+
+        CartItemUpsertProjection result = upsert(cartId, request);
+        if (result.getItemId() == null && result.getExistingQuantity() == null) {
+            // оператор ждал блокировку корзины, пока параллельное добавление вставляло ту же позицию:
+            // счётчик позиций уже учитывает её, а снимок оператора — нет. Повтор видит позицию
+            result = upsert(cartId, request);
+        }
+
+        if (result.getItemId() == null) {
+            if (result.getExistingQuantity() != null) {
+                throw new CartExceptions.InvalidQuantityException(result.getExistingQuantity() + request.quantity());
+            }
+            throw new CartExceptions.CartFullException(maxItemsPerCart);
+        }
+
+        // строка корзины обновлена нативным запросом, минуя JPA-листенер
+        eventPublisher.publishEvent(new CartTotalsChangedEvent(cartId, null));
+
+        boolean inserted = Boolean.TRUE.equals(result.getInserted());
+        log.debug("Upserted cart item: cartId={}, itemId={}, quantity={}, inserted={}",
+                  cartId, result.getItemId(), result.getQuantity(), inserted);
+
+        return new CartAddItemResponseDto(result.getItemId(), result.getQuantity(),
+                inserted ? "Added to cart" : "Quantity updated in cart");
+    }
+
+    private CartItemUpsertProjection upsert(Long cartId, CartAddItemRequestDto request) {
+        return cartItemRepository.upsertCartItem(cartId, request.productId(), request.variantId(), request.quantity(),
+                        request.unitPrice(), maxItemsPerCart, maxQuantityPerItem)
+                .orElseThrow(() -> new CartExceptions.CartNotFoundException(cartId));
+    }
+
     /**
      * Обновление количества существующего товара в корзине
      */
-    private CartAddItemResponseDto updateExistingItem(CartItem existingItem, CartAddItemRequestDto request) {
+    private CartAddItemResponseDto updateExistingItem(Cart cart, CartItem existingItem, CartAddItemRequestDto request) {
         log.debug("Updating existing cart item: itemId={}, currentQuantity={}, additionalQuantity={}", 
                   existingItem.getId(), existingItem.getQuantity(), request.quantity());
 
@@ -69,11 +147,13 @@ public class CartAddItemServiceImpl implements CartAddItemService {
             throw new CartExceptions.InvalidQuantityException(newQuantity);
         }
 
+        BigDecimal previousLineTotal = existingItem.getLineTotal();
         existingItem.updateQuantity(newQuantity);
+        if (request.unitPrice() != null) {
+            existingItem.setUnitPrice(request.unitPrice());
+        }
 
-        cartItemRepository.save(existingItem);
-        
-        updateCartTotalAmount(existingItem.getCart());
+        updateCartTotals(cart, 0, existingItem.getLineTotal().subtract(previousLineTotal));
 
         return new CartAddItemResponseDto(existingItem.getId(), newQuantity, "Quantity updated in cart");
     }
@@ -94,13 +174,13 @@ public class CartAddItemServiceImpl implements CartAddItemService {
         }
 
         CartItem newItem = new CartItem(cart, request.productId(), request.variantId(),
-                                       request.quantity());
+                                       request.quantity(), request.unitPrice());
 
         try {
             cart.addCartItem(newItem);
             CartItem savedItem = cartItemRepository.save(newItem);
             
-            updateCartTotalAmount(cart);
+            updateCartTotals(cart, 1, newItem.getLineTotal());
             
             log.info("Successfully added new item to cart: cartId={}, itemId={}, productId={}", 
                      cart.getId(), savedItem.getId(), request.productId());
@@ -115,11 +195,12 @@ public class CartAddItemServiceImpl implements CartAddItemService {
     }
 
     /**
-     * Сохранение изменений корзины
+     * Приращение итогов корзины; корзина управляемая — UPDATE с проверкой версии выполнится при flush
      */
-    private void updateCartTotalAmount(Cart cart) {
-        cartRepository.save(cart);
-        
-        log.debug("Updated cart: cartId={}", cart.getId());
+    private void updateCartTotals(Cart cart, int itemsDelta, BigDecimal amountDelta) {
+        cart.applyTotalsDelta(itemsDelta, amountDelta);
+
+        log.debug("Updated cart: cartId={}, itemsCount={}, totalAmount={}",
+                  cart.getId(), cart.getItemsCount(), cart.getTotalAmount());
     }
 }
\ No newline at end of file
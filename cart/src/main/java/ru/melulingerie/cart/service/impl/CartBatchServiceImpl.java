@@ -0,0 +1,100 @@
+package ru.melulingerie.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.domain.CartItem;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.dto.request.CartBatchOperationDto;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.repository.CartRepository;
+import ru.melulingerie.cart.service.CartAddItemService;
+import ru.melulingerie.cart.service.CartBatchService;
+import ru.melulingerie.cart.service.CartGetService;
+import ru.melulingerie.cart.service.CartQuantityGuard;
+import ru.melulingerie.cart.service.CartRemoveItemService;
+import ru.melulingerie.cart.service.CartUpdateQuantityService;
+import ru.melulingerie.cart.service.GuestCartService;
+import ru.melulingerie.cart.util.CartOptimisticRetry;
+import ru.melulingerie.cart.util.CartValidator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное изменение корзины. Корзина с позициями загружается один раз, операции применяются
+ * к загруженному агрегату через сервисы добавления/изменения/удаления, а INSERT/UPDATE/DELETE
+ * уходят в БД одним flush пакетами hibernate.jdbc.batch_size. Версия корзины увеличивается один раз на пакет.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartBatchServiceImpl implements CartBatchService {
+
+    private final CartValidator cartValidator;
+    private final CartRepository cartRepository;
+    private final CartGetService cartGetService;
+    private final CartAddItemService cartAddItemService;
+    private final CartRemoveItemService cartRemoveItemService;
+    private final CartUpdateQuantityService cartUpdateQuantityService;
+    private final GuestCartService guestCartService;
+    private final CartOptimisticRetry optimisticRetry;
+
+    @Override
+    public CartGetResponseDto applyOperations(Long cartId, List<CartBatchOperationDto> operations, Long expectedVersion,
+                                              CartQuantityGuard guard) {
+        log.debug("Applying {} batch operations to cart {}", operations.size(), cartId);
+
+        cartValidator.validateCartId(cartId);
+
+        return optimisticRetry.execute(cartId, () -> applyOperationsOnce(cartId, operations, expectedVersion, guard));
+    }
+
+    private CartGetResponseDto applyOperationsOnce(Long cartId, List<CartBatchOperationDto> operations, Long expectedVersion,
+                                                   CartQuantityGuard guard) {
+        Optional<CartGetResponseDto> guestCart = guestCartService.applyOperations(cartId, operations, expectedVersion, guard);
+        if (guestCart.isPresent()) {
+            return guestCart.get();
+        }
+
+        Cart cart = cartRepository.findCartByIdWithItemsSortedByDate(cartId)
+                .orElseThrow(() -> new CartExceptions.CartNotFoundException(cartId));
+        cartValidator.validateExpectedVersion(cartId, expectedVersion, cart.getTotalsVersion());
+
+        Map<Long, Integer> quantitiesBefore = quantities(cart);
+        for (CartBatchOperationDto operation : operations) {
+            switch (operation.type()) {
+                case ADD -> cartAddItemService.addCartItem(cart, new CartAddItemRequestDto(
+                        operation.productId(), operation.variantId(), operation.quantity(), operation.unitPrice()));
+                case UPDATE_QUANTITY -> {
+                    cartValidator.validateItemId(operation.itemId());
+                    cartUpdateQuantityService.updateItemQuantity(cart, operation.itemId(), operation.quantity());
+                }
+                case REMOVE -> {
+                    cartValidator.validateItemId(operation.itemId());
+                    cartRemoveItemService.removeCartItems(cart, List.of(operation.itemId()));
+                }
+            }
+        }
+
+        Map<Long, Integer> quantityDeltas = CartQuantityGuard.deltas(quantitiesBefore, quantities(cart));
+        if (!quantityDeltas.isEmpty()) {
+            guard.beforeWrite(quantityDeltas);
+        }
+
+        cartRepository.flush();
+
+        log.info("Applied {} batch operations to cart {}", operations.size(), cartId);
+
+        return cartGetService.getCart(cart);
+    }
+
+    private Map<Long, Integer> quantities(Cart cart) {
+        return cart.getCartItems().stream()
+                .collect(Collectors.toMap(CartItem::getVariantId, CartItem::getQuantity, Integer::sum));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.melulingerie.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.melulingerie.cart.event.CartTotalsChangedEvent;
+import ru.melulingerie.cart.guest.GuestCartFlusher;
+import ru.melulingerie.cart.repository.CartItemRepository;
+import ru.melulingerie.cart.repository.CartRepository;
+import ru.melulingerie.cart.service.CartCleanupService;
+
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartCleanupServiceImpl implements CartCleanupService {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final GuestCartFlusher guestCartFlusher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public CartCleanupResult deleteCartsByUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return new CartCleanupResult(0, 0);
+        }
+        List<Long> cartIds = cartRepository.findIdsByUserIds(userIds);
+        int cartItems = cartItemRepository.deleteByUserIds(userIds);
+        int carts = cartRepository.deleteByUserIds(userIds);
+        // массовое удаление минует JPA-листенер: сводки корзин сбрасываются после коммита
+        cartIds.forEach(cartId -> eventPublisher.publishEvent(new CartTotalsChangedEvent(cartId, null)));
+        discardGuestCartsAfterCommit(userIds);
+
+        log.debug("Deleted {} carts and {} cart items for {} users", carts, cartItems, userIds.size());
+        return new CartCleanupResult(carts, cartItems);
+    }
+
+    /**
+     * Корзины удалённых гостей убираются из хранилища, иначе флашер вернёт их в БД.
+     * Только после коммита: при откате удаления корзины остаются в хранилище вместе с незаписанными изменениями.
+     */
+    private void discardGuestCartsAfterCommit(Collection<Long> userIds) {
+        List<Long> discardedUserIds = List.copyOf(userIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guestCartFlusher.discardByUserIds(discardedUserIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guestCartFlusher.discardByUserIds(discardedUserIds);
+            }
+        });
+    }
+}
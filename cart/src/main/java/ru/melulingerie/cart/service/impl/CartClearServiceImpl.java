@@ -3,14 +3,14 @@ package ru.melulingerie.cart.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import ru.melulingerie.cart.domain.Cart;
-import ru.melulingerie.cart.domain.CartItem;
-import ru.melulingerie.cart.repository.CartItemRepository;
 import ru.melulingerie.cart.repository.CartRepository;
 import ru.melulingerie.cart.service.CartClearService;
+import ru.melulingerie.cart.service.GuestCartService;
+import ru.melulingerie.cart.util.CartOptimisticRetry;
+import ru.melulingerie.cart.util.CartValidator;
 
-import java.util.List;
+import java.util.Optional;
 
 
 @Slf4j
@@ -18,27 +18,36 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CartClearServiceImpl implements CartClearService {
 
+    private final CartValidator cartValidator;
     private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final GuestCartService guestCartService;
+    private final CartOptimisticRetry optimisticRetry;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Integer clearCart(Long cartId) {
+    public Integer clearCart(Long cartId, Long expectedVersion) {
         log.debug("Clearing cart: {}", cartId);
 
-        Cart cart = cartRepository.findCartByIdWithItemsSortedByDate(cartId)
-                .orElseThrow(() -> new IllegalArgumentException("Cart not found with id: " + cartId));
+        return optimisticRetry.execute(cartId, () -> {
+            Optional<Integer> guestDeletedCount = guestCartService.clearCart(cartId, expectedVersion);
+            if (guestDeletedCount.isPresent()) {
+                return guestDeletedCount.get();
+            }
 
-        int deletedCount = cart.getCartItems().size();
+            Cart cart = cartRepository.findCartByIdWithItemsSortedByDate(cartId)
+                    .orElseThrow(() -> new IllegalArgumentException("Cart not found with id: " + cartId));
+            cartValidator.validateExpectedVersion(cartId, expectedVersion, cart.getTotalsVersion());
 
-        if (deletedCount > 0) {
-            cartItemRepository.deleteAll(cart.getCartItems());
-            cart.getCartItems().clear();
-            cartRepository.save(cart);
-        }
+            int deletedCount = cart.getCartItems().size();
 
-        log.info("Cleared {} items from cart {}", deletedCount, cartId);
+            if (deletedCount > 0) {
+                // позиции удаляются через orphanRemoval, корзина обновляется тем же flush
+                cart.getCartItems().clear();
+                cart.resetTotals();
+            }
 
-        return deletedCount;
+            log.info("Cleared {} items from cart {}", deletedCount, cartId);
+
+            return deletedCount;
+        });
     }
 }
\ No newline at end of file
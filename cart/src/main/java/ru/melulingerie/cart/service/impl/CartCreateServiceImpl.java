@@ -8,6 +8,7 @@ import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.dto.response.CartCreateResponseDto;
 import ru.melulingerie.cart.repository.CartRepository;
 import ru.melulingerie.cart.service.CartCreateService;
+import ru.melulingerie.cart.service.GuestCartService;
 
 import java.util.Optional;
 
@@ -17,12 +18,37 @@ import java.util.Optional;
 public class CartCreateServiceImpl implements CartCreateService {
 
     private final CartRepository cartRepository;
+    private final GuestCartService guestCartService;
 
     @Override
     @Transactional
     public CartCreateResponseDto createCart(Long userId) {
         log.debug("Creating or getting existing cart for user: {}", userId);
         
+        return findExistingCart(userId)
+                .orElseGet(() -> createNewCart(userId));
+    }
+
+    /**
+     * Корзина гостя создаётся в хранилище отложенной записи, если оно включено и не заполнено
+     */
+    @Override
+    @Transactional
+    public CartCreateResponseDto createGuestCart(Long userId) {
+        log.debug("Creating or getting existing guest cart for user: {}", userId);
+
+        return findExistingCart(userId)
+                .or(() -> guestCartService.createCart(userId))
+                .orElseGet(() -> createNewCart(userId));
+    }
+
+    private Optional<CartCreateResponseDto> findExistingCart(Long userId) {
+        Optional<Long> guestCartId = guestCartService.findCartIdByUserId(userId);
+        if (guestCartId.isPresent()) {
+            log.info("Returning existing guest cart with ID {} for user {}", guestCartId.get(), userId);
+            return Optional.of(new CartCreateResponseDto(guestCartId.get(), userId, "Existing cart returned"));
+        }
+
         return cartRepository.findByUserId(userId)
                 .map(cart -> {
                     log.info("Returning existing cart with ID {} for user {}", cart.getId(), userId);
@@ -31,8 +57,7 @@ public class CartCreateServiceImpl implements CartCreateService {
                             cart.getUserId(),
                             "Existing cart returned"
                     );
-                })
-                .orElseGet(() -> createNewCart(userId));
+                });
     }
 
     private CartCreateResponseDto createNewCart(Long userId) {
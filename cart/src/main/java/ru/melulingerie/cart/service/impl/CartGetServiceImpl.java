@@ -3,13 +3,17 @@ package ru.melulingerie.cart.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.melulingerie.cart.cache.CartSummaryCache;
 import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.repository.CartRepository;
 import ru.melulingerie.cart.dto.response.CartGetResponseDto;
 import ru.melulingerie.cart.dto.response.CartItemGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
 import ru.melulingerie.cart.service.CartGetService;
+import ru.melulingerie.cart.service.GuestCartService;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -17,14 +21,29 @@ import java.util.List;
 public class CartGetServiceImpl implements CartGetService {
 
     private final CartRepository cartRepository;
+    private final CartSummaryCache cartSummaryCache;
+    private final GuestCartService guestCartService;
 
     @Override
     public CartGetResponseDto getCart(Long cartId) {
         log.debug("Getting cart for cartId: {}", cartId);
+
+        Optional<CartGetResponseDto> guestCart = guestCartService.getCart(cartId);
+        if (guestCart.isPresent()) {
+            return guestCart.get();
+        }
         
         Cart cart = cartRepository.findCartByIdWithItemsSortedByDate(cartId)
                 .orElseThrow(() -> new IllegalArgumentException("Cart not found with id: " + cartId));
 
+        return getCart(cart);
+    }
+
+    /**
+     * Корзина из уже загруженного агрегата, позиции в порядке коллекции
+     */
+    @Override
+    public CartGetResponseDto getCart(Cart cart) {
         List<CartItemGetResponseDto> items = cart.getCartItems().stream()
                 .map(item -> new CartItemGetResponseDto(
                         item.getId(),
@@ -38,7 +57,21 @@ public class CartGetServiceImpl implements CartGetService {
         return new CartGetResponseDto(
                 cart.getId(),
                 items,
-                items.size()
+                items.size(),
+                cart.getTotalAmount()
         );
     }
+
+    @Override
+    public CartTotalsResponseDto getCartTotals(Long cartId) {
+        log.debug("Getting cart totals for cartId: {}", cartId);
+
+        Optional<CartTotalsResponseDto> guestTotals = guestCartService.getCartTotals(cartId);
+        if (guestTotals.isPresent()) {
+            return guestTotals.get();
+        }
+
+        return cartSummaryCache.get(cartId, id -> cartRepository.findTotalsById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Cart not found with id: " + id)));
+    }
 }
\ No newline at end of file
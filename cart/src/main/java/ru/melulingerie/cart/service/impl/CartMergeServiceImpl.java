@@ -0,0 +1,88 @@
+package ru.melulingerie.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.event.CartTotalsChangedEvent;
+import ru.melulingerie.cart.repository.CartItemRepository;
+import ru.melulingerie.cart.repository.CartRepository;
+import ru.melulingerie.cart.service.CartMergeService;
+import ru.melulingerie.cart.service.GuestCartService;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Слияние корзин фиксированным числом операторов независимо от размера гостевой корзины:
+ * сложение количеств совпадающих позиций (не выше cart.max-quantity-per-item), перенос остальных
+ * позиций в пределах cart.max-items, удаление гостевой корзины и пересчёт итогов.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartMergeServiceImpl implements CartMergeService {
+
+    @Value("${cart.max-items:100}")
+    private int maxItemsPerCart;
+
+    @Value("${cart.max-quantity-per-item:99}")
+    private int maxQuantityPerItem;
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final GuestCartService guestCartService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void releaseGuestCarts(Long guestUserId, Long userId) {
+        guestCartService.findCartIdByUserId(guestUserId).ifPresent(guestCartService::flushCart);
+        guestCartService.findCartIdByUserId(userId).ifPresent(guestCartService::flushCart);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Optional<CartMergeResult> mergeCarts(Long guestUserId, Long userId) {
+        // корзина пользователя блокируется первой: свободное место считается по её актуальному числу позиций,
+        // параллельное добавление дождётся конца слияния
+        Optional<Cart> userCart = cartRepository.findByUserIdForUpdate(userId);
+        Optional<Cart> guestCart = cartRepository.findByUserId(guestUserId);
+        if (guestCart.isEmpty()) {
+            return Optional.empty();
+        }
+        Cart source = guestCart.get();
+
+        if (userCart.isEmpty()) {
+            // у пользователя корзины нет — гостевая корзина переходит к нему целиком
+            source.setUserId(userId);
+            log.info("Guest cart {} reassigned from user {} to user {}", source.getId(), guestUserId, userId);
+            return Optional.of(new CartMergeResult(source.getId(), 0, source.getItemsCount(), 0));
+        }
+        Cart target = userCart.get();
+
+        int merged = cartItemRepository.mergeQuantities(source.getId(), target.getId(), maxQuantityPerItem);
+
+        int capacity = Math.max(maxItemsPerCart - target.getItemsCount(), 0);
+        List<Long> missingIds = capacity == 0
+                ? List.of()
+                : cartItemRepository.findIdsMissingInCart(source.getId(), target.getId(), Limit.of(capacity));
+        int moved = missingIds.isEmpty() ? 0 : cartItemRepository.moveToCart(missingIds, target);
+
+        int dropped = Math.max(source.getItemsCount() - merged - moved, 0);
+        cartItemRepository.deleteByCartId(source.getId());
+        cartRepository.deleteByIds(List.of(source.getId()));
+        cartRepository.recalculateTotalsByIds(List.of(target.getId()));
+
+        // массовые операции минуют JPA-листенер корзины
+        eventPublisher.publishEvent(new CartTotalsChangedEvent(target.getId(), null));
+        eventPublisher.publishEvent(new CartTotalsChangedEvent(source.getId(), null));
+
+        log.info("Merged guest cart {} into cart {}: merged={}, moved={}, dropped={}",
+                source.getId(), target.getId(), merged, moved, dropped);
+        return Optional.of(new CartMergeResult(target.getId(), merged, moved, dropped));
+    }
+}
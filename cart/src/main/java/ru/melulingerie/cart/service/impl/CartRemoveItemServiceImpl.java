@@ -6,11 +6,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
+import ru.melulingerie.cart.projection.CartItemQuantityProjection;
 import ru.melulingerie.cart.repository.CartItemRepository;
 import ru.melulingerie.cart.repository.CartRepository;
+import ru.melulingerie.cart.service.CartQuantityGuard;
 import ru.melulingerie.cart.service.CartRemoveItemService;
+import ru.melulingerie.cart.service.GuestCartService;
+import ru.melulingerie.cart.util.CartOptimisticRetry;
+import ru.melulingerie.cart.util.CartValidator;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -19,25 +26,67 @@ public class CartRemoveItemServiceImpl implements CartRemoveItemService {
 
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
+    private final GuestCartService guestCartService;
+    private final CartValidator cartValidator;
+    private final CartOptimisticRetry optimisticRetry;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void removeCartItems(Long cartId, List<Long> itemIds) {
+    public void removeCartItems(Long cartId, List<Long> itemIds, Long expectedVersion, CartQuantityGuard guard) {
         log.debug("Removing items from cart: {}, itemIds: {}", cartId, itemIds);
-        
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new IllegalArgumentException("Cart not found with id: " + cartId));
-        
-        int deletedCount = cartItemRepository.deleteByCartIdAndItemIds(cartId, itemIds);
-        
-        if (deletedCount > 0) {
-            cartRepository.save(cart);
-        }
-        
-        if (deletedCount == 0) {
-            log.warn("No items were deleted for cartId: {}, itemIds: {}", cartId, itemIds);
+
+        optimisticRetry.run(cartId, () -> {
+            if (guestCartService.removeCartItems(cartId, itemIds, expectedVersion, guard)) {
+                return;
+            }
+
+            Cart cart = cartRepository.findById(cartId)
+                    .orElseThrow(() -> new IllegalArgumentException("Cart not found with id: " + cartId));
+            cartValidator.validateExpectedVersion(cartId, expectedVersion, cart.getTotalsVersion());
+
+            List<CartItemQuantityProjection> removed = cartItemRepository.findQuantitiesByCartIdAndItemIds(cartId, itemIds);
+            if (!removed.isEmpty()) {
+                guard.beforeWrite(removed.stream().collect(Collectors.toMap(
+                        CartItemQuantityProjection::getVariantId, item -> -item.getQuantity(), Integer::sum)));
+            }
+            BigDecimal removedAmount = removed.stream()
+                    .filter(item -> item.getUnitPrice() != null)
+                    .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            int deletedCount = cartItemRepository.deleteByCartIdAndItemIds(cartId, itemIds);
+
+            if (deletedCount > 0) {
+                // UPDATE корзины с проверкой версии при flush откатит удаление, если корзину изменили параллельно
+                cart.applyTotalsDelta(-deletedCount, removedAmount.negate());
+            }
+
+            if (deletedCount == 0) {
+                log.warn("No items were deleted for cartId: {}, itemIds: {}", cartId, itemIds);
+            }
+
+            log.info("Removed {} items from cart {}", deletedCount, cartId);
+        });
+    }
+
+    /**
+     * Удаление из уже загруженной корзины: позиции удаляются из коллекции (orphanRemoval),
+     * DELETE выполняются при flush пакетом
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void removeCartItems(Cart cart, List<Long> itemIds) {
+        List<CartItem> removed = cart.getCartItems().stream()
+                .filter(item -> itemIds.contains(item.getId()))
+                .toList();
+
+        if (removed.isEmpty()) {
+            log.warn("No items were deleted for cartId: {}, itemIds: {}", cart.getId(), itemIds);
+            return;
         }
-        
-        log.info("Removed {} items from cart {}", deletedCount, cartId);
+
+        BigDecimal removedAmount = removed.stream()
+                .map(CartItem::getLineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        cart.getCartItems().removeAll(removed);
+        cart.applyTotalsDelta(-removed.size(), removedAmount.negate());
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package ru.melulingerie.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.cart.event.CartTotalsChangedEvent;
+import ru.melulingerie.cart.repository.CartItemRepository;
+import ru.melulingerie.cart.repository.CartRepository;
+import ru.melulingerie.cart.service.CartTotalsReconciliationService;
+import ru.melulingerie.cart.service.GuestCartService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сверка итогов корзин после изменения цен: позиции получают новую цену,
+ * итоги затронутых корзин пересчитываются по позициям. Варианты с одной ценой обновляются
+ * одним запросом, списки ID передаются пачками: PostgreSQL ограничивает число параметров запроса.
+ * Корзины из хранилища гостевых корзин переоцениваются там: их итоги в БД обновит запись из хранилища,
+ * иначе пересчёт в БД поднял бы версию выше версии снимка.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartTotalsReconciliationServiceImpl implements CartTotalsReconciliationService {
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final CartRepository cartRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CartItemRepository cartItemRepository;
+    private final GuestCartService guestCartService;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int reconcileUnitPrices(Map<Long/*variantId*/, BigDecimal> unitPriceByVariantId) {
+        Set<Long> guestCartIds = guestCartService.repriceItems(unitPriceByVariantId);
+        guestCartIds.forEach(cartId -> eventPublisher.publishEvent(new CartTotalsChangedEvent(cartId, null)));
+
+        Map<BigDecimal, List<Long>> variantIdsByUnitPrice = new HashMap<>();
+        unitPriceByVariantId.forEach((variantId, unitPrice) ->
+                variantIdsByUnitPrice.computeIfAbsent(unitPrice, price -> new ArrayList<>()).add(variantId));
+
+        List<Long> repricedVariantIds = new ArrayList<>();
+        variantIdsByUnitPrice.forEach((unitPrice, variantIds) -> {
+            for (List<Long> chunk : chunks(variantIds)) {
+                List<Long> stale = cartItemRepository.findVariantIdsWithOtherUnitPrice(chunk, unitPrice);
+                if (!stale.isEmpty()) {
+                    cartItemRepository.updateUnitPriceByVariantIds(stale, unitPrice);
+                    repricedVariantIds.addAll(stale);
+                }
+            }
+        });
+
+        if (repricedVariantIds.isEmpty()) {
+            return guestCartIds.size();
+        }
+
+        Set<Long> cartIds = new LinkedHashSet<>();
+        chunks(repricedVariantIds).forEach(chunk -> cartIds.addAll(cartRepository.findCartIdsByVariantIds(chunk)));
+        cartIds.removeIf(guestCartService::isStored);
+        int recalculatedCarts = guestCartIds.size();
+        for (List<Long> chunk : chunks(List.copyOf(cartIds))) {
+            recalculatedCarts += cartRepository.recalculateTotalsByIds(chunk);
+        }
+        // массовое обновление минует JPA-листенер корзины
+        cartIds.forEach(cartId -> eventPublisher.publishEvent(new CartTotalsChangedEvent(cartId, null)));
+
+        log.info("Reconciled cart totals after price change: variants={}, carts={}",
+                repricedVariantIds.size(), recalculatedCarts);
+        return recalculatedCarts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getCartVariantIds(Long afterVariantId, int limit) {
+        return cartItemRepository.findVariantIdsAfter(afterVariantId, Limit.of(limit));
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -4,9 +4,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
 import ru.melulingerie.cart.repository.CartItemRepository;
+import ru.melulingerie.cart.service.CartQuantityGuard;
 import ru.melulingerie.cart.service.CartUpdateQuantityService;
+import ru.melulingerie.cart.service.GuestCartService;
+import ru.melulingerie.cart.util.CartOptimisticRetry;
+import ru.melulingerie.cart.util.CartValidator;
+
+import java.math.BigDecimal;
+import java.util.Map;
 
 
 @Slf4j
@@ -14,21 +22,59 @@ import ru.melulingerie.cart.service.CartUpdateQuantityService;
 @RequiredArgsConstructor
 public class CartUpdateQuantityServiceImpl implements CartUpdateQuantityService {
 
+    private final CartValidator cartValidator;
     private final CartItemRepository cartItemRepository;
+    private final GuestCartService guestCartService;
+    private final CartOptimisticRetry optimisticRetry;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void updateItemQuantity(Long cartId, Long itemId, Integer quantity) {
+    public void updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion,
+                                   CartQuantityGuard guard) {
         log.debug("Updating quantity for cartId: {}, itemId: {}, quantity: {}",
                 cartId, itemId, quantity);
 
-        CartItem cartItem = cartItemRepository.findByCartIdAndItemId(cartId, itemId)
+        optimisticRetry.run(cartId, () -> {
+            if (guestCartService.updateItemQuantity(cartId, itemId, quantity, expectedVersion, guard)) {
+                return;
+            }
+
+            CartItem cartItem = cartItemRepository.findByCartIdAndItemId(cartId, itemId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Cart item not found. CartId: " + cartId + ", ItemId: " + itemId));
+            Cart cart = cartItem.getCart();
+            cartValidator.validateExpectedVersion(cartId, expectedVersion, cart.getTotalsVersion());
+
+            // прежнее количество из позиции этой транзакции: параллельная запись отменит её по версии корзины
+            if (quantity != null && !quantity.equals(cartItem.getQuantity())) {
+                guard.beforeWrite(Map.of(cartItem.getVariantId(), quantity - cartItem.getQuantity()));
+            }
+            applyQuantity(cart, cartItem, quantity);
+        });
+    }
+
+    /**
+     * Изменение количества в уже загруженной корзине, без запроса позиции в БД
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void updateItemQuantity(Cart cart, Long itemId, Integer quantity) {
+        CartItem cartItem = cart.getCartItems().stream()
+                .filter(item -> item.getId().equals(itemId))
+                .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException(
-                        "Cart item not found. CartId: " + cartId + ", ItemId: " + itemId));
+                        "Cart item not found. CartId: " + cart.getId() + ", ItemId: " + itemId));
+
+        applyQuantity(cart, cartItem, quantity);
+    }
 
+    /**
+     * Позиция и корзина управляемые: UPDATE позиции и корзины (с проверкой версии) выполнятся при flush
+     */
+    private void applyQuantity(Cart cart, CartItem cartItem, Integer quantity) {
+        BigDecimal previousLineTotal = cartItem.getLineTotal();
         cartItem.updateQuantity(quantity);
 
-        cartItemRepository.save(cartItem);
+        cart.applyTotalsDelta(0, cartItem.getLineTotal().subtract(previousLineTotal));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,306 @@
+package ru.melulingerie.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.dto.request.CartBatchOperationDto;
+import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
+import ru.melulingerie.cart.dto.response.CartCreateResponseDto;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartItemGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
+import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.guest.GuestCartFlusher;
+import ru.melulingerie.cart.guest.GuestCartIdGenerator;
+import ru.melulingerie.cart.guest.GuestCartItemSnapshot;
+import ru.melulingerie.cart.guest.GuestCartJournal;
+import ru.melulingerie.cart.guest.GuestCartSnapshot;
+import ru.melulingerie.cart.guest.GuestCartStore;
+import ru.melulingerie.cart.service.CartQuantityGuard;
+import ru.melulingerie.cart.service.GuestCartService;
+import ru.melulingerie.cart.util.CartValidator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Гостевые корзины в памяти: изменения применяются к снимку корзины, пишутся в журнал
+ * и попадают в БД пакетами через {@link GuestCartFlusher}. Лимиты те же, что и у корзин в БД.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GuestCartServiceImpl implements GuestCartService {
+
+    @Value("${cart.guest-store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cart.max-items:100}")
+    private int maxItemsPerCart;
+
+    @Value("${cart.max-quantity-per-item:99}")
+    private int maxQuantityPerItem;
+
+    private final GuestCartStore store;
+    private final GuestCartJournal journal;
+    private final GuestCartFlusher flusher;
+    private final GuestCartIdGenerator idGenerator;
+    private final CartValidator cartValidator;
+
+    @Override
+    public Optional<CartCreateResponseDto> createCart(Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        GuestCartSnapshot cart = GuestCartSnapshot.empty(idGenerator.nextCartId(), userId, LocalDateTime.now());
+        if (!store.add(cart)) {
+            log.warn("Guest cart store is full ({} carts), creating cart {} in database", store.size(), cart.cartId());
+            return Optional.empty();
+        }
+        journal.append(cart);
+        removeOnRollback(cart.cartId());
+
+        log.info("Created guest cart {} for user {} in write-behind store", cart.cartId(), userId);
+        return Optional.of(new CartCreateResponseDto(cart.cartId(), userId, "Cart successfully created"));
+    }
+
+    @Override
+    public Optional<Long> findCartIdByUserId(Long userId) {
+        return store.findByUserId(userId).map(GuestCartSnapshot::cartId);
+    }
+
+    @Override
+    public Optional<CartAddItemResponseDto> addCartItem(Long cartId, CartAddItemRequestDto request, Long expectedVersion) {
+        return change(cartId, expectedVersion, cart -> addItem(cart, request)).map(change -> {
+            boolean existed = change.before().findItem(request.productId(), request.variantId()).isPresent();
+            GuestCartItemSnapshot item = change.after().findItem(request.productId(), request.variantId()).orElseThrow();
+            return new CartAddItemResponseDto(item.itemId(), item.quantity(),
+                    existed ? "Quantity updated in cart" : "Added to cart");
+        });
+    }
+
+    @Override
+    public boolean updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion,
+                                      CartQuantityGuard guard) {
+        return change(cartId, expectedVersion, cart -> updateQuantity(cart, itemId, quantity), guard).isPresent();
+    }
+
+    @Override
+    public boolean removeCartItems(Long cartId, List<Long> itemIds, Long expectedVersion, CartQuantityGuard guard) {
+        return change(cartId, expectedVersion, cart -> removeItems(cart, itemIds), guard).isPresent();
+    }
+
+    @Override
+    public Optional<Integer> clearCart(Long cartId, Long expectedVersion) {
+        return change(cartId, expectedVersion, this::clear).map(change -> change.before().itemsCount());
+    }
+
+    @Override
+    public Optional<CartGetResponseDto> getCart(Long cartId) {
+        return store.get(cartId).map(this::toResponse);
+    }
+
+    @Override
+    public Optional<CartTotalsResponseDto> getCartTotals(Long cartId) {
+        return store.get(cartId).map(cart ->
+                new CartTotalsResponseDto(cart.cartId(), cart.itemsCount(), cart.totalAmount(), cart.version()));
+    }
+
+    /**
+     * Операции применяются к рабочему снимку; в хранилище он попадает только целиком
+     */
+    @Override
+    public Optional<CartGetResponseDto> applyOperations(Long cartId, List<CartBatchOperationDto> operations,
+                                                        Long expectedVersion, CartQuantityGuard guard) {
+        return change(cartId, expectedVersion, cart -> {
+            GuestCartSnapshot working = cart;
+            for (CartBatchOperationDto operation : operations) {
+                working = switch (operation.type()) {
+                    case ADD -> addItem(working, new CartAddItemRequestDto(
+                            operation.productId(), operation.variantId(), operation.quantity(), operation.unitPrice()));
+                    case UPDATE_QUANTITY -> updateQuantity(working, operation.itemId(), operation.quantity());
+                    case REMOVE -> removeItems(working, List.of(operation.itemId()));
+                };
+            }
+            return working;
+        }, guard).map(change -> toResponse(change.after()));
+    }
+
+    @Override
+    public Set<Long> repriceItems(Map<Long, BigDecimal> unitPriceByVariantId) {
+        Set<Long> repriced = new LinkedHashSet<>();
+        for (GuestCartSnapshot cart : store.findByVariantIds(unitPriceByVariantId.keySet())) {
+            change(cart.cartId(), null, current -> reprice(current, unitPriceByVariantId))
+                    .filter(change -> change.after() != change.before())
+                    .ifPresent(change -> repriced.add(change.after().cartId()));
+        }
+        return repriced;
+    }
+
+    @Override
+    public boolean isStored(Long cartId) {
+        return store.get(cartId).isPresent();
+    }
+
+    @Override
+    public void flushCart(Long cartId) {
+        flusher.flushAndRelease(cartId);
+    }
+
+    private GuestCartSnapshot addItem(GuestCartSnapshot cart, CartAddItemRequestDto request) {
+        Optional<GuestCartItemSnapshot> existing = cart.findItem(request.productId(), request.variantId());
+        if (existing.isPresent()) {
+            int newQuantity = existing.get().quantity() + request.quantity();
+            if (newQuantity > maxQuantityPerItem) {
+                throw new CartExceptions.InvalidQuantityException(newQuantity);
+            }
+            GuestCartItemSnapshot updated = existing.get().withQuantity(newQuantity);
+            if (request.unitPrice() != null) {
+                updated = updated.withUnitPrice(request.unitPrice());
+            }
+            return cart.withItems(replace(cart.items(), updated), LocalDateTime.now());
+        }
+
+        if (cart.itemsCount() >= maxItemsPerCart) {
+            throw new CartExceptions.CartFullException(maxItemsPerCart);
+        }
+        if (request.quantity() > maxQuantityPerItem) {
+            throw new CartExceptions.InvalidQuantityException(request.quantity());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<GuestCartItemSnapshot> items = new ArrayList<>(cart.items());
+        items.add(new GuestCartItemSnapshot(idGenerator.nextItemId(), request.productId(), request.variantId(),
+                request.quantity(), request.unitPrice(), now));
+        return cart.withItems(items, now);
+    }
+
+    private GuestCartSnapshot updateQuantity(GuestCartSnapshot cart, Long itemId, Integer quantity) {
+        GuestCartItemSnapshot item = cart.findItem(itemId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Cart item not found. CartId: " + cart.cartId() + ", ItemId: " + itemId));
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        return cart.withItems(replace(cart.items(), item.withQuantity(quantity)), LocalDateTime.now());
+    }
+
+    private GuestCartSnapshot removeItems(GuestCartSnapshot cart, List<Long> itemIds) {
+        List<GuestCartItemSnapshot> remaining = cart.items().stream()
+                .filter(item -> !itemIds.contains(item.itemId()))
+                .toList();
+        if (remaining.size() == cart.itemsCount()) {
+            log.warn("No items were deleted for cartId: {}, itemIds: {}", cart.cartId(), itemIds);
+            return cart;
+        }
+        return cart.withItems(remaining, LocalDateTime.now());
+    }
+
+    private GuestCartSnapshot reprice(GuestCartSnapshot cart, Map<Long, BigDecimal> unitPriceByVariantId) {
+        boolean changed = false;
+        List<GuestCartItemSnapshot> items = new ArrayList<>(cart.items().size());
+        for (GuestCartItemSnapshot item : cart.items()) {
+            BigDecimal unitPrice = unitPriceByVariantId.get(item.variantId());
+            if (unitPrice != null && (item.unitPrice() == null || unitPrice.compareTo(item.unitPrice()) != 0)) {
+                item = item.withUnitPrice(unitPrice);
+                changed = true;
+            }
+            items.add(item);
+        }
+        return changed ? cart.withItems(items, LocalDateTime.now()) : cart;
+    }
+
+    private GuestCartSnapshot clear(GuestCartSnapshot cart) {
+        if (cart.items().isEmpty()) {
+            return cart;
+        }
+        return cart.withItems(List.of(), LocalDateTime.now());
+    }
+
+    private List<GuestCartItemSnapshot> replace(List<GuestCartItemSnapshot> items, GuestCartItemSnapshot updated) {
+        return items.stream()
+                .map(item -> item.itemId().equals(updated.itemId()) ? updated : item)
+                .toList();
+    }
+
+    private CartGetResponseDto toResponse(GuestCartSnapshot cart) {
+        List<CartItemGetResponseDto> items = cart.items().stream()
+                .sorted(Comparator.comparing(GuestCartItemSnapshot::addedAt).reversed())
+                .map(item -> new CartItemGetResponseDto(
+                        item.itemId(),
+                        item.productId(),
+                        item.variantId(),
+                        item.quantity(),
+                        item.addedAt()
+                ))
+                .toList();
+        return new CartGetResponseDto(cart.cartId(), items, items.size(), cart.totalAmount());
+    }
+
+    private Optional<Change> change(Long cartId, Long expectedVersion, UnaryOperator<GuestCartSnapshot> operation) {
+        return change(cartId, expectedVersion, operation, CartQuantityGuard.NONE);
+    }
+
+    /**
+     * Изменение корзины в хранилище; новый снимок пишется в журнал до того, как станет виден
+     */
+    private Optional<Change> change(Long cartId, Long expectedVersion, UnaryOperator<GuestCartSnapshot> operation,
+                                    CartQuantityGuard guard) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        AtomicReference<GuestCartSnapshot> before = new AtomicReference<>();
+        return store.update(cartId, cart -> {
+            cartValidator.validateExpectedVersion(cartId, expectedVersion, cart.version());
+            before.set(cart);
+            GuestCartSnapshot after = operation.apply(cart);
+            if (after != cart) {
+                Map<Long, Integer> quantityDeltas = CartQuantityGuard.deltas(quantities(cart), quantities(after));
+                if (!quantityDeltas.isEmpty()) {
+                    guard.beforeWrite(quantityDeltas);
+                }
+                journal.append(after);
+            }
+            return after;
+        }).map(after -> new Change(before.get(), after));
+    }
+
+    private Map<Long, Integer> quantities(GuestCartSnapshot cart) {
+        return cart.items().stream()
+                .collect(Collectors.toMap(GuestCartItemSnapshot::variantId, GuestCartItemSnapshot::quantity, Integer::sum));
+    }
+
+    /**
+     * Корзина создаётся вместе с гостевым пользователем: при откате транзакции она удаляется из хранилища
+     */
+    private void removeOnRollback(Long cartId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    store.remove(cartId);
+                }
+            }
+        });
+    }
+
+    private record Change(GuestCartSnapshot before, GuestCartSnapshot after) {
+    }
+}
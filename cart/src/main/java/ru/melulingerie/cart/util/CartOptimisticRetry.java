@@ -0,0 +1,73 @@
+package ru.melulingerie.cart.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.exception.CartExceptions;
+
+import java.util.function.Supplier;
+
+/**
+ * Выполнение записи в корзину в отдельной транзакции с повтором при конфликте версий.
+ * Конкурентная запись в ту же корзину (другая вкладка или устройство) обнаруживается по @Version
+ * при flush; операция повторяется с перечитанной корзиной не более cart.optimistic-lock.max-attempts раз.
+ * Несовпадение с версией клиента (If-Match) не повторяется. Внутри внешней транзакции повтор невозможен —
+ * операция выполняется один раз, конфликт получает владелец транзакции.
+ */
+@Slf4j
+@Component
+public class CartOptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public CartOptimisticRetry(
+            TransactionTemplate transactionTemplate,
+            @Value("${cart.optimistic-lock.max-attempts:3}") int maxAttempts,
+            @Value("${cart.optimistic-lock.backoff-ms:10}") long backoffMs
+    ) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    public <T> T execute(Long cartId, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (CartExceptions.CartVersionMismatchException e) {
+                throw e;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Cart {} is still modified concurrently after {} attempts", cartId, attempt);
+                    throw e;
+                }
+                log.debug("Concurrent modification of cart {}, retrying (attempt {})", cartId, attempt + 1);
+                pause(attempt);
+            }
+        }
+    }
+
+    public void run(Long cartId, Runnable action) {
+        execute(cartId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void pause(int attempt) {
+        try {
+            Thread.sleep(backoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying cart write", e);
+        }
+    }
+}
@@ -32,6 +32,16 @@ public class CartValidator {
         }
     }
 
+    /**
+     * Проверка версии корзины, ожидаемой клиентом; null — запись без условия
+     */
+    public void validateExpectedVersion(Long cartId, Long expectedVersion, long actualVersion) {
+        if (expectedVersion != null && expectedVersion != actualVersion) {
+            log.debug("Cart version mismatch: cartId={}, expected={}, actual={}", cartId, expectedVersion, actualVersion);
+            throw new CartExceptions.CartVersionMismatchException(cartId, expectedVersion, actualVersion);
+        }
+    }
+
     /**
      * Валидация запроса на добавление товара в корзину
      */
@@ -0,0 +1,6 @@
+-- Последовательности корзин переведены на pooled-оптимизатор Hibernate (allocationSize = 50, см. Cart, CartItem):
+-- шаг последовательности должен совпадать с allocationSize. Hibernate не меняет шаг существующих последовательностей.
+-- Текущее значение не сдвигается: следующий блок идентификаторов начинается после уже выданных. Операторы идемпотентны.
+
+alter sequence if exists carts_id_seq increment by 50;
+alter sequence if exists cart_items_id_seq increment by 50;
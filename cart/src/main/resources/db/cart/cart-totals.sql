@@ -0,0 +1,22 @@
+-- Заполнение итогов корзин, созданных до появления items_count/total_amount (см. Cart).
+-- Выполняется spring.sql.init после обновления схемы Hibernate; все операторы идемпотентны.
+
+-- позиции без зафиксированной цены получают текущую цену варианта
+update cart_items ci
+set unit_price = pr.base_amount
+from product_variants pv
+         join prices pr on pr.id = pv.price_id
+where pv.id = ci.variant_id
+  and ci.unit_price is null;
+
+-- итоги ещё ни разу не менявшихся корзин пересчитываются по позициям
+update carts c
+set items_count  = t.items_count,
+    total_amount = t.total_amount
+from (select ci.cart_id,
+             count(*)                                      as items_count,
+             coalesce(sum(ci.unit_price * ci.quantity), 0) as total_amount
+      from cart_items ci
+      group by ci.cart_id) t
+where t.cart_id = c.id
+  and c.totals_version = 0;
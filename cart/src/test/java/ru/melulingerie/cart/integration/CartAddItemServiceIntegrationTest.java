@@ -8,9 +8,11 @@ import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
 import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
 import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
 import ru.melulingerie.cart.exception.CartExceptions;
 import ru.melulingerie.cart.service.CartAddItemService;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +35,7 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         // Given
         Long userId = 42L;
         Cart cart = createTestCart(userId);
-        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 3);
+        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 3, TEST_UNIT_PRICE);
 
         // When
         CartAddItemResponseDto result = cartAddItemService.addCartItem(cart.getId(), request);
@@ -63,7 +65,7 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         Cart cart = createTestCart(userId);
         CartItem existingItem = createTestCartItem(cart, 100L, 200L, 2);
 
-        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 3);
+        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 3, TEST_UNIT_PRICE);
 
         // When
         CartAddItemResponseDto result = cartAddItemService.addCartItem(cart.getId(), request);
@@ -85,9 +87,9 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         Long userId = 42L;
         Cart cart = createTestCart(userId);
 
-        CartAddItemRequestDto request1 = new CartAddItemRequestDto(100L, 200L, 2);
-        CartAddItemRequestDto request2 = new CartAddItemRequestDto(101L, 201L, 1);
-        CartAddItemRequestDto request3 = new CartAddItemRequestDto(102L, 202L, 4);
+        CartAddItemRequestDto request1 = new CartAddItemRequestDto(100L, 200L, 2, TEST_UNIT_PRICE);
+        CartAddItemRequestDto request2 = new CartAddItemRequestDto(101L, 201L, 1, TEST_UNIT_PRICE);
+        CartAddItemRequestDto request3 = new CartAddItemRequestDto(102L, 202L, 4, TEST_UNIT_PRICE);
 
         // When
         CartAddItemResponseDto result1 = cartAddItemService.addCartItem(cart.getId(), request1);
@@ -123,12 +125,31 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         assertEquals(4, item3.getQuantity());
     }
 
+    @Test
+    @DisplayName("Should maintain cart totals incrementally")
+    void shouldMaintainCartTotalsIncrementally() {
+        // Given
+        Long userId = 42L;
+        Cart cart = createTestCart(userId);
+
+        // When
+        cartAddItemService.addCartItem(cart.getId(), new CartAddItemRequestDto(100L, 200L, 2, BigDecimal.valueOf(1500)));
+        cartAddItemService.addCartItem(cart.getId(), new CartAddItemRequestDto(101L, 201L, 1, BigDecimal.valueOf(700)));
+        cartAddItemService.addCartItem(cart.getId(), new CartAddItemRequestDto(100L, 200L, 1, BigDecimal.valueOf(1500)));
+
+        // Then
+        CartTotalsResponseDto totals = cartRepository.findTotalsById(cart.getId()).orElseThrow();
+        assertEquals(2, totals.itemsCount());
+        assertEquals(0, BigDecimal.valueOf(5200).compareTo(totals.totalAmount())); // 1500 * 3 + 700
+        assertEquals(3L, totals.version());
+    }
+
     @Test
     @DisplayName("Should throw exception when cart not found")
     void shouldThrowExceptionWhenCartNotFound() {
         // Given
         Long nonExistentCartId = 999L;
-        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 1);
+        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 1, TEST_UNIT_PRICE);
 
         // When & Then
         assertThrows(CartExceptions.CartNotFoundException.class,
@@ -148,7 +169,7 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         CartItem existingItem = createTestCartItem(cart, 100L, 200L, 95);
 
         // Trying to add 10 more items (95 + 10 = 105, which exceeds max of 99)
-        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 10);
+        CartAddItemRequestDto request = new CartAddItemRequestDto(100L, 200L, 10, TEST_UNIT_PRICE);
 
         // When & Then
         assertThrows(CartExceptions.InvalidQuantityException.class,
@@ -166,7 +187,7 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         Long userId = 42L;
         Cart cart = createCartWithItems(userId, 100); // Create cart with max items (100)
 
-        CartAddItemRequestDto request = new CartAddItemRequestDto(999L, 999L, 1);
+        CartAddItemRequestDto request = new CartAddItemRequestDto(999L, 999L, 1, TEST_UNIT_PRICE);
 
         // When & Then
         assertThrows(CartExceptions.CartFullException.class,
@@ -183,8 +204,8 @@ class CartAddItemServiceIntegrationTest extends CartIntegrationTestBase {
         // Given
         Long userId = 42L;
         Cart cart = createTestCart(userId);
-        CartAddItemRequestDto request1 = new CartAddItemRequestDto(100L, 200L, 2);
-        CartAddItemRequestDto request2 = new CartAddItemRequestDto(100L, 200L, 3);
+        CartAddItemRequestDto request1 = new CartAddItemRequestDto(100L, 200L, 2, TEST_UNIT_PRICE);
+        CartAddItemRequestDto request2 = new CartAddItemRequestDto(100L, 200L, 3, TEST_UNIT_PRICE);
 
         // When - simulate concurrent additions
         CartAddItemResponseDto result1 = cartAddItemService.addCartItem(cart.getId(), request1);
@@ -0,0 +1,140 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.domain.CartItem;
+import ru.melulingerie.cart.dto.request.CartBatchOperationDto;
+import ru.melulingerie.cart.dto.request.CartBatchOperationType;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.service.CartBatchService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CartBatchService Integration Tests")
+class CartBatchServiceIntegrationTest extends CartIntegrationTestBase {
+
+    @Autowired
+    private CartBatchService cartBatchService;
+
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Should apply add, update and remove operations in one call")
+    void shouldApplyMixedOperations() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem toUpdate = createTestCartItem(cart, 100L, 200L, 1);
+        CartItem toRemove = createTestCartItem(cart, 101L, 201L, 2);
+
+        List<CartBatchOperationDto> operations = List.of(
+                add(102L, 202L, 2),
+                add(103L, 203L, 1),
+                new CartBatchOperationDto(CartBatchOperationType.UPDATE_QUANTITY, null, null, toUpdate.getId(), 4, null),
+                new CartBatchOperationDto(CartBatchOperationType.REMOVE, null, null, toRemove.getId(), null, null)
+        );
+
+        // When
+        CartGetResponseDto result = cartBatchService.applyOperations(cart.getId(), operations);
+
+        // Then
+        assertEquals(3, result.itemsCount());
+        assertEquals(0, BigDecimal.valueOf(7000).compareTo(result.totalAmount())); // 1000 * (4 + 2 + 1)
+        assertTrue(cartItemRepository.findById(toRemove.getId()).isEmpty());
+        assertEquals(4, cartItemRepository.findById(toUpdate.getId()).orElseThrow().getQuantity());
+
+        Cart savedCart = cartRepository.findById(cart.getId()).orElseThrow();
+        assertEquals(3, savedCart.getItemsCount());
+        assertEquals(0, BigDecimal.valueOf(7000).compareTo(savedCart.getTotalAmount()));
+    }
+
+    @Test
+    @DisplayName("Should merge repeated additions of the same variant within a batch")
+    void shouldMergeRepeatedAdditionsOfSameVariant() {
+        // Given
+        Cart cart = createTestCart(42L);
+
+        // When
+        CartGetResponseDto result = cartBatchService.applyOperations(cart.getId(), List.of(
+                add(100L, 200L, 2),
+                add(100L, 200L, 3)
+        ));
+
+        // Then
+        assertEquals(1, result.items().size());
+        assertEquals(5, result.items().getFirst().quantity());
+        assertEquals(1, cartItemRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should roll back the whole batch when one operation fails")
+    void shouldRollBackWholeBatchOnFailure() {
+        // Given
+        Cart cart = createTestCart(42L);
+
+        // When & Then
+        assertThrows(CartExceptions.InvalidQuantityException.class,
+                () -> cartBatchService.applyOperations(cart.getId(), List.of(
+                        add(100L, 200L, 2),
+                        add(101L, 201L, 100)
+                )));
+
+        assertTrue(cartItemRepository.findAll().isEmpty());
+        assertEquals(0, cartRepository.findById(cart.getId()).orElseThrow().getItemsCount());
+    }
+
+    @Test
+    @DisplayName("Should pass net quantity change per variant to the guard before writing")
+    void shouldPassNetQuantityDeltasToGuard() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem toUpdate = createTestCartItem(cart, 100L, 200L, 1);
+        CartItem toRemove = createTestCartItem(cart, 101L, 201L, 3);
+        List<Map<Long, Integer>> guarded = new ArrayList<>();
+
+        // When: позиция варианта 200 меняется с 1 до 4 и добавлением того же варианта доводится до 5
+        cartBatchService.applyOperations(cart.getId(), List.of(
+                new CartBatchOperationDto(CartBatchOperationType.UPDATE_QUANTITY, null, null, toUpdate.getId(), 4, null),
+                add(100L, 200L, 1),
+                new CartBatchOperationDto(CartBatchOperationType.REMOVE, null, null, toRemove.getId(), null, null),
+                add(102L, 202L, 2)
+        ), null, guarded::add);
+
+        // Then
+        assertEquals(List.of(Map.of(200L, 4, 201L, -3, 202L, 2)), guarded);
+    }
+
+    @Test
+    @DisplayName("Should roll back the batch when the guard rejects it")
+    void shouldRollBackBatchRejectedByGuard() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem item = createTestCartItem(cart, 100L, 200L, 1);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> cartBatchService.applyOperations(cart.getId(), List.of(
+                new CartBatchOperationDto(CartBatchOperationType.UPDATE_QUANTITY, null, null, item.getId(), 4, null),
+                add(101L, 201L, 1)
+        ), null, quantityDeltas -> {
+            throw new IllegalStateException("Out of stock");
+        }));
+
+        assertEquals(1, cartItemRepository.findAll().size());
+        assertEquals(1, cartItemRepository.findById(item.getId()).orElseThrow().getQuantity());
+    }
+
+    private CartBatchOperationDto add(Long productId, Long variantId, Integer quantity) {
+        return new CartBatchOperationDto(CartBatchOperationType.ADD, productId, variantId, null, quantity, TEST_UNIT_PRICE);
+    }
+}
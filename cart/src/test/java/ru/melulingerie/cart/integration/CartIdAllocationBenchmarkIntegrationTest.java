@@ -0,0 +1,168 @@
+package ru.melulingerie.cart.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.domain.CartItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Вставка корзин и позиций с pooled-последовательностями и JDBC-батчингом в сравнении
+ * с прежней схемой «nextval на каждую строку, вставка по одной». Время выводится в лог,
+ * проверяется число обращений к БД — на in-memory H2 оно показательнее времени.
+ */
+@DisplayName("Cart id allocation benchmark")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=20",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CartIdAllocationBenchmarkIntegrationTest extends CartIntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(CartIdAllocationBenchmarkIntegrationTest.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 20;
+    private static final int CARTS = 500;
+    private static final int ITEMS_PER_CART = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Bulk cart creation should fetch ids in blocks")
+    void bulkCartCreationShouldFetchIdsInBlocks() {
+        assertEquals(ALLOCATION_SIZE, sequenceIncrement("CARTS_ID_SEQ"));
+
+        long baselineNanos = timed(() -> transactionTemplate.executeWithoutResult(status ->
+                LongStream.range(0, CARTS).forEach(this::insertCartRowByRow)));
+
+        long before = sequenceBaseValue("CARTS_ID_SEQ");
+        Statistics statistics = resetStatistics();
+        List<Cart> carts = LongStream.range(0, CARTS).mapToObj(Cart::new).toList();
+        long pooledNanos = timed(() -> transactionTemplate.executeWithoutResult(status -> cartRepository.saveAll(carts)));
+        long sequenceCalls = (sequenceBaseValue("CARTS_ID_SEQ") - before) / ALLOCATION_SIZE;
+        long statements = statistics.getPrepareStatementCount();
+
+        report("carts", CARTS, baselineNanos, pooledNanos, statements);
+        assertEquals(2L * CARTS, cartRepository.count());
+        assertTrue(sequenceCalls <= CARTS / ALLOCATION_SIZE + 1,
+                "Expected block allocation, got " + sequenceCalls + " sequence calls for " + CARTS + " carts");
+        assertTrue(statements <= sequenceCalls + CARTS / BATCH_SIZE + 1,
+                "Expected batched inserts, got " + statements + " statements for " + CARTS + " carts");
+    }
+
+    @Test
+    @DisplayName("Bulk item adds should fetch ids in blocks")
+    void bulkItemAddsShouldFetchIdsInBlocks() {
+        assertEquals(ALLOCATION_SIZE, sequenceIncrement("CART_ITEMS_ID_SEQ"));
+        List<Long> cartIds = transactionTemplate.execute(status -> cartRepository
+                .saveAll(LongStream.range(0, CARTS).mapToObj(Cart::new).toList())
+                .stream().map(Cart::getId).toList());
+        int items = CARTS * ITEMS_PER_CART;
+
+        long baselineNanos = timed(() -> transactionTemplate.executeWithoutResult(status ->
+                cartIds.forEach(cartId -> LongStream.range(0, ITEMS_PER_CART)
+                        .forEach(i -> insertItemRowByRow(cartId, 1000 + i)))));
+
+        long before = sequenceBaseValue("CART_ITEMS_ID_SEQ");
+        Statistics statistics = resetStatistics();
+        long pooledNanos = timed(() -> transactionTemplate.executeWithoutResult(status -> {
+            // итоги корзин не меняются: измеряются только вставки позиций
+            for (Long cartId : cartIds) {
+                Cart cart = cartRepository.getReferenceById(cartId);
+                for (long i = 0; i < ITEMS_PER_CART; i++) {
+                    cartItemRepository.save(new CartItem(cart, i, i + 100, 1, TEST_UNIT_PRICE));
+                }
+            }
+            cartItemRepository.flush();
+        }));
+        long sequenceCalls = (sequenceBaseValue("CART_ITEMS_ID_SEQ") - before) / ALLOCATION_SIZE;
+        long statements = statistics.getPrepareStatementCount();
+
+        report("cart items", items, baselineNanos, pooledNanos, statements);
+        assertEquals(2L * items, cartItemRepository.count());
+        assertTrue(sequenceCalls <= items / ALLOCATION_SIZE + 1,
+                "Expected block allocation, got " + sequenceCalls + " sequence calls for " + items + " items");
+        assertTrue(statements <= sequenceCalls + items / BATCH_SIZE + 1,
+                "Expected batched inserts, got " + statements + " statements for " + items + " items");
+    }
+
+    /**
+     * Прежняя схема: отдельный nextval и отдельный INSERT на каждую корзину
+     */
+    private void insertCartRowByRow(long userId) {
+        Long id = jdbcTemplate.queryForObject("select next value for carts_id_seq", Long.class);
+        jdbcTemplate.update("insert into carts (id, user_id, items_count, total_amount, totals_version, created_at, updated_at) "
+                + "values (?, ?, 0, 0, 0, current_timestamp, current_timestamp)", id, userId);
+    }
+
+    private void insertItemRowByRow(Long cartId, long productId) {
+        Long id = jdbcTemplate.queryForObject("select next value for cart_items_id_seq", Long.class);
+        jdbcTemplate.update("insert into cart_items (id, cart_id, product_id, variant_id, quantity, unit_price, added_at, updated_at) "
+                + "values (?, ?, ?, ?, 1, ?, current_timestamp, current_timestamp)",
+                id, cartId, productId, productId + 100, BigDecimal.valueOf(1000));
+    }
+
+    private long sequenceBaseValue(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = ?", Long.class, sequenceName);
+    }
+
+    private long sequenceIncrement(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = ?", Long.class, sequenceName);
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private long timed(Runnable action) {
+        long started = System.nanoTime();
+        action.run();
+        return System.nanoTime() - started;
+    }
+
+    /**
+     * Построчная вставка — два оператора на строку
+     */
+    private void report(String entity, int rows, long baselineNanos, long pooledNanos, long pooledStatements) {
+        log.info("Inserted {} {}: row-by-row {} statements, {} ms ({} rows/s); pooled+batched {} statements, {} ms ({} rows/s)",
+                rows, entity,
+                2L * rows, baselineNanos / 1_000_000, rowsPerSecond(rows, baselineNanos),
+                pooledStatements, pooledNanos / 1_000_000, rowsPerSecond(rows, pooledNanos));
+    }
+
+    private long rowsPerSecond(int rows, long nanos) {
+        return nanos == 0 ? 0 : rows * 1_000_000_000L / nanos;
+    }
+}
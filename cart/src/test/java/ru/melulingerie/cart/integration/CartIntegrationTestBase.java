@@ -9,6 +9,7 @@ import ru.melulingerie.cart.domain.CartItem;
 import ru.melulingerie.cart.repository.CartItemRepository;
 import ru.melulingerie.cart.repository.CartRepository;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 
 @SpringBootTest(classes = CartTestApplication.class)
@@ -26,9 +27,16 @@ public abstract class CartIntegrationTestBase {
         return cartRepository.save(cart);
     }
 
+    protected static final BigDecimal TEST_UNIT_PRICE = BigDecimal.valueOf(1000);
+
     protected CartItem createTestCartItem(Cart cart, Long productId, Long variantId, Integer quantity) {
-        CartItem item = new CartItem(cart, productId, variantId, quantity);
-        return cartItemRepository.save(item);
+        CartItem item = cartItemRepository.save(new CartItem(cart, productId, variantId, quantity, TEST_UNIT_PRICE));
+        // позиция должна быть в коллекции до merge корзины, иначе orphanRemoval удалит её
+        cart.getCartItems().add(item);
+        cart.applyTotalsDelta(1, item.getLineTotal());
+        // корзина отсоединена: версия переносится с сохранённой копии для следующего merge
+        cart.setTotalsVersion(cartRepository.save(cart).getTotalsVersion());
+        return item;
     }
 
     protected Cart createCartWithItems(Long userId, int itemCount) {
@@ -36,8 +44,9 @@ public abstract class CartIntegrationTestBase {
         cart.setCartItems(new ArrayList<>());
 
         for (int i = 1; i <= itemCount; i++) {
-            CartItem item = createTestCartItem(cart, (long) i, (long) (i + 100), i);
+            CartItem item = cartItemRepository.save(new CartItem(cart, (long) i, (long) (i + 100), i, TEST_UNIT_PRICE));
             cart.getCartItems().add(item);
+            cart.applyTotalsDelta(1, item.getLineTotal());
         }
 
         return cartRepository.save(cart);
@@ -0,0 +1,250 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
+import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.service.CartAddItemService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Атомарное добавление позиции (INSERT ... ON CONFLICT) работает только на PostgreSQL: остальные тесты корзины
+ * идут на H2 с отключённым cart.add-item.atomic-upsert. Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Cart item atomic upsert PostgreSQL Integration Tests")
+class CartItemUpsertPostgresIntegrationTest extends CartIntegrationTestBase {
+
+    private static final BigDecimal UNIT_PRICE = BigDecimal.valueOf(1250);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("cart.add-item.atomic-upsert", () -> true);
+        registry.add("cart.max-items", () -> 2);
+        registry.add("cart.max-quantity-per-item", () -> 10);
+    }
+
+    @Autowired
+    private CartAddItemService cartAddItemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Should insert item, add line total and bump totals version")
+    void shouldInsertItemAndApplyTotalsDelta() {
+        // Given
+        Cart cart = createTestCart(1L);
+
+        // When
+        CartAddItemResponseDto response = cartAddItemService.addCartItem(cart.getId(), request(200L, 3), null);
+
+        // Then
+        assertNotNull(response.cartItemId());
+        assertEquals(3, response.finalQuantity());
+        assertEquals("Added to cart", response.message());
+        assertTotals(cart.getId(), 1, BigDecimal.valueOf(3750), 1);
+    }
+
+    @Test
+    @DisplayName("Should merge repeated addition of the same variant into one item")
+    void shouldMergeDoubleTap() {
+        // Given
+        Cart cart = createTestCart(1L);
+        CartAddItemResponseDto first = cartAddItemService.addCartItem(cart.getId(), request(200L, 2), null);
+
+        // When
+        CartAddItemResponseDto second = cartAddItemService.addCartItem(cart.getId(), request(200L, 3), null);
+
+        // Then
+        assertEquals(first.cartItemId(), second.cartItemId());
+        assertEquals(5, second.finalQuantity());
+        assertEquals("Quantity updated in cart", second.message());
+        assertEquals(1, cartItemRepository.count());
+        assertTotals(cart.getId(), 1, BigDecimal.valueOf(6250), 2);
+    }
+
+    @Test
+    @DisplayName("Should merge concurrent additions of the same variant without unique key violation")
+    void shouldMergeConcurrentDoubleTap() throws Exception {
+        // Given
+        Cart cart = createTestCart(1L);
+        int taps = 4;
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(taps)) {
+            List<Future<CartAddItemResponseDto>> futures = new ArrayList<>();
+            for (int i = 0; i < taps; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cartAddItemService.addCartItem(cart.getId(), request(200L, 1), null);
+                }));
+            }
+            start.countDown();
+            for (Future<CartAddItemResponseDto> future : futures) {
+                assertNotNull(future.get(30, TimeUnit.SECONDS).cartItemId());
+            }
+        }
+
+        // Then
+        assertEquals(1, cartItemRepository.count());
+        assertEquals(taps, cartItemRepository.findAll().getFirst().getQuantity());
+        assertTotals(cart.getId(), 1, UNIT_PRICE.multiply(BigDecimal.valueOf(taps)), taps);
+    }
+
+    @Test
+    @DisplayName("Should merge concurrent additions of a new variant into a cart one below the item limit")
+    void shouldMergeConcurrentDoubleTapBelowItemLimit() throws Exception {
+        // Given: max-items = 2, в корзине одна позиция
+        Cart cart = createTestCart(1L);
+        cartAddItemService.addCartItem(cart.getId(), request(201L, 1), null);
+
+        // When
+        List<CartAddItemResponseDto> responses = addConcurrently(cart.getId(), request(200L, 1), 4).stream()
+                .map(this::resultOf)
+                .toList();
+
+        // Then
+        assertTrue(responses.stream().allMatch(response -> response.cartItemId() != null));
+        assertEquals(2, cartItemRepository.count());
+        assertEquals(4, cartItemRepository.findByCartAndProduct(cart.getId(), 100L, 200L).orElseThrow().getQuantity());
+        assertTotals(cart.getId(), 2, UNIT_PRICE.multiply(BigDecimal.valueOf(5)), 5);
+    }
+
+    @Test
+    @DisplayName("Should report item limit, not full cart, when a concurrent addition exceeds it")
+    void shouldRejectConcurrentAdditionAboveItemLimit() throws Exception {
+        // Given
+        Cart cart = createTestCart(1L);
+
+        // When: вместе 12 при лимите позиции 10
+        List<Future<CartAddItemResponseDto>> futures = addConcurrently(cart.getId(), request(200L, 6), 2);
+
+        // Then
+        int succeeded = 0;
+        for (Future<CartAddItemResponseDto> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(CartExceptions.InvalidQuantityException.class, e.getCause());
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(6, cartItemRepository.findAll().getFirst().getQuantity());
+        assertTotals(cart.getId(), 1, UNIT_PRICE.multiply(BigDecimal.valueOf(6)), 1);
+    }
+
+    @Test
+    @DisplayName("Should reject quantity above item limit and leave totals unchanged")
+    void shouldRejectQuantityAboveItemLimit() {
+        // Given
+        Cart cart = createTestCart(1L);
+        cartAddItemService.addCartItem(cart.getId(), request(200L, 8), null);
+
+        // When & Then
+        CartExceptions.InvalidQuantityException exception = assertThrows(CartExceptions.InvalidQuantityException.class,
+                () -> cartAddItemService.addCartItem(cart.getId(), request(200L, 3), null));
+        assertTrue(exception.getMessage().contains("11"));
+        assertEquals(8, cartItemRepository.findAll().getFirst().getQuantity());
+        assertTotals(cart.getId(), 1, BigDecimal.valueOf(10000), 1);
+    }
+
+    @Test
+    @DisplayName("Should reject new variant in full cart but still merge existing one")
+    void shouldRejectNewItemInFullCart() {
+        // Given
+        Cart cart = createTestCart(1L);
+        cartAddItemService.addCartItem(cart.getId(), request(200L, 1), null);
+        cartAddItemService.addCartItem(cart.getId(), request(201L, 1), null);
+
+        // When & Then
+        assertThrows(CartExceptions.CartFullException.class,
+                () -> cartAddItemService.addCartItem(cart.getId(), request(202L, 1), null));
+        assertTotals(cart.getId(), 2, BigDecimal.valueOf(2500), 2);
+
+        CartAddItemResponseDto merged = cartAddItemService.addCartItem(cart.getId(), request(201L, 1), null);
+        assertEquals(2, merged.finalQuantity());
+        assertTotals(cart.getId(), 2, BigDecimal.valueOf(3750), 3);
+    }
+
+    @Test
+    @DisplayName("Should report missing cart")
+    void shouldReportMissingCart() {
+        assertThrows(CartExceptions.CartNotFoundException.class,
+                () -> cartAddItemService.addCartItem(999_999L, request(200L, 1), null));
+    }
+
+    private List<Future<CartAddItemResponseDto>> addConcurrently(Long cartId, CartAddItemRequestDto request, int taps)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CartAddItemResponseDto>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(taps)) {
+            for (int i = 0; i < taps; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cartAddItemService.addCartItem(cartId, request, null);
+                }));
+            }
+            start.countDown();
+        }
+        return futures;
+    }
+
+    private CartAddItemResponseDto resultOf(Future<CartAddItemResponseDto> future) {
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError("Concurrent addition failed", e);
+        }
+    }
+
+        private CartAddItemRequestDto request(Long variantId, int quantity) {
+        return new CartAddItemRequestDto(100L, variantId, quantity, UNIT_PRICE);
+    }
+
+    private void assertTotals(Long cartId, int itemsCount, BigDecimal totalAmount, long totalsVersion) {
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "select items_count, total_amount, totals_version from carts where id = ?", cartId);
+        assertEquals(itemsCount, ((Number) totals.get("items_count")).intValue());
+        assertEquals(0, totalAmount.compareTo((BigDecimal) totals.get("total_amount")));
+        assertEquals(totalsVersion, ((Number) totals.get("totals_version")).longValue());
+    }
+}
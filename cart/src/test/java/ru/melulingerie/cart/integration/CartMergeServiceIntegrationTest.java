@@ -0,0 +1,169 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.domain.CartItem;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.service.CartAddItemService;
+import ru.melulingerie.cart.service.CartMergeService;
+import ru.melulingerie.cart.service.CartMergeService.CartMergeResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cart merge Integration Tests")
+@TestPropertySource(properties = "cart.max-items=3")
+class CartMergeServiceIntegrationTest extends CartIntegrationTestBase {
+
+    private static final Long GUEST_ID = 1L;
+    private static final Long USER_ID = 2L;
+
+    @Autowired
+    private CartMergeService cartMergeService;
+
+    @Autowired
+    private CartAddItemService cartAddItemService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Should sum quantities of matching items up to the item limit and move the rest")
+    void shouldSumQuantitiesAndMoveMissingItems() {
+        // Given
+        Cart guestCart = createTestCart(GUEST_ID);
+        createTestCartItem(guestCart, 100L, 200L, 2);
+        createTestCartItem(guestCart, 101L, 201L, 90);
+        CartItem moved = createTestCartItem(guestCart, 102L, 202L, 1);
+        Cart userCart = createTestCart(USER_ID);
+        CartItem summed = createTestCartItem(userCart, 100L, 200L, 3);
+        CartItem capped = createTestCartItem(userCart, 101L, 201L, 20);
+
+        // When
+        CartMergeResult result = cartMergeService.mergeCarts(GUEST_ID, USER_ID).orElseThrow();
+
+        // Then
+        assertEquals(userCart.getId(), result.cartId());
+        assertEquals(2, result.mergedItems());
+        assertEquals(1, result.movedItems());
+        assertEquals(0, result.droppedItems());
+        assertEquals(5, cartItemRepository.findById(summed.getId()).orElseThrow().getQuantity());
+        assertEquals(99, cartItemRepository.findById(capped.getId()).orElseThrow().getQuantity());
+        assertEquals(userCart.getId(), cartItemRepository.findById(moved.getId()).orElseThrow().getCart().getId());
+
+        assertTrue(cartRepository.findById(guestCart.getId()).isEmpty());
+        assertEquals(3, cartItemRepository.count());
+        Cart merged = cartRepository.findById(userCart.getId()).orElseThrow();
+        assertEquals(3, merged.getItemsCount());
+        assertEquals(0, BigDecimal.valueOf(105_000).compareTo(merged.getTotalAmount()));
+    }
+
+    @Test
+    @DisplayName("Should drop guest items that exceed the cart item limit")
+    void shouldDropItemsOverCartLimit() {
+        // Given
+        Cart guestCart = createTestCart(GUEST_ID);
+        createTestCartItem(guestCart, 100L, 200L, 1);
+        createTestCartItem(guestCart, 101L, 201L, 1);
+        Cart userCart = createTestCart(USER_ID);
+        createTestCartItem(userCart, 102L, 202L, 1);
+        createTestCartItem(userCart, 103L, 203L, 1);
+
+        // When
+        CartMergeResult result = cartMergeService.mergeCarts(GUEST_ID, USER_ID).orElseThrow();
+
+        // Then
+        assertEquals(0, result.mergedItems());
+        assertEquals(1, result.movedItems());
+        assertEquals(1, result.droppedItems());
+        assertEquals(3, cartRepository.findById(userCart.getId()).orElseThrow().getItemsCount());
+        assertEquals(3, cartItemRepository.count());
+        assertTrue(cartRepository.findByUserId(GUEST_ID).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should count free slots after concurrent addition to user cart commits")
+    void shouldWaitForConcurrentAdditionToUserCart() throws Exception {
+        // Given
+        Cart guestCart = createTestCart(GUEST_ID);
+        createTestCartItem(guestCart, 100L, 200L, 1);
+        Cart userCart = createTestCart(USER_ID);
+        createTestCartItem(userCart, 101L, 201L, 1);
+        createTestCartItem(userCart, 102L, 202L, 1);
+        CountDownLatch locked = new CountDownLatch(1);
+
+        // When: параллельная транзакция держит корзину пользователя и добавляет в неё последнюю позицию
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> addition = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                cartRepository.findByUserIdForUpdate(USER_ID).orElseThrow();
+                locked.countDown();
+                sleep(200);
+                cartAddItemService.addCartItem(userCart.getId(),
+                        new CartAddItemRequestDto(103L, 203L, 1, TEST_UNIT_PRICE));
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            CartMergeResult result = cartMergeService.mergeCarts(GUEST_ID, USER_ID).orElseThrow();
+            addition.get(10, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(0, result.movedItems());
+            assertEquals(1, result.droppedItems());
+        }
+        assertEquals(3, cartRepository.findById(userCart.getId()).orElseThrow().getItemsCount());
+        assertEquals(3, cartItemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reassign guest cart when user has no cart")
+    void shouldReassignGuestCartWhenUserHasNoCart() {
+        // Given
+        Cart guestCart = createTestCart(GUEST_ID);
+        createTestCartItem(guestCart, 100L, 200L, 2);
+
+        // When
+        CartMergeResult result = cartMergeService.mergeCarts(GUEST_ID, USER_ID).orElseThrow();
+
+        // Then
+        assertEquals(guestCart.getId(), result.cartId());
+        assertEquals(1, result.movedItems());
+        assertEquals(guestCart.getId(), cartRepository.findByUserId(USER_ID).orElseThrow().getId());
+        assertTrue(cartRepository.findByUserId(GUEST_ID).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return empty result when guest has no cart")
+    void shouldReturnEmptyWhenGuestHasNoCart() {
+        // Given
+        Cart userCart = createTestCart(USER_ID);
+        createTestCartItem(userCart, 100L, 200L, 1);
+
+        // When & Then
+        assertTrue(cartMergeService.mergeCarts(GUEST_ID, USER_ID).isEmpty());
+        assertEquals(List.of(userCart.getId()), cartRepository.findAll().stream().map(Cart::getId).toList());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.domain.CartItem;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
+import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.service.CartAddItemService;
+import ru.melulingerie.cart.service.CartClearService;
+import ru.melulingerie.cart.service.CartUpdateQuantityService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cart optimistic locking Integration Tests")
+@TestPropertySource(properties = "cart.optimistic-lock.max-attempts=50")
+class CartOptimisticLockingIntegrationTest extends CartIntegrationTestBase {
+
+    @Autowired
+    private CartAddItemService cartAddItemService;
+
+    @Autowired
+    private CartUpdateQuantityService cartUpdateQuantityService;
+
+    @Autowired
+    private CartClearService cartClearService;
+
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Should increase version once per write")
+    void shouldIncreaseVersionOncePerWrite() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem item = createTestCartItem(cart, 100L, 200L, 1);
+        long version = totals(cart).version();
+
+        // When
+        cartUpdateQuantityService.updateItemQuantity(cart.getId(), item.getId(), 5, version);
+
+        // Then
+        CartTotalsResponseDto totals = totals(cart);
+        assertEquals(version + 1, totals.version());
+        assertEquals(0, BigDecimal.valueOf(5000).compareTo(totals.totalAmount()));
+    }
+
+    @Test
+    @DisplayName("Should reject write with stale expected version and keep cart unchanged")
+    void shouldRejectWriteWithStaleVersion() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem item = createTestCartItem(cart, 100L, 200L, 1);
+        long staleVersion = totals(cart).version();
+        cartAddItemService.addCartItem(cart.getId(), new CartAddItemRequestDto(101L, 201L, 1, TEST_UNIT_PRICE));
+
+        // When & Then
+        assertThrows(CartExceptions.CartVersionMismatchException.class, () ->
+                cartUpdateQuantityService.updateItemQuantity(cart.getId(), item.getId(), 5, staleVersion));
+        assertThrows(CartExceptions.CartVersionMismatchException.class, () ->
+                cartClearService.clearCart(cart.getId(), staleVersion));
+
+        assertEquals(1, cartItemRepository.findById(item.getId()).orElseThrow().getQuantity());
+        CartTotalsResponseDto totals = totals(cart);
+        assertEquals(2, totals.itemsCount());
+        assertEquals(staleVersion + 1, totals.version());
+    }
+
+    @Test
+    @DisplayName("Should not lose totals on concurrent writes to the same cart")
+    void shouldNotLoseTotalsOnConcurrentWrites() throws Exception {
+        // Given
+        Cart cart = createTestCart(42L);
+        int writers = 4;
+        int updatesPerWriter = 10;
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            items.add(createTestCartItem(cart, 100L + i, 200L + i, 1));
+        }
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (CartItem item : items) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int quantity = 2; quantity <= updatesPerWriter + 1; quantity++) {
+                        cartUpdateQuantityService.updateItemQuantity(cart.getId(), item.getId(), quantity);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        BigDecimal expectedTotal = TEST_UNIT_PRICE.multiply(BigDecimal.valueOf((long) writers * (updatesPerWriter + 1)));
+        CartTotalsResponseDto totals = totals(cart);
+        assertEquals(writers, totals.itemsCount());
+        assertEquals(0, expectedTotal.compareTo(totals.totalAmount()));
+    }
+
+    private CartTotalsResponseDto totals(Cart cart) {
+        return cartRepository.findTotalsById(cart.getId()).orElseThrow();
+    }
+}
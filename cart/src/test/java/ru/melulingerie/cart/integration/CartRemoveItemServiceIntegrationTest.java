@@ -8,9 +8,11 @@ import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
 import ru.melulingerie.cart.service.CartRemoveItemService;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,6 +52,26 @@ class CartRemoveItemServiceIntegrationTest extends CartIntegrationTestBase {
         assertEquals(item2.getVariantId(), remainingItem.get().getVariantId());
     }
 
+    @Test
+    @DisplayName("Should pass removed quantities per variant to the guard and keep totals consistent")
+    void shouldPassRemovedQuantitiesToGuard() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem item1 = createTestCartItem(cart, 100L, 200L, 2);
+        CartItem item2 = createTestCartItem(cart, 101L, 201L, 3);
+        createTestCartItem(cart, 102L, 202L, 1);
+        List<Map<Long, Integer>> guarded = new ArrayList<>();
+
+        // When
+        cartRemoveItemService.removeCartItems(cart.getId(), List.of(item1.getId(), item2.getId()), null, guarded::add);
+
+        // Then
+        assertEquals(List.of(Map.of(200L, -2, 201L, -3)), guarded);
+        Cart savedCart = cartRepository.findById(cart.getId()).orElseThrow();
+        assertEquals(1, savedCart.getItemsCount());
+        assertEquals(0, TEST_UNIT_PRICE.compareTo(savedCart.getTotalAmount()));
+    }
+
     @Test
     @DisplayName("Should remove multiple items from cart successfully")
     void shouldRemoveMultipleItemsFromCartSuccessfully() {
@@ -0,0 +1,89 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.service.CartTotalsReconciliationService;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cart totals reconciliation Integration Tests")
+class CartTotalsReconciliationServiceIntegrationTest extends CartIntegrationTestBase {
+
+    @Autowired
+    private CartTotalsReconciliationService cartTotalsReconciliationService;
+
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Should reprice items and recalculate totals only for carts with changed prices")
+    void shouldRepriceOnlyAffectedCarts() {
+        // Given
+        Cart affected = createTestCart(1L);
+        createTestCartItem(affected, 100L, 200L, 2);
+        createTestCartItem(affected, 101L, 201L, 1);
+        Cart untouched = createTestCart(2L);
+        createTestCartItem(untouched, 102L, 202L, 3);
+        long affectedVersion = cartRepository.findById(affected.getId()).orElseThrow().getTotalsVersion();
+        long untouchedVersion = cartRepository.findById(untouched.getId()).orElseThrow().getTotalsVersion();
+
+        // When: цена варианта 202 не изменилась
+        int recalculated = cartTotalsReconciliationService.reconcileUnitPrices(Map.of(
+                200L, BigDecimal.valueOf(1500),
+                202L, TEST_UNIT_PRICE));
+
+        // Then
+        assertEquals(1, recalculated);
+        Cart repriced = cartRepository.findById(affected.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(4000).compareTo(repriced.getTotalAmount()));
+        assertEquals(affectedVersion + 1, repriced.getTotalsVersion());
+        assertEquals(untouchedVersion, cartRepository.findById(untouched.getId()).orElseThrow().getTotalsVersion());
+    }
+
+    @Test
+    @DisplayName("Should reconcile more variants than fit into one bind list")
+    void shouldReconcileVariantsInChunks() {
+        // Given
+        Cart cart = createTestCart(1L);
+        createTestCartItem(cart, 100L, 200L, 1);
+        createTestCartItem(cart, 101L, 2_700L, 1);
+        Map<Long, BigDecimal> unitPrices = new HashMap<>();
+        for (long variantId = 200; variantId <= 2_700; variantId++) {
+            unitPrices.put(variantId, BigDecimal.valueOf(variantId % 2 == 0 ? 2000 : 3000));
+        }
+
+        // When
+        int recalculated = cartTotalsReconciliationService.reconcileUnitPrices(unitPrices);
+
+        // Then
+        assertEquals(1, recalculated);
+        Cart repriced = cartRepository.findById(cart.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(4000).compareTo(repriced.getTotalAmount()));
+    }
+
+    @Test
+    @DisplayName("Should page through variant ids in carts")
+    void shouldPageThroughCartVariantIds() {
+        // Given
+        Cart first = createTestCart(1L);
+        createTestCartItem(first, 100L, 300L, 1);
+        createTestCartItem(first, 101L, 100L, 1);
+        Cart second = createTestCart(2L);
+        createTestCartItem(second, 100L, 300L, 1);
+        createTestCartItem(second, 102L, 200L, 1);
+
+        // When / Then
+        assertEquals(List.of(100L, 200L), cartTotalsReconciliationService.getCartVariantIds(0L, 2));
+        assertEquals(List.of(300L), cartTotalsReconciliationService.getCartVariantIds(200L, 2));
+    }
+}
@@ -8,6 +8,10 @@ import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
 import ru.melulingerie.cart.service.CartUpdateQuantityService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("CartUpdateQuantityService Integration Tests")
@@ -38,6 +42,26 @@ class CartUpdateQuantityServiceIntegrationTest extends CartIntegrationTestBase {
         // Item exists and is updated successfully
     }
 
+    @Test
+    @DisplayName("Should pass quantity change of the item variant to the guard and roll back when it rejects")
+    void shouldPassQuantityDeltaToGuard() {
+        // Given
+        Cart cart = createTestCart(42L);
+        CartItem item = createTestCartItem(cart, 100L, 200L, 3);
+        List<Map<Long, Integer>> guarded = new ArrayList<>();
+
+        // When
+        cartUpdateQuantityService.updateItemQuantity(cart.getId(), item.getId(), 1, null, guarded::add);
+        assertThrows(IllegalStateException.class,
+                () -> cartUpdateQuantityService.updateItemQuantity(cart.getId(), item.getId(), 6, null, quantityDeltas -> {
+                    throw new IllegalStateException("Out of stock");
+                }));
+
+        // Then
+        assertEquals(List.of(Map.of(200L, -2)), guarded);
+        assertEquals(1, cartItemRepository.findById(item.getId()).orElseThrow().getQuantity());
+    }
+
     @Test
     @DisplayName("Should update quantity from 1 to maximum allowed")
     void shouldUpdateQuantityFromOneToMaximumAllowed() {
@@ -0,0 +1,383 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.exception.CartExceptions;
+import ru.melulingerie.cart.guest.GuestCartFlusher;
+import ru.melulingerie.cart.guest.GuestCartItemSnapshot;
+import ru.melulingerie.cart.guest.GuestCartJournal;
+import ru.melulingerie.cart.guest.GuestCartSnapshot;
+import ru.melulingerie.cart.guest.GuestCartStore;
+import ru.melulingerie.cart.guest.InMemoryGuestCartStore;
+import ru.melulingerie.cart.service.CartAddItemService;
+import ru.melulingerie.cart.service.CartCreateService;
+import ru.melulingerie.cart.service.CartGetService;
+import ru.melulingerie.cart.service.CartRemoveItemService;
+import ru.melulingerie.cart.service.CartTotalsReconciliationService;
+import ru.melulingerie.cart.service.CartUpdateQuantityService;
+import ru.melulingerie.cart.service.GuestCartService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Guest cart write-behind store Integration Tests")
+class GuestCartStoreIntegrationTest extends CartIntegrationTestBase {
+
+    private static final Path JOURNAL = createJournalPath();
+
+    @DynamicPropertySource
+    static void guestStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("cart.guest-store.enabled", () -> true);
+        registry.add("cart.guest-store.journal.path", JOURNAL::toString);
+        // журнал сжимается на каждом цикле записи, чтобы проверять его содержимое после flushPending
+        registry.add("cart.guest-store.journal.compact-min-records", () -> 0);
+        registry.add("cart.guest-store.journal.compact-garbage-ratio", () -> 0);
+    }
+
+    @Autowired
+    private CartCreateService cartCreateService;
+
+    @Autowired
+    private CartAddItemService cartAddItemService;
+
+    @Autowired
+    private CartRemoveItemService cartRemoveItemService;
+
+    @Autowired
+    private CartUpdateQuantityService cartUpdateQuantityService;
+
+    @Autowired
+    private CartGetService cartGetService;
+
+    @Autowired
+    private GuestCartService guestCartService;
+
+    @Autowired
+    private GuestCartFlusher guestCartFlusher;
+
+    @Autowired
+    private GuestCartStore guestCartStore;
+
+    @Autowired
+    private CartTotalsReconciliationService cartTotalsReconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        guestCartFlusher.flushPending();
+        clearDatabase();
+    }
+
+    @Test
+    @DisplayName("Should keep new guest cart out of database until flush")
+    void shouldKeepGuestCartOutOfDatabaseUntilFlush() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1001L).cartId();
+
+        // When
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L, 200L, 2, TEST_UNIT_PRICE));
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(101L, 201L, 1, TEST_UNIT_PRICE));
+
+        // Then
+        assertTrue(cartRepository.findById(cartId).isEmpty());
+        CartGetResponseDto cart = cartGetService.getCart(cartId);
+        assertEquals(2, cart.itemsCount());
+        assertEquals(0, BigDecimal.valueOf(3000).compareTo(cart.totalAmount()));
+        assertEquals(cartId, cartCreateService.createGuestCart(1001L).cartId());
+    }
+
+    @Test
+    @DisplayName("Should write guest carts to database with the same ids on flush")
+    void shouldWriteGuestCartsOnFlush() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1002L).cartId();
+        CartAddItemResponseDto added = cartAddItemService.addCartItem(cartId,
+                new CartAddItemRequestDto(100L, 200L, 2, TEST_UNIT_PRICE));
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L, 200L, 1, TEST_UNIT_PRICE));
+
+        // When
+        guestCartFlusher.flushPending();
+
+        // Then
+        Cart saved = cartRepository.findById(cartId).orElseThrow();
+        assertEquals(1002L, saved.getUserId());
+        assertEquals(1, saved.getItemsCount());
+        assertEquals(0, BigDecimal.valueOf(3000).compareTo(saved.getTotalAmount()));
+        assertEquals(3, cartItemRepository.findById(added.cartItemId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Should serve database cart after release on login or checkout")
+    void shouldServeDatabaseCartAfterRelease() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1003L).cartId();
+        CartAddItemResponseDto added = cartAddItemService.addCartItem(cartId,
+                new CartAddItemRequestDto(100L, 200L, 2, TEST_UNIT_PRICE));
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(101L, 201L, 1, TEST_UNIT_PRICE));
+
+        // When
+        guestCartService.flushCart(cartId);
+        cartRemoveItemService.removeCartItems(cartId, List.of(added.cartItemId()));
+
+        // Then
+        assertTrue(guestCartService.getCart(cartId).isEmpty());
+        CartGetResponseDto cart = cartGetService.getCart(cartId);
+        assertEquals(1, cart.itemsCount());
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(cart.totalAmount()));
+        assertEquals(1, cartRepository.findById(cartId).orElseThrow().getItemsCount());
+    }
+
+    @Test
+    @DisplayName("Should pass quantity changes to the guard and keep the snapshot when it rejects")
+    void shouldGuardGuestCartQuantityChanges() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1010L).cartId();
+        CartAddItemResponseDto added = cartAddItemService.addCartItem(cartId,
+                new CartAddItemRequestDto(100L, 200L, 2, TEST_UNIT_PRICE));
+        List<Map<Long, Integer>> guarded = new ArrayList<>();
+
+        // When
+        cartUpdateQuantityService.updateItemQuantity(cartId, added.cartItemId(), 5, null, guarded::add);
+        assertThrows(IllegalStateException.class, () -> cartRemoveItemService.removeCartItems(
+                cartId, List.of(added.cartItemId()), null, quantityDeltas -> {
+                    throw new IllegalStateException("Rejected");
+                }));
+
+        // Then
+        assertEquals(List.of(Map.of(200L, 3)), guarded);
+        assertEquals(5, guestCartService.getCart(cartId).orElseThrow().items().getFirst().quantity());
+    }
+
+    @Test
+    @DisplayName("Should recover unflushed carts from journal")
+    void shouldRecoverUnflushedCartsFromJournal() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1004L).cartId();
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L, 200L, 4, TEST_UNIT_PRICE));
+
+        // When
+        List<GuestCartSnapshot> recovered = new GuestCartJournal(JOURNAL, true).replay();
+
+        // Then
+        GuestCartSnapshot snapshot = recovered.stream()
+                .filter(cart -> cart.cartId().equals(cartId))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, snapshot.itemsCount());
+        assertEquals(4, snapshot.items().get(0).quantity());
+
+        guestCartFlusher.flushPending();
+        assertTrue(new GuestCartJournal(JOURNAL, true).replay().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep unflushed changes in journal when another cart is released")
+    void shouldKeepUnflushedChangesOnCompaction() {
+        // Given
+        Long pendingCartId = cartCreateService.createGuestCart(1006L).cartId();
+        cartAddItemService.addCartItem(pendingCartId, new CartAddItemRequestDto(100L, 200L, 1, TEST_UNIT_PRICE));
+        guestCartFlusher.flushPending();
+        cartAddItemService.addCartItem(pendingCartId, new CartAddItemRequestDto(101L, 201L, 1, TEST_UNIT_PRICE));
+        Long releasedCartId = cartCreateService.createGuestCart(1007L).cartId();
+
+        // When
+        guestCartService.flushCart(releasedCartId);
+
+        // Then
+        List<GuestCartSnapshot> recovered = new GuestCartJournal(JOURNAL, true).replay();
+        assertEquals(1, recovered.size());
+        assertEquals(pendingCartId, recovered.get(0).cartId());
+        assertEquals(2, recovered.get(0).itemsCount());
+    }
+
+    @Test
+    @DisplayName("Should not replay released and discarded carts without compaction")
+    void shouldNotReplayReleasedCartsWithoutCompaction() {
+        // Given
+        Path path = createJournalPath();
+        GuestCartJournal journal = new GuestCartJournal(path, true);
+        GuestCartStore store = new InMemoryGuestCartStore(10);
+        GuestCartFlusher flusher = flusher(store, journal, 1000);
+        GuestCartSnapshot released = snapshot(5001L, 2001L);
+        GuestCartSnapshot discarded = snapshot(5002L, 2002L);
+        GuestCartSnapshot pending = snapshot(5003L, 2003L);
+        for (GuestCartSnapshot cart : List.of(released, discarded, pending)) {
+            store.add(cart);
+            journal.append(cart);
+        }
+
+        // When
+        flusher.flushAndRelease(released.cartId());
+        flusher.discardByUserIds(List.of(discarded.userId()));
+        flusher.flushPending();
+
+        // Then: журнал меньше порога и не сжимался, выведенные корзины отмечены удалёнными
+        assertEquals(5, journal.records());
+        List<GuestCartSnapshot> recovered = new GuestCartJournal(path, true).replay();
+        assertEquals(List.of(pending.cartId()), recovered.stream().map(GuestCartSnapshot::cartId).toList());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should compact journal once it reaches the record threshold")
+    void shouldCompactJournalAtThreshold() {
+        // Given
+        Path path = createJournalPath();
+        GuestCartJournal journal = new GuestCartJournal(path, true);
+        GuestCartStore store = new InMemoryGuestCartStore(10);
+        GuestCartFlusher flusher = flusher(store, journal, 4);
+        GuestCartSnapshot cart = snapshot(5011L, 2011L);
+        store.add(cart);
+        journal.append(cart);
+        flusher.flushPending();
+        assertEquals(1, journal.records(), "below threshold journal is not compacted");
+
+        // When: четыре записи, из них три устаревших снимка
+        for (int i = 0; i < 3; i++) {
+            cart = cart.withItems(cart.items(), cart.updatedAt());
+            GuestCartSnapshot next = cart;
+            store.update(cart.cartId(), current -> next);
+            journal.append(next);
+        }
+        flusher.flushPending();
+
+        // Then: последняя версия записана в БД, в сжатом журнале снимков не осталось
+        assertEquals(0, journal.records());
+        assertTrue(new GuestCartJournal(path, true).replay().isEmpty());
+        assertEquals(cart.version(), cartRepository.findById(cart.cartId()).orElseThrow().getTotalsVersion());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should replay every record appended concurrently with group fsync")
+    void shouldReplayConcurrentAppends() throws Exception {
+        // Given
+        Path path = createJournalPath();
+        GuestCartJournal journal = new GuestCartJournal(path, true);
+        int carts = 200;
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> appends = new ArrayList<>();
+            for (long cartId = 1; cartId <= carts; cartId++) {
+                GuestCartSnapshot snapshot = snapshot(6000L + cartId, 3000L + cartId);
+                appends.add(executor.submit(() -> journal.append(snapshot)));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        }
+
+        // Then
+        assertEquals(carts, journal.records());
+        assertEquals(carts, new GuestCartJournal(path, true).replay().size());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should not overwrite newer database cart with stale snapshot")
+    void shouldNotOverwriteNewerDatabaseCart() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1008L).cartId();
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L, 200L, 1, TEST_UNIT_PRICE));
+        GuestCartSnapshot stale = guestCartStore.get(cartId).orElseThrow();
+        guestCartService.flushCart(cartId);
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(101L, 201L, 1, TEST_UNIT_PRICE));
+        long databaseVersion = cartRepository.findById(cartId).orElseThrow().getTotalsVersion();
+
+        // When: снимок, восстановленный из журнала после вывода корзины
+        guestCartStore.restore(stale);
+        guestCartFlusher.flushPending();
+
+        // Then
+        Cart saved = cartRepository.findById(cartId).orElseThrow();
+        assertEquals(databaseVersion, saved.getTotalsVersion());
+        assertEquals(2, saved.getItemsCount());
+        assertEquals(0, BigDecimal.valueOf(2000).compareTo(saved.getTotalAmount()));
+        assertEquals(2, cartItemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should reprice guest carts in store on price reconciliation")
+    void shouldRepriceGuestCartsInStore() {
+        // Given
+        // вариант не встречается в других корзинах хранилища
+        Long cartId = cartCreateService.createGuestCart(1009L).cartId();
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(109L, 209L, 2, TEST_UNIT_PRICE));
+        guestCartFlusher.flushPending();
+        long flushedVersion = cartRepository.findById(cartId).orElseThrow().getTotalsVersion();
+
+        // When
+        int recalculated = cartTotalsReconciliationService.reconcileUnitPrices(Map.of(209L, BigDecimal.valueOf(1500)));
+
+        // Then
+        assertEquals(1, recalculated);
+        assertEquals(0, BigDecimal.valueOf(3000).compareTo(cartGetService.getCart(cartId).totalAmount()));
+        assertEquals(flushedVersion, cartRepository.findById(cartId).orElseThrow().getTotalsVersion());
+
+        guestCartFlusher.flushPending();
+        Cart saved = cartRepository.findById(cartId).orElseThrow();
+        assertEquals(flushedVersion + 1, saved.getTotalsVersion());
+        assertEquals(0, BigDecimal.valueOf(3000).compareTo(saved.getTotalAmount()));
+    }
+
+    @Test
+    @DisplayName("Should enforce item quantity limit for guest carts")
+    void shouldEnforceQuantityLimitForGuestCarts() {
+        // Given
+        Long cartId = cartCreateService.createGuestCart(1005L).cartId();
+        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L, 200L, 90, TEST_UNIT_PRICE));
+
+        // When & Then
+        assertThrows(CartExceptions.InvalidQuantityException.class, () ->
+                cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L, 200L, 10, TEST_UNIT_PRICE)));
+        assertEquals(90, cartGetService.getCart(cartId).items().get(0).quantity());
+    }
+
+    private GuestCartFlusher flusher(GuestCartStore store, GuestCartJournal journal, long compactMinRecords) {
+        return new GuestCartFlusher(store, journal, jdbcTemplate, transactionTemplate, true, 500,
+                Duration.ofMinutes(30), compactMinRecords, 0.5);
+    }
+
+    private static GuestCartSnapshot snapshot(Long cartId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return GuestCartSnapshot.empty(cartId, userId, now).withItems(List.of(
+                new GuestCartItemSnapshot(cartId * 10, 100L, 200L, 1, TEST_UNIT_PRICE, now)), now);
+    }
+
+    private static Path createJournalPath() {
+        try {
+            return Files.createTempDirectory("guest-carts").resolve("guest-carts.journal");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
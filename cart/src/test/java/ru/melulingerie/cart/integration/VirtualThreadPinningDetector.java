@@ -0,0 +1,51 @@
+package ru.melulingerie.cart.integration;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Запись событий JFR jdk.VirtualThreadPinned: виртуальный поток встал на ожидание, удерживая монитор
+ * (synchronized), и занял несущий поток. Порог нулевой — фиксируется любое закрепление.
+ */
+final class VirtualThreadPinningDetector implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream = new RecordingStream();
+    private final List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+
+    VirtualThreadPinningDetector() {
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        stream.onEvent(PINNED_EVENT, events::add);
+        stream.startAsync();
+    }
+
+    /**
+     * Останавливает запись и возвращает стеки закреплений, проходящие через код приложения
+     */
+    List<String> stop() {
+        stream.stop();
+        return events.stream()
+                .filter(event -> event.getStackTrace() != null)
+                .map(event -> event.getStackTrace().getFrames().stream()
+                        .map(VirtualThreadPinningDetector::format)
+                        .collect(Collectors.joining("\n\tat ")))
+                .filter(stack -> stack.contains("ru.melulingerie."))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,166 @@
+package ru.melulingerie.cart.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.melulingerie.cart.domain.Cart;
+import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
+import ru.melulingerie.cart.guest.GuestCartFlusher;
+import ru.melulingerie.cart.service.CartAddItemService;
+import ru.melulingerie.cart.service.CartCreateService;
+import ru.melulingerie.cart.service.GuestCartService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Операции корзины на виртуальных потоках не должны закреплять несущие потоки: ожидание соединения пула,
+ * запись журнала и запись в БД выполняются без удержания мониторов. Пул соединений намеренно меньше
+ * числа потоков, чтобы потоки ждали соединение. Короткий таймаут пула не даёт закреплённым потокам
+ * зависнуть навсегда, заняв все несущие: при регрессии тест сообщает стеки закреплений, а не зависает.
+ */
+@DisplayName("Virtual thread pinning Integration Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class VirtualThreadPinningIntegrationTest extends CartIntegrationTestBase {
+
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 10;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("cart.guest-store.enabled", () -> true);
+        registry.add("cart.guest-store.journal.path", () -> createJournalDirectory() + "/guest-carts.journal");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 2);
+        registry.add("spring.datasource.hikari.connection-timeout", () -> 10000);
+    }
+
+    @Autowired
+    private CartCreateService cartCreateService;
+
+    @Autowired
+    private CartAddItemService cartAddItemService;
+
+    @Autowired
+    private GuestCartService guestCartService;
+
+    @Autowired
+    private GuestCartFlusher guestCartFlusher;
+
+    /**
+     * Без записи гостевых корзин: при регрессии монитор записи может остаться у зависшего потока
+     */
+    @AfterEach
+    void cleanUp() {
+        clearDatabase();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Detector should report thread parked inside synchronized block")
+    void detectorShouldReportPinnedThread() throws Exception {
+        // Given
+        Object monitor = new Object();
+
+        // When
+        List<String> pinned;
+        try (VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector()) {
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    sleep();
+                }
+            }).join();
+            pinned = detector.stop();
+        }
+
+        // Then
+        assertFalse(pinned.isEmpty());
+        assertTrue(pinned.get(0).contains(VirtualThreadPinningIntegrationTest.class.getName()));
+    }
+
+    /**
+     * Выполняется последним: при регрессии зависшие потоки могут занять несущие потоки до конца прогона
+     */
+    @Test
+    @Order(2)
+    @DisplayName("Cart writes on virtual threads should not pin carrier threads")
+    void cartWritesShouldNotPinCarrierThreads() throws Exception {
+        // Given
+        List<Cart> carts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            carts.add(createTestCart(500L + i));
+        }
+
+        // When
+        List<String> pinned;
+        List<Throwable> failures = new ArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Long cartId = carts.get(i).getId();
+                Long guestUserId = 2000L + i;
+                futures.add(executor.submit(() -> {
+                    Long guestCartId = cartCreateService.createGuestCart(guestUserId).cartId();
+                    for (long op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                        cartAddItemService.addCartItem(cartId, new CartAddItemRequestDto(100L + op, 200L + op, 1, TEST_UNIT_PRICE));
+                        cartAddItemService.addCartItem(guestCartId, new CartAddItemRequestDto(100L + op, 200L + op, 1, TEST_UNIT_PRICE));
+                        if (op % 3 == 0) {
+                            guestCartFlusher.flushPending();
+                        }
+                    }
+                    guestCartService.flushCart(guestCartId);
+                    return null;
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            for (Future<?> future : futures) {
+                try {
+                    future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    failures.add(e);
+                }
+            }
+            pinned = detector.stop();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertTrue(pinned.isEmpty(), () -> "Carrier threads pinned:\n" + String.join("\n\n", pinned));
+        assertTrue(failures.isEmpty(), () -> "Cart writes failed: " + failures);
+        assertEquals(OPERATIONS_PER_THREAD, cartRepository.findById(carts.get(0).getId()).orElseThrow().getItemsCount());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String createJournalDirectory() {
+        try {
+            return Files.createTempDirectory("guest-carts-pinning").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.melulingerie.facade.cart.dto;
+
+public enum CartBatchOperationFacadeType {
+    ADD,
+    UPDATE_QUANTITY,
+    REMOVE
+}
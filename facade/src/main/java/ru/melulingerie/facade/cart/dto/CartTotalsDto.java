@@ -22,5 +22,12 @@ public record CartTotalsDto(
                 minimum = "0",
                 requiredMode = Schema.RequiredMode.REQUIRED
         )
-        Integer totalItemsCount
+        Integer totalItemsCount,
+
+        @Schema(
+                description = "Версия корзины после операции; совпадает с ETag",
+                example = "12",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        Long version
 ) {}
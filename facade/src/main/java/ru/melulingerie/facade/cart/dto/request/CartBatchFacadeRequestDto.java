@@ -0,0 +1,29 @@
+package ru.melulingerie.facade.cart.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(
+        name = "CartBatchFacadeRequestDto",
+        description = "Пакет операций над корзиной, применяемых по порядку в одной транзакции"
+)
+public record CartBatchFacadeRequestDto(
+
+        @ArraySchema(
+                arraySchema = @Schema(
+                        description = "Операции в порядке применения",
+                        requiredMode = Schema.RequiredMode.REQUIRED
+                ),
+                schema = @Schema(implementation = CartBatchOperationFacadeRequestDto.class),
+                minItems = 1,
+                maxItems = 100
+        )
+        @NotEmpty @Size(max = 100) List<@Valid @NotNull CartBatchOperationFacadeRequestDto> operations
+
+) {}
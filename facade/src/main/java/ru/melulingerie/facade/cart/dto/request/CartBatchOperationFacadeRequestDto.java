@@ -0,0 +1,46 @@
+package ru.melulingerie.facade.cart.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import ru.melulingerie.facade.cart.dto.CartBatchOperationFacadeType;
+
+@Schema(
+        name = "CartBatchOperationFacadeRequestDto",
+        description = "Операция пакетного изменения корзины"
+)
+public record CartBatchOperationFacadeRequestDto(
+
+        @Schema(
+                description = "Тип операции: ADD — добавить товар, UPDATE_QUANTITY — изменить количество позиции, REMOVE — удалить позицию",
+                example = "ADD",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotNull CartBatchOperationFacadeType type,
+
+        @Schema(
+                description = "Идентификатор товара (для ADD)",
+                example = "12345"
+        )
+        Long productId,
+
+        @Schema(
+                description = "Идентификатор варианта товара (для ADD)",
+                example = "98765"
+        )
+        Long variantId,
+
+        @Schema(
+                description = "Идентификатор позиции корзины (для UPDATE_QUANTITY и REMOVE)",
+                example = "2001"
+        )
+        Long itemId,
+
+        @Schema(
+                description = "Количество единиц (для ADD и UPDATE_QUANTITY)",
+                example = "2",
+                minimum = "1"
+        )
+        @Positive Integer quantity
+
+) {}
@@ -0,0 +1,35 @@
+package ru.melulingerie.facade.cart.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(
+        name = "CartSummaryFacadeResponseDto",
+        description = "Краткие итоги корзины для бейджа и мини-корзины"
+)
+public record CartSummaryFacadeResponseDto(
+
+        @Schema(
+                description = "Общее количество позиций в корзине",
+                example = "3",
+                minimum = "0",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        Integer itemsCount,
+
+        @Schema(
+                description = "Итоговая сумма по корзине",
+                example = "1990.00",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        BigDecimal totalAmount,
+
+        @Schema(
+                description = "Версия итогов корзины; увеличивается при каждом изменении",
+                example = "12",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        Long version
+
+) {}
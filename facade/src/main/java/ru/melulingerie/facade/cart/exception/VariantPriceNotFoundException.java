@@ -0,0 +1,11 @@
+package ru.melulingerie.facade.cart.exception;
+
+/**
+ * У варианта нет действующей цены либо варианта не существует: добавить его в корзину нельзя
+ */
+public class VariantPriceNotFoundException extends RuntimeException {
+
+    public VariantPriceNotFoundException(Long variantId) {
+        super("Variant " + variantId + " is not available for sale");
+    }
+}
@@ -0,0 +1,104 @@
+package ru.melulingerie.facade.cart.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.melulingerie.cart.service.CartTotalsReconciliationService;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.event.PriceChangedEvent;
+import ru.melulingerie.price.service.PriceService;
+import ru.melulingerie.products.service.ProductVariantService;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сверка итогов корзин с текущими ценами. Изменённые цены накапливаются после коммита
+ * и периодически применяются к позициям корзин пачкой. Очередь живёт в памяти процесса:
+ * её теряет перезапуск, в неё не попадают цены, изменённые на других экземплярах или массовым SQL,
+ * поэтому реже выполняется полная сверка всех вариантов в корзинах.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartTotalsReconciliationJob {
+
+    private static final int FULL_RECONCILE_PAGE_SIZE = 1000;
+
+    private final Set<Long> pendingPriceIds = ConcurrentHashMap.newKeySet();
+
+    private final PriceService priceService;
+    private final ProductVariantService productVariantService;
+    private final CartTotalsReconciliationService cartTotalsReconciliationService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        pendingPriceIds.add(event.priceId());
+    }
+
+    @Scheduled(fixedDelayString = "${cart.totals.reconcile-interval-ms:10000}")
+    public void reconcile() {
+        if (pendingPriceIds.isEmpty()) {
+            return;
+        }
+        Set<Long> priceIds = new HashSet<>(pendingPriceIds);
+        pendingPriceIds.removeAll(priceIds);
+
+        try {
+            reconcile(productVariantService.getVariantPriceIdsByPriceIds(priceIds));
+        } catch (RuntimeException e) {
+            pendingPriceIds.addAll(priceIds); // повторим на следующем запуске
+            log.warn("Cart totals reconciliation failed for priceIds={}", priceIds, e);
+        }
+    }
+
+    /**
+     * Полная сверка: все варианты в корзинах постранично сверяются с текущими ценами,
+     * пересчитываются только корзины с изменившимися ценами позиций. Первый запуск вскоре после старта
+     * подбирает изменения, потерянные вместе с очередью при перезапуске
+     */
+    @Scheduled(fixedDelayString = "${cart.totals.full-reconcile-interval-ms:3600000}",
+            initialDelayString = "${cart.totals.full-reconcile-initial-delay-ms:60000}")
+    public void reconcileAll() {
+        long afterVariantId = 0;
+        int recalculatedCarts = 0;
+        try {
+            List<Long> variantIds;
+            do {
+                variantIds = cartTotalsReconciliationService.getCartVariantIds(afterVariantId, FULL_RECONCILE_PAGE_SIZE);
+                if (!variantIds.isEmpty()) {
+                    recalculatedCarts += reconcile(productVariantService.getPriceIdsByVariantIds(variantIds));
+                    afterVariantId = variantIds.get(variantIds.size() - 1);
+                }
+            } while (variantIds.size() == FULL_RECONCILE_PAGE_SIZE);
+            log.info("Full cart totals reconciliation finished: carts={}", recalculatedCarts);
+        } catch (RuntimeException e) {
+            log.warn("Full cart totals reconciliation failed after variantId={}", afterVariantId, e);
+        }
+    }
+
+    private int reconcile(Map<Long/*variantId*/, Long/*priceId*/> priceIdByVariantId) {
+        Map<Long/*priceId*/, PriceQuoteDto> prices = priceService.getPricesByIds(new HashSet<>(priceIdByVariantId.values()));
+
+        Map<Long/*variantId*/, BigDecimal> unitPriceByVariantId = new HashMap<>();
+        priceIdByVariantId.forEach((variantId, priceId) -> {
+            PriceQuoteDto price = prices.get(priceId);
+            if (price != null && price.price() != null) {
+                unitPriceByVariantId.put(variantId, price.price());
+            }
+        });
+
+        if (unitPriceByVariantId.isEmpty()) {
+            return 0;
+        }
+        return cartTotalsReconciliationService.reconcileUnitPrices(unitPriceByVariantId);
+    }
+}
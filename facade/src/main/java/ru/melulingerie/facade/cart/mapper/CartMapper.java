@@ -6,10 +6,12 @@ import ru.melulingerie.cart.dto.response.CartCreateResponseDto;
 import ru.melulingerie.facade.cart.dto.request.CartAddFacadeRequestDto;
 import ru.melulingerie.facade.cart.dto.response.CartCreateFacadeResponseDto;
 
+import java.math.BigDecimal;
+
 @Mapper(componentModel = "spring")
 public interface CartMapper {
 
-    CartAddItemRequestDto toAddItemRequestDto(CartAddFacadeRequestDto facadeRequest);
+    CartAddItemRequestDto toAddItemRequestDto(CartAddFacadeRequestDto facadeRequest, BigDecimal unitPrice);
 
     CartCreateFacadeResponseDto toCreateFacadeResponseDto(CartCreateResponseDto domainResponse);
 }
\ No newline at end of file
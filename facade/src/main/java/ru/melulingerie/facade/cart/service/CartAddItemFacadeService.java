@@ -5,5 +5,8 @@ import ru.melulingerie.facade.cart.dto.response.CartAddFacadeResponseDto;
 
 public interface CartAddItemFacadeService {
 
-    CartAddFacadeResponseDto addItemToCart(Long cartId, CartAddFacadeRequestDto request);
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    CartAddFacadeResponseDto addItemToCart(Long cartId, CartAddFacadeRequestDto request, Long expectedVersion);
 }
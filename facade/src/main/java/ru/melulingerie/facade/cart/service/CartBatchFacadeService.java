@@ -0,0 +1,12 @@
+package ru.melulingerie.facade.cart.service;
+
+import ru.melulingerie.facade.cart.dto.request.CartBatchFacadeRequestDto;
+import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+
+public interface CartBatchFacadeService {
+
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    CartGetFacadeResponseDto applyOperations(Long cartId, CartBatchFacadeRequestDto request, Long expectedVersion);
+}
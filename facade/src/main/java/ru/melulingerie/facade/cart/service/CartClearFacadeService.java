@@ -2,5 +2,8 @@ package ru.melulingerie.facade.cart.service;
 
 public interface CartClearFacadeService {
 
-    Integer clearCart(Long cartId);
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    Integer clearCart(Long cartId, Long expectedVersion);
 }
@@ -11,4 +11,12 @@ public interface CartCreateFacadeService {
      * @return ответ с информацией о созданной корзине
      */
     CartCreateFacadeResponseDto createCart(Long userId);
+
+    /**
+     * Создает корзину гостевого пользователя
+     *
+     * @param userId ID гостевого пользователя
+     * @return ответ с информацией о созданной корзине
+     */
+    CartCreateFacadeResponseDto createGuestCart(Long userId);
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package ru.melulingerie.facade.cart.service;
 
 import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+import ru.melulingerie.facade.cart.dto.response.CartSummaryFacadeResponseDto;
 
 public interface CartGetFacadeService {
 
     CartGetFacadeResponseDto getCart(Long cartId);
+
+    CartSummaryFacadeResponseDto getCartSummary(Long cartId);
 }
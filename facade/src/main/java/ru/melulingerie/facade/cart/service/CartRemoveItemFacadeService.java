@@ -4,6 +4,8 @@ import java.util.List;
 
 public interface CartRemoveItemFacadeService {
 
-    void removeItemsFromCart(Long cartId, List<Long> itemIds);
-
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    void removeItemsFromCart(Long cartId, List<Long> itemIds, Long expectedVersion);
 }
@@ -2,5 +2,8 @@ package ru.melulingerie.facade.cart.service;
 
 public interface CartUpdateQuantityFacadeService {
 
-    void updateItemQuantity(Long cartId, Long itemId, Integer quantity);
+    /**
+     * @param expectedVersion версия корзины из If-Match; null — без условия
+     */
+    void updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion);
 }
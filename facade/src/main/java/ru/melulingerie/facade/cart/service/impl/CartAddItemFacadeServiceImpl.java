@@ -5,19 +5,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
 import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
-import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
 import ru.melulingerie.cart.service.CartAddItemService;
 import ru.melulingerie.cart.service.CartGetService;
 import ru.melulingerie.facade.cart.dto.CartOperationType;
 import ru.melulingerie.facade.cart.dto.CartTotalsDto;
 import ru.melulingerie.facade.cart.dto.request.CartAddFacadeRequestDto;
 import ru.melulingerie.facade.cart.dto.response.CartAddFacadeResponseDto;
+import ru.melulingerie.facade.cart.exception.VariantPriceNotFoundException;
 import ru.melulingerie.facade.cart.mapper.CartMapper;
 import ru.melulingerie.facade.cart.service.CartAddItemFacadeService;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
 import ru.melulingerie.price.service.PriceService;
 import ru.melulingerie.products.service.ProductVariantService;
+import ru.melulingerie.products.service.VariantStockService;
 
 import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -29,33 +34,39 @@ public class CartAddItemFacadeServiceImpl implements CartAddItemFacadeService {
     private final CartGetService cartGetService;
     private final CartAddItemService cartAddItemService;
     private final ProductVariantService productVariantService;
+    private final VariantStockService variantStockService;
 
     @Override
-    public CartAddFacadeResponseDto addItemToCart(Long cartId, CartAddFacadeRequestDto request) {
+    public CartAddFacadeResponseDto addItemToCart(Long cartId, CartAddFacadeRequestDto request, Long expectedVersion) {
         log.debug("Adding item to cart: cartId={}, productId={}, variantId={}", 
                   cartId, request.productId(), request.variantId());
         
-        CartAddItemRequestDto domainRequest = cartMapper.toAddItemRequestDto(request);
-        
-        CartAddItemResponseDto response = cartAddItemService.addCartItem(cartId, domainRequest);
+        // наличие проверяется по счётчикам в памяти до любых обращений к БД
+        variantStockService.reserve(cartId, request.variantId(), request.quantity());
+
+        CartAddItemResponseDto response;
+        BigDecimal unitPrice;
+        try {
+            unitPrice = resolveUnitPrice(request.variantId());
+            CartAddItemRequestDto domainRequest = cartMapper.toAddItemRequestDto(request, unitPrice);
+            response = cartAddItemService.addCartItem(cartId, domainRequest, expectedVersion);
+        } catch (RuntimeException e) {
+            variantStockService.release(cartId, request.variantId(), request.quantity());
+            throw e;
+        }
         
         // Определяем тип операции
         CartOperationType operationType = determineOperationType(response.message());
         
-        // Рассчитываем цену товара
-        Long priceId = productVariantService.getVariantById(request.variantId()).getPriceId();
-        BigDecimal unitPrice = priceService.getPriceById(priceId)
-                .price();
+        // Итоги корзины хранятся в самой корзине: чтение одной строки по первичному ключу
+        CartTotalsResponseDto totals = cartGetService.getCartTotals(cartId);
         BigDecimal itemTotalPrice = unitPrice.multiply(BigDecimal.valueOf(response.finalQuantity()));
         
-        // Получаем обновленные итоги корзины
-        CartTotalsDto cartTotals = calculateCartTotals(cartId);
-        
         return new CartAddFacadeResponseDto(
                 response.cartItemId(),
                 response.finalQuantity(),
                 itemTotalPrice,
-                cartTotals,
+                new CartTotalsDto(totals.totalAmount(), totals.itemsCount(), totals.version()),
                 operationType
         );
     }
@@ -68,22 +79,16 @@ public class CartAddItemFacadeServiceImpl implements CartAddItemFacadeService {
         };
     }
     
-    private CartTotalsDto calculateCartTotals(Long cartId) {
-        CartGetResponseDto cartData = cartGetService.getCart(cartId);
-        
-        // Рассчитываем общую сумму с временными ценами
-        BigDecimal totalAmount = cartData.items().stream()
-                .map(item -> {
-                    Long itemPriceId = productVariantService.getVariantById(item.variantId()).getPriceId();
-                    BigDecimal itemUnitPrice = priceService.getPriceById(itemPriceId)
-                            .price();
-                    return itemUnitPrice.multiply(BigDecimal.valueOf(item.quantity()));
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Доставка пока бесплатная
-        BigDecimal deliveryAmount = BigDecimal.ZERO;
-        
-        return new CartTotalsDto(totalAmount, cartData.itemsCount());
+    /**
+     * Текущая цена за единицу варианта; фиксируется в позиции корзины
+     */
+    private BigDecimal resolveUnitPrice(Long variantId) {
+        Long priceId = productVariantService.getPriceIdsByVariantIds(Set.of(variantId)).get(variantId);
+        if (priceId == null) {
+            throw new VariantPriceNotFoundException(variantId);
+        }
+        return Optional.ofNullable(priceService.getPricesByIds(Set.of(priceId)).get(priceId))
+                .map(PriceQuoteDto::price)
+                .orElseThrow(() -> new VariantPriceNotFoundException(variantId));
     }
-}
\ No newline at end of file
+}
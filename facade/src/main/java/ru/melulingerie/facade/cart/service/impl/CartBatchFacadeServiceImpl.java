@@ -0,0 +1,102 @@
+package ru.melulingerie.facade.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.melulingerie.cart.dto.request.CartBatchOperationDto;
+import ru.melulingerie.cart.dto.request.CartBatchOperationType;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.service.CartBatchService;
+import ru.melulingerie.facade.cart.dto.CartBatchOperationFacadeType;
+import ru.melulingerie.facade.cart.dto.request.CartBatchFacadeRequestDto;
+import ru.melulingerie.facade.cart.dto.request.CartBatchOperationFacadeRequestDto;
+import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+import ru.melulingerie.facade.cart.exception.VariantPriceNotFoundException;
+import ru.melulingerie.facade.cart.service.CartBatchFacadeService;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.service.PriceService;
+import ru.melulingerie.products.service.ProductVariantService;
+import ru.melulingerie.products.service.VariantStockService;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartBatchFacadeServiceImpl implements CartBatchFacadeService {
+
+    private final PriceService priceService;
+    private final CartBatchService cartBatchService;
+    private final CartDetailsAssembler cartDetailsAssembler;
+    private final ProductVariantService productVariantService;
+    private final VariantStockService variantStockService;
+
+    /**
+     * Применяет пакет операций к корзине и возвращает её детализированное содержимое.
+     * Цены добавляемых вариантов разрешаются одним пакетным запросом до транзакции корзины,
+     * итоговые увеличения количества по вариантам резервируются внутри записи пакета по счётчикам в памяти,
+     * уменьшения и удаления возвращают резерв после успешного применения.
+     */
+    @Override
+    public CartGetFacadeResponseDto applyOperations(Long cartId, CartBatchFacadeRequestDto request, Long expectedVersion) {
+        log.debug("Applying {} batch operations to cart {}", request.operations().size(), cartId);
+
+        Map<Long/*variantId*/, BigDecimal> unitPrices = resolveUnitPrices(request.operations());
+
+        List<CartBatchOperationDto> operations = request.operations().stream()
+                .map(operation -> new CartBatchOperationDto(
+                        CartBatchOperationType.valueOf(operation.type().name()),
+                        operation.productId(),
+                        operation.variantId(),
+                        operation.itemId(),
+                        operation.quantity(),
+                        operation.type() == CartBatchOperationFacadeType.ADD
+                                ? unitPrices.get(operation.variantId())
+                                : null
+                ))
+                .toList();
+
+        CartStockReservation reservation = new CartStockReservation(cartId, variantStockService);
+        CartGetResponseDto cartData;
+        try {
+            cartData = cartBatchService.applyOperations(cartId, operations, expectedVersion, reservation);
+        } catch (RuntimeException e) {
+            reservation.rollback();
+            throw e;
+        }
+        reservation.commit();
+        return cartDetailsAssembler.assemble(cartData);
+    }
+
+    private Map<Long, BigDecimal> resolveUnitPrices(List<CartBatchOperationFacadeRequestDto> operations) {
+        Set<Long> variantIds = operations.stream()
+                .filter(operation -> operation.type() == CartBatchOperationFacadeType.ADD)
+                .map(CartBatchOperationFacadeRequestDto::variantId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (variantIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long/*variantId*/, Long/*priceId*/> priceIdByVariantId = productVariantService.getPriceIdsByVariantIds(variantIds);
+        Map<Long/*priceId*/, PriceQuoteDto> prices = priceService.getPricesByIds(new HashSet<>(priceIdByVariantId.values()));
+
+        Map<Long, BigDecimal> unitPrices = new HashMap<>();
+        for (Long variantId : variantIds) {
+            Long priceId = priceIdByVariantId.get(variantId);
+            PriceQuoteDto price = priceId != null ? prices.get(priceId) : null;
+            if (price == null || price.price() == null) {
+                throw new VariantPriceNotFoundException(variantId);
+            }
+            unitPrices.put(variantId, price.price());
+        }
+        return unitPrices;
+    }
+}
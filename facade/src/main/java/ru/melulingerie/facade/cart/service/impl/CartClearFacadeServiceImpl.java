@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.melulingerie.facade.cart.service.CartClearFacadeService;
 import ru.melulingerie.cart.service.CartClearService;
+import ru.melulingerie.products.service.VariantStockService;
 
 @Slf4j
 @Service
@@ -12,10 +13,13 @@ import ru.melulingerie.cart.service.CartClearService;
 public class CartClearFacadeServiceImpl implements CartClearFacadeService {
 
     private final CartClearService cartClearService;
+    private final VariantStockService variantStockService;
 
     @Override
-    public Integer clearCart(Long cartId) {
+    public Integer clearCart(Long cartId, Long expectedVersion) {
         log.debug("Clearing cart: {}", cartId);
-        return cartClearService.clearCart(cartId);
+        Integer removed = cartClearService.clearCart(cartId, expectedVersion);
+        variantStockService.releaseCart(cartId);
+        return removed;
     }
 }
\ No newline at end of file
@@ -25,4 +25,13 @@ public class CartCreateFacadeServiceImpl implements CartCreateFacadeService {
         log.debug("Created cart: {}", response);
         return cartMapper.toCreateFacadeResponseDto(response);
     }
+
+    @Override
+    public CartCreateFacadeResponseDto createGuestCart(Long userId) {
+        log.debug("Creating or getting existing guest cart for user: {}", userId);
+        CartCreateResponseDto response = cartCreateService.createGuestCart(userId);
+
+        log.debug("Created guest cart: {}", response);
+        return cartMapper.toCreateFacadeResponseDto(response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package ru.melulingerie.facade.cart.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.cart.dto.response.CartGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartItemGetResponseDto;
+import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
+import ru.melulingerie.facade.concurrent.FanOut;
+import ru.melulingerie.facade.cart.dto.response.CartItemDetailsFacadeResponseDto;
+import ru.melulingerie.media.dto.MediaGetInfoResponseDto;
+import ru.melulingerie.media.service.MediaGetService;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.service.PriceService;
+import ru.melulingerie.products.domain.ProductVariant;
+import ru.melulingerie.products.domain.ProductVariantMedia;
+import ru.melulingerie.products.service.ProductService;
+import ru.melulingerie.products.service.ProductVariantService;
+import ru.melulingerie.query.dto.response.CartDetailsItemResponseDto;
+import ru.melulingerie.query.dto.response.CartDetailsResponseDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Сборка детализированной корзины: товары, варианты, цены и изображения подгружаются пакетными запросами.
+ * Используется пакетным изменением и чтением гостевой корзины; корзина из БД приходит уже собранной
+ * одним запросом, см. {@link #assemble(CartDetailsResponseDto)}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartDetailsAssembler {
+
+    private final FanOut fanOut;
+    private final PriceService priceService;
+    private final ProductService productService;
+    private final MediaGetService mediaGetService;
+    private final ProductVariantService productVariantService;
+
+    /**
+     * Обогащает уже полученную корзину информацией о товарах, ценах и изображениях
+     *
+     * @param cartData корзина из доменного сервиса
+     * @return детализированная информация о корзине
+     */
+    public CartGetFacadeResponseDto assemble(CartGetResponseDto cartData) {
+        List<Long> productIds = cartData.items().stream().map(CartItemGetResponseDto::productId).toList();
+        Map<Long/*productId*/, Long/*categoryId*/> categoryIdByProductIds = productService.getCategoryIdByProductIds(productIds);
+
+        List<CartItemDetailsFacadeResponseDto> enrichedItems = enrichCartItems(cartData.items(), categoryIdByProductIds);
+        BigDecimal totalAmount = cartData.totalAmount();
+
+        log.debug("Successfully enriched cart {} with {} items, total: {}",
+                cartData.cartId(), enrichedItems.size(), totalAmount);
+
+        return new CartGetFacadeResponseDto(
+                enrichedItems,
+                cartData.itemsCount(),
+                totalAmount
+        );
+    }
+
+    /**
+     * Преобразует корзину, прочитанную одним запросом вместе с товарами, ценами и изображениями
+     *
+     * @param cartDetails корзина из read-модели
+     * @return детализированная информация о корзине
+     */
+    public CartGetFacadeResponseDto assemble(CartDetailsResponseDto cartDetails) {
+        List<CartItemDetailsFacadeResponseDto> items = cartDetails.items().stream()
+                .map(this::toCartItemDetails)
+                .toList();
+
+        log.debug("Read cart {} with {} items in a single query", cartDetails.cartId(), items.size());
+
+        return new CartGetFacadeResponseDto(items, items.size(), cartDetails.totalAmount());
+    }
+
+    private CartItemDetailsFacadeResponseDto toCartItemDetails(CartDetailsItemResponseDto item) {
+        if (!item.variantFound()) {
+            throw missingVariant(item.itemId());
+        }
+
+        return createCartItemDetails(item.itemId(), item.productId(), item.categoryId(), item.variantId(),
+                item.quantity(), item.price(), item.addedAt(), item.productName(), item.articleNumber(),
+                item.colorName(), item.size(), item.s3url());
+    }
+
+    /**
+     * Обогащает список товаров корзины полной информацией с использованием batch-операций
+     */
+    private List<CartItemDetailsFacadeResponseDto> enrichCartItems(List<CartItemGetResponseDto> items,
+                                                                   Map<Long/*productId*/, Long/*categoryId*/> categoryIdByProductIds) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Собираем variantIds для batch-запроса вариантов с продуктами
+        Set<Long> variantIds = items.stream()
+                .map(CartItemGetResponseDto::variantId)
+                .collect(Collectors.toSet());
+
+        // Выполняем batch-запрос вариантов с продуктами (1 запрос вместо N+1)
+        Map<Long, ProductVariant> variantMap = fetchVariantsBatch(variantIds);
+
+        Set<Long> priceIds = variantMap.values().stream()
+                .map(ProductVariant::getPriceId)
+                .collect(Collectors.toSet());
+
+        Set<Long> mediaIds = variantMap.values().stream()
+                .flatMap(variant -> Optional.ofNullable(variant.getProductVariantMedia())
+                        .orElse(Collections.emptyList()).stream())
+                .map(ProductVariantMedia::getMediaId)
+                .collect(Collectors.toSet());
+
+        // Цены и изображения не зависят друг от друга — запрашиваются параллельно
+        Map<Long, PriceQuoteDto> priceMap;
+        Map<Long, String> mediaUrlMap;
+        try (FanOut.Scope scope = fanOut.open()) {
+            Supplier<Map<Long, PriceQuoteDto>> prices = scope.fork(() -> priceService.getPricesByIds(priceIds));
+            Supplier<Map<Long, String>> mediaUrls = scope.fork(() -> fetchMediaUrlsBatch(mediaIds));
+            scope.join();
+            priceMap = prices.get();
+            mediaUrlMap = mediaUrls.get();
+        }
+
+        // Обогащаем каждый элемент с предзагруженными данными
+        return items.stream()
+                .map(item -> enrichSingleCartItemWithPreloadedData(
+                        item,
+                        variantMap,
+                        priceMap,
+                        mediaUrlMap,
+                        categoryIdByProductIds.get(item.productId())
+                ))
+                .toList();
+    }
+
+    /**
+     * Обогащает отдельный товар корзины с использованием предзагруженных данных
+     */
+    private CartItemDetailsFacadeResponseDto enrichSingleCartItemWithPreloadedData(
+            CartItemGetResponseDto item,
+            Map<Long, ProductVariant> variantMap,
+            Map<Long, PriceQuoteDto> priceMap,
+            Map<Long, String> mediaUrlMap,
+            Long categoryId) {
+
+        ProductVariant variant = variantMap.get(item.variantId());
+
+        if (variant == null) {
+            throw missingVariant(item.itemId());
+        }
+
+        BigDecimal unitPrice = Optional.ofNullable(priceMap.get(variant.getPriceId()))
+                .map(PriceQuoteDto::price)
+                .orElse(null);
+        String imageUrl = findPrimaryMediaId(variant)
+                .map(mediaUrlMap::get)
+                .orElse(null);
+
+        return createCartItemDetails(item.itemId(), item.productId(), categoryId, item.variantId(), item.quantity(),
+                unitPrice, item.addedAt(), variant.getProduct().getName(), variant.getProduct().getArticleNumber(),
+                variant.getColorName(), variant.getSize(), imageUrl);
+    }
+
+    /**
+     * Находит ID основного изображения варианта продукта
+     */
+    private Optional<Long> findPrimaryMediaId(ProductVariant variant) {
+        return findPrimaryMedia(variant)
+                .map(ProductVariantMedia::getMediaId);
+    }
+
+    /**
+     * Находит основное изображение варианта продукта (с минимальным sortOrder)
+     */
+    private Optional<ProductVariantMedia> findPrimaryMedia(ProductVariant variant) {
+        if (variant.getProductVariantMedia() == null || variant.getProductVariantMedia().isEmpty()) {
+            log.debug("No media found for variant {}", variant.getId());
+            return Optional.empty();
+        }
+
+        return variant.getProductVariantMedia().stream()
+                .min(Comparator.comparing(ProductVariantMedia::getSortOrder));
+    }
+
+
+    /**
+     * Выполняет batch-запрос для получения вариантов продуктов с продуктами
+     */
+    private Map<Long, ProductVariant> fetchVariantsBatch(Set<Long> variantIds) {
+        return productVariantService.getVariantsByIds(variantIds);
+    }
+
+    /**
+     * Выполняет batch-запрос для получения URL медиафайлов
+     */
+    private Map<Long, String> fetchMediaUrlsBatch(Set<Long> mediaIds) {
+        if (mediaIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<MediaGetInfoResponseDto> mediaList = mediaGetService.getMediasByIds(mediaIds);
+        return mediaList.stream()
+                .collect(Collectors.toMap(
+                        MediaGetInfoResponseDto::id,
+                        MediaGetInfoResponseDto::s3Url
+                ));
+    }
+
+
+    /**
+     * Рассчитывает общую стоимость товара (цена за единицу * количество)
+     */
+    private BigDecimal calculateItemTotal(BigDecimal unitPrice, Integer quantity) {
+        if (unitPrice == null || quantity == null || quantity <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    /**
+     * Создает обогащенный объект товара корзины; без цены позиция показывается по нулевой цене, без изображения — с пустым URL
+     */
+    private CartItemDetailsFacadeResponseDto createCartItemDetails(
+            Long itemId,
+            Long productId,
+            Long categoryId,
+            Long variantId,
+            Integer quantity,
+            BigDecimal price,
+            LocalDateTime addedAt,
+            String productName,
+            String articleNumber,
+            String colorName,
+            String size,
+            String imageUrl) {
+
+        BigDecimal unitPrice = Optional.ofNullable(price).orElse(BigDecimal.ZERO);
+
+        return new CartItemDetailsFacadeResponseDto(
+                itemId,
+                productId,
+                categoryId,
+                variantId,
+                quantity,
+                unitPrice,
+                calculateItemTotal(unitPrice, quantity),
+                addedAt,
+                productName,
+                articleNumber,
+                colorName,
+                size,
+                Optional.ofNullable(imageUrl).orElse(""),
+                false // TODO: реализовать логику избранного
+        );
+    }
+
+    private IllegalStateException missingVariant(Long itemId) {
+        log.warn("Missing variant data for cart item {}", itemId);
+        return new IllegalStateException("Variant data not found for cart item");
+    }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.melulingerie.facade.cart.service.CartRemoveItemFacadeService;
 import ru.melulingerie.cart.service.CartRemoveItemService;
+import ru.melulingerie.products.service.VariantStockService;
 
 import java.util.List;
 
@@ -14,11 +15,16 @@ import java.util.List;
 public class CartRemoveItemFacadeServiceImpl implements CartRemoveItemFacadeService {
 
     private final CartRemoveItemService cartRemoveItemService;
+    private final VariantStockService variantStockService;
 
     @Override
-    public void removeItemsFromCart(Long cartId, List<Long> itemIds) {
+    public void removeItemsFromCart(Long cartId, List<Long> itemIds, Long expectedVersion) {
         log.debug("Removing items from cart: {}, itemIds: {}", cartId, itemIds);
-        
-        cartRemoveItemService.removeCartItems(cartId, itemIds);
+
+        CartStockReservation reservation = new CartStockReservation(cartId, variantStockService);
+        cartRemoveItemService.removeCartItems(cartId, itemIds, expectedVersion, reservation);
+
+        // резервы удалённых позиций возвращаются в остаток только после успешного удаления
+        reservation.commit();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package ru.melulingerie.facade.cart.service.impl;
+
+import ru.melulingerie.cart.service.CartQuantityGuard;
+import ru.melulingerie.products.service.VariantStockService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Резервы одной записи в корзину. Увеличения резервируются внутри записи и отменяют её при нехватке;
+ * повтор записи после конфликта версий сначала возвращает резерв предыдущей попытки.
+ * Уменьшения возвращаются в остаток только после успешной записи ({@link #commit()}),
+ * резерв неудавшейся записи снимается {@link #rollback()}.
+ */
+final class CartStockReservation implements CartQuantityGuard {
+
+    private final Long cartId;
+    private final VariantStockService variantStockService;
+    private Map<Long/*variantId*/, Integer> quantityDeltas = Map.of();
+    private Map<Long/*variantId*/, Integer> reserved = Map.of();
+
+    CartStockReservation(Long cartId, VariantStockService variantStockService) {
+        this.cartId = cartId;
+        this.variantStockService = variantStockService;
+    }
+
+    @Override
+    public void beforeWrite(Map<Long, Integer> quantityDeltas) {
+        rollback();
+        Map<Long, Integer> acquired = new HashMap<>();
+        try {
+            quantityDeltas.forEach((variantId, delta) -> {
+                if (delta > 0) {
+                    variantStockService.reserve(cartId, variantId, delta);
+                    acquired.put(variantId, delta);
+                }
+            });
+        } catch (RuntimeException e) {
+            release(acquired);
+            throw e;
+        }
+        this.quantityDeltas = quantityDeltas;
+        this.reserved = acquired;
+    }
+
+    void commit() {
+        quantityDeltas.forEach((variantId, delta) -> {
+            if (delta < 0) {
+                variantStockService.release(cartId, variantId, -delta);
+            }
+        });
+        quantityDeltas = Map.of();
+        reserved = Map.of();
+    }
+
+    void rollback() {
+        release(reserved);
+        quantityDeltas = Map.of();
+        reserved = Map.of();
+    }
+
+    private void release(Map<Long, Integer> quantities) {
+        quantities.forEach((variantId, quantity) -> variantStockService.release(cartId, variantId, quantity));
+    }
+}
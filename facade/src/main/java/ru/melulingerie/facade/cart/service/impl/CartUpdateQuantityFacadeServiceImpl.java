@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.melulingerie.cart.service.CartUpdateQuantityService;
 import ru.melulingerie.facade.cart.service.CartUpdateQuantityFacadeService;
+import ru.melulingerie.products.service.VariantStockService;
 
 @Slf4j
 @Service
@@ -12,11 +13,23 @@ import ru.melulingerie.facade.cart.service.CartUpdateQuantityFacadeService;
 public class CartUpdateQuantityFacadeServiceImpl implements CartUpdateQuantityFacadeService {
 
     private final CartUpdateQuantityService cartUpdateQuantityService;
+    private final VariantStockService variantStockService;
 
+    /**
+     * Увеличение количества резервируется внутри записи по прежнему количеству позиции,
+     * уменьшение возвращает разницу в остаток после записи
+     */
     @Override
-    public void updateItemQuantity(Long cartId, Long itemId, Integer quantity) {
+    public void updateItemQuantity(Long cartId, Long itemId, Integer quantity, Long expectedVersion) {
         log.debug("Updating quantity for cartId: {}, itemId: {}, quantity: {}", cartId, itemId, quantity);
 
-        cartUpdateQuantityService.updateItemQuantity(cartId, itemId, quantity);
+        CartStockReservation reservation = new CartStockReservation(cartId, variantStockService);
+        try {
+            cartUpdateQuantityService.updateItemQuantity(cartId, itemId, quantity, expectedVersion, reservation);
+        } catch (RuntimeException e) {
+            reservation.rollback();
+            throw e;
+        }
+        reservation.commit();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package ru.melulingerie.facade.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Параллельный запуск независимых запросов к модулям на виртуальных потоках: время ответа определяет
+ * самый медленный запрос, а не их сумма. Запросы живут не дольше области {@link Scope}: первая ошибка
+ * или истечение срока отменяют остальные (по образцу StructuredTaskScope.ShutdownOnFailure, который в Java 21
+ * доступен только как preview).
+ * <p>
+ * Внутри транзакции запросы выполняются последовательно в вызывающем потоке: другой поток не видит
+ * незафиксированных данных и занял бы ещё одно соединение пула.
+ */
+@Slf4j
+@Component
+public class FanOut {
+
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("fan-out-", 0).factory();
+
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public FanOut(
+            @Value("${facade.fan-out.enabled:true}") boolean enabled,
+            @Value("${facade.fan-out.timeout:2s}") Duration timeout
+    ) {
+        this.enabled = enabled;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Область со сроком по умолчанию facade.fan-out.timeout
+     */
+    public Scope open() {
+        return open(timeout);
+    }
+
+    public Scope open(Duration timeout) {
+        boolean parallel = enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+        return new Scope(parallel, timeout);
+    }
+
+    /**
+     * Область параллельных запросов: {@link #fork} запускает запрос, {@link #join} ждёт все запросы до срока,
+     * {@link #close} отменяет незавершённые. Результат запроса доступен после join.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Duration timeout;
+        private final long deadlineNanos;
+        private final ExecutorService executor;
+        private final CompletionService<Object> completion;
+        private final List<Future<Object>> futures = new ArrayList<>();
+        private boolean joined;
+
+        private Scope(boolean parallel, Duration timeout) {
+            this.timeout = timeout;
+            this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+            this.executor = parallel ? Executors.newThreadPerTaskExecutor(THREAD_FACTORY) : null;
+            this.completion = parallel ? new ExecutorCompletionService<>(executor) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> Supplier<T> fork(Callable<T> task) {
+            if (executor == null) {
+                T result = call(task);
+                return () -> result;
+            }
+            Future<Object> future = completion.submit((Callable<Object>) task);
+            futures.add(future);
+            return () -> {
+                if (!joined) {
+                    throw new IllegalStateException("Scope is not joined");
+                }
+                return (T) future.resultNow();
+            };
+        }
+
+        /**
+         * Ожидание всех запросов; первая ошибка отменяет остальные и пробрасывается вызывающему
+         *
+         * @throws FanOutTimeoutException если запросы не завершились до срока
+         */
+        public void join() {
+            if (executor != null) {
+                for (int i = 0; i < futures.size(); i++) {
+                    awaitNext();
+                }
+            }
+            joined = true;
+        }
+
+        private void awaitNext() {
+            Future<Object> done;
+            try {
+                done = completion.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new IllegalStateException("Interrupted while waiting for lookups", e);
+            }
+            if (done == null) {
+                cancelAll();
+                log.warn("Lookups did not complete within {} ms, cancelled", timeout.toMillis());
+                throw new FanOutTimeoutException(timeout);
+            }
+            try {
+                done.get();
+            } catch (ExecutionException e) {
+                cancelAll();
+                throw propagate(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new IllegalStateException("Interrupted while waiting for lookups", e);
+            }
+        }
+
+        private void cancelAll() {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        /**
+         * Не ждёт отменённые запросы: блокирующий JDBC-вызов может не реагировать на прерывание,
+         * поток завершится вместе с ним
+         */
+        @Override
+        public void close() {
+            if (executor != null) {
+                cancelAll();
+                executor.shutdownNow();
+            }
+        }
+
+        private static <T> T call(Callable<T> task) {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw propagate(e);
+            }
+        }
+
+        private static RuntimeException propagate(Throwable cause) {
+            if (cause instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException("Lookup failed", cause);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.melulingerie.facade.concurrent;
+
+import java.time.Duration;
+
+/**
+ * Параллельные запросы к модулям не уложились в срок; незавершённые запросы отменены
+ */
+public class FanOutTimeoutException extends RuntimeException {
+
+    public FanOutTimeoutException(Duration timeout) {
+        super("Lookups did not complete within " + timeout.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,15 @@
+package ru.melulingerie.facade.products.cache;
+
+import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+
+import java.util.Set;
+
+/**
+ * Собранная карточка товара вместе с ценами и медиа, от которых она зависит
+ */
+public record ProductCardDocument(
+        ProductCardResponseDto card,
+        Set<Long> priceIds,
+        Set<Long> mediaIds
+) {
+}
@@ -0,0 +1,145 @@
+package ru.melulingerie.facade.products.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.melulingerie.event.MediaChangedEvent;
+import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+import ru.melulingerie.price.event.PriceChangedEvent;
+import ru.melulingerie.products.event.ProductChangedEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Хранилище собранных карточек товаров по ключу (productId, версия). Изменение товара, варианта,
+ * медиа варианта, цены или медиа, от которых зависит карточка, повышает версию товара после коммита:
+ * следующий запрос собирает карточку заново, а документ, собиравшийся параллельно со старыми данными,
+ * остаётся под старым ключом и больше не читается. Статистика публикуется как cache.* с тегом cache=product-cards.
+ * <p>
+ * События изменений локальны для узла: на остальных узлах карточка обновится только по истечении
+ * products.card-cache.ttl, поэтому TTL задаёт допустимое отставание карточки от данных.
+ */
+@Slf4j
+@Component
+public class ProductCardStore {
+
+    private static final int CHANGE_STRIPES = 1024;
+
+    private final Cache<CardKey, ProductCardDocument> cards;
+    private final Map<Long/*productId*/, Long/*version*/> versions = new ConcurrentHashMap<>();
+    private final Map<Long/*priceId*/, Set<Long>/*productIds*/> productIdsByPriceId = new ConcurrentHashMap<>();
+    private final Map<Long/*mediaId*/, Set<Long>/*productIds*/> productIdsByMediaId = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    // номер последнего изменения цены и медиа по полосам их id: сборку сбрасывают только изменения её зависимостей
+    private final AtomicLongArray priceChangedAt = new AtomicLongArray(CHANGE_STRIPES);
+    private final AtomicLongArray mediaChangedAt = new AtomicLongArray(CHANGE_STRIPES);
+
+    public ProductCardStore(
+            @Value("${products.card-cache.ttl:30m}") Duration ttl,
+            @Value("${products.card-cache.max-size:20000}") long maxSize,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cards, "product-cards"));
+    }
+
+    /**
+     * Карточка текущей версии; при промахе собирается загрузчиком один раз на ключ.
+     * Зависимости регистрируются только после сборки, поэтому изменение цены или медиа, пришедшее во время
+     * сборки, их не находит: если за это время изменилась одна из цен или медиа собранной карточки,
+     * версия товара повышается и следующий запрос соберёт карточку заново.
+     */
+    public ProductCardResponseDto get(Long productId, Function<Long, ProductCardDocument> assembler) {
+        long startedAt = changeSequence.get();
+        boolean[] assembled = new boolean[1];
+        ProductCardDocument document = cards.get(new CardKey(productId, versions.getOrDefault(productId, 0L)), key -> {
+            ProductCardDocument assembledDocument = assembler.apply(productId);
+            assembledDocument.priceIds().forEach(priceId -> dependents(productIdsByPriceId, priceId).add(productId));
+            assembledDocument.mediaIds().forEach(mediaId -> dependents(productIdsByMediaId, mediaId).add(productId));
+            assembled[0] = true;
+            return assembledDocument;
+        });
+        if (assembled[0] && (changedAfter(priceChangedAt, document.priceIds(), startedAt)
+                || changedAfter(mediaChangedAt, document.mediaIds(), startedAt))) {
+            log.debug("Dependencies changed while assembling product card {}, dropping it", productId);
+            invalidate(productId);
+        }
+        return document.card();
+    }
+
+    public void invalidate(Long productId) {
+        Long previous = versions.getOrDefault(productId, 0L);
+        versions.merge(productId, 1L, Long::sum);
+        cards.invalidate(new CardKey(productId, previous));
+    }
+
+    /**
+     * fallbackExecution: изменение вне транзакции тоже сбрасывает карточку.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        log.debug("Invalidating product card {}", event.productId());
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        invalidateDependents(productIdsByPriceId, priceChangedAt, event.priceId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMediaChanged(MediaChangedEvent event) {
+        invalidateDependents(productIdsByMediaId, mediaChangedAt, event.mediaId());
+    }
+
+    /**
+     * Зависимость снимается вместе со сбросом: пересобранная карточка зарегистрирует её заново
+     */
+    private void invalidateDependents(Map<Long, Set<Long>> index, AtomicLongArray changedAt, Long dependencyId) {
+        // номер изменения записывается до снятия зависимостей: сборка, не успевшая их зарегистрировать, его увидит
+        long sequence = changeSequence.incrementAndGet();
+        changedAt.accumulateAndGet(stripe(dependencyId), sequence, Math::max);
+        Set<Long> productIds = index.remove(dependencyId);
+        if (productIds != null) {
+            log.debug("Invalidating {} product cards depending on {}", productIds.size(), dependencyId);
+            productIds.forEach(this::invalidate);
+        }
+    }
+
+    private boolean changedAfter(AtomicLongArray changedAt, Set<Long> dependencyIds, long sequence) {
+        for (Long dependencyId : dependencyIds) {
+            if (changedAt.get(stripe(dependencyId)) > sequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int stripe(Long dependencyId) {
+        return Long.hashCode(dependencyId) & (CHANGE_STRIPES - 1);
+    }
+
+    private Set<Long> dependents(Map<Long, Set<Long>> index, Long dependencyId) {
+        return index.computeIfAbsent(dependencyId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private record CardKey(Long productId, long version) {
+    }
+}
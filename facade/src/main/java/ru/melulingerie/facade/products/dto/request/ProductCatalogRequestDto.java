@@ -13,7 +13,7 @@ import java.util.Set;
 @Builder
 public record ProductCatalogRequestDto(
 
-        @Schema(description = "Имя товара", example = "Трусы")
+        @Schema(description = "Поисковый запрос по названию товара (с учётом словоформ); для сортировки по релевантности sort=relevance", example = "Трусы")
         String name,
 
         @Schema(description = "Минимальная цена фильтра", example = "990.00")
@@ -0,0 +1,25 @@
+package ru.melulingerie.facade.products.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "ProductCatalogFacetsResponseDto", description = "Количество товаров по значениям фильтров каталога с учётом остальных выбранных фильтров")
+public record ProductCatalogFacetsResponseDto(
+
+        @Schema(description = "Количество товаров по ID категории")
+        Map<Long, Long> categories,
+
+        @Schema(description = "Количество товаров по размеру")
+        Map<String, Long> sizes,
+
+        @Schema(description = "Количество товаров по цвету")
+        Map<String, Long> colors,
+
+        @Schema(description = "Количество товаров по статусу")
+        Map<String, Long> statuses,
+
+        @Schema(description = "Количество товаров по ценовым диапазонам")
+        List<ProductCatalogPriceBucketDto> priceBuckets
+) {}
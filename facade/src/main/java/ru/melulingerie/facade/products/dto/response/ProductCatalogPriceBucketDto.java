@@ -0,0 +1,18 @@
+package ru.melulingerie.facade.products.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(name = "ProductCatalogPriceBucketDto", description = "Ценовой диапазон [from, to) и количество товаров в нём")
+public record ProductCatalogPriceBucketDto(
+
+        @Schema(description = "Нижняя граница (включительно); null — без ограничения", example = "1000")
+        BigDecimal from,
+
+        @Schema(description = "Верхняя граница (не включительно); null — без ограничения", example = "3000")
+        BigDecimal to,
+
+        @Schema(description = "Количество товаров", example = "42")
+        long count
+) {}
@@ -0,0 +1,18 @@
+package ru.melulingerie.facade.products.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "ProductCatalogSliceResponseDto", description = "Порция каталога для бесконечной прокрутки (без общего количества)")
+public record ProductCatalogSliceResponseDto(
+
+        @Schema(description = "Элементы каталога")
+        List<ProductCatalogResponseDto> content,
+
+        @Schema(description = "Курсор следующей порции; null, если порция последняя")
+        String nextCursor,
+
+        @Schema(description = "Есть ли следующая порция", example = "true")
+        boolean hasNext
+) {}
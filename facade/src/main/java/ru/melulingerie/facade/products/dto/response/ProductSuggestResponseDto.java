@@ -0,0 +1,16 @@
+package ru.melulingerie.facade.products.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "ProductSuggestResponseDto", description = "Подсказка поисковой строки")
+public record ProductSuggestResponseDto(
+
+        @Schema(description = "Тип подсказки", allowableValues = {"PRODUCT", "ARTICLE", "CATEGORY", "COLLECTION"}, example = "PRODUCT")
+        String type,
+
+        @Schema(description = "ID товара, категории или коллекции", example = "1001")
+        Long id,
+
+        @Schema(description = "Текст подсказки", example = "Бюстгальтер Push-Up 'Aurora'")
+        String text
+) {}
@@ -0,0 +1,11 @@
+package ru.melulingerie.facade.products.exception;
+
+/**
+ * Клиент прислал курсор каталога, который нельзя продолжить: повреждён или выдан для другой сортировки
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.melulingerie.facade.products.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.melulingerie.price.event.PriceChangedEvent;
+import ru.melulingerie.products.event.ProductChangedEvent;
+import ru.melulingerie.query.index.CatalogIndexHolder;
+import ru.melulingerie.query.suggest.ProductSuggestIndexHolder;
+
+import java.util.Set;
+
+/**
+ * Передаёт закоммиченные изменения товаров и цен индексам каталога и подсказок: модуль query не зависит
+ * от модулей товаров и цен, поэтому события слушает фасад. Подсказкам нужны только товары.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeListener {
+
+    private final CatalogIndexHolder catalogIndexHolder;
+    private final ProductSuggestIndexHolder productSuggestIndexHolder;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogIndexHolder.productsChanged(Set.of(event.productId()));
+        productSuggestIndexHolder.productsChanged(Set.of(event.productId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        catalogIndexHolder.pricesChanged(Set.of(event.priceId()));
+    }
+}
@@ -5,8 +5,14 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import ru.melulingerie.facade.config.MapStructConfig;
 import ru.melulingerie.facade.products.dto.request.ProductCatalogRequestDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogFacetsResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductSuggestResponseDto;
 import ru.melulingerie.products.enums.ProductStatus;
 import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+
+import java.util.List;
 
 @Mapper(config = MapStructConfig.class)
 public interface ProductMapper {
@@ -14,6 +20,10 @@ public interface ProductMapper {
     @Mapping(target = "productStatus", source = "productStatus", qualifiedByName = "enumToString")
     ProductCatalogFilterRequestDto toProductCatalogFilterRequestDto(ProductCatalogRequestDto productCatalogRequestDto);
 
+    ProductCatalogFacetsResponseDto toProductCatalogFacetsResponseDto(ProductCatalogFacetCountsResponseDto facetCounts);
+
+    List<ProductSuggestResponseDto> toProductSuggestResponseDtos(List<ProductSuggestItemResponseDto> suggestions);
+
     @Named("enumToString")
     default String enumToString(ProductStatus status) {
         return status == null ? null : status.name();
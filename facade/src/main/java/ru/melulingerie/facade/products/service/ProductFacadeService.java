@@ -4,10 +4,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
 import ru.melulingerie.facade.products.dto.request.ProductCatalogRequestDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogFacetsResponseDto;
 import ru.melulingerie.facade.products.dto.response.ProductCatalogResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogSliceResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductSuggestResponseDto;
+
+import java.util.List;
 
 public interface ProductFacadeService {
     Page<ProductCatalogResponseDto> getPageOfProducts(ProductCatalogRequestDto productCatalogRequestDto, Pageable pageable);
 
+    ProductCatalogSliceResponseDto getSliceOfProducts(ProductCatalogRequestDto productCatalogRequestDto, String cursor, Pageable pageable);
+
+    ProductCatalogFacetsResponseDto getCatalogFacets(ProductCatalogRequestDto productCatalogRequestDto);
+
+    List<ProductSuggestResponseDto> suggest(String query, int limit);
+
     ProductCardResponseDto getProductCardInfo(Long productId);
 }
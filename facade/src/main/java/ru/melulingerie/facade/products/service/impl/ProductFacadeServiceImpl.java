@@ -4,13 +4,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.melulingerie.facade.concurrent.FanOut;
 import ru.melulingerie.facade.media.dto.MediaGetInfoFacadeResponseDto;
 import ru.melulingerie.facade.media.service.MediaGetFacadeService;
+import ru.melulingerie.facade.products.cache.ProductCardDocument;
+import ru.melulingerie.facade.products.cache.ProductCardStore;
 import ru.melulingerie.facade.products.dto.request.ProductCatalogRequestDto;
 import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogFacetsResponseDto;
 import ru.melulingerie.facade.products.dto.response.ProductCatalogResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductCatalogSliceResponseDto;
+import ru.melulingerie.facade.products.dto.response.ProductSuggestResponseDto;
 import ru.melulingerie.facade.products.dto.response.ProductVariantCardDto;
 import ru.melulingerie.facade.products.dto.response.ProductVariantMediaCardDto;
+import ru.melulingerie.facade.products.exception.InvalidCursorException;
 import ru.melulingerie.facade.products.mapper.ProductMapper;
 import ru.melulingerie.facade.products.service.ProductFacadeService;
 import ru.melulingerie.price.dto.response.PriceQuoteDto;
@@ -22,20 +29,27 @@ import ru.melulingerie.products.enums.ProductStatus;
 import ru.melulingerie.products.service.ProductService;
 import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
 import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemSliceResponseDto;
+import ru.melulingerie.query.exception.InvalidCatalogCursorException;
 import ru.melulingerie.query.service.ProductCatalogQueryService;
+import ru.melulingerie.query.service.ProductSuggestQueryService;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductFacadeServiceImpl implements ProductFacadeService {
 
+    private final FanOut fanOut;
     private final PriceService priceService;
     private final ProductMapper productMapper;
     private final ProductService productService;
+    private final ProductCardStore productCardStore;
     private final MediaGetFacadeService mediaGetFacadeService;
     private final ProductCatalogQueryService productCatalogQueryService;
+    private final ProductSuggestQueryService productSuggestQueryService;
 
     @Override
     public Page<ProductCatalogResponseDto> getPageOfProducts(ProductCatalogRequestDto request, Pageable pageable) {
@@ -49,20 +63,55 @@ public class ProductFacadeServiceImpl implements ProductFacadeService {
                 .collect(Collectors.toSet());
         Map<Long, Set<String>> availableColorsByProductIds = productService.findAvailableColorsByProductIds(productIds);
 
-        return pageOfProducts.map(item ->
-                new ProductCatalogResponseDto(
-                        item.productId(),
-                        item.name(),
-                        item.price(),
-                        item.s3url(),
-                        availableColorsByProductIds.get(item.productId()),
-                        ProductStatus.valueOf(item.productStatus())
-                )
-        );
+        return pageOfProducts.map(item -> toCatalogResponse(item, availableColorsByProductIds));
+    }
+
+    @Override
+    public ProductCatalogSliceResponseDto getSliceOfProducts(ProductCatalogRequestDto request, String cursor, Pageable pageable) {
+
+        ProductCatalogFilterRequestDto productFilterRequestDto = productMapper.toProductCatalogFilterRequestDto(request);
+        ProductCatalogItemSliceResponseDto sliceOfProducts;
+        try {
+            sliceOfProducts = productCatalogQueryService.getProductCatalogSlice(productFilterRequestDto, cursor, pageable);
+        } catch (InvalidCatalogCursorException e) {
+            throw new InvalidCursorException(e.getMessage(), e);
+        }
+
+        Set<Long> productIds = sliceOfProducts.items()
+                .stream()
+                .map(ProductCatalogItemResponseDto::productId)
+                .collect(Collectors.toSet());
+        Map<Long, Set<String>> availableColorsByProductIds = productService.findAvailableColorsByProductIds(productIds);
+
+        List<ProductCatalogResponseDto> content = sliceOfProducts.items()
+                .stream()
+                .map(item -> toCatalogResponse(item, availableColorsByProductIds))
+                .toList();
+
+        return new ProductCatalogSliceResponseDto(content, sliceOfProducts.nextCursor(), sliceOfProducts.hasNext());
+    }
+
+    @Override
+    public ProductCatalogFacetsResponseDto getCatalogFacets(ProductCatalogRequestDto request) {
+        ProductCatalogFilterRequestDto productFilterRequestDto = productMapper.toProductCatalogFilterRequestDto(request);
+        return productMapper.toProductCatalogFacetsResponseDto(
+                productCatalogQueryService.getProductCatalogFacets(productFilterRequestDto));
+    }
+
+    @Override
+    public List<ProductSuggestResponseDto> suggest(String query, int limit) {
+        return productMapper.toProductSuggestResponseDtos(productSuggestQueryService.suggest(query, limit));
     }
 
+    /**
+     * Карточка из хранилища собранных карточек; собирается только при первом запросе и после изменений
+     */
     @Override
     public ProductCardResponseDto getProductCardInfo(Long productId) {
+        return productCardStore.get(productId, this::assembleProductCard);
+    }
+
+    private ProductCardDocument assembleProductCard(Long productId) {
         ProductInfoResponseDto productInfoResponseDto = productService.getProductInfoById(productId);
 
         Set<Long> mediaIds = new HashSet<>();
@@ -75,8 +124,15 @@ public class ProductFacadeServiceImpl implements ProductFacadeService {
             }
         }
 
-        Map<Long/*mediaId*/, MediaGetInfoFacadeResponseDto> mediaByIds = mediaGetFacadeService.getMediaByIds(mediaIds);
-        Map<Long/*priceId*/, PriceQuoteDto> currentPrices = priceService.getPricesByIds(priceIds);
+        Map<Long/*mediaId*/, MediaGetInfoFacadeResponseDto> mediaByIds;
+        Map<Long/*priceId*/, PriceQuoteDto> currentPrices;
+        try (FanOut.Scope scope = fanOut.open()) {
+            Supplier<Map<Long, MediaGetInfoFacadeResponseDto>> media = scope.fork(() -> mediaGetFacadeService.getMediaByIds(mediaIds));
+            Supplier<Map<Long, PriceQuoteDto>> prices = scope.fork(() -> priceService.getPricesByIds(priceIds));
+            scope.join();
+            mediaByIds = media.get();
+            currentPrices = prices.get();
+        }
 
         List<ProductVariantCardDto> productVariantCardDtos = new ArrayList<>();
         for (ProductVariantResponseDto productVariant : productInfoResponseDto.productVariants()) {
@@ -98,11 +154,11 @@ public class ProductFacadeServiceImpl implements ProductFacadeService {
                     currentPrices.get(productVariant.priceId()).price(),
                     productVariant.isAvailable(),
                     productVariant.sortOrder(),
-                    productVariantMediaCardDtos
+                    List.copyOf(productVariantMediaCardDtos)
             ));
         }
 
-        return new ProductCardResponseDto(
+        ProductCardResponseDto card = new ProductCardResponseDto(
                 productInfoResponseDto.productId(),
                 productInfoResponseDto.name(),
                 productInfoResponseDto.articleNumber(),
@@ -111,7 +167,20 @@ public class ProductFacadeServiceImpl implements ProductFacadeService {
                 productInfoResponseDto.score(),
                 productInfoResponseDto.care(),
                 productInfoResponseDto.categoryId(),
-                productVariantCardDtos
+                List.copyOf(productVariantCardDtos)
+        );
+        return new ProductCardDocument(card, Set.copyOf(priceIds), Set.copyOf(mediaIds));
+    }
+
+    private ProductCatalogResponseDto toCatalogResponse(ProductCatalogItemResponseDto item,
+                                                        Map<Long, Set<String>> availableColorsByProductIds) {
+        return new ProductCatalogResponseDto(
+                item.productId(),
+                item.name(),
+                item.price(),
+                item.s3url(),
+                availableColorsByProductIds.get(item.productId()),
+                ProductStatus.valueOf(item.productStatus())
         );
     }
 }
@@ -0,0 +1,32 @@
+package ru.melulingerie.facade.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "UserMergeFacadeResponseDto", description = "Результат переноса гостевой корзины и wishlist пользователю")
+public record UserMergeFacadeResponseDto(
+
+        @Schema(description = "Идентификатор пользователя", example = "1001")
+        Long userId,
+
+        @Schema(description = "Идентификатор корзины пользователя после слияния", example = "2001")
+        Long cartId,
+
+        @Schema(description = "Идентификатор списка желаний пользователя после слияния", example = "3001")
+        Long wishlistId,
+
+        @Schema(description = "Позиции корзины, количество которых сложено с имеющимися", example = "1")
+        int cartItemsMerged,
+
+        @Schema(description = "Позиции, перенесённые в корзину пользователя", example = "3")
+        int cartItemsMoved,
+
+        @Schema(description = "Позиции, не поместившиеся в корзину", example = "0")
+        int cartItemsDropped,
+
+        @Schema(description = "Элементы, перенесённые в список желаний", example = "2")
+        int wishlistItemsMoved,
+
+        @Schema(description = "Дубли и элементы сверх лимита списка желаний", example = "1")
+        int wishlistItemsSkipped
+
+) {}
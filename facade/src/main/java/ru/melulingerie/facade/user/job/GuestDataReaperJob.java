@@ -0,0 +1,136 @@
+package ru.melulingerie.facade.user.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.service.CartCleanupService;
+import ru.melulingerie.cart.service.CartCleanupService.CartCleanupResult;
+import ru.melulingerie.service.WishlistCleanupService;
+import ru.melulingerie.service.WishlistCleanupService.WishlistCleanupResult;
+import ru.melulingerie.users.service.UserCleanupService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Удаление гостей, все сессии которых истекли раньше users.guest-reaper.retention, вместе с их
+ * корзинами и wishlist. Гости выбираются по возрастанию id пачками по batch-size (keyset, без OFFSET),
+ * каждая пачка удаляется в своей короткой транзакции, чтобы не держать долгих блокировок.
+ * Перед удалением пачка проверяется повторно под блокировкой: гости, вошедшие после выборки, не удаляются,
+ * а заблокированные другими транзакциями пропускаются до следующего запуска.
+ * Число удалённых строк публикуется метрикой reaper.rows.reclaimed с тегом table.
+ */
+@Slf4j
+@Component
+public class GuestDataReaperJob {
+
+    private static final String ROWS_RECLAIMED = "reaper.rows.reclaimed";
+
+    private final UserCleanupService userCleanupService;
+    private final CartCleanupService cartCleanupService;
+    private final WishlistCleanupService wishlistCleanupService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public GuestDataReaperJob(
+            UserCleanupService userCleanupService,
+            CartCleanupService cartCleanupService,
+            WishlistCleanupService wishlistCleanupService,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${users.guest-reaper.enabled:true}") boolean enabled,
+            @Value("${users.guest-reaper.retention:7d}") Duration retention,
+            @Value("${users.guest-reaper.batch-size:500}") int batchSize,
+            @Value("${users.guest-reaper.max-batches-per-run:100}") int maxBatchesPerRun
+    ) {
+        this.userCleanupService = userCleanupService;
+        this.cartCleanupService = cartCleanupService;
+        this.wishlistCleanupService = wishlistCleanupService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${users.guest-reaper.interval-ms:3600000}",
+            initialDelayString = "${users.guest-reaper.interval-ms:3600000}")
+    public void reapScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reap(LocalDateTime.now().minus(retention));
+        } catch (RuntimeException e) {
+            log.warn("Guest data reaper failed, remaining guests will be picked up on next run", e);
+        }
+    }
+
+    /**
+     * Один проход по гостям, истёкшим до expiredBefore
+     * @return количество удалённых строк по таблицам
+     */
+    public Map<String, Long> reap(LocalDateTime expiredBefore) {
+        Map<String, Long> reclaimed = new LinkedHashMap<>();
+        Long afterId = 0L;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> userIds = userCleanupService.findExpiredGuestUserIds(expiredBefore, afterId, batchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Map<String, Integer> deleted = transactionTemplate.execute(status -> deleteBatch(userIds, expiredBefore));
+            deleted.forEach((table, rows) -> {
+                reclaimed.merge(table, rows.longValue(), Long::sum);
+                countReclaimed(table, rows);
+            });
+            afterId = userIds.get(userIds.size() - 1);
+            if (userIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (!reclaimed.isEmpty()) {
+            log.info("Guest data reaper reclaimed rows: {}", reclaimed);
+        }
+        return reclaimed;
+    }
+
+    private Map<String, Integer> deleteBatch(List<Long> candidateIds, LocalDateTime expiredBefore) {
+        List<Long> userIds = userCleanupService.lockExpiredGuestUserIds(candidateIds, expiredBefore);
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        // дочерние данные раньше пользователей
+        CartCleanupResult carts = cartCleanupService.deleteCartsByUserIds(userIds);
+        WishlistCleanupResult wishlists = wishlistCleanupService.deleteWishlistsByUserIds(userIds);
+
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        deleted.put("cart_items", carts.cartItems());
+        deleted.put("carts", carts.carts());
+        deleted.put("wishlist_items", wishlists.wishlistItems());
+        deleted.put("wishlists", wishlists.wishlists());
+        deleted.putAll(userCleanupService.deleteGuestUsers(userIds));
+        return deleted;
+    }
+
+    private void countReclaimed(String table, int rows) {
+        if (meterRegistry != null && rows > 0) {
+            Counter.builder(ROWS_RECLAIMED)
+                    .tag("table", table)
+                    .register(meterRegistry)
+                    .increment(rows);
+        }
+    }
+}
@@ -33,7 +33,7 @@ public class UserCreateFacadeServiceImpl implements UserCreateFacadeService {
         Long userId = userCreateService.createGuestUser(usersRequest);
 
         //TODO вызвать методы создания-получения корзины и вишлиста
-        Long cartId = cartCreateFacadeService.createCart(userId).cartId();
+        Long cartId = cartCreateFacadeService.createGuestCart(userId).cartId();
         Long wishlistId = wishlistCreateFacadeService.createWishlistForUser(userId);
 
         UserCreateResponseDto usersResponse = new UserCreateResponseDto(userId, cartId, wishlistId);
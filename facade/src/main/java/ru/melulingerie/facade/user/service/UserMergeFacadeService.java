@@ -0,0 +1,12 @@
+package ru.melulingerie.facade.user.service;
+
+import ru.melulingerie.facade.user.dto.UserMergeFacadeResponseDto;
+
+/**
+ * Фасадный сервис-оркестратор переноса гостевых данных пользователю при входе
+ * (корзина и wishlist сливаются в одной транзакции, гостевые строки удаляются).
+ */
+public interface UserMergeFacadeService {
+
+    UserMergeFacadeResponseDto mergeGuestIntoUser(Long guestUserId, Long userId);
+}
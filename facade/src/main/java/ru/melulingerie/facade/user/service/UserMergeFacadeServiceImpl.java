@@ -0,0 +1,47 @@
+package ru.melulingerie.facade.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.service.CartMergeService;
+import ru.melulingerie.cart.service.CartMergeService.CartMergeResult;
+import ru.melulingerie.facade.user.dto.UserMergeFacadeResponseDto;
+import ru.melulingerie.service.WishlistMergeService;
+import ru.melulingerie.service.WishlistMergeService.WishlistMergeResult;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserMergeFacadeServiceImpl implements UserMergeFacadeService {
+
+    private final CartMergeService cartMergeService;
+    private final WishlistMergeService wishlistMergeService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public UserMergeFacadeResponseDto mergeGuestIntoUser(Long guestUserId, Long userId) {
+        if (guestUserId.equals(userId)) {
+            throw new IllegalArgumentException("Guest and target user must differ: " + userId);
+        }
+        log.info("Перенос данных гостя {} пользователю {}", guestUserId, userId);
+
+        // гостевые корзины из хранилища отложенной записи попадают в БД до начала транзакции слияния
+        cartMergeService.releaseGuestCarts(guestUserId, userId);
+
+        return transactionTemplate.execute(status -> {
+            CartMergeResult cart = cartMergeService.mergeCarts(guestUserId, userId).orElse(null);
+            WishlistMergeResult wishlist = wishlistMergeService.mergeWishlists(guestUserId, userId).orElse(null);
+            return new UserMergeFacadeResponseDto(
+                    userId,
+                    cart != null ? cart.cartId() : null,
+                    wishlist != null ? wishlist.wishlistId() : null,
+                    cart != null ? cart.mergedItems() : 0,
+                    cart != null ? cart.movedItems() : 0,
+                    cart != null ? cart.droppedItems() : 0,
+                    wishlist != null ? wishlist.movedItems() : 0,
+                    wishlist != null ? wishlist.skippedItems() : 0
+            );
+        });
+    }
+}
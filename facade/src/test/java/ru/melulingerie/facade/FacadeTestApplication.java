@@ -2,10 +2,14 @@ package ru.melulingerie.facade;
 
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import ru.melulingerie.query.repository.CartDetailsNativeRepository;
+import ru.melulingerie.query.service.impl.CartDetailsQueryServiceImpl;
 
 @SpringBootApplication(scanBasePackages = {
         "ru.melulingerie.facade.cart",
+        "ru.melulingerie.facade.concurrent",
         "ru.melulingerie.cart",
         "ru.melulingerie.products",
         "ru.melulingerie.price"
@@ -18,7 +22,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EntityScan(basePackages = {
         "ru.melulingerie.cart.domain",
         "ru.melulingerie.products.domain",
-        "ru.melulingerie.price.domain"
+        "ru.melulingerie.price.domain",
+        "ru.melulingerie.domain"
 })
+@Import({CartDetailsNativeRepository.class, CartDetailsQueryServiceImpl.class, StatementCounter.class})
 public class FacadeTestApplication {
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package ru.melulingerie.facade;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчик JDBC-операторов тестового контекста: DataSource оборачивается, и учитывается каждый
+ * созданный оператор — и от Hibernate, и от JdbcTemplate
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final AtomicLong statements = new AtomicLong();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    public void reset() {
+        statements.set(0);
+    }
+
+    public long count() {
+        return statements.get();
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (STATEMENT_METHODS.contains(method.getName())) {
+                        statements.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private final class CountingDataSource extends DelegatingDataSource {
+
+        private CountingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+    }
+}
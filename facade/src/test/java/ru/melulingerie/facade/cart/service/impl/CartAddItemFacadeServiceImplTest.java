@@ -8,18 +8,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.melulingerie.cart.dto.request.CartAddItemRequestDto;
 import ru.melulingerie.cart.dto.response.CartAddItemResponseDto;
-import ru.melulingerie.cart.dto.response.CartGetResponseDto;
-import ru.melulingerie.cart.dto.response.CartItemGetResponseDto;
+import ru.melulingerie.cart.dto.response.CartTotalsResponseDto;
 import ru.melulingerie.cart.service.CartAddItemService;
 import ru.melulingerie.cart.service.CartGetService;
 import ru.melulingerie.facade.cart.dto.request.CartAddFacadeRequestDto;
 import ru.melulingerie.facade.cart.dto.response.CartAddFacadeResponseDto;
 import ru.melulingerie.facade.cart.dto.CartOperationType;
+import ru.melulingerie.facade.cart.exception.VariantPriceNotFoundException;
 import ru.melulingerie.facade.cart.mapper.CartMapper;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.service.PriceService;
+import ru.melulingerie.products.exception.ProductExceptions;
+import ru.melulingerie.products.service.ProductVariantService;
+import ru.melulingerie.products.service.VariantStockService;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +33,9 @@ import static org.mockito.Mockito.*;
 @DisplayName("CartAddItemFacadeService Unit Tests")
 class CartAddItemFacadeServiceImplTest {
 
+    private static final Long PRICE_ID = 500L;
+    private static final BigDecimal UNIT_PRICE = BigDecimal.valueOf(1300);
+
     @Mock
     private CartMapper cartMapper;
     
@@ -36,6 +44,15 @@ class CartAddItemFacadeServiceImplTest {
     
     @Mock
     private CartGetService cartGetService;
+
+    @Mock
+    private ProductVariantService productVariantService;
+
+    @Mock
+    private PriceService priceService;
+
+    @Mock
+    private VariantStockService variantStockService;
     
     @InjectMocks
     private CartAddItemFacadeServiceImpl cartAddItemFacadeService;
@@ -51,21 +68,21 @@ class CartAddItemFacadeServiceImplTest {
         Long cartItemId = 10L;
         
         CartAddFacadeRequestDto facadeRequest = new CartAddFacadeRequestDto(productId, variantId, quantity);
-        CartAddItemRequestDto domainRequest = new CartAddItemRequestDto(productId, variantId, quantity);
+        CartAddItemRequestDto domainRequest = new CartAddItemRequestDto(productId, variantId, quantity, UNIT_PRICE);
         CartAddItemResponseDto domainResponse = new CartAddItemResponseDto(cartItemId, quantity, "Added to cart");
         
-        // Mock cart state after addition
-        CartItemGetResponseDto cartItem = new CartItemGetResponseDto(
-                cartItemId, productId, variantId, quantity, LocalDateTime.now()
+        // Mock cart totals after addition
+        CartTotalsResponseDto cartTotals = new CartTotalsResponseDto(
+                cartId, 1, UNIT_PRICE.multiply(BigDecimal.valueOf(quantity)), 1L
         );
-        CartGetResponseDto cartGetResponse = new CartGetResponseDto(cartId, List.of(cartItem), 1);
 
-        when(cartMapper.toAddItemRequestDto(facadeRequest)).thenReturn(domainRequest);
-        when(cartAddItemService.addCartItem(cartId, domainRequest)).thenReturn(domainResponse);
-        when(cartGetService.getCart(cartId)).thenReturn(cartGetResponse);
+        mockUnitPrice(variantId, UNIT_PRICE);
+        when(cartMapper.toAddItemRequestDto(facadeRequest, UNIT_PRICE)).thenReturn(domainRequest);
+        when(cartAddItemService.addCartItem(cartId, domainRequest, null)).thenReturn(domainResponse);
+        when(cartGetService.getCartTotals(cartId)).thenReturn(cartTotals);
 
         // When
-        CartAddFacadeResponseDto result = cartAddItemFacadeService.addItemToCart(cartId, facadeRequest);
+        CartAddFacadeResponseDto result = cartAddItemFacadeService.addItemToCart(cartId, facadeRequest, null);
 
         // Then
         assertNotNull(result);
@@ -73,19 +90,82 @@ class CartAddItemFacadeServiceImplTest {
         assertEquals(quantity, result.finalQuantity());
         assertEquals(CartOperationType.ITEM_ADDED, result.operation());
         
-        // Verify item total price calculation (mock price: 100 + productId*10 + variantId = 100 + 1000 + 200 = 1300)
-        BigDecimal expectedItemPrice = BigDecimal.valueOf(1300).multiply(BigDecimal.valueOf(quantity)); // 1300 * 3 = 3900
+        // Verify item total price calculation (unit price 1300)
+        BigDecimal expectedItemPrice = UNIT_PRICE.multiply(BigDecimal.valueOf(quantity)); // 1300 * 3 = 3900
         assertEquals(0, expectedItemPrice.compareTo(result.itemTotalPrice()));
         
         // Verify cart totals
         assertNotNull(result.cartTotals());
         assertEquals(0, expectedItemPrice.compareTo(result.cartTotals().totalAmount())); // Same as item total since it's the only item
         assertEquals(1, result.cartTotals().totalItemsCount());
+        assertEquals(1L, result.cartTotals().version());
 
         // Verify interactions
-        verify(cartMapper).toAddItemRequestDto(facadeRequest);
-        verify(cartAddItemService).addCartItem(cartId, domainRequest);
-        verify(cartGetService).getCart(cartId);
+        verify(cartMapper).toAddItemRequestDto(facadeRequest, UNIT_PRICE);
+        verify(cartAddItemService).addCartItem(cartId, domainRequest, null);
+        verify(cartGetService).getCartTotals(cartId);
+        verifyNoMoreInteractions(cartGetService);
+        verify(productVariantService).getPriceIdsByVariantIds(Set.of(variantId));
+        verify(priceService).getPricesByIds(Set.of(PRICE_ID));
+        verifyNoMoreInteractions(productVariantService, priceService);
+        verify(variantStockService).reserve(cartId, variantId, quantity);
+        verifyNoMoreInteractions(variantStockService);
+    }
+
+    @Test
+    @DisplayName("Should reject out of stock variant without touching the cart")
+    void shouldRejectOutOfStockVariant() {
+        // Given
+        Long cartId = 1L;
+        Long variantId = 200L;
+        CartAddFacadeRequestDto facadeRequest = new CartAddFacadeRequestDto(100L, variantId, 3);
+        doThrow(new ProductExceptions.VariantOutOfStockException(variantId, 3, 1))
+                .when(variantStockService).reserve(cartId, variantId, 3);
+
+        // When & Then
+        assertThrows(ProductExceptions.VariantOutOfStockException.class,
+                () -> cartAddItemFacadeService.addItemToCart(cartId, facadeRequest, null));
+        verifyNoInteractions(cartAddItemService, cartGetService, productVariantService, priceService);
+        verify(variantStockService, never()).release(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should release reservation when cart write fails")
+    void shouldReleaseReservationWhenCartWriteFails() {
+        // Given
+        Long cartId = 1L;
+        Long variantId = 200L;
+        CartAddFacadeRequestDto facadeRequest = new CartAddFacadeRequestDto(100L, variantId, 2);
+        CartAddItemRequestDto domainRequest = new CartAddItemRequestDto(100L, variantId, 2, UNIT_PRICE);
+
+        mockUnitPrice(variantId, UNIT_PRICE);
+        when(cartMapper.toAddItemRequestDto(facadeRequest, UNIT_PRICE)).thenReturn(domainRequest);
+        when(cartAddItemService.addCartItem(cartId, domainRequest, null))
+                .thenThrow(new IllegalStateException("Cart is full"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> cartAddItemFacadeService.addItemToCart(cartId, facadeRequest, null));
+        verify(variantStockService).reserve(cartId, variantId, 2);
+        verify(variantStockService).release(cartId, variantId, 2);
+        verifyNoInteractions(cartGetService);
+    }
+
+    @Test
+    @DisplayName("Should reject variant without price and release reservation")
+    void shouldRejectVariantWithoutPrice() {
+        // Given
+        Long cartId = 1L;
+        Long variantId = 200L;
+        CartAddFacadeRequestDto facadeRequest = new CartAddFacadeRequestDto(100L, variantId, 2);
+        when(productVariantService.getPriceIdsByVariantIds(Set.of(variantId))).thenReturn(Map.of(variantId, PRICE_ID));
+        when(priceService.getPricesByIds(Set.of(PRICE_ID))).thenReturn(Map.of());
+
+        // When & Then
+        assertThrows(VariantPriceNotFoundException.class,
+                () -> cartAddItemFacadeService.addItemToCart(cartId, facadeRequest, null));
+        verify(variantStockService).release(cartId, variantId, 2);
+        verifyNoInteractions(cartMapper, cartAddItemService, cartGetService);
     }
 
     @Test
@@ -100,20 +180,20 @@ class CartAddItemFacadeServiceImplTest {
         Long cartItemId = 10L;
         
         CartAddFacadeRequestDto facadeRequest = new CartAddFacadeRequestDto(productId, variantId, requestQuantity);
-        CartAddItemRequestDto domainRequest = new CartAddItemRequestDto(productId, variantId, requestQuantity);
+        CartAddItemRequestDto domainRequest = new CartAddItemRequestDto(productId, variantId, requestQuantity, UNIT_PRICE);
         CartAddItemResponseDto domainResponse = new CartAddItemResponseDto(cartItemId, finalQuantity, "Quantity updated in cart");
         
-        CartItemGetResponseDto cartItem = new CartItemGetResponseDto(
-                cartItemId, productId, variantId, finalQuantity, LocalDateTime.now()
+        CartTotalsResponseDto cartTotals = new CartTotalsResponseDto(
+                cartId, 1, UNIT_PRICE.multiply(BigDecimal.valueOf(finalQuantity)), 2L
         );
-        CartGetResponseDto cartGetResponse = new CartGetResponseDto(cartId, List.of(cartItem), 1);
 
-        when(cartMapper.toAddItemRequestDto(facadeRequest)).thenReturn(domainRequest);
-        when(cartAddItemService.addCartItem(cartId, domainRequest)).thenReturn(domainResponse);
-        when(cartGetService.getCart(cartId)).thenReturn(cartGetResponse);
+        mockUnitPrice(variantId, UNIT_PRICE);
+        when(cartMapper.toAddItemRequestDto(facadeRequest, UNIT_PRICE)).thenReturn(domainRequest);
+        when(cartAddItemService.addCartItem(cartId, domainRequest, null)).thenReturn(domainResponse);
+        when(cartGetService.getCartTotals(cartId)).thenReturn(cartTotals);
 
         // When
-        CartAddFacadeResponseDto result = cartAddItemFacadeService.addItemToCart(cartId, facadeRequest);
+        CartAddFacadeResponseDto result = cartAddItemFacadeService.addItemToCart(cartId, facadeRequest, null);
 
         // Then
         assertNotNull(result);
@@ -122,8 +202,12 @@ class CartAddItemFacadeServiceImplTest {
         assertEquals(CartOperationType.QUANTITY_INCREASED, result.operation());
         
         // Verify item total price calculation for final quantity
-        BigDecimal expectedUnitPrice = BigDecimal.valueOf(100 + (productId * 10) + variantId); // 1300
-        BigDecimal expectedItemPrice = expectedUnitPrice.multiply(BigDecimal.valueOf(finalQuantity)); // 1300 * 5 = 6500
+        BigDecimal expectedItemPrice = UNIT_PRICE.multiply(BigDecimal.valueOf(finalQuantity)); // 1300 * 5 = 6500
         assertEquals(0, expectedItemPrice.compareTo(result.itemTotalPrice()));
     }
-}
\ No newline at end of file
+
+    private void mockUnitPrice(Long variantId, BigDecimal unitPrice) {
+        when(productVariantService.getPriceIdsByVariantIds(Set.of(variantId))).thenReturn(Map.of(variantId, PRICE_ID));
+        when(priceService.getPricesByIds(Set.of(PRICE_ID))).thenReturn(Map.of(PRICE_ID, new PriceQuoteDto(PRICE_ID, unitPrice)));
+    }
+}
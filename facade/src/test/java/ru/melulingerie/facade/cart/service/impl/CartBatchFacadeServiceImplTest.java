@@ -0,0 +1,108 @@
+package ru.melulingerie.facade.cart.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.melulingerie.cart.service.CartBatchService;
+import ru.melulingerie.cart.service.CartQuantityGuard;
+import ru.melulingerie.facade.cart.dto.CartBatchOperationFacadeType;
+import ru.melulingerie.facade.cart.dto.request.CartBatchFacadeRequestDto;
+import ru.melulingerie.facade.cart.dto.request.CartBatchOperationFacadeRequestDto;
+import ru.melulingerie.products.exception.ProductExceptions;
+import ru.melulingerie.products.service.ProductVariantService;
+import ru.melulingerie.price.service.PriceService;
+import ru.melulingerie.products.service.VariantStockService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartBatchFacadeService Unit Tests")
+class CartBatchFacadeServiceImplTest {
+
+    private static final Long CART_ID = 1L;
+
+    @Mock
+    private PriceService priceService;
+
+    @Mock
+    private CartBatchService cartBatchService;
+
+    @Mock
+    private CartDetailsAssembler cartDetailsAssembler;
+
+    @Mock
+    private ProductVariantService productVariantService;
+
+    @Mock
+    private VariantStockService variantStockService;
+
+    @InjectMocks
+    private CartBatchFacadeServiceImpl cartBatchFacadeService;
+
+    private final CartBatchFacadeRequestDto request = new CartBatchFacadeRequestDto(List.of(
+            new CartBatchOperationFacadeRequestDto(CartBatchOperationFacadeType.UPDATE_QUANTITY, null, null, 10L, 5),
+            new CartBatchOperationFacadeRequestDto(CartBatchOperationFacadeType.REMOVE, null, null, 11L, null)
+    ));
+
+    @Test
+    @DisplayName("Should reserve net increases inside the write and release net decreases after it")
+    void shouldReserveNetIncreasesAndReleaseDecreases() {
+        // Given
+        givenWriteReports(Map.of(200L, 3, 201L, -2));
+
+        // When
+        cartBatchFacadeService.applyOperations(CART_ID, request, null);
+
+        // Then
+        var inOrder = inOrder(variantStockService);
+        inOrder.verify(variantStockService).reserve(CART_ID, 200L, 3);
+        inOrder.verify(variantStockService).release(CART_ID, 201L, 2);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("Should release reserved increases and keep decreases reserved when batch fails")
+    void shouldReleaseIncreasesWhenBatchFails() {
+        // Given
+        doAnswer(invocation -> {
+            invocation.<CartQuantityGuard>getArgument(3).beforeWrite(Map.of(200L, 3, 201L, -2));
+            throw new IllegalArgumentException("Cart item not found");
+        }).when(cartBatchService).applyOperations(eq(CART_ID), anyList(), isNull(), any());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> cartBatchFacadeService.applyOperations(CART_ID, request, null));
+        verify(variantStockService).release(CART_ID, 200L, 3);
+        verify(variantStockService, never()).release(eq(CART_ID), eq(201L), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should abort the batch when an increase is out of stock")
+    void shouldRejectBatchOutOfStock() {
+        // Given
+        givenWriteReports(Map.of(200L, 3));
+        doThrow(new ProductExceptions.VariantOutOfStockException(200L, 3, 1))
+                .when(variantStockService).reserve(CART_ID, 200L, 3);
+
+        // When & Then
+        assertThrows(ProductExceptions.VariantOutOfStockException.class,
+                () -> cartBatchFacadeService.applyOperations(CART_ID, request, null));
+        verify(variantStockService, never()).release(anyLong(), anyLong(), anyInt());
+        verifyNoInteractions(cartDetailsAssembler);
+    }
+
+    private void givenWriteReports(Map<Long, Integer> quantityDeltas) {
+        doAnswer(invocation -> {
+            invocation.<CartQuantityGuard>getArgument(3).beforeWrite(quantityDeltas);
+            return null;
+        }).when(cartBatchService).applyOperations(eq(CART_ID), anyList(), isNull(), any());
+    }
+}
@@ -9,12 +9,14 @@ import org.junit.jupiter.api.MethodOrderer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.melulingerie.cart.domain.Cart;
 import ru.melulingerie.cart.domain.CartItem;
 import ru.melulingerie.cart.repository.CartItemRepository;
 import ru.melulingerie.cart.repository.CartRepository;
+import ru.melulingerie.facade.StatementCounter;
 import ru.melulingerie.facade.cart.dto.response.CartGetFacadeResponseDto;
 import ru.melulingerie.facade.cart.dto.response.CartItemDetailsFacadeResponseDto;
 import ru.melulingerie.facade.cart.service.CartGetFacadeService;
@@ -63,6 +65,12 @@ class CartGetFacadeServiceIntegrationTest {
     @Autowired
     private PriceRepository priceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
     @MockBean
     private MediaGetService mediaGetService;
 
@@ -88,6 +96,7 @@ class CartGetFacadeServiceIntegrationTest {
         productVariantRepository.deleteAll();
         productRepository.deleteAll();
         priceRepository.deleteAll();
+        jdbcTemplate.update("delete from media");
     }
 
     @Test
@@ -103,7 +112,7 @@ class CartGetFacadeServiceIntegrationTest {
         // Then
         assertNotNull(result);
         assertEquals(0, result.itemsCount());
-        assertEquals(BigDecimal.ZERO, result.totalAmount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.totalAmount()));
         assertTrue(result.items().isEmpty());
     }
 
@@ -127,8 +136,8 @@ class CartGetFacadeServiceIntegrationTest {
         BigDecimal expectedTotal = new BigDecimal("650.00");
         assertEquals(0, expectedTotal.compareTo(result.totalAmount()));
 
-        // Проверяем первый товар
-        CartItemDetailsFacadeResponseDto firstItem = result.items().get(0);
+        // Позиции идут от последней добавленной: первый товар добавлен раньше второго
+        CartItemDetailsFacadeResponseDto firstItem = result.items().get(1);
         assertEquals(testProduct1.getName(), firstItem.productName());
         assertEquals(testProduct1.getArticleNumber(), firstItem.productSku());
         assertEquals(testVariant1.getColorName(), firstItem.variantColor());
@@ -140,7 +149,7 @@ class CartGetFacadeServiceIntegrationTest {
         assertFalse(firstItem.isFavorite());
 
         // Проверяем второй товар
-        CartItemDetailsFacadeResponseDto secondItem = result.items().get(1);
+        CartItemDetailsFacadeResponseDto secondItem = result.items().get(0);
         assertEquals(testProduct2.getName(), secondItem.productName());
         assertEquals(testProduct2.getArticleNumber(), secondItem.productSku());
         assertEquals(testVariant2.getColorName(), secondItem.variantColor());
@@ -212,13 +221,9 @@ class CartGetFacadeServiceIntegrationTest {
         createTestCartItem(testCart, testProduct1.getId(), testVariant1.getId(), 2);
         createTestCartItem(testCart, testProduct2.getId(), testVariant2.getId(), 3);
 
-        // Важно: в логах выше мы можем видеть SQL запросы Hibernate
-        // Batch optimization должна сделать всего несколько запросов:
-        // 1. SELECT cart_items by cart_id
-        // 2. SELECT products by ids (batch)
-        // 3. SELECT product_variants by ids (batch)
-        // 4. SELECT prices by ids (batch)
-        // 5. MediaService вызов (мокирован)
+        // Корзина из БД читается одним SQL-запросом в обход Hibernate: считаются все JDBC-операторы,
+        // а не только запросы Hibernate
+        statementCounter.reset();
 
         // When
         CartGetFacadeResponseDto result = cartGetFacadeService.getCart(testCart.getId());
@@ -226,14 +231,15 @@ class CartGetFacadeServiceIntegrationTest {
         // Then - проверяем результат
         assertNotNull(result);
         assertEquals(2, result.itemsCount());
+        assertEquals(1, statementCounter.count());
 
-        // Проверяем, что данные корректно обогащены из batch запросов
-        CartItemDetailsFacadeResponseDto item1 = result.items().get(0);
+        // Проверяем, что данные корректно собраны из одного запроса
+        CartItemDetailsFacadeResponseDto item1 = result.items().get(1);
         assertEquals(testProduct1.getName(), item1.productName());
         assertEquals(testVariant1.getColorName(), item1.variantColor());
         assertEquals(0, new BigDecimal("100.00").compareTo(item1.unitPrice()));
 
-        CartItemDetailsFacadeResponseDto item2 = result.items().get(1);
+        CartItemDetailsFacadeResponseDto item2 = result.items().get(0);
         assertEquals(testProduct2.getName(), item2.productName());
         assertEquals(testVariant2.getColorName(), item2.variantColor());
         assertEquals(0, new BigDecimal("150.00").compareTo(item2.unitPrice()));
@@ -303,10 +309,19 @@ class CartGetFacadeServiceIntegrationTest {
 
         savedVariant.setProductVariantMedia(new ArrayList<>(List.of(media)));
         product.getVariants().add(savedVariant);
+        createTestMedia(mediaId);
 
         return productVariantRepository.save(savedVariant);
     }
 
+    private void createTestMedia(Long mediaId) {
+        jdbcTemplate.update("insert into media (id, media_type, file_name, mime_type, file_size, file_hash, "
+                        + "s3bucket, s3key, s3url, is_active, is_deleted) values (?, 'IMAGE', ?, 'image/jpeg', 1, ?, "
+                        + "'test-bucket', ?, ?, true, false)",
+                mediaId, "test-image-" + mediaId + ".jpg", "hash-" + mediaId, "media/" + mediaId + ".jpg",
+                "https://s3.example.com/media/" + mediaId + ".jpg");
+    }
+
     private Price createTestPrice(BigDecimal amount) {
         Price price = new Price();
         price.setBaseAmount(amount);
@@ -316,13 +331,21 @@ class CartGetFacadeServiceIntegrationTest {
     private Cart createTestCart(Long userId) {
         Cart cart = new Cart(userId);
         cart.setCartItems(new ArrayList<>());
-        return cartRepository.save(cart);
+        return cartRepository.saveAndFlush(cart);
     }
 
     private CartItem createTestCartItem(Cart cart, Long productId, Long variantId, Integer quantity) {
-        CartItem item = new CartItem(cart, productId, variantId, quantity);
+        BigDecimal unitPrice = productVariantRepository.findById(variantId)
+                .flatMap(variant -> priceRepository.findById(variant.getPriceId()))
+                .map(Price::getBaseAmount)
+                .orElse(null);
+        CartItem item = new CartItem(cart, productId, variantId, quantity, unitPrice);
         CartItem savedItem = cartItemRepository.save(item);
         cart.getCartItems().add(savedItem);
+        cart.applyTotalsDelta(1, savedItem.getLineTotal());
+        cartRepository.save(cart);
+        // корзина читается через JDBC: изменения должны быть в БД
+        cartRepository.flush();
         return savedItem;
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package ru.melulingerie.facade.cart.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.melulingerie.cart.service.CartQuantityGuard;
+import ru.melulingerie.cart.service.CartUpdateQuantityService;
+import ru.melulingerie.products.exception.ProductExceptions;
+import ru.melulingerie.products.service.VariantStockService;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartUpdateQuantityFacadeService Unit Tests")
+class CartUpdateQuantityFacadeServiceImplTest {
+
+    private static final Long CART_ID = 1L;
+    private static final Long ITEM_ID = 10L;
+    private static final Long VARIANT_ID = 200L;
+
+    @Mock
+    private CartUpdateQuantityService cartUpdateQuantityService;
+
+    @Mock
+    private VariantStockService variantStockService;
+
+    @InjectMocks
+    private CartUpdateQuantityFacadeServiceImpl cartUpdateQuantityFacadeService;
+
+    @Test
+    @DisplayName("Should reserve the increase reported by the cart write")
+    void shouldReserveIncrease() {
+        // Given
+        givenWriteReports(Map.of(VARIANT_ID, 3));
+
+        // When
+        cartUpdateQuantityFacadeService.updateItemQuantity(CART_ID, ITEM_ID, 5, 7L);
+
+        // Then
+        verify(variantStockService).reserve(CART_ID, VARIANT_ID, 3);
+        verify(variantStockService, never()).release(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should abort the cart write when increase is out of stock")
+    void shouldRejectIncreaseOutOfStock() {
+        // Given
+        givenWriteReports(Map.of(VARIANT_ID, 3));
+        doThrow(new ProductExceptions.VariantOutOfStockException(VARIANT_ID, 3, 1))
+                .when(variantStockService).reserve(CART_ID, VARIANT_ID, 3);
+
+        // When & Then
+        assertThrows(ProductExceptions.VariantOutOfStockException.class,
+                () -> cartUpdateQuantityFacadeService.updateItemQuantity(CART_ID, ITEM_ID, 5, null));
+        verify(variantStockService, never()).release(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should release reserved increase when write fails after the guard")
+    void shouldReleaseIncreaseWhenWriteFails() {
+        // Given
+        doAnswer(invocation -> {
+            invocation.<CartQuantityGuard>getArgument(4).beforeWrite(Map.of(VARIANT_ID, 2));
+            throw new OptimisticLockingFailureException("Cart modified concurrently");
+        }).when(cartUpdateQuantityService).updateItemQuantity(eq(CART_ID), eq(ITEM_ID), eq(4), isNull(), any());
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> cartUpdateQuantityFacadeService.updateItemQuantity(CART_ID, ITEM_ID, 4, null));
+        verify(variantStockService).reserve(CART_ID, VARIANT_ID, 2);
+        verify(variantStockService).release(CART_ID, VARIANT_ID, 2);
+    }
+
+    @Test
+    @DisplayName("Should keep only the last attempt reservation when the write is retried")
+    void shouldReplaceReservationOnRetry() {
+        // Given: первая попытка увидела количество 2, повтор — уже 4 после параллельной записи
+        doAnswer(invocation -> {
+            CartQuantityGuard guard = invocation.getArgument(4);
+            guard.beforeWrite(Map.of(VARIANT_ID, 3));
+            guard.beforeWrite(Map.of(VARIANT_ID, 1));
+            return null;
+        }).when(cartUpdateQuantityService).updateItemQuantity(eq(CART_ID), eq(ITEM_ID), eq(5), isNull(), any());
+
+        // When
+        cartUpdateQuantityFacadeService.updateItemQuantity(CART_ID, ITEM_ID, 5, null);
+
+        // Then
+        var inOrder = inOrder(variantStockService);
+        inOrder.verify(variantStockService).reserve(CART_ID, VARIANT_ID, 3);
+        inOrder.verify(variantStockService).release(CART_ID, VARIANT_ID, 3);
+        inOrder.verify(variantStockService).reserve(CART_ID, VARIANT_ID, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("Should release the decrease after the cart write")
+    void shouldReleaseDecrease() {
+        // Given
+        givenWriteReports(Map.of(VARIANT_ID, -4));
+
+        // When
+        cartUpdateQuantityFacadeService.updateItemQuantity(CART_ID, ITEM_ID, 1, null);
+
+        // Then
+        verify(variantStockService).release(CART_ID, VARIANT_ID, 4);
+        verify(variantStockService, never()).reserve(anyLong(), anyLong(), anyInt());
+    }
+
+    private void givenWriteReports(Map<Long, Integer> quantityDeltas) {
+        doAnswer(invocation -> {
+            invocation.<CartQuantityGuard>getArgument(4).beforeWrite(quantityDeltas);
+            return null;
+        }).when(cartUpdateQuantityService).updateItemQuantity(eq(CART_ID), eq(ITEM_ID), anyInt(), any(), any());
+    }
+}
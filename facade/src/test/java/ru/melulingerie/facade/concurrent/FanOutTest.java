@@ -0,0 +1,113 @@
+package ru.melulingerie.facade.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FanOut Unit Tests")
+class FanOutTest {
+
+    private final FanOut fanOut = new FanOut(true, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Should run lookups concurrently")
+    void shouldRunLookupsConcurrently() {
+        // Given - каждый запрос ждёт другой: последовательно они бы не завершились
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // When
+        try (FanOut.Scope scope = fanOut.open()) {
+            Supplier<String> prices = scope.fork(() -> awaitOther(bothStarted, "prices"));
+            Supplier<String> media = scope.fork(() -> awaitOther(bothStarted, "media"));
+            scope.join();
+
+            // Then
+            assertEquals("prices", prices.get());
+            assertEquals("media", media.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should cancel lookups after deadline")
+    void shouldCancelLookupsAfterDeadline() throws InterruptedException {
+        // Given
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When & Then
+        try (FanOut.Scope scope = fanOut.open(Duration.ofMillis(100))) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            assertThrows(FanOutTimeoutException.class, scope::join);
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should propagate first failure and cancel other lookups")
+    void shouldPropagateFirstFailure() throws InterruptedException {
+        // Given
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When & Then
+        try (FanOut.Scope scope = fanOut.open()) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                throw new IllegalArgumentException("Price not found");
+            });
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, scope::join);
+            assertEquals("Price not found", e.getMessage());
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should run lookups in caller thread inside transaction")
+    void shouldRunSequentiallyInsideTransaction() {
+        // Given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        Thread caller = Thread.currentThread();
+
+        // When
+        try (FanOut.Scope scope = fanOut.open()) {
+            Supplier<Thread> lookupThread = scope.fork(Thread::currentThread);
+            scope.join();
+
+            // Then
+            assertSame(caller, lookupThread.get());
+        }
+    }
+
+    private static String awaitOther(CountDownLatch bothStarted, String result) throws InterruptedException {
+        bothStarted.countDown();
+        if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Lookups did not run concurrently");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+package ru.melulingerie.facade.products.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.melulingerie.event.MediaChangedEvent;
+import ru.melulingerie.facade.products.dto.response.ProductCardResponseDto;
+import ru.melulingerie.price.event.PriceChangedEvent;
+import ru.melulingerie.products.event.ProductChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductCardStore Unit Tests")
+class ProductCardStoreTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long OTHER_PRODUCT_ID = 2L;
+    private static final Long PRICE_ID = 500L;
+    private static final Long MEDIA_ID = 700L;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private ProductCardStore store;
+    private final AtomicInteger assemblies = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new ProductCardStore(Duration.ofHours(1), 100, meterRegistryProvider);
+    }
+
+    @Test
+    @DisplayName("Should assemble card once and serve it from the store")
+    void shouldAssembleCardOnce() {
+        // When
+        ProductCardResponseDto first = store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of(MEDIA_ID)));
+        ProductCardResponseDto second = store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of(MEDIA_ID)));
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, assemblies.get());
+    }
+
+    @Test
+    @DisplayName("Should reassemble card after product change")
+    void shouldReassembleAfterProductChange() {
+        // Given
+        ProductCardResponseDto before = store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of()));
+
+        // When
+        store.onProductChanged(new ProductChangedEvent(PRODUCT_ID));
+        ProductCardResponseDto after = store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of()));
+
+        // Then
+        assertNotSame(before, after);
+        assertEquals(2, assemblies.get());
+    }
+
+    @Test
+    @DisplayName("Should reassemble only cards depending on changed price or media")
+    void shouldReassembleOnlyDependentCards() {
+        // Given
+        store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of(MEDIA_ID)));
+        ProductCardResponseDto other = store.get(OTHER_PRODUCT_ID, assembler(Set.of(501L), Set.of(701L)));
+
+        // When
+        store.onPriceChanged(new PriceChangedEvent(PRICE_ID));
+        store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of(MEDIA_ID)));
+        store.onMediaChanged(new MediaChangedEvent(MEDIA_ID));
+        store.get(PRODUCT_ID, assembler(Set.of(PRICE_ID), Set.of(MEDIA_ID)));
+
+        // Then
+        assertEquals(4, assemblies.get());
+        assertSame(other, store.get(OTHER_PRODUCT_ID, assembler(Set.of(501L), Set.of(701L))));
+    }
+
+    @Test
+    @DisplayName("Should drop card assembled while its price changed")
+    void shouldDropCardAssembledDuringPriceChange() {
+        // Given: цена меняется, пока карточка собирается со старой ценой
+        Function<Long, ProductCardDocument> assembler = assembler(Set.of(PRICE_ID), Set.of());
+        ProductCardResponseDto stale = store.get(PRODUCT_ID, productId -> {
+            ProductCardDocument document = assembler.apply(productId);
+            store.onPriceChanged(new PriceChangedEvent(PRICE_ID));
+            return document;
+        });
+
+        // When
+        ProductCardResponseDto fresh = store.get(PRODUCT_ID, assembler);
+
+        // Then
+        assertNotSame(stale, fresh);
+        assertEquals(2, assemblies.get());
+        assertSame(fresh, store.get(PRODUCT_ID, assembler));
+    }
+
+    @Test
+    @DisplayName("Should keep card assembled while an unrelated price or media changed")
+    void shouldKeepCardAssembledDuringUnrelatedChange() {
+        // Given: меняются цена и медиа другого товара, пока карточка собирается
+        Function<Long, ProductCardDocument> assembler = assembler(Set.of(PRICE_ID), Set.of(MEDIA_ID));
+        ProductCardResponseDto assembled = store.get(PRODUCT_ID, productId -> {
+            ProductCardDocument document = assembler.apply(productId);
+            store.onPriceChanged(new PriceChangedEvent(501L));
+            store.onMediaChanged(new MediaChangedEvent(701L));
+            return document;
+        });
+
+        // When
+        ProductCardResponseDto served = store.get(PRODUCT_ID, assembler);
+
+        // Then
+        assertSame(assembled, served);
+        assertEquals(1, assemblies.get());
+    }
+
+    @Test
+    @DisplayName("Should drop card assembled while its media changed")
+    void shouldDropCardAssembledDuringMediaChange() {
+        // Given
+        Function<Long, ProductCardDocument> assembler = assembler(Set.of(), Set.of(MEDIA_ID));
+        ProductCardResponseDto stale = store.get(PRODUCT_ID, productId -> {
+            ProductCardDocument document = assembler.apply(productId);
+            store.onMediaChanged(new MediaChangedEvent(MEDIA_ID));
+            return document;
+        });
+
+        // When
+        ProductCardResponseDto fresh = store.get(PRODUCT_ID, assembler);
+
+        // Then
+        assertNotSame(stale, fresh);
+        assertEquals(2, assemblies.get());
+    }
+
+    private Function<Long, ProductCardDocument> assembler(Set<Long> priceIds, Set<Long> mediaIds) {
+        return productId -> {
+            assemblies.incrementAndGet();
+            ProductCardResponseDto card = new ProductCardResponseDto(
+                    productId, "Бюстгальтер", "BR-001", "Описание", "Хлопок", 4.5f, "Ручная стирка", 10L, List.of());
+            return new ProductCardDocument(card, priceIds, mediaIds);
+        };
+    }
+}
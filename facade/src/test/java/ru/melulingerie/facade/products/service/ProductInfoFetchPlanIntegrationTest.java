@@ -0,0 +1,135 @@
+package ru.melulingerie.facade.products.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.media.service.MediaGetService;
+import ru.melulingerie.products.domain.Product;
+import ru.melulingerie.products.domain.ProductVariant;
+import ru.melulingerie.products.domain.ProductVariantMedia;
+import ru.melulingerie.products.dto.ProductInfoResponseDto;
+import ru.melulingerie.products.dto.ProductVariantMediaResponseDto;
+import ru.melulingerie.products.dto.ProductVariantResponseDto;
+import ru.melulingerie.products.repository.ProductRepository;
+import ru.melulingerie.products.service.ProductService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Карточка товара с вариантами и медиа вариантов должна читаться одним SQL-оператором
+ */
+@SpringBootTest(classes = ru.melulingerie.facade.FacadeTestApplication.class)
+@ActiveProfiles("test")
+@DisplayName("Product info fetch plan Integration Tests")
+class ProductInfoFetchPlanIntegrationTest {
+
+    private static final Long PRICE_ID = 1L;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private MediaGetService mediaGetService;
+
+    @Test
+    @Transactional
+    @DisplayName("Should load product, variants and media in one statement")
+    void shouldLoadProductInfoInOneStatement() {
+        // Given
+        Product product = createProduct("DRESS-010");
+        addVariant(product, "Синий", "L", 2, 3003L, 3004L);
+        addVariant(product, "Красный", "M", 1, 3001L, 3002L);
+        addVariant(product, "Чёрный", "S", 3);
+        productRepository.saveAndFlush(product);
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        ProductInfoResponseDto result = productService.getProductInfoById(product.getId());
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+
+        assertEquals(product.getId(), result.productId());
+        assertEquals("Платье DRESS-010", result.name());
+        assertEquals(List.of("Красный", "Синий", "Чёрный"),
+                result.productVariants().stream().map(ProductVariantResponseDto::colorName).toList());
+
+        ProductVariantResponseDto first = result.productVariants().get(0);
+        assertEquals(List.of(3001L, 3002L), first.productVariantMedia().stream().map(ProductVariantMediaResponseDto::mediaId).toList());
+        assertTrue(result.productVariants().get(2).productVariantMedia().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Should return product without variants")
+    void shouldReturnProductWithoutVariants() {
+        // Given
+        Product product = productRepository.saveAndFlush(createProduct("DRESS-011"));
+        entityManager.clear();
+
+        // When
+        ProductInfoResponseDto result = productService.getProductInfoById(product.getId());
+
+        // Then
+        assertEquals("DRESS-011", result.articleNumber());
+        assertTrue(result.productVariants().isEmpty());
+    }
+
+    private Product createProduct(String articleNumber) {
+        Product product = new Product();
+        product.setName("Платье " + articleNumber);
+        product.setArticleNumber(articleNumber);
+        product.setSlug(articleNumber.toLowerCase());
+        product.setPriceId(PRICE_ID);
+        product.setDescription("Test description");
+        product.setMaterial("Cotton");
+        product.setScore(4.5f);
+        product.setVariants(new ArrayList<>());
+        return product;
+    }
+
+    private void addVariant(Product product, String color, String size, int sortOrder, Long... mediaIds) {
+        ProductVariant variant = new ProductVariant();
+        variant.setProduct(product);
+        variant.setColorName(color);
+        variant.setSize(size);
+        variant.setStockQuantity(10);
+        variant.setIsAvailable(true);
+        variant.setSortOrder(sortOrder);
+        variant.setPriceId(PRICE_ID);
+        variant.setProductVariantMedia(new ArrayList<>());
+        for (int i = 0; i < mediaIds.length; i++) {
+            ProductVariantMedia media = new ProductVariantMedia();
+            media.setProductVariant(variant);
+            media.setMediaId(mediaIds[i]);
+            media.setSortOrder(i + 1);
+            variant.getProductVariantMedia().add(media);
+        }
+        product.getVariants().add(variant);
+    }
+}
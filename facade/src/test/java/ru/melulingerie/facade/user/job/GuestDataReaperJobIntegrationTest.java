@@ -0,0 +1,160 @@
+package ru.melulingerie.facade.user.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.melulingerie.service.impl.WishlistCleanupServiceImpl;
+import ru.melulingerie.users.service.UserCleanupService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Удаление гостей на H2: отдельная база, INET и jsonb из сущностей пользователей объявлены доменами
+ */
+@SpringBootTest(classes = GuestDataReaperJobIntegrationTest.ReaperTestApplication.class)
+@ActiveProfiles("test")
+@DisplayName("GuestDataReaperJob Integration Tests")
+class GuestDataReaperJobIntegrationTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final LocalDateTime EXPIRED_BEFORE = NOW.minusDays(7);
+
+    @DynamicPropertySource
+    static void reaperProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:reaper;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;"
+                + "INIT=CREATE DOMAIN IF NOT EXISTS INET AS VARCHAR(45)\\;CREATE DOMAIN IF NOT EXISTS JSONB AS JSON");
+        registry.add("users.guest-reaper.batch-size", () -> 2);
+    }
+
+    @Autowired
+    private GuestDataReaperJob guestDataReaperJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private UserCleanupService userCleanupService;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from cart_items");
+        jdbcTemplate.update("delete from carts");
+        jdbcTemplate.update("delete from wishlist_items");
+        jdbcTemplate.update("delete from wishlists");
+        jdbcTemplate.update("delete from user_session");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    @DisplayName("Should delete expired guests with carts and wishlists and keep active ones")
+    void shouldDeleteExpiredGuestsWithTheirData() {
+        // Given
+        insertGuest(1L, NOW.minusDays(10));
+        insertGuest(2L, NOW.minusDays(9));
+        insertGuest(3L, NOW.minusDays(1));
+        insertGuest(4L, NOW.plusHours(1));
+        for (long userId = 1; userId <= 4; userId++) {
+            insertCartWithItem(userId);
+            insertWishlistWithItem(userId);
+        }
+
+        // When
+        Map<String, Long> reclaimed = guestDataReaperJob.reap(EXPIRED_BEFORE);
+
+        // Then
+        assertEquals(2L, reclaimed.get("users"));
+        assertEquals(2L, reclaimed.get("carts"));
+        assertEquals(2L, reclaimed.get("cart_items"));
+        assertEquals(2L, reclaimed.get("wishlists"));
+        assertEquals(2L, reclaimed.get("user_session"));
+        assertEquals(List.of(3L, 4L), userIds());
+        assertEquals(List.of(3L, 4L), jdbcTemplate.queryForList("select user_id from carts order by user_id", Long.class));
+        assertEquals(2, count("cart_items"));
+        assertEquals(2, count("wishlist_items"));
+    }
+
+    @Test
+    @DisplayName("Should keep guest who renewed session after being selected")
+    void shouldKeepGuestRenewedAfterSelection() {
+        // Given: выборка ещё видит гостя 2 истёкшим, к моменту удаления он продлил сессию
+        insertGuest(1L, NOW.minusDays(10));
+        insertGuest(2L, NOW.plusHours(1));
+        insertCartWithItem(2L);
+        doReturn(List.of(1L, 2L)).when(userCleanupService).findExpiredGuestUserIds(any(), any(), anyInt());
+
+        // When
+        Map<String, Long> reclaimed = guestDataReaperJob.reap(EXPIRED_BEFORE);
+
+        // Then
+        assertEquals(1L, reclaimed.get("users"));
+        assertEquals(0L, reclaimed.get("carts"));
+        assertEquals(List.of(2L), userIds());
+        assertEquals(1, count("cart_items"));
+    }
+
+    private void insertGuest(Long userId, LocalDateTime sessionExpiresAt) {
+        LocalDateTime createdAt = NOW.minusDays(30);
+        jdbcTemplate.update("insert into users (id, role, status, created_at, updated_at) "
+                + "values (?, 'GUEST', 'UNREGISTERED', ?, ?)", userId, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        jdbcTemplate.update("insert into user_session (id, session_id, user_id, created_at, last_activity_at, expires_at, status) "
+                        + "values (?, ?, ?, ?, ?, ?, 'ACTIVE')", userId, UUID.randomUUID(), userId,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(sessionExpiresAt.minusDays(1)), Timestamp.valueOf(sessionExpiresAt));
+    }
+
+    private void insertCartWithItem(Long userId) {
+        jdbcTemplate.update("insert into carts (id, user_id, items_count, total_amount, totals_version, created_at, updated_at) "
+                + "values (?, ?, 1, 1000, 0, ?, ?)", userId, userId, Timestamp.valueOf(NOW), Timestamp.valueOf(NOW));
+        jdbcTemplate.update("insert into cart_items (id, cart_id, product_id, variant_id, quantity, unit_price, added_at, updated_at) "
+                + "values (?, ?, 100, 200, 1, 1000, ?, ?)", userId, userId, Timestamp.valueOf(NOW), Timestamp.valueOf(NOW));
+    }
+
+    private void insertWishlistWithItem(Long userId) {
+        jdbcTemplate.update("insert into wishlists (id, user_id, created_at, updated_at, is_deleted) values (?, ?, ?, ?, false)",
+                userId, userId, Timestamp.valueOf(NOW), Timestamp.valueOf(NOW));
+        jdbcTemplate.update("insert into wishlist_items (id, wishlist_id, product_id, added_at, updated_at) values (?, ?, 100, ?, ?)",
+                userId, userId, Timestamp.valueOf(NOW), Timestamp.valueOf(NOW));
+    }
+
+    private List<Long> userIds() {
+        return jdbcTemplate.queryForList("select id from users order by id", Long.class);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    @SpringBootApplication(scanBasePackages = "ru.melulingerie.cart")
+    @EnableJpaRepositories(basePackages = {
+            "ru.melulingerie.cart.repository",
+            "ru.melulingerie.users.repository",
+            "ru.melulingerie.repository"
+    })
+    @EntityScan(basePackages = {
+            "ru.melulingerie.cart.domain",
+            "ru.melulingerie.users.entity",
+            "ru.melulingerie.domain"
+    })
+    @Import({GuestDataReaperJob.class, UserCleanupService.class, WishlistCleanupServiceImpl.class})
+    static class ReaperTestApplication {
+    }
+}
@@ -0,0 +1,148 @@
+package ru.melulingerie.facade.user.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.melulingerie.cart.service.CartCleanupService;
+import ru.melulingerie.cart.service.CartCleanupService.CartCleanupResult;
+import ru.melulingerie.service.WishlistCleanupService;
+import ru.melulingerie.service.WishlistCleanupService.WishlistCleanupResult;
+import ru.melulingerie.users.service.UserCleanupService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GuestDataReaperJob Unit Tests")
+class GuestDataReaperJobTest {
+
+    private static final LocalDateTime EXPIRED_BEFORE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Mock
+    private UserCleanupService userCleanupService;
+
+    @Mock
+    private CartCleanupService cartCleanupService;
+
+    @Mock
+    private WishlistCleanupService wishlistCleanupService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should delete expired guests in keyset batches and count reclaimed rows")
+    void shouldDeleteExpiredGuestsInKeysetBatches() {
+        // Given
+        GuestDataReaperJob job = job(2, 10);
+        when(userCleanupService.findExpiredGuestUserIds(EXPIRED_BEFORE, 0L, 2)).thenReturn(List.of(1L, 5L));
+        when(userCleanupService.findExpiredGuestUserIds(EXPIRED_BEFORE, 5L, 2)).thenReturn(List.of(9L));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userCleanupService.lockExpiredGuestUserIds(any(), eq(EXPIRED_BEFORE)))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<Long>>getArgument(0)));
+        when(cartCleanupService.deleteCartsByUserIds(any())).thenReturn(new CartCleanupResult(1, 3));
+        when(wishlistCleanupService.deleteWishlistsByUserIds(any())).thenReturn(new WishlistCleanupResult(1, 0));
+        when(userCleanupService.deleteGuestUsers(any())).thenReturn(Map.of("users", 2));
+
+        // When
+        Map<String, Long> reclaimed = job.reap(EXPIRED_BEFORE);
+
+        // Then
+        assertEquals(6L, reclaimed.get("cart_items"));
+        assertEquals(2L, reclaimed.get("carts"));
+        assertEquals(0L, reclaimed.get("wishlist_items"));
+        assertEquals(4L, reclaimed.get("users"));
+        verify(cartCleanupService).deleteCartsByUserIds(List.of(1L, 5L));
+        verify(cartCleanupService).deleteCartsByUserIds(List.of(9L));
+        verify(userCleanupService, times(2)).findExpiredGuestUserIds(eq(EXPIRED_BEFORE), any(), anyInt());
+        assertEquals(6.0, meterRegistry.get("reaper.rows.reclaimed").tag("table", "cart_items").counter().count());
+        assertNull(meterRegistry.find("reaper.rows.reclaimed").tag("table", "wishlist_items").counter());
+    }
+
+    @Test
+    @DisplayName("Should delete only guests still expired when batch is locked")
+    void shouldDeleteOnlyGuestsStillExpired() {
+        // Given: гость 5 вошёл после выборки, гость 9 заблокирован другой транзакцией
+        GuestDataReaperJob job = job(3, 10);
+        when(userCleanupService.findExpiredGuestUserIds(EXPIRED_BEFORE, 0L, 3)).thenReturn(List.of(1L, 5L, 9L));
+        when(userCleanupService.findExpiredGuestUserIds(EXPIRED_BEFORE, 9L, 3)).thenReturn(List.of());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userCleanupService.lockExpiredGuestUserIds(List.of(1L, 5L, 9L), EXPIRED_BEFORE)).thenReturn(List.of(1L));
+        when(cartCleanupService.deleteCartsByUserIds(any())).thenReturn(new CartCleanupResult(1, 1));
+        when(wishlistCleanupService.deleteWishlistsByUserIds(any())).thenReturn(new WishlistCleanupResult(0, 0));
+        when(userCleanupService.deleteGuestUsers(any())).thenReturn(Map.of("users", 1));
+
+        // When
+        Map<String, Long> reclaimed = job.reap(EXPIRED_BEFORE);
+
+        // Then
+        assertEquals(1L, reclaimed.get("users"));
+        verify(cartCleanupService).deleteCartsByUserIds(List.of(1L));
+        verify(wishlistCleanupService).deleteWishlistsByUserIds(List.of(1L));
+        verify(userCleanupService).deleteGuestUsers(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should stop after max batches per run")
+    void shouldStopAfterMaxBatchesPerRun() {
+        // Given
+        GuestDataReaperJob job = job(1, 1);
+        when(userCleanupService.findExpiredGuestUserIds(EXPIRED_BEFORE, 0L, 1)).thenReturn(List.of(1L));
+        when(transactionTemplate.execute(any())).thenReturn(Map.of("users", 1));
+
+        // When
+        Map<String, Long> reclaimed = job.reap(EXPIRED_BEFORE);
+
+        // Then
+        assertEquals(Map.of("users", 1L), reclaimed);
+        verify(userCleanupService, times(1)).findExpiredGuestUserIds(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when there are no expired guests")
+    void shouldDoNothingWhenNoExpiredGuests() {
+        // Given
+        GuestDataReaperJob job = job(500, 100);
+        when(userCleanupService.findExpiredGuestUserIds(EXPIRED_BEFORE, 0L, 500)).thenReturn(List.of());
+
+        // When
+        Map<String, Long> reclaimed = job.reap(EXPIRED_BEFORE);
+
+        // Then
+        assertTrue(reclaimed.isEmpty());
+        verifyNoInteractions(transactionTemplate, cartCleanupService, wishlistCleanupService);
+    }
+
+    private GuestDataReaperJob job(int batchSize, int maxBatchesPerRun) {
+        return new GuestDataReaperJob(userCleanupService, cartCleanupService, wishlistCleanupService,
+                transactionTemplate, meterRegistryProvider, true, Duration.ofDays(7), batchSize, maxBatchesPerRun);
+    }
+}
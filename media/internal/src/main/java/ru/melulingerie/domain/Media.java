@@ -5,11 +5,13 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import ru.melulingerie.event.MediaChangePublisher;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "media")
+@EntityListeners(MediaChangePublisher.class)
 @Getter
 @Setter
 public class Media {
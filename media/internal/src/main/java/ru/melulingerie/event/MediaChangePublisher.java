@@ -0,0 +1,25 @@
+package ru.melulingerie.event;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.domain.Media;
+
+/**
+ * JPA-листенер медиа: превращает изменения сущности в {@link MediaChangedEvent}.
+ * Новое медиа ни на что не влияет, пока его не привяжут к варианту, поэтому вставка не публикуется.
+ */
+@Component
+@RequiredArgsConstructor
+public class MediaChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onMediaChanged(Media media) {
+        eventPublisher.publishEvent(new MediaChangedEvent(media.getId()));
+    }
+}
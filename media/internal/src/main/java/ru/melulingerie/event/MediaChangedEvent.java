@@ -0,0 +1,7 @@
+package ru.melulingerie.event;
+
+/**
+ * Медиа изменено или удалено; публикуется из JPA-листенера сущности {@link ru.melulingerie.domain.Media}.
+ */
+public record MediaChangedEvent(Long mediaId) {
+}
@@ -0,0 +1,108 @@
+package ru.melulingerie.price.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.event.PriceChangedEvent;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Ограниченный кэш цен по priceId. Пакетное чтение обращается к БД только за промахами,
+ * запись сбрасывается после коммита транзакции, изменившей цену. Статистика попаданий
+ * публикуется в Micrometer как cache.* с тегом cache=prices.
+ * <p>
+ * Пакетная загрузка Caffeine не атомарна: сброс, пришедший между чтением из БД и записью в кэш,
+ * потерялся бы. Поэтому сброс увеличивает поколение ключа, а загруженная цена, чьё поколение
+ * изменилось за время загрузки, из кэша убирается.
+ */
+@Slf4j
+@Component
+public class PriceCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, PriceQuoteDto> prices;
+    // поколения по полосам ключей: общая полоса лишь изредка отбрасывает лишнюю загрузку
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public PriceCache(
+            @Value("${price.cache.ttl:1h}") Duration ttl,
+            @Value("${price.cache.max-size:100000}") long maxSize,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this.prices = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, prices, "prices"));
+    }
+
+    public PriceQuoteDto get(Long priceId, Function<Long, PriceQuoteDto> loader) {
+        return prices.get(priceId, loader);
+    }
+
+    public Map<Long, PriceQuoteDto> getAll(Collection<Long> priceIds, Function<Set<Long>, Map<Long, PriceQuoteDto>> loader) {
+        Map<Long, PriceQuoteDto> result = new HashMap<>(prices.getAllPresent(priceIds));
+        Map<Long, Long> loadGenerations = new HashMap<>();
+        for (Long priceId : priceIds) {
+            if (!result.containsKey(priceId)) {
+                loadGenerations.put(priceId, generation(priceId));
+            }
+        }
+        if (loadGenerations.isEmpty()) {
+            return result;
+        }
+
+        loader.apply(Set.copyOf(loadGenerations.keySet())).forEach((priceId, price) -> {
+            Long loadGeneration = loadGenerations.get(priceId);
+            if (loadGeneration == null) {
+                return;
+            }
+            result.put(priceId, price);
+            prices.put(priceId, price);
+            // сброс увеличивает поколение до инвалидации: если он пришёл до put, запись убирается здесь
+            if (generation(priceId) != loadGeneration) {
+                prices.asMap().remove(priceId, price);
+            }
+        });
+        return result;
+    }
+
+    public void evict(Long priceId) {
+        generations.incrementAndGet(stripe(priceId));
+        prices.invalidate(priceId);
+    }
+
+    private long generation(Long priceId) {
+        return generations.get(stripe(priceId));
+    }
+
+    private static int stripe(Long priceId) {
+        return Long.hashCode(priceId) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * fallbackExecution: изменение вне транзакции тоже сбрасывает запись.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        log.debug("Evicting cached price {}", event.priceId());
+        evict(event.priceId());
+    }
+}
@@ -5,12 +5,14 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.melulingerie.price.event.PriceChangePublisher;
 
 import java.math.BigDecimal;
 
 
 @Entity
 @Table(name = "prices")
+@EntityListeners(PriceChangePublisher.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,25 @@
+package ru.melulingerie.price.event;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.price.domain.Price;
+
+/**
+ * JPA-листенер цены: превращает изменения сущности в {@link PriceChangedEvent}.
+ * Массовые JPQL/SQL-обновления листенеры не вызывают — после них кэш нужно сбрасывать явно.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onPriceChanged(Price price) {
+        eventPublisher.publishEvent(new PriceChangedEvent(price.getId()));
+    }
+}
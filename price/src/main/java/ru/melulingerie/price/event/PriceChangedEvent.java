@@ -0,0 +1,7 @@
+package ru.melulingerie.price.event;
+
+/**
+ * Цена изменена или удалена; публикуется из JPA-листенера сущности {@link ru.melulingerie.price.domain.Price}.
+ */
+public record PriceChangedEvent(Long priceId) {
+}
@@ -3,7 +3,7 @@ package ru.melulingerie.price.service.impl;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.price.cache.PriceCache;
 import ru.melulingerie.price.domain.Price;
 import ru.melulingerie.price.dto.response.PriceQuoteDto;
 import ru.melulingerie.price.repository.PriceRepository;
@@ -12,12 +12,16 @@ import ru.melulingerie.price.service.PriceService;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Цены читаются через {@link PriceCache}; транзакция не открывается, чтобы попадание в кэш
+ * не занимало соединение из пула — промахи загружаются транзакционными методами репозитория.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class PriceServiceImpl implements PriceService {
 
     private final PriceRepository priceRepository;
+    private final PriceCache priceCache;
 
     @Override
     public Map<Long/*priceId*/, PriceQuoteDto> getPricesByIds(Set<Long> priceIds) {
@@ -25,24 +29,23 @@ public class PriceServiceImpl implements PriceService {
             return Collections.emptyMap();
         }
 
-        return priceRepository.findAllByIds(priceIds)
+        return priceCache.getAll(priceIds, missingIds -> priceRepository.findAllByIds(missingIds)
                 .stream()
                 .collect(
                         Collectors.toMap(
                                 Price::getId,
                                 p -> new PriceQuoteDto(p.getId(), p.getBaseAmount())
                         )
-                );
-
+                ));
     }
 
     @Override
     public PriceQuoteDto getPriceById(Long priceId) {
-        Price price = priceRepository.findById(priceId).orElseThrow(
-                () -> new EntityNotFoundException("Price with id " + priceId + " not found")
-        );
-
-        return new PriceQuoteDto(price.getId(), price.getBaseAmount());
+        return priceCache.get(priceId, id -> {
+            Price price = priceRepository.findById(id).orElseThrow(
+                    () -> new EntityNotFoundException("Price with id " + id + " not found")
+            );
+            return new PriceQuoteDto(price.getId(), price.getBaseAmount());
+        });
     }
 }
-
@@ -0,0 +1,88 @@
+package ru.melulingerie.price.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.melulingerie.price.dto.response.PriceQuoteDto;
+import ru.melulingerie.price.event.PriceChangedEvent;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceCache Unit Tests")
+class PriceCacheTest {
+
+    private static final PriceQuoteDto OLD_PRICE = new PriceQuoteDto(1L, BigDecimal.valueOf(1000));
+    private static final PriceQuoteDto NEW_PRICE = new PriceQuoteDto(1L, BigDecimal.valueOf(1500));
+    private static final PriceQuoteDto OTHER_PRICE = new PriceQuoteDto(2L, BigDecimal.valueOf(700));
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Test
+    @DisplayName("Should load only missing prices in bulk")
+    void shouldLoadOnlyMissingPrices() {
+        // Given
+        PriceCache cache = new PriceCache(Duration.ofHours(1), 100, meterRegistry);
+        cache.getAll(Set.of(1L), ids -> Map.of(1L, OLD_PRICE));
+        List<Set<Long>> loads = new ArrayList<>();
+
+        // When
+        Map<Long, PriceQuoteDto> prices = cache.getAll(Set.of(1L, 2L), ids -> {
+            loads.add(ids);
+            return Map.of(2L, OTHER_PRICE);
+        });
+
+        // Then
+        assertEquals(Map.of(1L, OLD_PRICE, 2L, OTHER_PRICE), prices);
+        assertEquals(List.of(Set.of(2L)), loads);
+    }
+
+    @Test
+    @DisplayName("Should not keep a price evicted in the middle of a bulk load")
+    void shouldDropPriceEvictedDuringBulkLoad() {
+        // Given
+        PriceCache cache = new PriceCache(Duration.ofHours(1), 100, meterRegistry);
+
+        // When: цена прочитана из БД, затем коммит изменения сбрасывает её до записи в кэш
+        Map<Long, PriceQuoteDto> loaded = cache.getAll(Set.of(1L, 2L), ids -> {
+            cache.onPriceChanged(new PriceChangedEvent(1L));
+            return Map.of(1L, OLD_PRICE, 2L, OTHER_PRICE);
+        });
+
+        // Then
+        assertEquals(OLD_PRICE, loaded.get(1L));
+        List<Set<Long>> loads = new ArrayList<>();
+        Map<Long, PriceQuoteDto> reread = cache.getAll(Set.of(1L, 2L), ids -> {
+            loads.add(ids);
+            return Map.of(1L, NEW_PRICE);
+        });
+        assertEquals(Map.of(1L, NEW_PRICE, 2L, OTHER_PRICE), reread);
+        assertEquals(List.of(Set.of(1L)), loads);
+    }
+
+    @Test
+    @DisplayName("Should evict cached price after it changes")
+    void shouldEvictChangedPrice() {
+        // Given
+        PriceCache cache = new PriceCache(Duration.ofHours(1), 100, meterRegistry);
+        cache.getAll(Set.of(1L), ids -> Map.of(1L, OLD_PRICE));
+
+        // When
+        cache.evict(1L);
+
+        // Then
+        assertEquals(NEW_PRICE, cache.get(1L, id -> NEW_PRICE));
+    }
+}
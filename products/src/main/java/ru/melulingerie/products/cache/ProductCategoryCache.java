@@ -0,0 +1,68 @@
+package ru.melulingerie.products.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.melulingerie.products.event.ProductChangedEvent;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Ограниченный read-through кэш productId -> categoryId. Запись сбрасывается после коммита изменения товара,
+ * TTL страхует от массовых SQL-обновлений без событий. Отсутствие категории тоже кэшируется,
+ * чтобы товары без категории не уходили в БД при каждом чтении корзины.
+ */
+@Slf4j
+@Component
+public class ProductCategoryCache {
+
+    private final Cache<Long, Optional<Long>> categoryIdByProductId;
+
+    public ProductCategoryCache(
+            @Value("${products.category-cache.ttl:1h}") Duration ttl,
+            @Value("${products.category-cache.max-size:50000}") long maxSize
+    ) {
+        this.categoryIdByProductId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Возвращает категории для всех найденных товаров; загрузчик вызывается одним батчем только для промахов.
+     */
+    public Map<Long, Long> getAll(Collection<Long> productIds, Function<Set<Long>, Map<Long, Long>> loader) {
+        Map<Long, Optional<Long>> cached = categoryIdByProductId.getAll(productIds, missingIds -> {
+            Map<Long, Long> loaded = loader.apply(Set.copyOf(missingIds));
+            Map<Long, Optional<Long>> result = new HashMap<>();
+            missingIds.forEach(productId -> result.put(productId, Optional.ofNullable(loaded.get(productId))));
+            return result;
+        });
+        Map<Long, Long> result = new HashMap<>();
+        cached.forEach((productId, categoryId) -> categoryId.ifPresent(id -> result.put(productId, id)));
+        return result;
+    }
+
+    public void evict(Long productId) {
+        categoryIdByProductId.invalidate(productId);
+    }
+
+    /**
+     * fallbackExecution: изменение вне транзакции тоже сбрасывает запись.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        log.debug("Evicting cached category of product {}", event.productId());
+        evict(event.productId());
+    }
+}
@@ -3,6 +3,7 @@ package ru.melulingerie.products.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import ru.melulingerie.products.enums.ProductStatus;
+import ru.melulingerie.products.event.ProductChangePublisher;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,6 +11,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ProductChangePublisher.class)
 @Table(name = "products")
 @Getter
 @Setter
@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import ru.melulingerie.products.event.ProductChangePublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(ProductChangePublisher.class)
 @Table(name = "product_variants",
         indexes = {
                 @Index(name = "ix_product_variants_product", columnList = "product_id"),
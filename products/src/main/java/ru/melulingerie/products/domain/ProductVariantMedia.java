@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.melulingerie.products.event.ProductChangePublisher;
 
 @Entity
+@EntityListeners(ProductChangePublisher.class)
 @Table(name = "product_variant_media",
         indexes = @Index(name = "ix_pvm_variant", columnList = "product_variant_id"))
 @Getter
@@ -0,0 +1,41 @@
+package ru.melulingerie.products.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.products.domain.Product;
+import ru.melulingerie.products.domain.ProductVariant;
+import ru.melulingerie.products.domain.ProductVariantMedia;
+
+/**
+ * JPA-листенер товара, варианта и медиа варианта: превращает изменения сущностей в {@link ProductChangedEvent}.
+ * Массовые JPQL/SQL-обновления листенеры не вызывают — после них событие нужно публиковать явно.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        Long productId = switch (entity) {
+            case Product product -> product.getId();
+            case ProductVariant variant -> productIdOf(variant);
+            case ProductVariantMedia media -> media.getProductVariant() != null ? productIdOf(media.getProductVariant()) : null;
+            default -> null;
+        };
+        if (productId != null) {
+            eventPublisher.publishEvent(new ProductChangedEvent(productId));
+        }
+    }
+
+    private Long productIdOf(ProductVariant variant) {
+        return variant.getProduct() != null ? variant.getProduct().getId() : null;
+    }
+}
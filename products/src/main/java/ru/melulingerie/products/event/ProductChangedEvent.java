@@ -0,0 +1,7 @@
+package ru.melulingerie.products.event;
+
+/**
+ * Товар, его вариант или медиа варианта изменены; публикуется из JPA-листенера {@link ProductChangePublisher}.
+ */
+public record ProductChangedEvent(Long productId) {
+}
@@ -0,0 +1,15 @@
+package ru.melulingerie.products.exception;
+
+public final class ProductExceptions {
+
+    private ProductExceptions() {}
+
+    /**
+     * Варианта нет в наличии в запрошенном количестве; сообщение уходит клиенту как ошибка запроса
+     */
+    public static class VariantOutOfStockException extends IllegalArgumentException {
+        public VariantOutOfStockException(Long variantId, int requested, int available) {
+            super("Variant " + variantId + " is out of stock: requested " + requested + ", available " + available);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.melulingerie.products.projection;
+
+/**
+ * Строка плоской выборки карточки: товар × вариант × медиа варианта
+ */
+public interface ProductInfoRowProjection {
+    Long getProductId();
+    String getName();
+    String getArticleNumber();
+    Long getCategoryId();
+    String getDescription();
+    String getMaterial();
+    Float getScore();
+    String getCareInstructions();
+    Long getVariantId();
+    String getColorName();
+    String getSize();
+    Integer getStockQuantity();
+    Long getPriceId();
+    Boolean getIsAvailable();
+    Integer getVariantSortOrder();
+    Long getMediaId();
+    Integer getMediaSortOrder();
+}
@@ -0,0 +1,6 @@
+package ru.melulingerie.products.projection;
+
+public interface VariantIdPriceIdProjection {
+    Long getVariantId();
+    Long getPriceId();
+}
@@ -0,0 +1,7 @@
+package ru.melulingerie.products.projection;
+
+public interface VariantStockProjection {
+    Long getVariantId();
+    Integer getStockQuantity();
+    Boolean getIsAvailable();
+}
@@ -3,8 +3,10 @@ package ru.melulingerie.products.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.melulingerie.products.domain.Product;
 import ru.melulingerie.products.projection.ProductIdCategoryIdProjection;
+import ru.melulingerie.products.projection.ProductInfoRowProjection;
 
 import java.util.Collection;
 import java.util.List;
@@ -15,7 +17,39 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
             select p.id as productId,
                    p.category_id as categoryId
             from products p
+            where p.id in (:productIds)
             """,
     nativeQuery = true)
-    List<ProductIdCategoryIdProjection> findCategoryIdByProductIds(Collection<Long> productIds);
+    List<ProductIdCategoryIdProjection> findCategoryIdByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Товар, его варианты и медиа вариантов одним запросом без загрузки сущностей:
+     * две коллекции-bag нельзя загрузить одним fetch join, поэтому выборка плоская
+     */
+    @Query("""
+            select p.id as productId,
+                   p.name as name,
+                   p.articleNumber as articleNumber,
+                   c.id as categoryId,
+                   p.description as description,
+                   p.material as material,
+                   p.score as score,
+                   p.careInstructions as careInstructions,
+                   v.id as variantId,
+                   v.colorName as colorName,
+                   v.size as size,
+                   v.stockQuantity as stockQuantity,
+                   v.priceId as priceId,
+                   v.isAvailable as isAvailable,
+                   v.sortOrder as variantSortOrder,
+                   m.mediaId as mediaId,
+                   m.sortOrder as mediaSortOrder
+            from Product p
+            left join p.category c
+            left join p.variants v
+            left join v.productVariantMedia m
+            where p.id = :productId
+            order by v.sortOrder, v.id, m.sortOrder, m.id
+            """)
+    List<ProductInfoRowProjection> findProductInfoRows(@Param("productId") Long productId);
 }
@@ -7,6 +7,8 @@ import ru.melulingerie.products.domain.ProductVariant;
 import ru.melulingerie.products.projection.ProductIdColorProjection;
 import ru.melulingerie.products.projection.ProductIdPriceIdProjection;
 import ru.melulingerie.products.projection.ProductIdSizeProjection;
+import ru.melulingerie.products.projection.VariantIdPriceIdProjection;
+import ru.melulingerie.products.projection.VariantStockProjection;
 
 import java.util.Collection;
 import java.util.List;
@@ -44,6 +46,33 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
     List<ProductIdPriceIdProjection> findPricesByProductIds(@Param("productIds")Set<Long> productIds,
                                                             @Param("isAvailable") boolean isAvailable);
 
+    @Query("""
+            select pv.id as variantId,
+                   pv.priceId as priceId
+            from ProductVariant pv
+            where pv.id in :variantIds
+            """)
+    List<VariantIdPriceIdProjection> findPriceIdsByVariantIds(@Param("variantIds") Collection<Long> variantIds);
+
+    @Query("""
+            select pv.id as variantId,
+                   pv.priceId as priceId
+            from ProductVariant pv
+            where pv.priceId in :priceIds
+            """)
+    List<VariantIdPriceIdProjection> findVariantIdsByPriceIds(@Param("priceIds") Collection<Long> priceIds);
+
+    /**
+     * Остатки всех вариантов для счётчиков наличия, без загрузки сущностей
+     */
+    @Query("""
+            select pv.id as variantId,
+                   pv.stockQuantity as stockQuantity,
+                   pv.isAvailable as isAvailable
+            from ProductVariant pv
+            """)
+    List<VariantStockProjection> findAllStock();
+
     /**
      * Получение вариантов продуктов с eager загрузкой связанных продуктов одним запросом
      */
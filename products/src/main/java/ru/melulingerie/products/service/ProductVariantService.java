@@ -12,4 +12,8 @@ public interface ProductVariantService {
     Map<Long, Set<String>> findAvailableColorsForEachProducts(Collection<Long> productIds);
 
     Map<Long, ProductVariant> getVariantsByIds(Collection<Long> variantIds);
+
+    Map<Long, Long> getPriceIdsByVariantIds(Collection<Long> variantIds);
+
+    Map<Long, Long> getVariantPriceIdsByPriceIds(Collection<Long> priceIds);
 }
@@ -0,0 +1,23 @@
+package ru.melulingerie.products.service;
+
+/**
+ * Проверка наличия вариантов по счётчикам в памяти, без обращения к БД
+ */
+public interface VariantStockService {
+
+    /**
+     * Резервирует quantity единиц варианта за корзиной (или только проверяет остаток, если резервы выключены)
+     * @throws ru.melulingerie.products.exception.ProductExceptions.VariantOutOfStockException если остатка не хватает
+     */
+    void reserve(Long cartId, Long variantId, int quantity);
+
+    /**
+     * Возвращает ранее зарезервированные единицы, например если запись в корзину не удалась
+     */
+    void release(Long cartId, Long variantId, int quantity);
+
+    /**
+     * Снимает все резервы корзины
+     */
+    void releaseCart(Long cartId);
+}
@@ -5,11 +5,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.melulingerie.products.domain.Product;
+import ru.melulingerie.products.cache.ProductCategoryCache;
 import ru.melulingerie.products.domain.ProductVariant;
 import ru.melulingerie.products.dto.ProductInfoResponseDto;
+import ru.melulingerie.products.dto.ProductVariantMediaResponseDto;
 import ru.melulingerie.products.dto.ProductVariantResponseDto;
 import ru.melulingerie.products.projection.ProductIdCategoryIdProjection;
+import ru.melulingerie.products.projection.ProductInfoRowProjection;
 import ru.melulingerie.products.repository.ProductRepository;
 import ru.melulingerie.products.service.ProductService;
 import ru.melulingerie.products.service.ProductVariantService;
@@ -24,15 +26,57 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ProductVariantService productVariantService;
+    private final ProductCategoryCache productCategoryCache;
 
+    /**
+     * Карточка товара одним запросом: плоские строки товар × вариант × медиа собираются в DTO без сущностей
+     */
     @Override
     @Transactional(readOnly = true)
     public ProductInfoResponseDto getProductInfoById(Long productId) {
-        Product product = productRepository
-                .findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Product was not found by given externalId = %s", productId)));
+        List<ProductInfoRowProjection> rows = productRepository.findProductInfoRows(productId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException(String.format("Product was not found by given externalId = %s", productId));
+        }
 
-        return new ProductInfoResponseDto(product);
+        Map<Long/*variantId*/, ProductInfoRowProjection> variants = new LinkedHashMap<>();
+        Map<Long/*variantId*/, List<ProductVariantMediaResponseDto>> mediaByVariantId = new HashMap<>();
+        for (ProductInfoRowProjection row : rows) {
+            if (row.getVariantId() == null) {
+                continue;
+            }
+            variants.putIfAbsent(row.getVariantId(), row);
+            List<ProductVariantMediaResponseDto> media = mediaByVariantId.computeIfAbsent(row.getVariantId(), id -> new ArrayList<>());
+            if (row.getMediaId() != null) {
+                media.add(new ProductVariantMediaResponseDto(row.getMediaId(), row.getMediaSortOrder()));
+            }
+        }
+
+        List<ProductVariantResponseDto> productVariants = variants.values().stream()
+                .map(row -> new ProductVariantResponseDto(
+                        row.getVariantId(),
+                        row.getColorName(),
+                        row.getSize(),
+                        row.getStockQuantity(),
+                        row.getPriceId(),
+                        row.getIsAvailable(),
+                        row.getVariantSortOrder(),
+                        List.copyOf(mediaByVariantId.get(row.getVariantId()))
+                ))
+                .toList();
+
+        ProductInfoRowProjection product = rows.get(0);
+        return new ProductInfoResponseDto(
+                product.getProductId(),
+                product.getName(),
+                product.getArticleNumber(),
+                product.getCategoryId(),
+                product.getDescription(),
+                product.getMaterial(),
+                product.getScore(),
+                product.getCareInstructions(),
+                productVariants
+        );
     }
 
     @Override
@@ -49,13 +93,18 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<Long/*productId*/, Long/*categoryId*/> getCategoryIdByProductIds(List<Long> productIds) {
-        return productRepository.findCategoryIdByProductIds(productIds)
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productCategoryCache.getAll(productIds, missingIds -> productRepository.findCategoryIdByProductIds(missingIds)
                 .stream()
+                .filter(p -> p.getCategoryId() != null)
                 .collect(Collectors.toMap(
                         ProductIdCategoryIdProjection::getProductId,
                         ProductIdCategoryIdProjection::getCategoryId)
-                );
+                ));
     }
 
 
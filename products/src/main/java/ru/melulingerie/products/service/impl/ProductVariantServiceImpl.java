@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import ru.melulingerie.products.domain.ProductVariant;
 import ru.melulingerie.products.projection.ProductIdColorProjection;
 import ru.melulingerie.products.projection.ProductIdPriceIdProjection;
+import ru.melulingerie.products.projection.VariantIdPriceIdProjection;
 import ru.melulingerie.products.repository.ProductVariantRepository;
 import ru.melulingerie.products.service.ProductVariantService;
 
@@ -69,4 +70,38 @@ public class ProductVariantServiceImpl implements ProductVariantService {
                     Function.identity()
                 ));
     }
+
+    /**
+     * Получение priceId для списка вариантов одним запросом, без загрузки сущностей
+     */
+    @Override
+    public Map<Long/*variantId*/, Long/*priceId*/> getPriceIdsByVariantIds(Collection<Long> variantIds) {
+        if (variantIds == null || variantIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return productVariantRepository.findPriceIdsByVariantIds(variantIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        VariantIdPriceIdProjection::getVariantId,
+                        VariantIdPriceIdProjection::getPriceId
+                ));
+    }
+
+    /**
+     * Варианты, использующие указанные цены, с их priceId
+     */
+    @Override
+    public Map<Long/*variantId*/, Long/*priceId*/> getVariantPriceIdsByPriceIds(Collection<Long> priceIds) {
+        if (priceIds == null || priceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return productVariantRepository.findVariantIdsByPriceIds(priceIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        VariantIdPriceIdProjection::getVariantId,
+                        VariantIdPriceIdProjection::getPriceId
+                ));
+    }
 }
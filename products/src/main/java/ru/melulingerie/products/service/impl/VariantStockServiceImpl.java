@@ -0,0 +1,38 @@
+package ru.melulingerie.products.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.melulingerie.products.exception.ProductExceptions;
+import ru.melulingerie.products.service.VariantStockService;
+import ru.melulingerie.products.stock.VariantStockRegistry;
+
+import java.util.OptionalInt;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VariantStockServiceImpl implements VariantStockService {
+
+    private final VariantStockRegistry variantStockRegistry;
+
+    @Override
+    public void reserve(Long cartId, Long variantId, int quantity) {
+        OptionalInt shortage = variantStockRegistry.tryReserve(cartId, variantId, quantity);
+        if (shortage.isPresent()) {
+            log.debug("Variant {} is out of stock for cart {}: requested {}, available {}",
+                    variantId, cartId, quantity, shortage.getAsInt());
+            throw new ProductExceptions.VariantOutOfStockException(variantId, quantity, shortage.getAsInt());
+        }
+    }
+
+    @Override
+    public void release(Long cartId, Long variantId, int quantity) {
+        variantStockRegistry.release(cartId, variantId, quantity);
+    }
+
+    @Override
+    public void releaseCart(Long cartId) {
+        variantStockRegistry.releaseCart(cartId);
+    }
+}
@@ -0,0 +1,213 @@
+package ru.melulingerie.products.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.products.projection.VariantStockProjection;
+import ru.melulingerie.products.repository.ProductVariantRepository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Счётчики наличия вариантов в памяти. Остаток периодически перечитывается из product_variants.stock_quantity,
+ * мягкие резервы корзин (products.stock.reservations.enabled) учитываются атомарным счётчиком варианта
+ * (CAS без блокировок) и истекают через products.stock.reservations.ttl. Проверка наличия не обращается к БД.
+ * Пока остатки не загружены или вариант появился после последнего обновления, наличие не ограничивается.
+ */
+@Slf4j
+@Component
+public class VariantStockRegistry {
+
+    private final ProductVariantRepository productVariantRepository;
+    private final boolean enabled;
+    private final boolean reservationsEnabled;
+    private final Duration reservationTtl;
+
+    private final Map<Long/*variantId*/, VariantStock> stocks = new ConcurrentHashMap<>();
+    private final Map<ReservationKey, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public VariantStockRegistry(
+            ProductVariantRepository productVariantRepository,
+            @Value("${products.stock.enabled:true}") boolean enabled,
+            @Value("${products.stock.reservations.enabled:true}") boolean reservationsEnabled,
+            @Value("${products.stock.reservations.ttl:30m}") Duration reservationTtl
+    ) {
+        this.productVariantRepository = productVariantRepository;
+        this.enabled = enabled;
+        this.reservationsEnabled = reservationsEnabled;
+        this.reservationTtl = reservationTtl;
+    }
+
+    /**
+     * Свободный остаток варианта (остаток минус активные резервы); пусто, если вариант не отслеживается
+     */
+    public OptionalInt available(Long variantId) {
+        VariantStock stock = loaded ? stocks.get(variantId) : null;
+        return stock == null ? OptionalInt.empty() : OptionalInt.of(stock.free());
+    }
+
+    /**
+     * Резервирует ещё quantity единиц варианта за корзиной и продлевает резерв; без резервов только проверяет остаток.
+     * @return свободный остаток, если его не хватило; пусто при успехе
+     */
+    public OptionalInt tryReserve(Long cartId, Long variantId, int quantity) {
+        VariantStock stock = loaded ? stocks.get(variantId) : null;
+        if (stock == null) {
+            return OptionalInt.empty();
+        }
+        if (!reservationsEnabled) {
+            int free = stock.free();
+            return free < quantity ? OptionalInt.of(free) : OptionalInt.empty();
+        }
+        int free = stock.tryAcquire(quantity);
+        if (free >= 0) {
+            return OptionalInt.of(free);
+        }
+        long expiresAt = System.currentTimeMillis() + reservationTtl.toMillis();
+        reservations.merge(new ReservationKey(cartId, variantId), new Reservation(stock, quantity, expiresAt),
+                (current, added) -> new Reservation(current.stock(), current.quantity() + added.quantity(), expiresAt));
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Снимает часть резерва корзины, например если добавление в корзину не удалось
+     */
+    public void release(Long cartId, Long variantId, int quantity) {
+        reservations.computeIfPresent(new ReservationKey(cartId, variantId), (key, current) -> {
+            int released = Math.min(quantity, current.quantity());
+            current.stock().releaseAcquired(released);
+            int left = current.quantity() - released;
+            return left > 0 ? new Reservation(current.stock(), left, current.expiresAt()) : null;
+        });
+    }
+
+    /**
+     * Снимает все резервы корзины
+     */
+    public void releaseCart(Long cartId) {
+        reservations.keySet().stream()
+                .filter(key -> key.cartId().equals(cartId))
+                .forEach(key -> reservations.computeIfPresent(key, (k, current) -> {
+                    current.stock().releaseAcquired(current.quantity());
+                    return null;
+                }));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("Variant stock counters disabled, cart adds are not checked against stock");
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Failed to load variant stock, stock checks are skipped until next refresh", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${products.stock.refresh-interval-ms:10000}",
+            initialDelayString = "${products.stock.refresh-interval-ms:10000}")
+    public void refreshScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Variant stock refresh failed, keeping previous counters", e);
+        }
+    }
+
+    /**
+     * Обновляет остатки на месте: счётчики резервов сохраняются, удалённые варианты перестают отслеживаться
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            long startedAt = System.currentTimeMillis();
+            List<VariantStockProjection> rows = productVariantRepository.findAllStock();
+            Set<Long> seen = new HashSet<>(rows.size());
+            for (VariantStockProjection row : rows) {
+                int onHand = Boolean.FALSE.equals(row.getIsAvailable()) || row.getStockQuantity() == null
+                        ? 0
+                        : Math.max(row.getStockQuantity(), 0);
+                stocks.computeIfAbsent(row.getVariantId(), id -> new VariantStock()).onHand.set(onHand);
+                seen.add(row.getVariantId());
+            }
+            stocks.keySet().retainAll(seen);
+            loaded = true;
+            log.debug("Variant stock refreshed: {} variants in {} ms", rows.size(), System.currentTimeMillis() - startedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${products.stock.reservations.sweep-interval-ms:60000}",
+            initialDelayString = "${products.stock.reservations.sweep-interval-ms:60000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        reservations.forEach((key, reservation) -> {
+            if (reservation.expiresAt() <= now) {
+                reservations.computeIfPresent(key, (k, current) -> {
+                    if (current.expiresAt() > now) {
+                        return current;
+                    }
+                    current.stock().releaseAcquired(current.quantity());
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Остаток из БД и зарезервированное корзинами количество
+     */
+    static final class VariantStock {
+        private final AtomicInteger onHand = new AtomicInteger();
+        private final AtomicInteger reserved = new AtomicInteger();
+
+        int free() {
+            return Math.max(onHand.get() - reserved.get(), 0);
+        }
+
+        /**
+         * @return -1 при успехе, иначе свободный остаток, которого не хватило
+         */
+        int tryAcquire(int quantity) {
+            while (true) {
+                int current = reserved.get();
+                int free = onHand.get() - current;
+                if (free < quantity) {
+                    return Math.max(free, 0);
+                }
+                if (reserved.compareAndSet(current, current + quantity)) {
+                    return -1;
+                }
+            }
+        }
+
+        void releaseAcquired(int quantity) {
+            reserved.accumulateAndGet(quantity, (current, released) -> Math.max(current - released, 0));
+        }
+    }
+
+    private record ReservationKey(Long cartId, Long variantId) {
+    }
+
+    private record Reservation(VariantStock stock, int quantity, long expiresAt) {
+    }
+}
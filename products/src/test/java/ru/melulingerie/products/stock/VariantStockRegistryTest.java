@@ -0,0 +1,179 @@
+package ru.melulingerie.products.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.melulingerie.products.projection.VariantStockProjection;
+import ru.melulingerie.products.repository.ProductVariantRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VariantStockRegistry Tests")
+class VariantStockRegistryTest {
+
+    private static final Long CART_ID = 1L;
+    private static final Long OTHER_CART_ID = 2L;
+    private static final Long VARIANT_ID = 200L;
+
+    @Mock
+    private ProductVariantRepository productVariantRepository;
+
+    private VariantStockRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new VariantStockRegistry(productVariantRepository, true, true, Duration.ofMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Должен пропускать резерв, пока остатки не загружены или вариант не отслеживается")
+    void shouldNotLimitUntrackedVariants() {
+        // Given
+        OptionalInt beforeLoad = registry.tryReserve(CART_ID, VARIANT_ID, 100);
+        stock(row(VARIANT_ID, 5, true));
+
+        // When
+        OptionalInt unknownVariant = registry.tryReserve(CART_ID, 999L, 100);
+
+        // Then
+        assertThat(beforeLoad).isEmpty();
+        assertThat(unknownVariant).isEmpty();
+        assertThat(registry.available(VARIANT_ID)).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("Должен резервировать до остатка и возвращать свободное количество при нехватке")
+    void shouldReserveUpToStockAcrossCarts() {
+        // Given
+        stock(row(VARIANT_ID, 5, true));
+
+        // When
+        OptionalInt first = registry.tryReserve(CART_ID, VARIANT_ID, 3);
+        OptionalInt second = registry.tryReserve(OTHER_CART_ID, VARIANT_ID, 3);
+        OptionalInt third = registry.tryReserve(OTHER_CART_ID, VARIANT_ID, 2);
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(second).hasValue(2);
+        assertThat(third).isEmpty();
+        assertThat(registry.available(VARIANT_ID)).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Должен возвращать не больше, чем зарезервировано корзиной")
+    void shouldReleaseOnlyOwnReservation() {
+        // Given
+        stock(row(VARIANT_ID, 5, true));
+        registry.tryReserve(CART_ID, VARIANT_ID, 2);
+        registry.tryReserve(OTHER_CART_ID, VARIANT_ID, 2);
+
+        // When
+        registry.release(CART_ID, VARIANT_ID, 1);
+        int afterPartialRelease = registry.available(VARIANT_ID).getAsInt();
+        registry.release(CART_ID, VARIANT_ID, 10);
+
+        // Then: резерв второй корзины не затронут
+        assertThat(afterPartialRelease).isEqualTo(2);
+        assertThat(registry.available(VARIANT_ID)).hasValue(3);
+        registry.releaseCart(OTHER_CART_ID);
+        assertThat(registry.available(VARIANT_ID)).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("Должен снимать истёкшие резервы")
+    void shouldExpireReservations() {
+        // Given
+        registry = new VariantStockRegistry(productVariantRepository, true, true, Duration.ZERO);
+        stock(row(VARIANT_ID, 5, true));
+        registry.tryReserve(CART_ID, VARIANT_ID, 4);
+        assertThat(registry.available(VARIANT_ID)).hasValue(1);
+
+        // When
+        registry.expireReservations();
+
+        // Then
+        assertThat(registry.available(VARIANT_ID)).hasValue(5);
+        registry.release(CART_ID, VARIANT_ID, 4);
+        assertThat(registry.available(VARIANT_ID)).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("Должен сохранять резервы при обновлении остатков и забывать удалённые варианты")
+    void shouldKeepReservationsOnRefresh() {
+        // Given
+        stock(row(VARIANT_ID, 5, true), row(201L, 3, true));
+        registry.tryReserve(CART_ID, VARIANT_ID, 2);
+
+        // When
+        stock(row(VARIANT_ID, 10, true));
+
+        // Then
+        assertThat(registry.available(VARIANT_ID)).hasValue(8);
+        assertThat(registry.available(201L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен считать недоступный вариант и вариант без остатка нулевыми")
+    void shouldTreatUnavailableVariantAsEmpty() {
+        // Given
+        stock(row(VARIANT_ID, 5, false), row(201L, null, true), row(202L, -3, true));
+
+        // When
+        OptionalInt shortage = registry.tryReserve(CART_ID, VARIANT_ID, 1);
+
+        // Then
+        assertThat(shortage).hasValue(0);
+        assertThat(registry.available(201L)).hasValue(0);
+        assertThat(registry.available(202L)).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Без резервов должен только проверять остаток")
+    void shouldOnlyCheckStockWhenReservationsDisabled() {
+        // Given
+        registry = new VariantStockRegistry(productVariantRepository, true, false, Duration.ofMinutes(30));
+        stock(row(VARIANT_ID, 2, true));
+
+        // When
+        OptionalInt fits = registry.tryReserve(CART_ID, VARIANT_ID, 2);
+        OptionalInt exceeds = registry.tryReserve(CART_ID, VARIANT_ID, 3);
+
+        // Then
+        assertThat(fits).isEmpty();
+        assertThat(exceeds).hasValue(2);
+        assertThat(registry.available(VARIANT_ID)).hasValue(2);
+    }
+
+    private void stock(VariantStockProjection... rows) {
+        when(productVariantRepository.findAllStock()).thenReturn(List.of(rows));
+        registry.refresh();
+    }
+
+    private VariantStockProjection row(Long variantId, Integer stockQuantity, Boolean available) {
+        return new VariantStockProjection() {
+            @Override
+            public Long getVariantId() {
+                return variantId;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+
+            @Override
+            public Boolean getIsAvailable() {
+                return available;
+            }
+        };
+    }
+}
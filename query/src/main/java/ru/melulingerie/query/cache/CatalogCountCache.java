@@ -0,0 +1,75 @@
+package ru.melulingerie.query.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.repository.ProductCatalogNativeRepository;
+import ru.melulingerie.query.util.CatalogFilterNormalizer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Кэш общего количества товаров каталога по нормализованному фильтру.
+ * По истечении refresh-after значение отдаётся из кэша, а пересчёт идёт в фоне (stale-while-revalidate).
+ * Для широких фильтров может использоваться оценка планировщика PostgreSQL вместо count(*).
+ */
+@Slf4j
+@Component
+public class CatalogCountCache {
+
+    private final ProductCatalogNativeRepository repository;
+    private final long estimateThreshold;
+    private final ExecutorService refreshExecutor;
+    private final LoadingCache<ProductCatalogFilterRequestDto, Long> counts;
+
+    public CatalogCountCache(
+            ProductCatalogNativeRepository repository,
+            @Value("${catalog.count-cache.ttl:10m}") Duration ttl,
+            @Value("${catalog.count-cache.refresh-after:1m}") Duration refreshAfter,
+            @Value("${catalog.count-cache.max-size:10000}") long maxSize,
+            @Value("${catalog.count-cache.estimate-threshold:0}") long estimateThreshold
+    ) {
+        this.repository = repository;
+        this.estimateThreshold = estimateThreshold;
+        this.refreshExecutor = Executors.newFixedThreadPool(2, Thread.ofPlatform()
+                .name("catalog-count-refresh-", 0)
+                .daemon(true)
+                .factory());
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .executor(refreshExecutor)
+                .build(this::load);
+    }
+
+    public long getCount(ProductCatalogFilterRequestDto req) {
+        return counts.get(CatalogFilterNormalizer.normalize(req));
+    }
+
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    private long load(ProductCatalogFilterRequestDto req) {
+        if (estimateThreshold > 0) {
+            long estimate = repository.estimateCatalogCount(req);
+            if (estimate >= estimateThreshold) {
+                log.debug("Using planner estimate {} for catalog filter {}", estimate, req);
+                return estimate;
+            }
+        }
+        return repository.countCatalog(req);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
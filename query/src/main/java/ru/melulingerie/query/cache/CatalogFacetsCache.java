@@ -0,0 +1,42 @@
+package ru.melulingerie.query.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
+import ru.melulingerie.query.util.CatalogFilterNormalizer;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш счётчиков фасетов каталога по нормализованному фильтру.
+ */
+@Component
+public class CatalogFacetsCache {
+
+    private final Cache<ProductCatalogFilterRequestDto, ProductCatalogFacetCountsResponseDto> facets;
+
+    public CatalogFacetsCache(
+            @Value("${catalog.facets-cache.ttl:5m}") Duration ttl,
+            @Value("${catalog.facets-cache.max-size:5000}") long maxSize
+    ) {
+        this.facets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public ProductCatalogFacetCountsResponseDto get(
+            ProductCatalogFilterRequestDto req,
+            Function<ProductCatalogFilterRequestDto, ProductCatalogFacetCountsResponseDto> loader
+    ) {
+        return facets.get(CatalogFilterNormalizer.normalize(req), loader);
+    }
+
+    public void invalidateAll() {
+        facets.invalidateAll();
+    }
+}
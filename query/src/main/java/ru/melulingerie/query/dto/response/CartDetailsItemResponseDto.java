@@ -0,0 +1,25 @@
+package ru.melulingerie.query.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Позиция корзины вместе с товаром, вариантом, текущей ценой и основным изображением варианта.
+ * Поля товара и варианта пусты, если вариант удалён из каталога.
+ */
+public record CartDetailsItemResponseDto(
+        Long itemId,
+        Long productId,
+        Long categoryId,
+        Long variantId,
+        Integer quantity,
+        LocalDateTime addedAt,
+        boolean variantFound,
+        String productName,
+        String articleNumber,
+        String colorName,
+        String size,
+        BigDecimal price,
+        String s3url
+) {
+}
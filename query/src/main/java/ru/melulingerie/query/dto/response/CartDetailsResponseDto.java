@@ -0,0 +1,11 @@
+package ru.melulingerie.query.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record CartDetailsResponseDto(
+        Long cartId,
+        List<CartDetailsItemResponseDto> items,
+        BigDecimal totalAmount
+) {
+}
@@ -0,0 +1,13 @@
+package ru.melulingerie.query.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+public record ProductCatalogFacetCountsResponseDto(
+        Map<Long, Long> categories,
+        Map<String, Long> sizes,
+        Map<String, Long> colors,
+        Map<String, Long> statuses,
+        List<ProductCatalogPriceBucketCountDto> priceBuckets
+) {
+}
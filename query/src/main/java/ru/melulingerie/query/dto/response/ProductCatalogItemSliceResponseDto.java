@@ -0,0 +1,10 @@
+package ru.melulingerie.query.dto.response;
+
+import java.util.List;
+
+public record ProductCatalogItemSliceResponseDto(
+        List<ProductCatalogItemResponseDto> items,
+        String nextCursor,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,10 @@
+package ru.melulingerie.query.dto.response;
+
+import java.math.BigDecimal;
+
+public record ProductCatalogPriceBucketCountDto(
+        BigDecimal from,
+        BigDecimal to,
+        long count
+) {
+}
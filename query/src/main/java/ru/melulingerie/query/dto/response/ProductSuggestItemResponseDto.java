@@ -0,0 +1,8 @@
+package ru.melulingerie.query.dto.response;
+
+public record ProductSuggestItemResponseDto(
+        String type,
+        Long id,
+        String text
+) {
+}
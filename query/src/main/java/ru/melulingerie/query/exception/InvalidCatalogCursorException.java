@@ -0,0 +1,15 @@
+package ru.melulingerie.query.exception;
+
+/**
+ * Курсор каталога повреждён или выдан для другой сортировки
+ */
+public class InvalidCatalogCursorException extends RuntimeException {
+
+    public InvalidCatalogCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCatalogCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,418 @@
+package ru.melulingerie.query.index;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogPriceBucketCountDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Неизменяемый снимок каталога в памяти: для каждого значения категории, размера, цвета, статуса
+ * и ценового диапазона хранится битовое множество порядковых номеров товаров.
+ * Фильтры каталога разрешаются пересечением множеств, фасеты считаются в том же проходе.
+ * <p>
+ * Изменённые товары накладываются поверх базы ({@link #withReplacedProducts}): их строки в базе
+ * скрываются маской, новые строки лежат в маленьком отдельном сегменте, страница сливается из обоих.
+ * <p>
+ * Поиск по названию и сортировку по названию обслуживает PostgreSQL: порядок строк зависит
+ * от правила сравнения (collation) БД, см. {@link #supportsSort}.
+ */
+public final class CatalogIndex {
+
+    private static final Set<String> PUBLIC_STATUSES = Set.of("AVAILABLE", "NEW", "SOON");
+    private static final String NAME_SORT = "name";
+    // порядок по возрастанию (ключ, productId), как в SQL-каталоге: NULL-ключи идут последними
+    private static final Map<String, Comparator<CatalogIndexProductRow>> SORT_KEYS = Map.of(
+            "productId", ascending(CatalogIndexProductRow::productId),
+            "price", ascending(CatalogIndexProductRow::price),
+            "createdAt", ascending(CatalogIndexProductRow::createdAt)
+    );
+
+    private final List<BigDecimal> bucketBounds;
+    private final Segment base;
+    // товары базы, не заменённые накладкой
+    private final BitSet baseLive;
+    private final Segment overlay;
+
+    public CatalogIndex(Collection<CatalogIndexProductRow> rows, List<BigDecimal> priceBucketBounds) {
+        this.bucketBounds = priceBucketBounds.stream().sorted().toList();
+        this.base = new Segment(rows, bucketBounds);
+        this.baseLive = base.all;
+        this.overlay = new Segment(List.of(), bucketBounds);
+    }
+
+    private CatalogIndex(List<BigDecimal> bucketBounds, Segment base, BitSet baseLive, Segment overlay) {
+        this.bucketBounds = bucketBounds;
+        this.base = base;
+        this.baseLive = baseLive;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Снимок с заменёнными товарами: строки productIds из базы не выдаются, вместо них ищутся rows.
+     * Битовые множества базы переиспользуются, прежняя накладка заменяется целиком.
+     */
+    public CatalogIndex withReplacedProducts(Set<Long> productIds, Collection<CatalogIndexProductRow> rows) {
+        BitSet live = (BitSet) base.all.clone();
+        for (Long productId : productIds) {
+            Integer ord = base.ordinalByProductId.get(productId);
+            if (ord != null) {
+                live.clear(ord);
+            }
+        }
+        return new CatalogIndex(bucketBounds, base, live, new Segment(rows, bucketBounds));
+    }
+
+    public int size() {
+        return baseLive.cardinality() + overlay.products.length;
+    }
+
+    /**
+     * Сортировку страницы обслуживает индекс; для сортировки по названию нужен SQL
+     */
+    public static boolean supportsSort(Pageable pageable) {
+        return !NAME_SORT.equals(resolveOrder(pageable).getProperty());
+    }
+
+    /**
+     * Поиск по индексу. Учитывается первое поле сортировки из белого списка, productId — тай-брейкер.
+     */
+    public CatalogIndexSearchResult search(ProductCatalogFilterRequestDto req, Pageable pageable, boolean withFacets) {
+        Sort.Order order = resolveOrder(pageable);
+        Comparator<CatalogIndexProductRow> comparator = SORT_KEYS.get(order.getProperty());
+        if (comparator == null) {
+            throw new IllegalArgumentException("Catalog index does not sort by " + order.getProperty());
+        }
+        if (order.isDescending()) {
+            comparator = comparator.reversed();
+        }
+
+        Filters baseFilters = new Filters(base, baseLive, req);
+        Filters overlayFilters = new Filters(overlay, overlay.all, req);
+        Walk baseWalk = new Walk(base, order, baseFilters.matchExcept(null));
+        Walk overlayWalk = new Walk(overlay, order, overlayFilters.matchExcept(null));
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+
+        List<ProductCatalogItemResponseDto> items = new ArrayList<>(pageSize);
+        long skipped = 0;
+        while (items.size() < pageSize && (baseWalk.hasNext() || overlayWalk.hasNext())) {
+            boolean fromBase = !overlayWalk.hasNext()
+                    || baseWalk.hasNext() && comparator.compare(baseWalk.peek(), overlayWalk.peek()) <= 0;
+            CatalogIndexProductRow row = fromBase ? baseWalk.next() : overlayWalk.next();
+            if (skipped++ < offset) {
+                continue;
+            }
+            items.add(new ProductCatalogItemResponseDto(row.productId(), row.name(), row.price(), row.s3url(), row.productStatus()));
+        }
+
+        long total = baseWalk.match.cardinality() + overlayWalk.match.cardinality();
+        return new CatalogIndexSearchResult(items, total, withFacets ? facets(baseFilters, overlayFilters) : null);
+    }
+
+    public ProductCatalogFacetCountsResponseDto facets(ProductCatalogFilterRequestDto req) {
+        return facets(new Filters(base, baseLive, req), new Filters(overlay, overlay.all, req));
+    }
+
+    private ProductCatalogFacetCountsResponseDto facets(Filters baseFilters, Filters overlayFilters) {
+        ProductCatalogFacetCountsResponseDto baseCounts = baseFilters.facets();
+        ProductCatalogFacetCountsResponseDto overlayCounts = overlayFilters.facets();
+        List<ProductCatalogPriceBucketCountDto> priceBuckets = new ArrayList<>(baseCounts.priceBuckets().size());
+        for (int i = 0; i < baseCounts.priceBuckets().size(); i++) {
+            ProductCatalogPriceBucketCountDto bucket = baseCounts.priceBuckets().get(i);
+            priceBuckets.add(new ProductCatalogPriceBucketCountDto(bucket.from(), bucket.to(),
+                    bucket.count() + overlayCounts.priceBuckets().get(i).count()));
+        }
+        return new ProductCatalogFacetCountsResponseDto(
+                merge(baseCounts.categories(), overlayCounts.categories()),
+                merge(baseCounts.sizes(), overlayCounts.sizes()),
+                merge(baseCounts.colors(), overlayCounts.colors()),
+                merge(baseCounts.statuses(), overlayCounts.statuses()),
+                priceBuckets
+        );
+    }
+
+    private static <K> Map<K, Long> merge(Map<K, Long> baseCounts, Map<K, Long> overlayCounts) {
+        Map<K, Long> result = new LinkedHashMap<>(baseCounts);
+        overlayCounts.forEach((value, count) -> result.merge(value, count, Long::sum));
+        return result;
+    }
+
+    private static Sort.Order resolveOrder(Pageable pageable) {
+        if (pageable != null && pageable.getSort().isSorted()) {
+            for (Sort.Order o : pageable.getSort()) {
+                if (SORT_KEYS.containsKey(o.getProperty()) || NAME_SORT.equals(o.getProperty())) {
+                    return o;
+                }
+            }
+        }
+        return Sort.Order.desc("createdAt"); // тот же дефолт, что и в SQL-каталоге
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<CatalogIndexProductRow> ascending(
+            Function<CatalogIndexProductRow, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(CatalogIndexProductRow::productId);
+    }
+
+    private enum Dimension { CATEGORY, SIZE, COLOR, STATUS, PRICE }
+
+    /**
+     * Битовые множества одной части индекса: базы или накладки
+     */
+    private static final class Segment {
+
+        private final CatalogIndexProductRow[] products;
+        private final List<BigDecimal> bucketBounds;
+        private final BitSet all;
+        private final Map<Long, Integer> ordinalByProductId = new HashMap<>();
+        private final Map<Long, BitSet> byCategory = new HashMap<>();
+        private final Map<String, BitSet> bySize = new HashMap<>();
+        private final Map<String, BitSet> byColor = new HashMap<>();
+        private final Map<String, BitSet> byStatus = new HashMap<>();
+        private final BitSet[] byPriceBucket;
+        // порядковые номера, отсортированные по (ключ, productId) по возрастанию
+        private final Map<String, int[]> sortedOrdinals = new HashMap<>();
+
+        private Segment(Collection<CatalogIndexProductRow> rows, List<BigDecimal> bucketBounds) {
+            this.products = rows.toArray(CatalogIndexProductRow[]::new);
+            this.bucketBounds = bucketBounds;
+            this.all = new BitSet(products.length);
+            this.byPriceBucket = new BitSet[bucketBounds.size() + 1];
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                byPriceBucket[i] = new BitSet(products.length);
+            }
+
+            for (int ord = 0; ord < products.length; ord++) {
+                CatalogIndexProductRow row = products[ord];
+                all.set(ord);
+                ordinalByProductId.put(row.productId(), ord);
+                if (row.categoryId() != null) {
+                    byCategory.computeIfAbsent(row.categoryId(), k -> new BitSet()).set(ord);
+                }
+                if (row.productStatus() != null) {
+                    byStatus.computeIfAbsent(row.productStatus(), k -> new BitSet()).set(ord);
+                }
+                for (String size : row.sizes()) {
+                    bySize.computeIfAbsent(size, k -> new BitSet()).set(ord);
+                }
+                for (String color : row.colors()) {
+                    byColor.computeIfAbsent(color, k -> new BitSet()).set(ord);
+                }
+                byPriceBucket[bucketOf(row.price())].set(ord);
+            }
+
+            SORT_KEYS.forEach((property, comparator) -> sortedOrdinals.put(property, IntStream.range(0, products.length)
+                    .boxed()
+                    .sorted((a, b) -> comparator.compare(products[a], products[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray()));
+        }
+
+        private int bucketOf(BigDecimal price) {
+            if (price == null) {
+                return 0;
+            }
+            int bucket = 0;
+            while (bucket < bucketBounds.size() && price.compareTo(bucketBounds.get(bucket)) >= 0) {
+                bucket++;
+            }
+            return bucket;
+        }
+    }
+
+    /**
+     * Подходящие строки части индекса в порядке сортировки страницы
+     */
+    private static final class Walk {
+
+        private final CatalogIndexProductRow[] products;
+        private final int[] ordinals;
+        private final boolean ascending;
+        private final BitSet match;
+        private int position;
+        private int nextOrd = -1;
+
+        private Walk(Segment segment, Sort.Order order, BitSet match) {
+            this.products = segment.products;
+            this.ordinals = segment.sortedOrdinals.get(order.getProperty());
+            this.ascending = order.isAscending();
+            this.match = match;
+            advance();
+        }
+
+        private boolean hasNext() {
+            return nextOrd >= 0;
+        }
+
+        private CatalogIndexProductRow peek() {
+            return products[nextOrd];
+        }
+
+        private CatalogIndexProductRow next() {
+            CatalogIndexProductRow row = peek();
+            advance();
+            return row;
+        }
+
+        private void advance() {
+            nextOrd = -1;
+            while (position < ordinals.length) {
+                int i = position++;
+                int ord = ascending ? ordinals[i] : ordinals[ordinals.length - 1 - i];
+                if (match.get(ord)) {
+                    nextOrd = ord;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Битовые множества отдельных фильтров запроса в одной части индекса; null — измерение не ограничено.
+     */
+    private static final class Filters {
+
+        private final Segment segment;
+        private final BitSet live;
+        private final Map<Dimension, BitSet> constraints = new HashMap<>();
+
+        private Filters(Segment segment, BitSet live, ProductCatalogFilterRequestDto req) {
+            this.segment = segment;
+            this.live = live;
+            if (req != null && req.categories() != null && !req.categories().isEmpty()) {
+                constraints.put(Dimension.CATEGORY, union(segment.byCategory, req.categories()));
+            }
+            if (req != null && req.sizes() != null && !req.sizes().isEmpty()) {
+                constraints.put(Dimension.SIZE, union(segment.bySize, req.sizes()));
+            }
+            if (req != null && req.sizesOfBraWithCups() != null && !req.sizesOfBraWithCups().isEmpty()) {
+                // отдельный exists в SQL: оба набора размеров должны совпасть
+                BitSet braSizes = union(segment.bySize, req.sizesOfBraWithCups());
+                constraints.merge(Dimension.SIZE, braSizes, (a, b) -> {
+                    a.and(b);
+                    return a;
+                });
+            }
+            if (req != null && req.colors() != null && !req.colors().isEmpty()) {
+                constraints.put(Dimension.COLOR, union(segment.byColor, req.colors()));
+            }
+            if (req != null && req.productStatus() != null) {
+                constraints.put(Dimension.STATUS, union(segment.byStatus, Set.of(req.productStatus())));
+            } else {
+                constraints.put(Dimension.STATUS, union(segment.byStatus, PUBLIC_STATUSES));
+            }
+            if (req != null && (req.minPrice() != null || req.maxPrice() != null)) {
+                constraints.put(Dimension.PRICE, priceRange(req.minPrice(), req.maxPrice()));
+            }
+        }
+
+        private BitSet matchExcept(Dimension excluded) {
+            BitSet result = (BitSet) live.clone();
+            constraints.forEach((dimension, bits) -> {
+                if (dimension != excluded) {
+                    result.and(bits);
+                }
+            });
+            if (excluded == Dimension.STATUS) {
+                result.and(union(segment.byStatus, PUBLIC_STATUSES)); // скрытые статусы в фасеты не попадают
+            }
+            return result;
+        }
+
+        /**
+         * Фасеты считаются «дизъюнктивно»: счётчики измерения не учитывают фильтр по самому измерению,
+         * чтобы в UI оставались видны альтернативы уже выбранному значению.
+         */
+        private ProductCatalogFacetCountsResponseDto facets() {
+            BitSet forPrices = matchExcept(Dimension.PRICE);
+            List<BigDecimal> bucketBounds = segment.bucketBounds;
+            List<ProductCatalogPriceBucketCountDto> priceBuckets = new ArrayList<>(segment.byPriceBucket.length);
+            for (int i = 0; i < segment.byPriceBucket.length; i++) {
+                priceBuckets.add(new ProductCatalogPriceBucketCountDto(
+                        i == 0 ? null : bucketBounds.get(i - 1),
+                        i == bucketBounds.size() ? null : bucketBounds.get(i),
+                        intersectionCount(segment.byPriceBucket[i], forPrices)
+                ));
+            }
+
+            return new ProductCatalogFacetCountsResponseDto(
+                    counts(segment.byCategory, matchExcept(Dimension.CATEGORY)),
+                    counts(segment.bySize, matchExcept(Dimension.SIZE)),
+                    counts(segment.byColor, matchExcept(Dimension.COLOR)),
+                    counts(segment.byStatus, matchExcept(Dimension.STATUS)),
+                    priceBuckets
+            );
+        }
+
+        private <K> Map<K, Long> counts(Map<K, BitSet> values, BitSet base) {
+            Map<K, Long> result = new LinkedHashMap<>();
+            values.forEach((value, bits) -> {
+                long count = intersectionCount(bits, base);
+                if (count > 0) {
+                    result.put(value, count);
+                }
+            });
+            return result;
+        }
+
+        private static long intersectionCount(BitSet bits, BitSet base) {
+            BitSet copy = (BitSet) bits.clone();
+            copy.and(base);
+            return copy.cardinality();
+        }
+
+        private <K> BitSet union(Map<K, BitSet> values, Collection<K> keys) {
+            BitSet result = new BitSet(segment.products.length);
+            for (K key : keys) {
+                BitSet bits = values.get(key);
+                if (bits != null) {
+                    result.or(bits);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Диапазоны, целиком попавшие в [min, max], берутся целиком; граничные проверяются поштучно.
+         */
+        private BitSet priceRange(BigDecimal min, BigDecimal max) {
+            List<BigDecimal> bucketBounds = segment.bucketBounds;
+            BitSet result = new BitSet(segment.products.length);
+            for (int i = 0; i < segment.byPriceBucket.length; i++) {
+                BigDecimal from = i == 0 ? null : bucketBounds.get(i - 1);
+                BigDecimal to = i == bucketBounds.size() ? null : bucketBounds.get(i);
+                boolean fromInside = min == null || (from != null && from.compareTo(min) >= 0);
+                boolean toInside = max == null || (to != null && to.compareTo(max) <= 0);
+                if (fromInside && toInside) {
+                    result.or(segment.byPriceBucket[i]);
+                    continue;
+                }
+                BitSet bucket = segment.byPriceBucket[i];
+                for (int ord = bucket.nextSetBit(0); ord >= 0; ord = bucket.nextSetBit(ord + 1)) {
+                    BigDecimal price = segment.products[ord].price();
+                    if (price != null
+                            && (min == null || price.compareTo(min) >= 0)
+                            && (max == null || price.compareTo(max) <= 0)) {
+                        result.set(ord);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package ru.melulingerie.query.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.query.repository.CatalogIndexNativeRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Держит актуальный снимок {@link CatalogIndex}. Полная загрузка выполняется при старте и периодически,
+ * между ними из БД догружаются только изменившиеся товары: по метке products.updated_at и по id товаров
+ * и цен из {@link #productsChanged}/{@link #pricesChanged} — изменения вариантов, цен, статуса и удаления
+ * updated_at товара не меняют. Массовые SQL-изменения без событий подхватывает полная загрузка.
+ * Изменённые товары не пересобирают индекс целиком: они накладываются поверх базы, а база
+ * пересобирается, когда накладка вырастает больше порога.
+ * Пока индекс не загружен, каталог обслуживается SQL-запросами.
+ */
+@Slf4j
+@Component
+public class CatalogIndexHolder {
+
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // перекрытие окна догрузки: транзакция могла закоммитить более раннюю метку после прошлого опроса
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+    // накладка пересобирается целиком от своего размера, поэтому при росте её сливают с базой
+    private static final int MIN_COMPACTION_THRESHOLD = 256;
+    private static final int COMPACTION_DIVISOR = 20;
+
+    private final CatalogIndexNativeRepository repository;
+    private final boolean enabled;
+    private final List<BigDecimal> priceBuckets;
+    private final long fullReloadIntervalMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Long> pendingProductIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingPriceIds = ConcurrentHashMap.newKeySet();
+    // товары, изменённые после последней сборки базы: их строки лежат в накладке
+    private final Set<Long> replacedSinceRebuild = new HashSet<>();
+
+    private volatile CatalogIndex index;
+    private CatalogIndex baseIndex;
+    private Map<Long, CatalogIndexProductRow> rows;
+    private LocalDateTime watermark;
+    private long lastFullReloadAt;
+
+    public CatalogIndexHolder(
+            CatalogIndexNativeRepository repository,
+            @Value("${catalog.index.enabled:true}") boolean enabled,
+            @Value("${catalog.facets.price-buckets:1000,2000,3000,5000,10000}") List<BigDecimal> priceBuckets,
+            @Value("${catalog.index.full-reload-interval-ms:1800000}") long fullReloadIntervalMs
+    ) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.priceBuckets = priceBuckets;
+        this.fullReloadIntervalMs = fullReloadIntervalMs;
+    }
+
+    public Optional<CatalogIndex> current() {
+        return Optional.ofNullable(index);
+    }
+
+    /**
+     * Товары, варианты или медиа изменены либо удалены: строки перечитываются при следующем обновлении
+     */
+    public void productsChanged(Collection<Long> productIds) {
+        if (enabled) {
+            pendingProductIds.addAll(productIds);
+        }
+    }
+
+    /**
+     * Цены изменены: перечитываются товары с этими ценами
+     */
+    public void pricesChanged(Collection<Long> priceIds) {
+        if (enabled) {
+            pendingPriceIds.addAll(priceIds);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("Catalog index disabled, catalog is served from SQL");
+            return;
+        }
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            log.error("Failed to load catalog index, falling back to SQL catalog", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.index.refresh-interval-ms:30000}",
+            initialDelayString = "${catalog.index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (index == null || System.currentTimeMillis() - lastFullReloadAt >= fullReloadIntervalMs) {
+                reloadAll();
+            } else {
+                applyChanges();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog index refresh failed, keeping previous snapshot", e);
+        }
+    }
+
+    public void reloadAll() {
+        lock.lock();
+        try {
+            long startedAt = System.currentTimeMillis();
+            // изменения, пришедшие во время загрузки, остаются в очереди и применяются следующим обновлением
+            pendingProductIds.clear();
+            pendingPriceIds.clear();
+            Map<Long, CatalogIndexProductRow> loaded = repository.findAllRows();
+            rows = loaded;
+            watermark = maxChangedAt(loaded, INITIAL_WATERMARK);
+            rebuild();
+            lastFullReloadAt = startedAt;
+            log.info("Catalog index loaded: {} products in {} ms", loaded.size(), System.currentTimeMillis() - startedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyChanges() {
+        lock.lock();
+        Set<Long> productIds = drain(pendingProductIds);
+        Set<Long> priceIds = drain(pendingPriceIds);
+        try {
+            Map<Long, CatalogIndexProductRow> changed = new HashMap<>(
+                    repository.findRowsChangedAfter(watermark.minus(WATERMARK_OVERLAP)));
+            LocalDateTime changedWatermark = maxChangedAt(changed, watermark);
+            if (!priceIds.isEmpty()) {
+                changed.putAll(repository.findRowsByPriceIds(priceIds));
+            }
+            Set<Long> removed = new HashSet<>();
+            if (!productIds.isEmpty()) {
+                Map<Long, CatalogIndexProductRow> reread = repository.findRowsByProductIds(productIds);
+                changed.putAll(reread);
+                productIds.stream()
+                        .filter(productId -> !reread.containsKey(productId) && rows.containsKey(productId))
+                        .forEach(removed::add);
+            }
+
+            changed.values().removeIf(row -> row.equals(rows.get(row.productId())));
+            watermark = changedWatermark;
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            rows.putAll(changed);
+            rows.keySet().removeAll(removed);
+            replacedSinceRebuild.addAll(changed.keySet());
+            replacedSinceRebuild.addAll(removed);
+            if (replacedSinceRebuild.size() > Math.max(MIN_COMPACTION_THRESHOLD, rows.size() / COMPACTION_DIVISOR)) {
+                rebuild();
+            } else {
+                List<CatalogIndexProductRow> replaced = replacedSinceRebuild.stream()
+                        .map(rows::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+                index = baseIndex.withReplacedProducts(replacedSinceRebuild, replaced);
+            }
+            log.debug("Catalog index updated: {} changed, {} removed products", changed.size(), removed.size());
+        } catch (RuntimeException e) {
+            pendingProductIds.addAll(productIds); // повторим на следующем обновлении
+            pendingPriceIds.addAll(priceIds);
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        baseIndex = new CatalogIndex(rows.values(), priceBuckets);
+        replacedSinceRebuild.clear();
+        index = baseIndex;
+    }
+
+    private Set<Long> drain(Set<Long> pending) {
+        Set<Long> drained = new HashSet<>(pending);
+        pending.removeAll(drained);
+        return drained;
+    }
+
+    private LocalDateTime maxChangedAt(Map<Long, CatalogIndexProductRow> loaded, LocalDateTime current) {
+        return loaded.values().stream()
+                .map(CatalogIndexProductRow::changedAt)
+                .filter(Objects::nonNull)
+                .reduce(current, (a, b) -> a == null || b.isAfter(a) ? b : a);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.melulingerie.query.index;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Строка индекса каталога: товар вместе с размерами и цветами его вариантов.
+ */
+public record CatalogIndexProductRow(
+        Long productId,
+        String name,
+        BigDecimal price,
+        String s3url,
+        String productStatus,
+        Long categoryId,
+        LocalDateTime createdAt,
+        LocalDateTime changedAt,
+        Set<String> sizes,
+        Set<String> colors
+) {
+}
@@ -0,0 +1,16 @@
+package ru.melulingerie.query.index;
+
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+
+import java.util.List;
+
+/**
+ * Результат поиска по индексу: страница, общее количество и (опционально) фасеты.
+ */
+public record CatalogIndexSearchResult(
+        List<ProductCatalogItemResponseDto> items,
+        long total,
+        ProductCatalogFacetCountsResponseDto facets
+) {
+}
@@ -0,0 +1,30 @@
+package ru.melulingerie.query.mapper;
+
+import org.springframework.jdbc.core.RowMapper;
+import ru.melulingerie.query.dto.response.CartDetailsItemResponseDto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+public class CartDetailsItemRowMapper implements RowMapper<CartDetailsItemResponseDto> {
+    @Override
+    public CartDetailsItemResponseDto mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp addedAt = rs.getTimestamp("added_at");
+        return new CartDetailsItemResponseDto(
+                rs.getLong("item_id"),
+                rs.getLong("product_id"),
+                rs.getObject("category_id", Long.class),
+                rs.getLong("variant_id"),
+                rs.getInt("quantity"),
+                addedAt != null ? addedAt.toLocalDateTime() : null,
+                rs.getObject("found_variant_id") != null,
+                rs.getString("product_name"),
+                rs.getString("article_number"),
+                rs.getString("color_name"),
+                rs.getString("size"),
+                rs.getBigDecimal("price"),
+                rs.getString("s3url")
+        );
+    }
+}
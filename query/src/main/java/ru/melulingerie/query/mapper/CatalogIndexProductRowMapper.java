@@ -0,0 +1,32 @@
+package ru.melulingerie.query.mapper;
+
+import org.springframework.jdbc.core.RowMapper;
+import ru.melulingerie.query.index.CatalogIndexProductRow;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+
+public class CatalogIndexProductRowMapper implements RowMapper<CatalogIndexProductRow> {
+    @Override
+    public CatalogIndexProductRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new CatalogIndexProductRow(
+                rs.getLong("product_id"),
+                rs.getString("name"),
+                rs.getBigDecimal("price"),
+                rs.getString("s3url"),
+                rs.getString("product_status"),
+                rs.getObject("category_id", Long.class),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("changed_at")),
+                new HashSet<>(),
+                new HashSet<>()
+        );
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.melulingerie.query.repository;
+
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.melulingerie.query.dto.response.CartDetailsItemResponseDto;
+import ru.melulingerie.query.dto.response.CartDetailsResponseDto;
+import ru.melulingerie.query.mapper.CartDetailsItemRowMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Корзина для отображения одним запросом: позиции, варианты, товары, текущие цены
+ * и основное изображение варианта (минимальный sort_order). Сущности не загружаются.
+ */
+@Repository
+public class CartDetailsNativeRepository {
+
+    private static final String CART_DETAILS_SQL = """
+            select
+              c.id              as cart_id,
+              c.total_amount    as cart_total_amount,
+              ci.id             as item_id,
+              ci.product_id     as product_id,
+              ci.variant_id     as variant_id,
+              ci.quantity       as quantity,
+              ci.added_at       as added_at,
+              pv.id             as found_variant_id,
+              pv.color_name     as color_name,
+              pv.size           as size,
+              p.category_id     as category_id,
+              p.name            as product_name,
+              p.article_number  as article_number,
+              pr.base_amount    as price,
+              (select m.s3url
+                 from product_variant_media pvm
+                 join media m on m.id = pvm.media_id
+                where pvm.product_variant_id = pv.id
+                order by pvm.sort_order, pvm.id
+                fetch first 1 rows only) as s3url
+            from carts c
+            left join cart_items ci on ci.cart_id = c.id
+            left join product_variants pv on pv.id = ci.variant_id
+            left join products p on p.id = pv.product_id
+            left join prices pr on pr.id = pv.price_id
+            where c.id = :cartId
+            order by ci.added_at desc, ci.id desc
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public CartDetailsNativeRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Пусто, если корзины нет; у пустой корзины единственная строка без позиции
+     */
+    public Optional<CartDetailsResponseDto> findCartDetails(Long cartId) {
+        CartDetailsItemRowMapper itemMapper = new CartDetailsItemRowMapper();
+        ResultSetExtractor<CartDetailsResponseDto> extractor = rs -> {
+            Long foundCartId = null;
+            BigDecimal totalAmount = null;
+            List<CartDetailsItemResponseDto> items = new ArrayList<>();
+            int rowNum = 0;
+            while (rs.next()) {
+                foundCartId = rs.getLong("cart_id");
+                totalAmount = rs.getBigDecimal("cart_total_amount");
+                if (rs.getObject("item_id") != null) {
+                    items.add(itemMapper.mapRow(rs, rowNum++));
+                }
+            }
+            return foundCartId == null ? null : new CartDetailsResponseDto(foundCartId, items, totalAmount);
+        };
+        return Optional.ofNullable(jdbc.query(CART_DETAILS_SQL, new MapSqlParameterSource("cartId", cartId), extractor));
+    }
+}
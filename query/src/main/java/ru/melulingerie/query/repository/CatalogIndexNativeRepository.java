@@ -0,0 +1,100 @@
+package ru.melulingerie.query.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.melulingerie.query.index.CatalogIndexProductRow;
+import ru.melulingerie.query.mapper.CatalogIndexProductRowMapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Выборки для построения индекса каталога в памяти: полная загрузка и догрузка изменившихся товаров
+ * по метке изменения, по id товаров и по id цен.
+ */
+@Repository
+public class CatalogIndexNativeRepository {
+
+    private static final String PRODUCTS_SQL = """
+            select
+              p.id           as product_id,
+              p.name         as name,
+              pr.base_amount as price,
+              m.s3url        as s3url,
+              p.status       as product_status,
+              p.category_id  as category_id,
+              p.created_at   as created_at,
+              coalesce(p.updated_at, p.created_at) as changed_at
+            from products p
+            join prices pr on pr.id = p.price_id
+            left join media m on m.id = p.main_media_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public CatalogIndexNativeRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Map<Long, CatalogIndexProductRow> findAllRows() {
+        List<CatalogIndexProductRow> products = jdbc.query(PRODUCTS_SQL, new CatalogIndexProductRowMapper());
+        Map<Long, CatalogIndexProductRow> rows = toMap(products);
+
+        jdbc.query("select product_id, size, color_name from product_variants", rs -> {
+            addVariant(rows, rs.getLong("product_id"), rs.getString("size"), rs.getString("color_name"));
+        });
+        return rows;
+    }
+
+    public Map<Long, CatalogIndexProductRow> findRowsChangedAfter(LocalDateTime since) {
+        return findRows(" where coalesce(p.updated_at, p.created_at) > :since", new MapSqlParameterSource("since", since));
+    }
+
+    /**
+     * Строки товаров по id; удалённых товаров (и товаров без цены) в результате нет
+     */
+    public Map<Long, CatalogIndexProductRow> findRowsByProductIds(Collection<Long> productIds) {
+        return findRows(" where p.id in (:productIds)", new MapSqlParameterSource("productIds", productIds));
+    }
+
+    public Map<Long, CatalogIndexProductRow> findRowsByPriceIds(Collection<Long> priceIds) {
+        return findRows(" where p.price_id in (:priceIds)", new MapSqlParameterSource("priceIds", priceIds));
+    }
+
+    private Map<Long, CatalogIndexProductRow> findRows(String where, MapSqlParameterSource params) {
+        List<CatalogIndexProductRow> products = jdbc.query(PRODUCTS_SQL + where, params, new CatalogIndexProductRowMapper());
+        Map<Long, CatalogIndexProductRow> rows = toMap(products);
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        jdbc.query("select product_id, size, color_name from product_variants where product_id in (:productIds)",
+                new MapSqlParameterSource("productIds", rows.keySet()), rs -> {
+                    addVariant(rows, rs.getLong("product_id"), rs.getString("size"), rs.getString("color_name"));
+                });
+        return rows;
+    }
+
+    private Map<Long, CatalogIndexProductRow> toMap(Collection<CatalogIndexProductRow> products) {
+        Map<Long, CatalogIndexProductRow> rows = new LinkedHashMap<>(products.size() * 2);
+        products.forEach(row -> rows.put(row.productId(), row));
+        return rows;
+    }
+
+    private void addVariant(Map<Long, CatalogIndexProductRow> rows, Long productId, String size, String color) {
+        CatalogIndexProductRow row = rows.get(productId);
+        if (row == null) {
+            return;
+        }
+        if (size != null) {
+            row.sizes().add(size);
+        }
+        if (color != null) {
+            row.colors().add(color);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ru.melulingerie.query.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogPriceBucketCountDto;
+import ru.melulingerie.query.util.CatalogNameSearch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Счётчики фасетов каталога одним запросом: grouping sets по категории, размеру, цвету, статусу
+ * и ценовому диапазону. Каждый фильтр вычисляется как булев флаг товара, а счётчик измерения
+ * агрегируется с FILTER без собственного флага — те же «дизъюнктивные» фасеты, что и в индексе.
+ */
+@Repository
+public class ProductCatalogFacetsNativeRepository {
+
+    private static final List<String> PUBLIC_STATUSES = List.of("AVAILABLE", "NEW", "SOON");
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ProductCatalogFacetsNativeRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public ProductCatalogFacetCountsResponseDto findFacets(ProductCatalogFilterRequestDto req, List<BigDecimal> priceBuckets) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<BigDecimal> bounds = priceBuckets.stream().sorted().toList();
+        params.addValue("bounds", bounds);
+
+        String fName = "true";
+        if (req != null && StringUtils.hasText(req.name())) {
+            fName = CatalogNameSearch.PREDICATE;
+            CatalogNameSearch.bind(params, req.name());
+        }
+        String fCategory = "true";
+        if (req != null && req.categories() != null && !req.categories().isEmpty()) {
+            fCategory = "coalesce(p.category_id in (:categories), false)";
+            params.addValue("categories", req.categories());
+        }
+        List<String> priceConditions = new ArrayList<>();
+        if (req != null && req.minPrice() != null) {
+            priceConditions.add("pr.base_amount >= :minPrice");
+            params.addValue("minPrice", req.minPrice());
+        }
+        if (req != null && req.maxPrice() != null) {
+            priceConditions.add("pr.base_amount <= :maxPrice");
+            params.addValue("maxPrice", req.maxPrice());
+        }
+        String fPrice = priceConditions.isEmpty() ? "true" : String.join(" and ", priceConditions);
+
+        Set<String> visibleStatuses = new LinkedHashSet<>(PUBLIC_STATUSES);
+        String fStatus = "p.status in (:publicStatuses)";
+        if (req != null && req.productStatus() != null) {
+            fStatus = "p.status = :status";
+            params.addValue("status", req.productStatus());
+            visibleStatuses.add(req.productStatus());
+        }
+        params.addValue("publicStatuses", PUBLIC_STATUSES);
+        params.addValue("visibleStatuses", visibleStatuses);
+
+        List<String> sizeConditions = new ArrayList<>();
+        if (req != null && req.sizes() != null && !req.sizes().isEmpty()) {
+            sizeConditions.add("exists (select 1 from product_variants pv1 where pv1.product_id = p.id and pv1.size in (:sizes))");
+            params.addValue("sizes", req.sizes());
+        }
+        if (req != null && req.sizesOfBraWithCups() != null && !req.sizesOfBraWithCups().isEmpty()) {
+            sizeConditions.add("exists (select 1 from product_variants pv2 where pv2.product_id = p.id and pv2.size in (:sizesOfBra))");
+            params.addValue("sizesOfBra", req.sizesOfBraWithCups());
+        }
+        String fSize = sizeConditions.isEmpty() ? "true" : String.join(" and ", sizeConditions);
+
+        String fColor = "true";
+        if (req != null && req.colors() != null && !req.colors().isEmpty()) {
+            fColor = "exists (select 1 from product_variants pv3 where pv3.product_id = p.id and pv3.color_name in (:colors))";
+            params.addValue("colors", req.colors());
+        }
+
+        String sql = """
+                with b as (
+                    select p.id, p.category_id, p.status,
+                           width_bucket(pr.base_amount, array[:bounds]::numeric[]) as price_bucket,
+                           %s as f_name, %s as f_category, %s as f_price,
+                           %s as f_status, %s as f_size, %s as f_color
+                    from products p
+                    join prices pr on pr.id = p.price_id
+                    where p.status in (:visibleStatuses)
+                )
+                select
+                    case when grouping(b.category_id) = 0 then 'category'
+                         when grouping(pv.size) = 0 then 'size'
+                         when grouping(pv.color_name) = 0 then 'color'
+                         when grouping(b.status) = 0 then 'status'
+                         else 'price' end as facet,
+                    coalesce(b.category_id::text, pv.size, pv.color_name, b.status, b.price_bucket::text) as facet_value,
+                    count(distinct b.id) filter (where f_name and f_price and f_status and f_size and f_color) as category_count,
+                    count(distinct b.id) filter (where f_name and f_category and f_price and f_status and f_color) as size_count,
+                    count(distinct b.id) filter (where f_name and f_category and f_price and f_status and f_size) as color_count,
+                    count(distinct b.id) filter (where f_name and f_category and f_price and f_size and f_color
+                                                 and b.status in (:publicStatuses)) as status_count,
+                    count(distinct b.id) filter (where f_name and f_category and f_status and f_size and f_color) as price_count
+                from b
+                left join product_variants pv on pv.product_id = b.id
+                group by grouping sets ((b.category_id), (pv.size), (pv.color_name), (b.status), (b.price_bucket))
+                """.formatted(fName, fCategory, fPrice, fStatus, fSize, fColor); // подставляются только фиксированные фрагменты
+
+        Map<Long, Long> categories = new LinkedHashMap<>();
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        Map<String, Long> colors = new LinkedHashMap<>();
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        long[] bucketCounts = new long[bounds.size() + 1];
+
+        jdbc.query(sql, params, rs -> {
+            String value = rs.getString("facet_value");
+            if (value == null) {
+                return; // товары без категории/вариантов
+            }
+            switch (rs.getString("facet")) {
+                case "category" -> putPositive(categories, Long.valueOf(value), rs.getLong("category_count"));
+                case "size" -> putPositive(sizes, value, rs.getLong("size_count"));
+                case "color" -> putPositive(colors, value, rs.getLong("color_count"));
+                case "status" -> putPositive(statuses, value, rs.getLong("status_count"));
+                default -> bucketCounts[Integer.parseInt(value)] = rs.getLong("price_count");
+            }
+        });
+
+        List<ProductCatalogPriceBucketCountDto> buckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            buckets.add(new ProductCatalogPriceBucketCountDto(
+                    i == 0 ? null : bounds.get(i - 1),
+                    i == bounds.size() ? null : bounds.get(i),
+                    bucketCounts[i]
+            ));
+        }
+        return new ProductCatalogFacetCountsResponseDto(categories, sizes, colors, statuses, buckets);
+    }
+
+    private <K> void putPositive(Map<K, Long> counts, K key, long count) {
+        if (count > 0) {
+            counts.put(key, count);
+        }
+    }
+}
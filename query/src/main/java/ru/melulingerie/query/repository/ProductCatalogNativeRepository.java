@@ -1,7 +1,5 @@
 package ru.melulingerie.query.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -10,45 +8,181 @@ import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
 import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemSliceResponseDto;
+import ru.melulingerie.query.exception.InvalidCatalogCursorException;
 import ru.melulingerie.query.mapper.ProductCatalogRowMapper;
+import ru.melulingerie.query.util.CatalogCursorCodec;
+import ru.melulingerie.query.util.CatalogCursorCodec.CatalogCursor;
+import ru.melulingerie.query.util.CatalogNameSearch;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Repository
 public class ProductCatalogNativeRepository {
 
+    private static final String SELECT_COLUMNS = """
+            select
+              p.id           as product_id,
+              p.name         as name,
+              pr.base_amount as price,
+              m.s3url       as s3url,
+              p.status as product_status
+            """;
+
+    private static final String FROM_CLAUSE = """
+            from products p
+            join prices pr on pr.id = p.price_id
+            left join media m on m.id = p.main_media_id
+            """; // фиксированные идентификаторы таблиц/колонок, не из ввода [3][4][5]
+
+    private static final String COUNT_FROM_CLAUSE = """
+            from products p
+            join prices pr on pr.id = p.price_id
+            """;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    // Белый список сортируемых полей -> SQL-колонки
+    private static final Map<String, String> SORT_WHITELIST = Map.of(
+            "productId", "p.id",
+            "name", "p.name",
+            "price", "pr.base_amount",
+            "createdAt", "p.created_at",
+            CatalogNameSearch.RELEVANCE_SORT, CatalogNameSearch.RANK_EXPRESSION
+    );
+
+    // Типы колонок сортировки для приведения значения из курсора
+    private static final Map<String, String> SORT_TYPES = Map.of(
+            "productId", "bigint",
+            "name", "varchar",
+            "price", "numeric",
+            "createdAt", "timestamp"
+    );
+
     private final NamedParameterJdbcTemplate jdbc;
 
     public ProductCatalogNativeRepository(NamedParameterJdbcTemplate jdbc) {
         this.jdbc = jdbc;
     }
 
-    public Page<ProductCatalogItemResponseDto> findCatalog(
+    public List<ProductCatalogItemResponseDto> findCatalogContent(
             ProductCatalogFilterRequestDto req,
             Pageable pageable
     ) {
 
-        StringBuilder select = new StringBuilder("""
-            select
-              p.id           as product_id,
-              p.name         as name,
-              pr.base_amount as price,
-              m.s3url       as s3url,
-              p.status as product_status
-            from products p
-            join prices pr on pr.id = p.price_id
-            left join media m on m.id = p.main_media_id
-            """); // фиксированные идентификаторы таблиц/колонок, не из ввода [3][4][5]
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhere(req, params);
 
-        StringBuilder where = new StringBuilder(" where 1=1 ");
+        String orderBy = buildOrderBy(pageable, SORT_WHITELIST, CatalogNameSearch.isBound(params)); // защищённая сортировка [12]
+        String paging = " limit :limit offset :offset ";
+        params.addValue("limit", pageable.getPageSize());
+        params.addValue("offset", (long) pageable.getPageNumber() * pageable.getPageSize());
+
+        String dataSql = SELECT_COLUMNS + FROM_CLAUSE + where + orderBy + paging;
+
+        return jdbc.query(dataSql, params, new ProductCatalogRowMapper()); // безопасный RowMapper [23]
+    }
+
+    /**
+     * Точное количество товаров под фильтр. Join с media на количество не влияет и опускается.
+     */
+    public long countCatalog(ProductCatalogFilterRequestDto req) {
         MapSqlParameterSource params = new MapSqlParameterSource();
+        String countSql = "select count(*) " + COUNT_FROM_CLAUSE + buildWhere(req, params);
+
+        Long total = jdbc.queryForObject(countSql, params, Long.class);
+        return total != null ? total : 0L; // защита от null [8]
+    }
+
+    /**
+     * Оценка количества по плану PostgreSQL (Plan Rows верхнего узла) без выполнения запроса.
+     */
+    public long estimateCatalogCount(ProductCatalogFilterRequestDto req) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String explainSql = "explain (format json) select 1 " + COUNT_FROM_CLAUSE + buildWhere(req, params);
+
+        String plan = jdbc.queryForObject(explainSql, params, String.class);
+        Matcher matcher = plan != null ? PLAN_ROWS.matcher(plan) : null;
+        return matcher != null && matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    /**
+     * Keyset-пагинация каталога: вместо offset продолжаем с пары (ключ сортировки, p.id)
+     * последней строки предыдущей порции, count(*) не выполняется.
+     * Учитывается только первое поле сортировки из белого списка, p.id — тай-брейкер.
+     * Строки с NULL-ключом идут последними в любом направлении и продолжаются только по p.id.
+     */
+    public ProductCatalogItemSliceResponseDto findCatalogSlice(
+            ProductCatalogFilterRequestDto req,
+            String cursor,
+            Pageable pageable
+    ) {
+        Sort.Order order = resolveKeysetOrder(pageable);
+        String sortColumn = SORT_WHITELIST.get(order.getProperty());
+        String direction = order.isAscending() ? "asc" : "desc";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder(buildWhere(req, params));
+
+        if (StringUtils.hasText(cursor)) {
+            CatalogCursor decoded = CatalogCursorCodec.decode(cursor);
+            if (!decoded.sortProperty().equals(order.getProperty()) || decoded.direction() != order.getDirection()) {
+                throw new InvalidCatalogCursorException("Catalog cursor does not match requested sort");
+            }
+            String comparison = order.isAscending() ? ">" : "<";
+            if (decoded.lastSortKey() == null) {
+                where.append(" and ").append(sortColumn).append(" is null and p.id ").append(comparison).append(" :cursorId ");
+            } else {
+                // row-value сравнение использует тот же составной порядок, что и order by; NULL-ключи идут следом
+                where.append(" and ((").append(sortColumn).append(", p.id) ").append(comparison)
+                        .append(" (cast(:cursorKey as ").append(SORT_TYPES.get(order.getProperty())).append("), :cursorId)")
+                        .append(" or ").append(sortColumn).append(" is null) ");
+                params.addValue("cursorKey", decoded.lastSortKey());
+            }
+            params.addValue("cursorId", decoded.lastId());
+        }
+
+        int size = pageable.getPageSize();
+        params.addValue("limit", size + 1); // лишняя строка сообщает, есть ли следующая порция
+
+        String dataSql = SELECT_COLUMNS + ", " + sortColumn + "::text as sort_key "
+                + FROM_CLAUSE
+                + where
+                + " order by " + sortColumn + " " + direction + " nulls last, p.id " + direction
+                + " limit :limit ";
+
+        ProductCatalogRowMapper itemMapper = new ProductCatalogRowMapper();
+        List<KeysetRow> rows = jdbc.query(dataSql, params, (rs, rowNum) ->
+                new KeysetRow(itemMapper.mapRow(rs, rowNum), rs.getString("sort_key")));
+
+        boolean hasNext = rows.size() > size;
+        List<KeysetRow> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            KeysetRow last = page.get(page.size() - 1);
+            nextCursor = CatalogCursorCodec.encode(new CatalogCursor(
+                    order.getProperty(), order.getDirection(), last.item().productId(), last.sortKey()));
+        }
+
+        return new ProductCatalogItemSliceResponseDto(
+                page.stream().map(KeysetRow::item).toList(),
+                nextCursor,
+                hasNext
+        );
+    }
+
+    private String buildWhere(ProductCatalogFilterRequestDto req, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" where 1=1 ");
 
         if (req != null && StringUtils.hasText(req.name())) {
-            where.append(" and p.name ilike :name ");
-            params.addValue("name", "%" + req.name().trim() + "%"); // биндинг строки [23]
+            where.append(" and ").append(CatalogNameSearch.PREDICATE).append(" ");
+            CatalogNameSearch.bind(params, req.name());
         }
         if (req != null && req.minPrice() != null) {
             where.append(" and pr.base_amount >= :minPrice ");
@@ -99,40 +233,33 @@ public class ProductCatalogNativeRepository {
                 """);
             params.addValue("colors", req.colors()); // безопасный IN со списком [20]
         }
+        return where.toString();
+    }
 
+    private Sort.Order resolveKeysetOrder(Pageable pageable) {
+        if (pageable != null && pageable.getSort().isSorted()) {
+            for (Sort.Order o : pageable.getSort()) {
+                if (SORT_TYPES.containsKey(o.getProperty())) { // релевантность не годится для курсора
+                    return o;
+                }
+            }
+        }
+        return Sort.Order.desc("createdAt"); // тот же дефолт, что и в buildOrderBy [3]
+    }
 
-        // Белый список сортируемых полей -> SQL-колонки
-        Map<String, String> sortWhitelist = Map.of(
-                "productId", "p.id",
-                "name", "p.name",
-                "price", "pr.base_amount",
-                "createdAt", "p.created_at"
-        );
-
-        String orderBy = buildOrderBy(pageable, sortWhitelist); // защищённая сортировка [12]
-        String paging = " limit :limit offset :offset ";
-        params.addValue("limit", pageable.getPageSize());
-        params.addValue("offset", (long) pageable.getPageNumber() * pageable.getPageSize());
-
-        String base = select.toString() + where;
-        String dataSql = base + orderBy + paging;
-        String countSql = "select count(*) from (" + base + ") t";
-
-        List<ProductCatalogItemResponseDto> content =
-                jdbc.query(dataSql, params, new ProductCatalogRowMapper()); // безопасный RowMapper [23]
-        Long total = jdbc.queryForObject(countSql, params, Long.class);
-        long totalElements = total != null ? total : 0L; // защита от null [8]
-
-        return new PageImpl<>(content, pageable, totalElements); // стандартный Page [8]
+    private record KeysetRow(ProductCatalogItemResponseDto item, String sortKey) {
     }
 
-    private String buildOrderBy(Pageable pageable, Map<String, String> whitelist) {
+    private String buildOrderBy(Pageable pageable, Map<String, String> whitelist, boolean nameSearch) {
         if (pageable == null || pageable.getSort() == null || pageable.getSort().isUnsorted()) {
             return " order by p.created_at desc, p.id desc "; // дефолт, не из ввода [3]
         }
         List<String> parts = new ArrayList<>();
         for (Sort.Order o : pageable.getSort()) {
             String col = whitelist.get(o.getProperty());
+            if (CatalogNameSearch.RELEVANCE_SORT.equals(o.getProperty()) && !nameSearch) {
+                continue; // без поискового запроса ранжировать нечего
+            }
             if (col != null) {
                 parts.add(col + " " + (o.isAscending() ? "asc" : "desc"));
             }
@@ -0,0 +1,76 @@
+package ru.melulingerie.query.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+import ru.melulingerie.query.suggest.ProductSuggestIndex;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Источники префиксного индекса подсказок: товары, категории и коллекции.
+ */
+@Repository
+public class ProductSuggestNativeRepository {
+
+    private static final String PRODUCTS_SQL = """
+            select p.id, p.name, p.article_number, p.status,
+                   coalesce(p.updated_at, p.created_at) as changed_at
+            from products p
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ProductSuggestNativeRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<SuggestProductRow> findAllProducts() {
+        return jdbc.query(PRODUCTS_SQL, (rs, rowNum) -> mapProduct(rs));
+    }
+
+    public List<SuggestProductRow> findProductsChangedAfter(LocalDateTime since) {
+        return jdbc.query(PRODUCTS_SQL + " where coalesce(p.updated_at, p.created_at) > :since",
+                new MapSqlParameterSource("since", since), (rs, rowNum) -> mapProduct(rs));
+    }
+
+    public List<SuggestProductRow> findProductsByIds(Collection<Long> productIds) {
+        return jdbc.query(PRODUCTS_SQL + " where p.id in (:productIds)",
+                new MapSqlParameterSource("productIds", productIds), (rs, rowNum) -> mapProduct(rs));
+    }
+
+    public List<ProductSuggestItemResponseDto> findCategoriesAndCollections() {
+        return jdbc.query("""
+                select 'CATEGORY' as type, c.id, c.name from categories c where coalesce(c.is_active, true)
+                union all
+                select 'COLLECTION' as type, cl.id, cl.name from collections cl
+                """, (rs, rowNum) -> new ProductSuggestItemResponseDto(rs.getString("type"), rs.getLong("id"), rs.getString("name")));
+    }
+
+    private SuggestProductRow mapProduct(ResultSet rs) throws SQLException {
+        Timestamp changedAt = rs.getTimestamp("changed_at");
+        long id = rs.getLong("id");
+        return new SuggestProductRow(
+                id,
+                rs.getString("status"),
+                changedAt != null ? changedAt.toLocalDateTime() : null,
+                new ProductSuggestItemResponseDto(ProductSuggestIndex.PRODUCT, id, rs.getString("name")),
+                new ProductSuggestItemResponseDto(ProductSuggestIndex.ARTICLE, id, rs.getString("article_number"))
+        );
+    }
+
+    public record SuggestProductRow(
+            Long productId,
+            String status,
+            LocalDateTime changedAt,
+            ProductSuggestItemResponseDto name,
+            ProductSuggestItemResponseDto articleNumber
+    ) {
+    }
+}
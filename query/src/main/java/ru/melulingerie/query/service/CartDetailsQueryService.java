@@ -0,0 +1,13 @@
+package ru.melulingerie.query.service;
+
+import ru.melulingerie.query.dto.response.CartDetailsResponseDto;
+
+import java.util.Optional;
+
+public interface CartDetailsQueryService {
+
+    /**
+     * Корзина из БД с данными товаров для отображения; пусто, если корзины нет в БД
+     */
+    Optional<CartDetailsResponseDto> getCartDetails(Long cartId);
+}
@@ -3,8 +3,14 @@ package ru.melulingerie.query.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
 import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemSliceResponseDto;
 
 public interface ProductCatalogQueryService {
     Page<ProductCatalogItemResponseDto> getProductCatalogItems(ProductCatalogFilterRequestDto req, Pageable pageable);
+
+    ProductCatalogItemSliceResponseDto getProductCatalogSlice(ProductCatalogFilterRequestDto req, String cursor, Pageable pageable);
+
+    ProductCatalogFacetCountsResponseDto getProductCatalogFacets(ProductCatalogFilterRequestDto req);
 }
@@ -0,0 +1,9 @@
+package ru.melulingerie.query.service;
+
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+
+import java.util.List;
+
+public interface ProductSuggestQueryService {
+    List<ProductSuggestItemResponseDto> suggest(String query, int limit);
+}
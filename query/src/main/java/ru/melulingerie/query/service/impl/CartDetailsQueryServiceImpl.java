@@ -0,0 +1,21 @@
+package ru.melulingerie.query.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.melulingerie.query.dto.response.CartDetailsResponseDto;
+import ru.melulingerie.query.repository.CartDetailsNativeRepository;
+import ru.melulingerie.query.service.CartDetailsQueryService;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class CartDetailsQueryServiceImpl implements CartDetailsQueryService {
+
+    private final CartDetailsNativeRepository cartDetailsNativeRepository;
+
+    @Override
+    public Optional<CartDetailsResponseDto> getCartDetails(Long cartId) {
+        return cartDetailsNativeRepository.findCartDetails(cartId);
+    }
+}
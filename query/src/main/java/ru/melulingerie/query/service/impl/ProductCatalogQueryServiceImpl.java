@@ -1,22 +1,79 @@
 package ru.melulingerie.query.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import ru.melulingerie.query.cache.CatalogCountCache;
+import ru.melulingerie.query.cache.CatalogFacetsCache;
 import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
 import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemSliceResponseDto;
+import ru.melulingerie.query.index.CatalogIndex;
+import ru.melulingerie.query.index.CatalogIndexHolder;
+import ru.melulingerie.query.index.CatalogIndexSearchResult;
+import ru.melulingerie.query.repository.ProductCatalogFacetsNativeRepository;
 import ru.melulingerie.query.repository.ProductCatalogNativeRepository;
 import ru.melulingerie.query.service.ProductCatalogQueryService;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class ProductCatalogQueryServiceImpl implements ProductCatalogQueryService {
 
     public final ProductCatalogNativeRepository repository;
+    private final CatalogCountCache catalogCountCache;
+    private final CatalogIndexHolder catalogIndexHolder;
+    private final CatalogFacetsCache catalogFacetsCache;
+    private final ProductCatalogFacetsNativeRepository facetsRepository;
+
+    @Value("${catalog.facets.price-buckets:1000,2000,3000,5000,10000}")
+    private List<BigDecimal> priceBuckets;
 
     @Override
     public Page<ProductCatalogItemResponseDto> getProductCatalogItems(ProductCatalogFilterRequestDto req, Pageable pageable) {
-        return repository.findCatalog(req, pageable);
+        Optional<CatalogIndex> index = indexFor(req).filter(i -> CatalogIndex.supportsSort(pageable));
+        if (index.isPresent()) {
+            CatalogIndexSearchResult result = index.get().search(req, pageable, false);
+            return new PageImpl<>(result.items(), pageable, result.total());
+        }
+
+        List<ProductCatalogItemResponseDto> content = repository.findCatalogContent(req, pageable);
+        // неполная первая страница уже знает точное количество, кэш не нужен
+        if (pageable.getPageNumber() == 0 && content.size() < pageable.getPageSize()) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        return new PageImpl<>(content, pageable, catalogCountCache.getCount(req));
+    }
+
+    @Override
+    public ProductCatalogItemSliceResponseDto getProductCatalogSlice(ProductCatalogFilterRequestDto req, String cursor, Pageable pageable) {
+        return repository.findCatalogSlice(req, cursor, pageable);
+    }
+
+    @Override
+    public ProductCatalogFacetCountsResponseDto getProductCatalogFacets(ProductCatalogFilterRequestDto req) {
+        Optional<CatalogIndex> index = indexFor(req);
+        if (index.isPresent()) {
+            return index.get().facets(req); // индекс считает фасеты без БД, кэш не нужен
+        }
+        return catalogFacetsCache.get(req, normalized -> facetsRepository.findFacets(normalized, priceBuckets));
+    }
+
+    /**
+     * Поиск по названию (морфология, ранжирование) обслуживает PostgreSQL, остальные фильтры — индекс в памяти.
+     */
+    private Optional<CatalogIndex> indexFor(ProductCatalogFilterRequestDto req) {
+        if (req != null && StringUtils.hasText(req.name())) {
+            return Optional.empty();
+        }
+        return catalogIndexHolder.current();
     }
 }
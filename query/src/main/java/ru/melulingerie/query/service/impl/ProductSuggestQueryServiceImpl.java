@@ -0,0 +1,28 @@
+package ru.melulingerie.query.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+import ru.melulingerie.query.service.ProductSuggestQueryService;
+import ru.melulingerie.query.suggest.ProductSuggestIndexHolder;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ProductSuggestQueryServiceImpl implements ProductSuggestQueryService {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final ProductSuggestIndexHolder suggestIndexHolder;
+
+    /**
+     * Отвечает только из памяти: пока индекс не загружен, подсказок нет, в БД запрос не уходит.
+     */
+    @Override
+    public List<ProductSuggestItemResponseDto> suggest(String query, int limit) {
+        return suggestIndexHolder.current()
+                .map(index -> index.suggest(query, Math.min(Math.max(limit, 1), MAX_LIMIT)))
+                .orElse(List.of());
+    }
+}
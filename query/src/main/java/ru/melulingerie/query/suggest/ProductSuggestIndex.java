@@ -0,0 +1,167 @@
+package ru.melulingerie.query.suggest;
+
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемый префиксный индекс подсказок: отсортированные массивы ключей, по которым префикс
+ * ищется бинарным поиском. Для названий ключ строится от начала каждого слова, поэтому «push»
+ * находит «Бюстгальтер Push-Up». Артикулы индексируются целиком.
+ * <p>
+ * Ключи разложены по ярусам ранга (совпадение с начала текста, затем тип), поэтому категории и
+ * коллекции не вытесняются товарами на коротких префиксах: ярус просматривается целиком и
+ * ранжируется до усечения, следующий нужен, только если предыдущие не набрали limit.
+ * <p>
+ * Изменённые товары накладываются поверх базы ({@link #withReplacedProducts}): их записи
+ * в базе скрываются, новые ищутся в маленьком отдельном индексе.
+ */
+public final class ProductSuggestIndex {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String ARTICLE = "ARTICLE";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String COLLECTION = "COLLECTION";
+
+    private static final List<String> TYPE_ORDER = List.of(CATEGORY, COLLECTION, PRODUCT, ARTICLE);
+    private static final int TIER_COUNT = TYPE_ORDER.size() * 2;
+
+    private final Tier[] tiers;
+    private final Tier[] overlay;
+    private final Set<Long> replacedProductIds;
+
+    public ProductSuggestIndex(Collection<ProductSuggestItemResponseDto> entries) {
+        this(buildTiers(entries), null, Set.of());
+    }
+
+    private ProductSuggestIndex(Tier[] tiers, Tier[] overlay, Set<Long> replacedProductIds) {
+        this.tiers = tiers;
+        this.overlay = overlay;
+        this.replacedProductIds = replacedProductIds;
+    }
+
+    /**
+     * Снимок с заменёнными товарами: записи productIds из базы не выдаются, вместо них ищутся entries.
+     * Ярусы базы переиспользуются, прежняя накладка заменяется целиком.
+     */
+    public ProductSuggestIndex withReplacedProducts(Set<Long> productIds, Collection<ProductSuggestItemResponseDto> entries) {
+        return new ProductSuggestIndex(tiers, buildTiers(entries), Set.copyOf(productIds));
+    }
+
+    public int size() {
+        int size = 0;
+        for (int tier = 0; tier < TIER_COUNT; tier++) {
+            size += tiers[tier].keys.length + (overlay != null ? overlay[tier].keys.length : 0);
+        }
+        return size;
+    }
+
+    public List<ProductSuggestItemResponseDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Set<ProductSuggestItemResponseDto> result = new LinkedHashSet<>();
+        for (int tier = 0; tier < TIER_COUNT && result.size() < limit; tier++) {
+            // внутри яруса — по длине ключа, у элемента учитывается самый короткий подходящий ключ
+            Map<ProductSuggestItemResponseDto, Integer> candidates = new LinkedHashMap<>();
+            tiers[tier].collect(prefix, result, replacedProductIds, candidates);
+            if (overlay != null) {
+                overlay[tier].collect(prefix, result, Set.of(), candidates);
+            }
+            candidates.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(limit - result.size())
+                    .forEach(candidate -> result.add(candidate.getKey()));
+        }
+        return List.copyOf(result);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim()
+                .toLowerCase(Locale.ROOT)
+                .replace('ё', 'е')
+                .replaceAll("\\s+", " ");
+    }
+
+    private static Tier[] buildTiers(Collection<ProductSuggestItemResponseDto> entries) {
+        List<List<Key>> built = new ArrayList<>(TIER_COUNT);
+        for (int tier = 0; tier < TIER_COUNT; tier++) {
+            built.add(new ArrayList<>());
+        }
+        for (ProductSuggestItemResponseDto entry : entries) {
+            String text = normalize(entry.text());
+            if (text.isEmpty()) {
+                continue;
+            }
+            int typeRank = TYPE_ORDER.indexOf(entry.type());
+            if (typeRank < 0) {
+                typeRank = TYPE_ORDER.size() - 1;
+            }
+            built.get(typeRank).add(new Key(text, entry));
+            if (!ARTICLE.equals(entry.type())) {
+                for (int i = 1; i < text.length(); i++) {
+                    if (!Character.isLetterOrDigit(text.charAt(i - 1)) && Character.isLetterOrDigit(text.charAt(i))) {
+                        built.get(TYPE_ORDER.size() + typeRank).add(new Key(text.substring(i), entry));
+                    }
+                }
+            }
+        }
+
+        Tier[] tiers = new Tier[TIER_COUNT];
+        for (int tier = 0; tier < TIER_COUNT; tier++) {
+            List<Key> keys = built.get(tier);
+            keys.sort(Comparator.comparing(Key::key));
+            tiers[tier] = new Tier(
+                    keys.stream().map(Key::key).toArray(String[]::new),
+                    keys.stream().map(Key::item).toArray(ProductSuggestItemResponseDto[]::new));
+        }
+        return tiers;
+    }
+
+    private static boolean isProduct(ProductSuggestItemResponseDto item) {
+        return PRODUCT.equals(item.type()) || ARTICLE.equals(item.type());
+    }
+
+    private static final class Tier {
+
+        private final String[] keys;
+        private final ProductSuggestItemResponseDto[] items;
+
+        private Tier(String[] keys, ProductSuggestItemResponseDto[] items) {
+            this.keys = keys;
+            this.items = items;
+        }
+
+        private void collect(String prefix, Set<ProductSuggestItemResponseDto> taken, Set<Long> replacedProductIds,
+                             Map<ProductSuggestItemResponseDto, Integer> candidates) {
+            int from = Arrays.binarySearch(keys, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            for (int i = from; i < keys.length && keys[i].startsWith(prefix); i++) {
+                ProductSuggestItemResponseDto item = items[i];
+                if (taken.contains(item) || isProduct(item) && replacedProductIds.contains(item.id())) {
+                    continue;
+                }
+                candidates.merge(item, keys[i].length(), Math::min);
+            }
+        }
+    }
+
+    private record Key(String key, ProductSuggestItemResponseDto item) {
+    }
+}
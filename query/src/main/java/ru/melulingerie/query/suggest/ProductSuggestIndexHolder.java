@@ -0,0 +1,199 @@
+package ru.melulingerie.query.suggest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.melulingerie.query.dto.response.ProductSuggestItemResponseDto;
+import ru.melulingerie.query.repository.ProductSuggestNativeRepository;
+import ru.melulingerie.query.repository.ProductSuggestNativeRepository.SuggestProductRow;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Держит актуальный {@link ProductSuggestIndex}. Товары догружаются по метке изменения и по
+ * событиям об изменении, категории и коллекции перечитываются при полной перезагрузке.
+ * Изменённые товары не пересобирают индекс целиком: они накладываются поверх базы, а база
+ * пересобирается, когда накладка вырастает больше порога.
+ */
+@Slf4j
+@Component
+public class ProductSuggestIndexHolder {
+
+    private static final Set<String> PUBLIC_STATUSES = Set.of("AVAILABLE", "NEW", "SOON");
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // перекрытие окна догрузки: транзакция могла закоммитить более раннюю метку после прошлого опроса
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+    // накладка пересобирается за O(n log n) от своего размера, поэтому при росте её сливают с базой
+    private static final int MIN_COMPACTION_THRESHOLD = 256;
+    private static final int COMPACTION_DIVISOR = 20;
+
+    private final ProductSuggestNativeRepository repository;
+    private final boolean enabled;
+    private final long fullReloadIntervalMs;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Set<Long> pendingProductIds = ConcurrentHashMap.newKeySet();
+    // товары, изменённые после последней сборки базы: их записи лежат в накладке
+    private final Set<Long> replacedSinceRebuild = new HashSet<>();
+
+    private volatile ProductSuggestIndex index;
+    private ProductSuggestIndex baseIndex;
+    private Map<Long, SuggestProductRow> products;
+    private List<ProductSuggestItemResponseDto> categoriesAndCollections;
+    private LocalDateTime watermark;
+    private long lastFullReloadAt;
+
+    public ProductSuggestIndexHolder(
+            ProductSuggestNativeRepository repository,
+            @Value("${catalog.suggest.enabled:true}") boolean enabled,
+            @Value("${catalog.suggest.full-reload-interval-ms:1800000}") long fullReloadIntervalMs
+    ) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.fullReloadIntervalMs = fullReloadIntervalMs;
+    }
+
+    public Optional<ProductSuggestIndex> current() {
+        return Optional.ofNullable(index);
+    }
+
+    /**
+     * Товары изменены или удалены: перечитываются при следующем обновлении
+     */
+    public void productsChanged(Collection<Long> productIds) {
+        if (enabled) {
+            pendingProductIds.addAll(productIds);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            log.error("Failed to load suggest index, suggestions are unavailable until next refresh", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.suggest.refresh-interval-ms:30000}",
+            initialDelayString = "${catalog.suggest.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (index == null || System.currentTimeMillis() - lastFullReloadAt >= fullReloadIntervalMs) {
+                reloadAll();
+            } else {
+                applyChanges();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Suggest index refresh failed, keeping previous snapshot", e);
+        }
+    }
+
+    public void reloadAll() {
+        lock.lock();
+        try {
+            long startedAt = System.currentTimeMillis();
+            pendingProductIds.clear();
+            Map<Long, SuggestProductRow> loaded = new HashMap<>();
+            repository.findAllProducts().forEach(row -> loaded.put(row.productId(), row));
+            products = loaded;
+            categoriesAndCollections = repository.findCategoriesAndCollections();
+            watermark = maxChangedAt(loaded.values(), INITIAL_WATERMARK);
+            rebuild();
+            lastFullReloadAt = startedAt;
+            log.info("Suggest index loaded: {} keys in {} ms", index.size(), System.currentTimeMillis() - startedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyChanges() {
+        lock.lock();
+        Set<Long> productIds = drain(pendingProductIds);
+        try {
+            Map<Long, SuggestProductRow> changed = new HashMap<>();
+            repository.findProductsChangedAfter(watermark.minus(WATERMARK_OVERLAP))
+                    .forEach(row -> changed.put(row.productId(), row));
+            LocalDateTime changedWatermark = maxChangedAt(changed.values(), watermark);
+            Set<Long> removed = new HashSet<>();
+            if (!productIds.isEmpty()) {
+                repository.findProductsByIds(productIds).forEach(row -> changed.put(row.productId(), row));
+                productIds.stream()
+                        .filter(productId -> !changed.containsKey(productId) && products.containsKey(productId))
+                        .forEach(removed::add);
+            }
+
+            changed.values().removeIf(row -> row.equals(products.get(row.productId())));
+            watermark = changedWatermark;
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            products.putAll(changed);
+            products.keySet().removeAll(removed);
+            replacedSinceRebuild.addAll(changed.keySet());
+            replacedSinceRebuild.addAll(removed);
+            if (replacedSinceRebuild.size() > Math.max(MIN_COMPACTION_THRESHOLD, products.size() / COMPACTION_DIVISOR)) {
+                rebuild();
+            } else {
+                List<ProductSuggestItemResponseDto> entries = new ArrayList<>();
+                replacedSinceRebuild.forEach(productId -> addEntries(products.get(productId), entries));
+                index = baseIndex.withReplacedProducts(replacedSinceRebuild, entries);
+            }
+            log.debug("Suggest index updated: {} changed, {} removed products", changed.size(), removed.size());
+        } catch (RuntimeException e) {
+            pendingProductIds.addAll(productIds); // повторим на следующем обновлении
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        List<ProductSuggestItemResponseDto> entries = new ArrayList<>(categoriesAndCollections);
+        products.values().forEach(row -> addEntries(row, entries));
+        baseIndex = new ProductSuggestIndex(entries);
+        replacedSinceRebuild.clear();
+        index = baseIndex;
+    }
+
+    private void addEntries(SuggestProductRow row, List<ProductSuggestItemResponseDto> entries) {
+        if (row != null && PUBLIC_STATUSES.contains(row.status())) {
+            entries.add(row.name());
+            entries.add(row.articleNumber());
+        }
+    }
+
+    private Set<Long> drain(Set<Long> pending) {
+        Set<Long> drained = new HashSet<>(pending);
+        pending.removeAll(drained);
+        return drained;
+    }
+
+    private LocalDateTime maxChangedAt(Collection<SuggestProductRow> rows, LocalDateTime current) {
+        return rows.stream()
+                .map(SuggestProductRow::changedAt)
+                .filter(Objects::nonNull)
+                .reduce(current, (a, b) -> b.isAfter(a) ? b : a);
+    }
+}
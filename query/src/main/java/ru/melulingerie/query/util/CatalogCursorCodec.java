@@ -0,0 +1,59 @@
+package ru.melulingerie.query.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Sort;
+import ru.melulingerie.query.exception.InvalidCatalogCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Кодирование непрозрачного курсора для keyset-пагинации каталога.
+ * Курсор хранит поле сортировки, направление и значения (sortKey, p.id) последней строки.
+ * Ключ записывается с префиксом: NULL-ключ (товар без даты создания) отличается от строки "null".
+ */
+@UtilityClass
+public class CatalogCursorCodec {
+
+    private static final String SEPARATOR = "\n";
+    private static final String VALUE_PREFIX = "=";
+    private static final String NULL_KEY = "-";
+
+    public record CatalogCursor(String sortProperty, Sort.Direction direction, Long lastId, String lastSortKey) {
+    }
+
+    public String encode(CatalogCursor cursor) {
+        String raw = cursor.sortProperty() + SEPARATOR
+                + cursor.direction().name() + SEPARATOR
+                + cursor.lastId() + SEPARATOR
+                + encodeKey(cursor.lastSortKey()); // значение ключа последним: может содержать любые символы
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public CatalogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new InvalidCatalogCursorException("Invalid catalog cursor");
+            }
+            return new CatalogCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), decodeKey(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCatalogCursorException("Invalid catalog cursor", e);
+        }
+    }
+
+    private String encodeKey(String sortKey) {
+        return sortKey == null ? NULL_KEY : VALUE_PREFIX + sortKey;
+    }
+
+    private String decodeKey(String encoded) {
+        if (NULL_KEY.equals(encoded)) {
+            return null;
+        }
+        if (!encoded.startsWith(VALUE_PREFIX)) {
+            throw new InvalidCatalogCursorException("Invalid catalog cursor");
+        }
+        return encoded.substring(VALUE_PREFIX.length());
+    }
+}
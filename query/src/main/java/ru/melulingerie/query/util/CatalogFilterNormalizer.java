@@ -0,0 +1,42 @@
+package ru.melulingerie.query.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.util.StringUtils;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Приводит фильтр каталога к каноничному виду, чтобы эквивалентные запросы давали один ключ кэша.
+ */
+@UtilityClass
+public class CatalogFilterNormalizer {
+
+    public ProductCatalogFilterRequestDto normalize(ProductCatalogFilterRequestDto req) {
+        if (req == null) {
+            return new ProductCatalogFilterRequestDto(null, null, null, null, null, null, null, null);
+        }
+        return new ProductCatalogFilterRequestDto(
+                StringUtils.hasText(req.name()) ? req.name().trim().toLowerCase(Locale.ROOT) : null,
+                normalizeAmount(req.minPrice()),
+                normalizeAmount(req.maxPrice()),
+                normalizeSet(req.categories()),
+                normalizeSet(req.sizes()),
+                normalizeSet(req.sizesOfBraWithCups()),
+                normalizeSet(req.colors()),
+                req.productStatus()
+        );
+    }
+
+    private BigDecimal normalizeAmount(BigDecimal amount) {
+        return amount != null ? amount.stripTrailingZeros() : null;
+    }
+
+    private <T extends Comparable<T>> Set<T> normalizeSet(Collection<T> values) {
+        return values == null || values.isEmpty() ? null : new TreeSet<>(values);
+    }
+}
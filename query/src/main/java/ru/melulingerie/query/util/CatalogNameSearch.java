@@ -0,0 +1,31 @@
+package ru.melulingerie.query.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * SQL-фрагменты поиска товара по названию: полнотекстовое совпадение с русской морфологией
+ * (GIN по to_tsvector) или подстрока (GIN pg_trgm обслуживает ilike '%...%'). Индексы — db/query/catalog-search.sql.
+ */
+@UtilityClass
+public class CatalogNameSearch {
+
+    public static final String RELEVANCE_SORT = "relevance";
+
+    // выражения должны совпадать с индексными, иначе планировщик не возьмёт GIN
+    public static final String PREDICATE =
+            "(to_tsvector('russian', p.name) @@ plainto_tsquery('russian', :nameQuery) or p.name ilike :name)";
+
+    public static final String RANK_EXPRESSION =
+            "(ts_rank(to_tsvector('russian', p.name), plainto_tsquery('russian', :nameQuery)) + similarity(p.name, :nameQuery))";
+
+    public void bind(MapSqlParameterSource params, String name) {
+        String query = name.trim();
+        params.addValue("nameQuery", query);
+        params.addValue("name", "%" + query + "%"); // биндинг строки [23]
+    }
+
+    public boolean isBound(MapSqlParameterSource params) {
+        return params.hasValue("nameQuery");
+    }
+}
@@ -0,0 +1,13 @@
+-- Индексы поиска товаров по названию (см. CatalogNameSearch).
+-- Выполняется spring.sql.init после обновления схемы Hibernate; все операторы идемпотентны.
+-- CREATE EXTENSION требует прав владельца БД, на управляемых инстансах расширение включается заранее.
+
+create extension if not exists pg_trgm;
+
+-- полнотекстовый поиск с русской морфологией: выражение совпадает с предикатом запроса
+create index if not exists idx_products_name_fts
+    on products using gin (to_tsvector('russian', name));
+
+-- подстрока/опечатки: pg_trgm обслуживает ilike '%...%' и similarity()
+create index if not exists idx_products_name_trgm
+    on products using gin (name gin_trgm_ops);
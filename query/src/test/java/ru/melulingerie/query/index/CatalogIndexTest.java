@@ -0,0 +1,145 @@
+package ru.melulingerie.query.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.melulingerie.query.dto.request.ProductCatalogFilterRequestDto;
+import ru.melulingerie.query.dto.response.ProductCatalogFacetCountsResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogPriceBucketCountDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogIndex Unit Tests")
+class CatalogIndexTest {
+
+    private static final List<BigDecimal> BUCKETS = List.of(BigDecimal.valueOf(1000), BigDecimal.valueOf(3000));
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final CatalogIndex index = new CatalogIndex(List.of(
+            row(1L, 500, "AVAILABLE", 10L, Set.of("S", "M"), Set.of("black")),
+            row(2L, 1500, "AVAILABLE", 10L, Set.of("M"), Set.of("red")),
+            row(3L, 2500, "NEW", 20L, Set.of("M", "L"), Set.of("black")),
+            row(4L, 3500, "AVAILABLE", 20L, Set.of("S"), Set.of("black", "red")),
+            row(5L, null, "SOON", 10L, Set.of("M"), Set.of("black")),
+            row(6L, 800, "HIDDEN", 10L, Set.of("M"), Set.of("black"))
+    ), BUCKETS);
+
+    @Test
+    @DisplayName("Should intersect filter bitsets and hide non-public statuses")
+    void shouldIntersectFilters() {
+        // Given
+        ProductCatalogFilterRequestDto req = filter(Set.of(10L), Set.of("M"), Set.of("black"), null, null);
+
+        // When
+        CatalogIndexSearchResult result = index.search(req, PageRequest.of(0, 10, Sort.by("productId")), false);
+
+        // Then
+        assertEquals(List.of(1L, 5L), ids(result.items()));
+        assertEquals(2, result.total());
+        assertNull(result.facets());
+    }
+
+    @Test
+    @DisplayName("Should filter by price range across bucket boundaries")
+    void shouldFilterByPriceRange() {
+        // Given
+        ProductCatalogFilterRequestDto req = filter(null, null, null, BigDecimal.valueOf(1200), BigDecimal.valueOf(3500));
+
+        // When
+        CatalogIndexSearchResult result = index.search(req, PageRequest.of(0, 10, Sort.by("productId")), false);
+
+        // Then
+        assertEquals(List.of(2L, 3L, 4L), ids(result.items()));
+    }
+
+    @Test
+    @DisplayName("Should count facets without the filter of the same dimension")
+    void shouldCountDisjunctiveFacets() {
+        // Given
+        ProductCatalogFilterRequestDto req = filter(Set.of(10L), Set.of("M"), null, null, null);
+
+        // When
+        ProductCatalogFacetCountsResponseDto facets = index.facets(req);
+
+        // Then
+        assertEquals(Map.of(10L, 3L, 20L, 1L), facets.categories());
+        assertEquals(Map.of("S", 1L, "M", 3L), facets.sizes());
+        assertEquals(Map.of("black", 2L, "red", 1L), facets.colors());
+        assertEquals(Map.of("AVAILABLE", 2L, "SOON", 1L), facets.statuses());
+        assertEquals(List.of(2L, 1L, 0L), facets.priceBuckets().stream().map(ProductCatalogPriceBucketCountDto::count).toList());
+    }
+
+    @Test
+    @DisplayName("Should page by offset in sort order with productId tie-breaker")
+    void shouldPageByOffset() {
+        // When
+        CatalogIndexSearchResult first = index.search(null, PageRequest.of(0, 2, Sort.by("price")), true);
+        CatalogIndexSearchResult second = index.search(null, PageRequest.of(1, 2, Sort.by("price")), false);
+        CatalogIndexSearchResult last = index.search(null, PageRequest.of(2, 2, Sort.by("price")), false);
+        CatalogIndexSearchResult descending = index.search(null, PageRequest.of(0, 2, Sort.by(Sort.Order.desc("price"))), false);
+
+        // Then: NULL-цена идёт последней по возрастанию и первой по убыванию, как в PostgreSQL
+        assertEquals(List.of(1L, 2L), ids(first.items()));
+        assertEquals(List.of(3L, 4L), ids(second.items()));
+        assertEquals(List.of(5L), ids(last.items()));
+        assertEquals(List.of(5L, 4L), ids(descending.items()));
+        assertEquals(5, first.total());
+        assertEquals(Map.of("AVAILABLE", 3L, "NEW", 1L, "SOON", 1L), first.facets().statuses());
+    }
+
+    @Test
+    @DisplayName("Should serve replaced and removed products from overlay")
+    void shouldApplyOverlay() {
+        // Given: товар 2 подорожал и стал красным-чёрным, товар 3 удалён
+        CatalogIndex updated = index.withReplacedProducts(Set.of(2L, 3L),
+                List.of(row(2L, 4000, "AVAILABLE", 10L, Set.of("M"), Set.of("red", "black"))));
+
+        // When
+        CatalogIndexSearchResult result = updated.search(null, PageRequest.of(0, 10, Sort.by("price")), true);
+        CatalogIndexSearchResult paged = updated.search(null, PageRequest.of(1, 2, Sort.by("price")), false);
+
+        // Then
+        assertEquals(List.of(1L, 4L, 2L, 5L), ids(result.items()));
+        assertEquals(4, result.total());
+        assertEquals(List.of(2L, 5L), ids(paged.items()));
+        assertEquals(Map.of("black", 4L, "red", 2L), result.facets().colors());
+        assertEquals(Map.of(10L, 3L, 20L, 1L), result.facets().categories());
+        assertEquals(5, updated.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(index.search(null, PageRequest.of(0, 10, Sort.by("productId")), false).items()));
+    }
+
+    @Test
+    @DisplayName("Should leave name sorting to SQL")
+    void shouldNotSortByName() {
+        // When & Then
+        assertFalse(CatalogIndex.supportsSort(PageRequest.of(0, 10, Sort.by("name"))));
+        assertTrue(CatalogIndex.supportsSort(PageRequest.of(0, 10, Sort.by("unknown", "price"))));
+        assertTrue(CatalogIndex.supportsSort(PageRequest.of(0, 10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search(null, PageRequest.of(0, 10, Sort.by("name")), false));
+    }
+
+    private static CatalogIndexProductRow row(Long productId, Integer price, String status, Long categoryId,
+                                              Set<String> sizes, Set<String> colors) {
+        return new CatalogIndexProductRow(productId, "Product " + productId,
+                price != null ? BigDecimal.valueOf(price) : null, null, status, categoryId,
+                NOW.minusDays(productId), NOW, sizes, colors);
+    }
+
+    private static ProductCatalogFilterRequestDto filter(Set<Long> categories, Set<String> sizes, Set<String> colors,
+                                                         BigDecimal minPrice, BigDecimal maxPrice) {
+        return new ProductCatalogFilterRequestDto(null, minPrice, maxPrice, categories, sizes, null, colors, null);
+    }
+
+    private static List<Long> ids(List<ProductCatalogItemResponseDto> items) {
+        return items.stream().map(ProductCatalogItemResponseDto::productId).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.melulingerie.query.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.melulingerie.query.dto.response.ProductCatalogItemResponseDto;
+import ru.melulingerie.query.dto.response.ProductCatalogItemSliceResponseDto;
+import ru.melulingerie.query.exception.InvalidCatalogCursorException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Обход каталога курсором на H2 в режиме PostgreSQL: порядок NULLS LAST и row-value сравнение
+ * совпадают с PostgreSQL для сортировок по дате и цене.
+ */
+@DisplayName("Product catalog keyset pagination Tests")
+class ProductCatalogKeysetTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    private ProductCatalogNativeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:catalog-keyset;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("drop all objects");
+        jdbc.execute("create table prices (id bigint primary key, base_amount numeric(10, 2))");
+        jdbc.execute("create table media (id bigint primary key, s3url varchar(255))");
+        jdbc.execute("create table products (id bigint primary key, name varchar(255), price_id bigint, "
+                + "main_media_id bigint, status varchar(32), category_id bigint, created_at timestamp)");
+        // цены 3 и 4, 5 и 6 совпадают; у товаров 2, 5 и 7 нет даты создания
+        insert(jdbc, 1, 1000, "2025-01-01 10:00:00");
+        insert(jdbc, 2, 2000, null);
+        insert(jdbc, 3, 1500, "2025-01-03 10:00:00");
+        insert(jdbc, 4, 1500, "2025-01-02 10:00:00");
+        insert(jdbc, 5, 3000, null);
+        insert(jdbc, 6, 3000, "2025-01-03 10:00:00");
+        insert(jdbc, 7, 500, null);
+        repository = new ProductCatalogNativeRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    @DisplayName("Should walk ascending through keyed rows and then rows with NULL keys")
+    void shouldWalkAscendingWithNullKeys() {
+        assertEquals(List.of(1L, 4L, 3L, 6L, 2L, 5L, 7L), walk(Sort.Order.asc("createdAt")));
+    }
+
+    @Test
+    @DisplayName("Should walk descending through keyed rows and then rows with NULL keys")
+    void shouldWalkDescendingWithNullKeys() {
+        assertEquals(List.of(6L, 3L, 4L, 1L, 7L, 5L, 2L), walk(Sort.Order.desc("createdAt")));
+    }
+
+    @Test
+    @DisplayName("Should break ties on equal sort keys by product id in both directions")
+    void shouldBreakTiesByProductId() {
+        assertEquals(List.of(7L, 1L, 3L, 4L, 2L, 5L, 6L), walk(Sort.Order.asc("price")));
+        assertEquals(List.of(6L, 5L, 2L, 4L, 3L, 1L, 7L), walk(Sort.Order.desc("price")));
+    }
+
+    @Test
+    @DisplayName("Should reject cursor issued for another sort")
+    void shouldRejectCursorForAnotherSort() {
+        // Given
+        String cursor = repository.findCatalogSlice(null, null, page(Sort.Order.asc("price"))).nextCursor();
+
+        // When & Then
+        assertThrows(InvalidCatalogCursorException.class,
+                () -> repository.findCatalogSlice(null, cursor, page(Sort.Order.desc("price"))));
+    }
+
+    private List<Long> walk(Sort.Order order) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int slices = 0; slices < 10; slices++) {
+            ProductCatalogItemSliceResponseDto slice = repository.findCatalogSlice(null, cursor, page(order));
+            slice.items().stream().map(ProductCatalogItemResponseDto::productId).forEach(ids::add);
+            if (!slice.hasNext()) {
+                return ids;
+            }
+            cursor = slice.nextCursor();
+        }
+        throw new AssertionError("Keyset walk did not terminate: " + ids);
+    }
+
+    private static PageRequest page(Sort.Order order) {
+        return PageRequest.of(0, PAGE_SIZE, Sort.by(order));
+    }
+
+    private static void insert(JdbcTemplate jdbc, long id, int price, String createdAt) {
+        jdbc.update("insert into prices (id, base_amount) values (?, ?)", id, price);
+        jdbc.update("insert into products (id, name, price_id, status, created_at) values (?, ?, ?, 'AVAILABLE', "
+                + "cast(? as timestamp))", id, "Product " + id, id, createdAt);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.melulingerie.query.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import ru.melulingerie.query.exception.InvalidCatalogCursorException;
+import ru.melulingerie.query.util.CatalogCursorCodec.CatalogCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogCursorCodec Unit Tests")
+class CatalogCursorCodecTest {
+
+    @Test
+    @DisplayName("Should round-trip cursor with a plain sort key")
+    void shouldRoundTripPlainKey() {
+        // Given
+        CatalogCursor cursor = new CatalogCursor("price", Sort.Direction.ASC, 42L, "1500.00");
+
+        // When & Then
+        assertEquals(cursor, CatalogCursorCodec.decode(CatalogCursorCodec.encode(cursor)));
+    }
+
+    @Test
+    @DisplayName("Should distinguish NULL sort key from the string \"null\" and from an empty key")
+    void shouldRoundTripNullKey() {
+        // Given
+        CatalogCursor nullKey = new CatalogCursor("createdAt", Sort.Direction.DESC, 7L, null);
+        CatalogCursor nullString = new CatalogCursor("name", Sort.Direction.DESC, 7L, "null");
+        CatalogCursor emptyKey = new CatalogCursor("name", Sort.Direction.DESC, 7L, "");
+
+        // When & Then
+        assertEquals(nullKey, CatalogCursorCodec.decode(CatalogCursorCodec.encode(nullKey)));
+        assertEquals(nullString, CatalogCursorCodec.decode(CatalogCursorCodec.encode(nullString)));
+        assertEquals(emptyKey, CatalogCursorCodec.decode(CatalogCursorCodec.encode(emptyKey)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip sort key containing separators and non-ASCII text")
+    void shouldRoundTripKeyWithNewlines() {
+        // Given
+        CatalogCursor cursor = new CatalogCursor("name", Sort.Direction.ASC, 9L, "Боди\nASC\n-\n=кружево");
+
+        // When
+        String encoded = CatalogCursorCodec.encode(cursor);
+
+        // Then
+        assertFalse(encoded.contains("\n"));
+        assertFalse(encoded.contains("="));
+        assertEquals(cursor, CatalogCursorCodec.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors")
+    void shouldRejectTamperedCursor() {
+        assertInvalid("not base64!");
+        assertInvalid(raw("price\nASC\n42"));
+        assertInvalid(raw("price\nSIDEWAYS\n42\n=1500"));
+        assertInvalid(raw("price\nASC\nforty-two\n=1500"));
+        assertInvalid(raw("price\nASC\n42\n1500"));
+        assertInvalid(raw("price\nASC\n42\nnull"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThrows(InvalidCatalogCursorException.class, () -> CatalogCursorCodec.decode(cursor));
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
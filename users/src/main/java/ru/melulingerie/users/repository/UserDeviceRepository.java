@@ -1,10 +1,22 @@
 package ru.melulingerie.users.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.melulingerie.users.entity.UserDevice;
 
+import java.util.Collection;
+
 @Repository
 public interface UserDeviceRepository extends JpaRepository<UserDevice, Long> {
 
+    /**
+     * Удаление устройств, на которые больше не ссылается ни одна сессия
+     */
+    @Modifying
+    @Query("delete from UserDevice d where d.id in :deviceIds " +
+           "and not exists (select 1 from UserSession s where s.userDevice = d)")
+    int deleteUnusedByIds(@Param("deviceIds") Collection<Long> deviceIds);
 } 
\ No newline at end of file
@@ -1,10 +1,18 @@
 package ru.melulingerie.users.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.melulingerie.users.entity.UserPreferences;
 
+import java.util.Collection;
+
 @Repository
 public interface UserPreferencesRepository extends JpaRepository<UserPreferences, Long> {
 
+    @Modifying
+    @Query("delete from UserPreferences p where p.user.id in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
@@ -1,10 +1,57 @@
 package ru.melulingerie.users.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.melulingerie.users.entity.User;
+import ru.melulingerie.users.entity.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Пользователи с ролью role, все сессии которых истекли до expiredBefore; keyset-страница по id.
+     * Пользователи с учётными данными или подписками не выбираются.
+     */
+    @Query("select u.id from User u " +
+           "where u.role = :role and u.id > :afterId and u.createdAt < :expiredBefore " +
+           "and not exists (select 1 from UserSession s where s.user = u and s.expiresAt >= :expiredBefore) " +
+           "and not exists (select 1 from UserCredentials c where c.user = u) " +
+           "and not exists (select 1 from UserSubscription us where us.user = u) " +
+           "order by u.id")
+    List<Long> findExpiredUserIds(@Param("role") UserRole role,
+                                  @Param("expiredBefore") LocalDateTime expiredBefore,
+                                  @Param("afterId") Long afterId,
+                                  Limit limit);
+
+    /**
+     * Повторная проверка пачки перед удалением с блокировкой строк: после выборки гость мог войти
+     * или продлить сессию. Строки, заблокированные другими транзакциями, пропускаются (skip locked).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select u from User u " +
+           "where u.id in :userIds and u.role = :role and u.createdAt < :expiredBefore " +
+           "and not exists (select 1 from UserSession s where s.user = u and s.expiresAt >= :expiredBefore) " +
+           "and not exists (select 1 from UserCredentials c where c.user = u) " +
+           "and not exists (select 1 from UserSubscription us where us.user = u)")
+    List<User> lockExpiredUsers(@Param("userIds") Collection<Long> userIds,
+                                @Param("role") UserRole role,
+                                @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying
+    @Query("delete from User u where u.id in :userIds")
+    int deleteByIds(@Param("userIds") Collection<Long> userIds);
+
 } 
\ No newline at end of file
@@ -1,9 +1,14 @@
 package ru.melulingerie.users.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.melulingerie.users.entity.UserSession;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +16,11 @@ import java.util.UUID;
 public interface UserSessionRepository extends JpaRepository<UserSession, Long> {
 
     Optional<UserSession> findBySessionId(UUID sessionId);
+
+    @Query("select distinct s.userDevice.id from UserSession s where s.user.id in :userIds and s.userDevice is not null")
+    List<Long> findDeviceIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("delete from UserSession s where s.user.id in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
@@ -0,0 +1,76 @@
+package ru.melulingerie.users.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.users.entity.User;
+import ru.melulingerie.users.entity.UserRole;
+import ru.melulingerie.users.repository.UserDeviceRepository;
+import ru.melulingerie.users.repository.UserPreferencesRepository;
+import ru.melulingerie.users.repository.UserRepository;
+import ru.melulingerie.users.repository.UserSessionRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Удаление гостевых пользователей с истёкшими сессиями вместе с сессиями, устройствами и настройками
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCleanupService {
+
+    private final UserRepository userRepository;
+    private final UserDeviceRepository userDeviceRepository;
+    private final UserSessionRepository userSessionRepository;
+    private final UserPreferencesRepository userPreferencesRepository;
+
+    /**
+     * Следующая пачка гостей, все сессии которых истекли до expiredBefore, с id больше afterId
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredGuestUserIds(LocalDateTime expiredBefore, Long afterId, int limit) {
+        return userRepository.findExpiredUserIds(UserRole.GUEST, expiredBefore, afterId, Limit.of(limit));
+    }
+
+    /**
+     * Гости из пачки, всё ещё истёкшие к моменту удаления, с блокировкой до конца транзакции.
+     * Вызывается в транзакции удаления пачки.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Long> lockExpiredGuestUserIds(Collection<Long> userIds, LocalDateTime expiredBefore) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.lockExpiredUsers(userIds, UserRole.GUEST, expiredBefore).stream()
+                .map(User::getId)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Количество удалённых строк по таблицам
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Map<String, Integer> deleteGuestUsers(Collection<Long> userIds) {
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        if (userIds.isEmpty()) {
+            return deleted;
+        }
+        List<Long> deviceIds = userSessionRepository.findDeviceIdsByUserIds(userIds);
+
+        deleted.put("user_session", userSessionRepository.deleteByUserIds(userIds));
+        deleted.put("user_devices", deviceIds.isEmpty() ? 0 : userDeviceRepository.deleteUnusedByIds(deviceIds));
+        deleted.put("user_preferences", userPreferencesRepository.deleteByUserIds(userIds));
+        deleted.put("users", userRepository.deleteByIds(userIds));
+
+        log.debug("Deleted guest users: {}", deleted);
+        return deleted;
+    }
+}
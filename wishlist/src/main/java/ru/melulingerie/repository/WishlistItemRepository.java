@@ -1,13 +1,16 @@
 package ru.melulingerie.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.melulingerie.domain.Wishlist;
 import ru.melulingerie.domain.WishlistItem;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +32,25 @@ public interface WishlistItemRepository extends JpaRepository<WishlistItem, Long
     @Query("delete from WishlistItem wi where wi.wishlist.id = :wishlistId")
     int deleteAllByWishlistId(@Param("wishlistId") Long wishlistId);
 
+    @Modifying
+    @Query("delete from WishlistItem wi where wi.wishlist.id in " +
+            "(select w.id from Wishlist w where w.userId in :userIds)")
+    int deleteAllByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Элементы исходного wishlist, товаров которых нет в целевом, — новые сначала
+     */
+    @Query("select s.id from WishlistItem s where s.wishlist.id = :sourceWishlistId and not exists (" +
+            "select 1 from WishlistItem t where t.wishlist.id = :targetWishlistId and t.productId = s.productId) " +
+            "order by s.addedAt desc")
+    List<Long> findIdsMissingInWishlist(@Param("sourceWishlistId") Long sourceWishlistId,
+                                        @Param("targetWishlistId") Long targetWishlistId,
+                                        Limit limit);
+
+    @Modifying
+    @Query("update WishlistItem wi set wi.wishlist = :wishlist where wi.id in :itemIds")
+    int moveToWishlist(@Param("itemIds") Collection<Long> itemIds, @Param("wishlist") Wishlist wishlist);
+
     @Query("select count(wi) from WishlistItem wi where wi.wishlist.id = :wishlistId")
     int countByWishlistId(@Param("wishlistId") Long wishlistId);
 }
@@ -1,10 +1,12 @@
 package ru.melulingerie.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.melulingerie.domain.Wishlist;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
@@ -24,6 +26,13 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
            "where w.id = :wishlistId and wi.id = :itemId")
     Optional<Wishlist> findByIdWithSpecificItem(@Param("wishlistId") Long wishlistId, @Param("itemId") Long itemId);
 
+    @Modifying
+    @Query("delete from Wishlist w where w.id = :wishlistId")
+    int deleteByWishlistId(@Param("wishlistId") Long wishlistId);
+
+    @Modifying
+    @Query("delete from Wishlist w where w.userId in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 }
 
 
@@ -0,0 +1,19 @@
+package ru.melulingerie.service;
+
+import java.util.Collection;
+
+/**
+ * Доменный сервис для удаления wishlist удаляемых пользователей
+ */
+public interface WishlistCleanupService {
+
+    /**
+     * Удаляет wishlist пользователей вместе с элементами
+     * @param userIds идентификаторы пользователей
+     * @return количество удаленных строк по таблицам
+     */
+    WishlistCleanupResult deleteWishlistsByUserIds(Collection<Long> userIds);
+
+    record WishlistCleanupResult(int wishlists, int wishlistItems) {
+    }
+}
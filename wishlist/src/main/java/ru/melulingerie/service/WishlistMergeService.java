@@ -0,0 +1,25 @@
+package ru.melulingerie.service;
+
+import java.util.Optional;
+
+/**
+ * Доменный сервис слияния гостевого wishlist с wishlist пользователя при входе
+ */
+public interface WishlistMergeService {
+
+    /**
+     * Переносит товары гостевого wishlist без дублей по товару и удаляет гостевой wishlist
+     * @param guestUserId идентификатор гостя
+     * @param userId идентификатор пользователя
+     * @return результат слияния; пусто, если у гостя нет wishlist
+     */
+    Optional<WishlistMergeResult> mergeWishlists(Long guestUserId, Long userId);
+
+    /**
+     * @param wishlistId wishlist пользователя после слияния
+     * @param movedItems перенесённые элементы
+     * @param skippedItems дубли и элементы сверх лимита wishlist.max-items
+     */
+    record WishlistMergeResult(Long wishlistId, int movedItems, int skippedItems) {
+    }
+}
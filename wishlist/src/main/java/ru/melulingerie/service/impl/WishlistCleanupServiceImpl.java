@@ -0,0 +1,36 @@
+package ru.melulingerie.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.repository.WishlistItemRepository;
+import ru.melulingerie.repository.WishlistRepository;
+import ru.melulingerie.service.WishlistCleanupService;
+
+import java.util.Collection;
+
+/**
+ * Доменный сервис для удаления wishlist удаляемых пользователей
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WishlistCleanupServiceImpl implements WishlistCleanupService {
+
+    private final WishlistRepository wishlistRepository;
+    private final WishlistItemRepository wishlistItemRepository;
+
+    @Override
+    @Transactional
+    public WishlistCleanupResult deleteWishlistsByUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return new WishlistCleanupResult(0, 0);
+        }
+        int wishlistItems = wishlistItemRepository.deleteAllByUserIds(userIds);
+        int wishlists = wishlistRepository.deleteByUserIds(userIds);
+
+        log.debug("Deleted {} wishlists and {} wishlist items for {} users", wishlists, wishlistItems, userIds.size());
+        return new WishlistCleanupResult(wishlists, wishlistItems);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.melulingerie.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.melulingerie.domain.Wishlist;
+import ru.melulingerie.repository.WishlistItemRepository;
+import ru.melulingerie.repository.WishlistRepository;
+import ru.melulingerie.service.WishlistMergeService;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Слияние wishlist фиксированным числом операторов: перенос элементов, товаров которых ещё нет
+ * у пользователя, в пределах wishlist.max-items и удаление гостевого wishlist с остатком элементов
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WishlistMergeServiceImpl implements WishlistMergeService {
+
+    @Value("${wishlist.max-items:200}")
+    private int maxWishlistItems;
+
+    private final WishlistRepository wishlistRepository;
+    private final WishlistItemRepository wishlistItemRepository;
+
+    @Override
+    @Transactional
+    public Optional<WishlistMergeResult> mergeWishlists(Long guestUserId, Long userId) {
+        Optional<Wishlist> guestWishlist = wishlistRepository.findByUserId(guestUserId);
+        if (guestWishlist.isEmpty()) {
+            return Optional.empty();
+        }
+        Wishlist source = guestWishlist.get();
+
+        Optional<Wishlist> userWishlist = wishlistRepository.findByUserId(userId);
+        if (userWishlist.isEmpty()) {
+            source.setUserId(userId);
+            log.info("Guest wishlist {} reassigned from user {} to user {}", source.getId(), guestUserId, userId);
+            return Optional.of(new WishlistMergeResult(source.getId(),
+                    wishlistItemRepository.countByWishlistId(source.getId()), 0));
+        }
+        Wishlist target = userWishlist.get();
+
+        int capacity = Math.max(maxWishlistItems - wishlistItemRepository.countByWishlistId(target.getId()), 0);
+        List<Long> missingIds = capacity == 0
+                ? List.of()
+                : wishlistItemRepository.findIdsMissingInWishlist(source.getId(), target.getId(), Limit.of(capacity));
+        int moved = missingIds.isEmpty() ? 0 : wishlistItemRepository.moveToWishlist(missingIds, target);
+
+        int skipped = wishlistItemRepository.deleteAllByWishlistId(source.getId());
+        wishlistRepository.deleteByWishlistId(source.getId());
+
+        log.info("Merged guest wishlist {} into wishlist {}: moved={}, skipped={}",
+                source.getId(), target.getId(), moved, skipped);
+        return Optional.of(new WishlistMergeResult(target.getId(), moved, skipped));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.melulingerie.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.melulingerie.domain.Wishlist;
+import ru.melulingerie.repository.WishlistItemRepository;
+import ru.melulingerie.repository.WishlistRepository;
+import ru.melulingerie.service.WishlistMergeService.WishlistMergeResult;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WishlistMergeServiceImpl Tests")
+class WishlistMergeServiceTest {
+
+    @Mock
+    private WishlistRepository wishlistRepository;
+
+    @Mock
+    private WishlistItemRepository wishlistItemRepository;
+
+    @InjectMocks
+    private WishlistMergeServiceImpl wishlistMergeService;
+
+    private static final Long GUEST_ID = 1L;
+    private static final Long USER_ID = 2L;
+    private static final Long GUEST_WISHLIST_ID = 10L;
+    private static final Long USER_WISHLIST_ID = 20L;
+
+    private Wishlist guestWishlist;
+    private Wishlist userWishlist;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(wishlistMergeService, "maxWishlistItems", 5);
+        guestWishlist = wishlist(GUEST_WISHLIST_ID, GUEST_ID);
+        userWishlist = wishlist(USER_WISHLIST_ID, USER_ID);
+    }
+
+    @Test
+    @DisplayName("Должен перенести недостающие товары в пределах лимита и удалить гостевой wishlist")
+    void shouldMoveMissingItemsWithinLimit() {
+        // Given
+        when(wishlistRepository.findByUserId(GUEST_ID)).thenReturn(Optional.of(guestWishlist));
+        when(wishlistRepository.findByUserId(USER_ID)).thenReturn(Optional.of(userWishlist));
+        when(wishlistItemRepository.countByWishlistId(USER_WISHLIST_ID)).thenReturn(3);
+        when(wishlistItemRepository.findIdsMissingInWishlist(GUEST_WISHLIST_ID, USER_WISHLIST_ID, Limit.of(2)))
+                .thenReturn(List.of(101L, 102L));
+        when(wishlistItemRepository.moveToWishlist(List.of(101L, 102L), userWishlist)).thenReturn(2);
+        when(wishlistItemRepository.deleteAllByWishlistId(GUEST_WISHLIST_ID)).thenReturn(3);
+
+        // When
+        WishlistMergeResult result = wishlistMergeService.mergeWishlists(GUEST_ID, USER_ID).orElseThrow();
+
+        // Then
+        assertThat(result).isEqualTo(new WishlistMergeResult(USER_WISHLIST_ID, 2, 3));
+        verify(wishlistRepository).deleteByWishlistId(GUEST_WISHLIST_ID);
+    }
+
+    @Test
+    @DisplayName("Должен пропустить все товары гостя, если wishlist пользователя заполнен")
+    void shouldSkipAllItemsWhenUserWishlistIsFull() {
+        // Given
+        when(wishlistRepository.findByUserId(GUEST_ID)).thenReturn(Optional.of(guestWishlist));
+        when(wishlistRepository.findByUserId(USER_ID)).thenReturn(Optional.of(userWishlist));
+        when(wishlistItemRepository.countByWishlistId(USER_WISHLIST_ID)).thenReturn(5);
+        when(wishlistItemRepository.deleteAllByWishlistId(GUEST_WISHLIST_ID)).thenReturn(4);
+
+        // When
+        WishlistMergeResult result = wishlistMergeService.mergeWishlists(GUEST_ID, USER_ID).orElseThrow();
+
+        // Then
+        assertThat(result).isEqualTo(new WishlistMergeResult(USER_WISHLIST_ID, 0, 4));
+        verify(wishlistItemRepository, never()).findIdsMissingInWishlist(anyLong(), anyLong(), any());
+        verify(wishlistItemRepository, never()).moveToWishlist(any(), any());
+        verify(wishlistRepository).deleteByWishlistId(GUEST_WISHLIST_ID);
+    }
+
+    @Test
+    @DisplayName("Должен передать гостевой wishlist пользователю без wishlist")
+    void shouldReassignGuestWishlistWhenUserHasNone() {
+        // Given
+        when(wishlistRepository.findByUserId(GUEST_ID)).thenReturn(Optional.of(guestWishlist));
+        when(wishlistRepository.findByUserId(USER_ID)).thenReturn(Optional.empty());
+        when(wishlistItemRepository.countByWishlistId(GUEST_WISHLIST_ID)).thenReturn(4);
+
+        // When
+        WishlistMergeResult result = wishlistMergeService.mergeWishlists(GUEST_ID, USER_ID).orElseThrow();
+
+        // Then
+        assertThat(result).isEqualTo(new WishlistMergeResult(GUEST_WISHLIST_ID, 4, 0));
+        assertThat(guestWishlist.getUserId()).isEqualTo(USER_ID);
+        verify(wishlistItemRepository, never()).deleteAllByWishlistId(anyLong());
+        verify(wishlistRepository, never()).deleteByWishlistId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Должен вернуть пустой результат, если у гостя нет wishlist")
+    void shouldReturnEmptyWhenGuestHasNoWishlist() {
+        // Given
+        when(wishlistRepository.findByUserId(GUEST_ID)).thenReturn(Optional.empty());
+
+        // When
+        Optional<WishlistMergeResult> result = wishlistMergeService.mergeWishlists(GUEST_ID, USER_ID);
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(wishlistItemRepository);
+        verify(wishlistRepository, never()).findByUserId(USER_ID);
+    }
+
+    private Wishlist wishlist(Long id, Long userId) {
+        Wishlist wishlist = new Wishlist();
+        wishlist.setId(id);
+        wishlist.setUserId(userId);
+        return wishlist;
+    }
+}